@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Instances of this class index the bounds of the items drawn on a
+ * <code>Canvas</code>, so that a paint listener can find the items that
+ * intersect the damaged area without visiting every item.
+ * <p>
+ * The items are kept in a grid of square cells. Finding the items in
+ * an area only visits the cells that the area covers, so the cost of
+ * a query is proportional to the size of the area rather than to the
+ * number of items. Items are returned in the order in which they were
+ * added, which is the order in which they should be painted.
+ * </p>
+ * <p>
+ * A typical use is to combine the index with the <code>SWT.NO_MERGE_PAINTS</code>
+ * style, which sends a paint event for each damaged rectangle:
+ * </p>
+ * <pre><code>
+ * canvas.addListener(SWT.Paint, event -&gt; {
+ *     for (Shape shape : index.getItems(event.x, event.y, event.width, event.height)) {
+ *         shape.paint(event.gc);
+ *     }
+ * });
+ * </code></pre>
+ *
+ * @param <T> the type of the indexed items
+ *
+ * @see SWT#NO_MERGE_PAINTS
+ * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
+ *
+ * @since 3.109
+ */
+public class SpatialIndex<T> {
+
+	static final int DEFAULT_CELL_SIZE = 64;
+
+	/* Items covering more cells are kept out of the grid */
+	static final int MAX_ITEM_CELLS = 64;
+
+	final int cellSize;
+	final Map<T, Entry<T>> entries = new HashMap<>();
+	final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+	final List<Entry<T>> largeEntries = new ArrayList<>();
+	long nextOrder;
+	int queryStamp;
+
+	static final class Entry<T> {
+		final T item;
+		final long order;
+		int x, y, width, height;
+		int stamp;
+		boolean large;
+
+		Entry(T item, long order) {
+			this.item = item;
+			this.order = order;
+		}
+
+		boolean intersects(int x, int y, int width, int height) {
+			if (this.width <= 0 || this.height <= 0) return false;
+			return x < this.x + this.width && y < this.y + this.height && x + width > this.x && y + height > this.y;
+		}
+	}
+
+/**
+ * Constructs a new, empty index with a default cell size.
+ */
+public SpatialIndex() {
+	this(DEFAULT_CELL_SIZE);
+}
+
+/**
+ * Constructs a new, empty index whose grid is made of cells of the
+ * given size. The cell size should be close to the typical size of
+ * the indexed items.
+ *
+ * @param cellSize the width and height of the cells, in points
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the cell size is negative or zero</li>
+ * </ul>
+ */
+public SpatialIndex(int cellSize) {
+	if (cellSize <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	this.cellSize = cellSize;
+}
+
+/**
+ * Adds the item with the given bounds to the index. If the item is
+ * already in the index, its bounds are updated and it keeps its
+ * position in the painting order.
+ *
+ * @param item the item to add
+ * @param bounds the bounds of the item
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the item or the bounds are null</li>
+ * </ul>
+ */
+public void add(T item, Rectangle bounds) {
+	if (item == null || bounds == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	Entry<T> entry = entries.get(item);
+	if (entry == null) {
+		entry = new Entry<>(item, nextOrder++);
+		entries.put(item, entry);
+	} else {
+		removeFromCells(entry);
+	}
+	entry.x = bounds.x;
+	entry.y = bounds.y;
+	entry.width = bounds.width;
+	entry.height = bounds.height;
+	addToCells(entry);
+}
+
+void addToCells(Entry<T> entry) {
+	int left = cell(entry.x), top = cell(entry.y);
+	int right = cell(entry.x + Math.max(entry.width, 1) - 1), bottom = cell(entry.y + Math.max(entry.height, 1) - 1);
+	entry.large = (long)(right - left + 1) * (bottom - top + 1) > MAX_ITEM_CELLS;
+	if (entry.large) {
+		largeEntries.add(entry);
+		return;
+	}
+	for (int row = top; row <= bottom; row++) {
+		for (int column = left; column <= right; column++) {
+			cells.computeIfAbsent(key(column, row), k -> new ArrayList<>()).add(entry);
+		}
+	}
+}
+
+int cell(int coordinate) {
+	return Math.floorDiv(coordinate, cellSize);
+}
+
+/**
+ * Removes all of the items from the index.
+ */
+public void clear() {
+	entries.clear();
+	cells.clear();
+	largeEntries.clear();
+}
+
+/**
+ * Returns the bounds of the item, or <code>null</code> if the item
+ * is not in the index.
+ *
+ * @param item the item
+ * @return the bounds of the item, or <code>null</code>
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the item is null</li>
+ * </ul>
+ */
+public Rectangle getBounds(T item) {
+	if (item == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	Entry<T> entry = entries.get(item);
+	if (entry == null) return null;
+	return new Rectangle(entry.x, entry.y, entry.width, entry.height);
+}
+
+/**
+ * Returns the topmost item whose bounds contain the given point, or
+ * <code>null</code> if there is none. The topmost item is the one
+ * painted last.
+ *
+ * @param x the x coordinate of the point
+ * @param y the y coordinate of the point
+ * @return the topmost item at the point, or <code>null</code>
+ */
+public T getItem(int x, int y) {
+	List<T> items = getItems(x, y, 1, 1);
+	return items.isEmpty() ? null : items.get(items.size() - 1);
+}
+
+/**
+ * Returns the items whose bounds intersect the given rectangle, in
+ * the order in which they were added. Items with empty bounds are
+ * never returned.
+ *
+ * @param rect the rectangle
+ * @return the items intersecting the rectangle
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle is null</li>
+ * </ul>
+ */
+public List<T> getItems(Rectangle rect) {
+	if (rect == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	return getItems(rect.x, rect.y, rect.width, rect.height);
+}
+
+/**
+ * Returns the items whose bounds intersect the rectangle specified
+ * by the arguments, in the order in which they were added. Items
+ * with empty bounds are never returned.
+ *
+ * @param x the x coordinate of the rectangle
+ * @param y the y coordinate of the rectangle
+ * @param width the width of the rectangle
+ * @param height the height of the rectangle
+ * @return the items intersecting the rectangle
+ */
+public List<T> getItems(int x, int y, int width, int height) {
+	if (width <= 0 || height <= 0) return new ArrayList<>();
+	List<Entry<T>> found = new ArrayList<>();
+	int left = cell(x), top = cell(y), right = cell(x + width - 1), bottom = cell(y + height - 1);
+	if ((long)(right - left + 1) * (bottom - top + 1) > cells.size()) {
+		/* The area covers more cells than are occupied */
+		for (Entry<T> entry : entries.values()) {
+			if (entry.intersects(x, y, width, height)) found.add(entry);
+		}
+	} else {
+		int stamp = ++queryStamp;
+		for (int row = top; row <= bottom; row++) {
+			for (int column = left; column <= right; column++) {
+				List<Entry<T>> cell = cells.get(key(column, row));
+				if (cell == null) continue;
+				for (Entry<T> entry : cell) {
+					if (entry.stamp == stamp) continue;
+					entry.stamp = stamp;
+					if (entry.intersects(x, y, width, height)) found.add(entry);
+				}
+			}
+		}
+		for (Entry<T> entry : largeEntries) {
+			if (entry.intersects(x, y, width, height)) found.add(entry);
+		}
+	}
+	found.sort((entry1, entry2) -> Long.compare(entry1.order, entry2.order));
+	List<T> items = new ArrayList<>(found.size());
+	for (Entry<T> entry : found) items.add(entry.item);
+	return items;
+}
+
+static long key(int column, int row) {
+	return ((long)column << 32) | (row & 0xFFFFFFFFL);
+}
+
+/**
+ * Removes the item from the index.
+ *
+ * @param item the item to remove
+ * @return <code>true</code> if the item was in the index, and <code>false</code> otherwise
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the item is null</li>
+ * </ul>
+ */
+public boolean remove(T item) {
+	if (item == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	Entry<T> entry = entries.remove(item);
+	if (entry == null) return false;
+	removeFromCells(entry);
+	return true;
+}
+
+void removeFromCells(Entry<T> entry) {
+	if (entry.large) {
+		largeEntries.remove(entry);
+		return;
+	}
+	int left = cell(entry.x), top = cell(entry.y);
+	int right = cell(entry.x + Math.max(entry.width, 1) - 1), bottom = cell(entry.y + Math.max(entry.height, 1) - 1);
+	for (int row = top; row <= bottom; row++) {
+		for (int column = left; column <= right; column++) {
+			Long key = key(column, row);
+			List<Entry<T>> cell = cells.get(key);
+			if (cell == null) continue;
+			cell.remove(entry);
+			if (cell.isEmpty()) cells.remove(key);
+		}
+	}
+}
+
+/**
+ * Returns the number of items in the index.
+ *
+ * @return the number of items
+ */
+public int size() {
+	return entries.size();
+}
+}
@@ -92,6 +92,18 @@ JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1close_1path)
 }
 #endif
 
+#ifndef NO__1cairo_1copy_1clip_1rectangle_1list
+JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1copy_1clip_1rectangle_1list)
+	(JNIEnv *env, jclass that, jintLong arg0)
+{
+	jintLong rc = 0;
+	Cairo_NATIVE_ENTER(env, that, _1cairo_1copy_1clip_1rectangle_1list_FUNC);
+	rc = (jintLong)cairo_copy_clip_rectangle_list((cairo_t *)arg0);
+	Cairo_NATIVE_EXIT(env, that, _1cairo_1copy_1clip_1rectangle_1list_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO__1cairo_1copy_1page
 JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1copy_1page)
 	(JNIEnv *env, jclass that, jintLong arg0)
@@ -349,6 +361,18 @@ JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1image_1surface_1create)
 }
 #endif
 
+#ifndef NO__1cairo_1image_1surface_1create_1for_1data
+JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1image_1surface_1create_1for_1data)
+	(JNIEnv *env, jclass that, jintLong arg0, jint arg1, jint arg2, jint arg3, jint arg4)
+{
+	jintLong rc = 0;
+	Cairo_NATIVE_ENTER(env, that, _1cairo_1image_1surface_1create_1for_1data_FUNC);
+	rc = (jintLong)cairo_image_surface_create_for_data((unsigned char *)arg0, arg1, arg2, arg3, arg4);
+	Cairo_NATIVE_EXIT(env, that, _1cairo_1image_1surface_1create_1for_1data_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO__1cairo_1image_1surface_1get_1data
 JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1image_1surface_1get_1data)
 	(JNIEnv *env, jclass that, jintLong arg0)
@@ -833,6 +857,22 @@ JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1push_1group)
 }
 #endif
 
+#ifndef NO__1cairo_1recording_1surface_1create
+JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1recording_1surface_1create)
+	(JNIEnv *env, jclass that, jint arg0, jdoubleArray arg1)
+{
+	jdouble *lparg1=NULL;
+	jintLong rc = 0;
+	Cairo_NATIVE_ENTER(env, that, _1cairo_1recording_1surface_1create_FUNC);
+	if (arg1) if ((lparg1 = (*env)->GetDoubleArrayElements(env, arg1, NULL)) == NULL) goto fail;
+	rc = (jintLong)cairo_recording_surface_create(arg0, (const cairo_rectangle_t *)lparg1);
+fail:
+	if (arg1 && lparg1) (*env)->ReleaseDoubleArrayElements(env, arg1, lparg1, JNI_ABORT);
+	Cairo_NATIVE_EXIT(env, that, _1cairo_1recording_1surface_1create_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO__1cairo_1rectangle
 JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1rectangle)
 	(JNIEnv *env, jclass that, jintLong arg0, jdouble arg1, jdouble arg2, jdouble arg3, jdouble arg4)
@@ -843,6 +883,16 @@ JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1rectangle)
 }
 #endif
 
+#ifndef NO__1cairo_1rectangle_1list_1destroy
+JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1rectangle_1list_1destroy)
+	(JNIEnv *env, jclass that, jintLong arg0)
+{
+	Cairo_NATIVE_ENTER(env, that, _1cairo_1rectangle_1list_1destroy_FUNC);
+	cairo_rectangle_list_destroy((cairo_rectangle_list_t *)arg0);
+	Cairo_NATIVE_EXIT(env, that, _1cairo_1rectangle_1list_1destroy_FUNC);
+}
+#endif
+
 #ifndef NO__1cairo_1reference
 JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1reference)
 	(JNIEnv *env, jclass that, jintLong arg0)
@@ -923,6 +973,22 @@ fail:
 }
 #endif
 
+#ifndef NO__1cairo_1region_1create_1rectangles
+JNIEXPORT jintLong JNICALL Cairo_NATIVE(_1cairo_1region_1create_1rectangles)
+	(JNIEnv *env, jclass that, jintArray arg0, jint arg1)
+{
+	jint *lparg0=NULL;
+	jintLong rc = 0;
+	Cairo_NATIVE_ENTER(env, that, _1cairo_1region_1create_1rectangles_FUNC);
+	if (arg0) if ((lparg0 = (*env)->GetIntArrayElements(env, arg0, NULL)) == NULL) goto fail;
+	rc = (jintLong)cairo_region_create_rectangles((const cairo_rectangle_int_t *)lparg0, arg1);
+fail:
+	if (arg0 && lparg0) (*env)->ReleaseIntArrayElements(env, arg0, lparg0, JNI_ABORT);
+	Cairo_NATIVE_EXIT(env, that, _1cairo_1region_1create_1rectangles_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO__1cairo_1region_1destroy
 JNIEXPORT void JNICALL Cairo_NATIVE(_1cairo_1region_1destroy)
 	(JNIEnv *env, jclass that, jintLong arg0)
@@ -1556,6 +1622,18 @@ JNIEXPORT jint JNICALL Cairo_NATIVE(cairo_1rectangle_1int_1t_1sizeof)
 }
 #endif
 
+#ifndef NO_cairo_1rectangle_1list_1t_1sizeof
+JNIEXPORT jint JNICALL Cairo_NATIVE(cairo_1rectangle_1list_1t_1sizeof)
+	(JNIEnv *env, jclass that)
+{
+	jint rc = 0;
+	Cairo_NATIVE_ENTER(env, that, cairo_1rectangle_1list_1t_1sizeof_FUNC);
+	rc = (jint)cairo_rectangle_list_t_sizeof();
+	Cairo_NATIVE_EXIT(env, that, cairo_1rectangle_1list_1t_1sizeof_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_cairo_1version
 JNIEXPORT jint JNICALL Cairo_NATIVE(cairo_1version)
 	(JNIEnv *env, jclass that)
@@ -1643,6 +1721,31 @@ fail:
 }
 #endif
 
+#if (!defined(NO_memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2II) && !defined(JNI64)) || (!defined(NO_memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2JJ) && defined(JNI64))
+#ifndef JNI64
+JNIEXPORT void JNICALL Cairo_NATIVE(memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2II)(JNIEnv *env, jclass that, jobject arg0, jintLong arg1, jintLong arg2)
+#else
+JNIEXPORT void JNICALL Cairo_NATIVE(memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2JJ)(JNIEnv *env, jclass that, jobject arg0, jintLong arg1, jintLong arg2)
+#endif
+{
+	cairo_rectangle_list_t _arg0, *lparg0=NULL;
+#ifndef JNI64
+	Cairo_NATIVE_ENTER(env, that, memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2II_FUNC);
+#else
+	Cairo_NATIVE_ENTER(env, that, memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2JJ_FUNC);
+#endif
+	if (arg0) if ((lparg0 = getcairo_rectangle_list_tFields(env, arg0, &_arg0)) == NULL) goto fail;
+	memmove((void *)lparg0, (const void *)arg1, (size_t)arg2);
+fail:
+	if (arg0 && lparg0) setcairo_rectangle_list_tFields(env, arg0, lparg0);
+#ifndef JNI64
+	Cairo_NATIVE_EXIT(env, that, memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2II_FUNC);
+#else
+	Cairo_NATIVE_EXIT(env, that, memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2JJ_FUNC);
+#endif
+}
+#endif
+
 #if (!defined(NO_memmove___3DII) && !defined(JNI64)) || (!defined(NO_memmove___3DJJ) && defined(JNI64))
 #ifndef JNI64
 JNIEXPORT void JNICALL Cairo_NATIVE(memmove___3DII)(JNIEnv *env, jclass that, jdoubleArray arg0, jintLong arg1, jintLong arg2)
@@ -34,6 +34,7 @@ char * Cairo_nativeFunctionNames[] = {
 	"_1cairo_1arc_1negative",
 	"_1cairo_1clip",
 	"_1cairo_1close_1path",
+	"_1cairo_1copy_1clip_1rectangle_1list",
 	"_1cairo_1copy_1page",
 	"_1cairo_1copy_1path",
 	"_1cairo_1copy_1path_1flat",
@@ -56,6 +57,7 @@ char * Cairo_nativeFunctionNames[] = {
 	"_1cairo_1get_1tolerance",
 	"_1cairo_1identity_1matrix",
 	"_1cairo_1image_1surface_1create",
+	"_1cairo_1image_1surface_1create_1for_1data",
 	"_1cairo_1image_1surface_1get_1data",
 	"_1cairo_1image_1surface_1get_1format",
 	"_1cairo_1image_1surface_1get_1height",
@@ -94,13 +96,16 @@ char * Cairo_nativeFunctionNames[] = {
 	"_1cairo_1pop_1group_1to_1source",
 	"_1cairo_1ps_1surface_1set_1size",
 	"_1cairo_1push_1group",
+	"_1cairo_1recording_1surface_1create",
 	"_1cairo_1rectangle",
+	"_1cairo_1rectangle_1list_1destroy",
 	"_1cairo_1reference",
 	"_1cairo_1region_1contains_1point",
 	"_1cairo_1region_1contains_1rectangle",
 	"_1cairo_1region_1copy",
 	"_1cairo_1region_1create",
 	"_1cairo_1region_1create_1rectangle",
+	"_1cairo_1region_1create_1rectangles",
 	"_1cairo_1region_1destroy",
 	"_1cairo_1region_1get_1extents",
 	"_1cairo_1region_1get_1rectangle",
@@ -155,6 +160,7 @@ char * Cairo_nativeFunctionNames[] = {
 	"cairo_1path_1data_1t_1sizeof",
 	"cairo_1path_1t_1sizeof",
 	"cairo_1rectangle_1int_1t_1sizeof",
+	"cairo_1rectangle_1list_1t_1sizeof",
 	"cairo_1version",
 #ifndef JNI64
 	"memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2II",
@@ -171,6 +177,11 @@ char * Cairo_nativeFunctionNames[] = {
 #else
 	"memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1int_1t_2JJ",
 #endif
+#ifndef JNI64
+	"memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2II",
+#else
+	"memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2JJ",
+#endif
 #ifndef JNI64
 	"memmove___3DII",
 #else
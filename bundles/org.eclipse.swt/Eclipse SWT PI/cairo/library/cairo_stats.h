@@ -44,6 +44,7 @@ typedef enum {
 	_1cairo_1arc_1negative_FUNC,
 	_1cairo_1clip_FUNC,
 	_1cairo_1close_1path_FUNC,
+	_1cairo_1copy_1clip_1rectangle_1list_FUNC,
 	_1cairo_1copy_1page_FUNC,
 	_1cairo_1copy_1path_FUNC,
 	_1cairo_1copy_1path_1flat_FUNC,
@@ -66,6 +67,7 @@ typedef enum {
 	_1cairo_1get_1tolerance_FUNC,
 	_1cairo_1identity_1matrix_FUNC,
 	_1cairo_1image_1surface_1create_FUNC,
+	_1cairo_1image_1surface_1create_1for_1data_FUNC,
 	_1cairo_1image_1surface_1get_1data_FUNC,
 	_1cairo_1image_1surface_1get_1format_FUNC,
 	_1cairo_1image_1surface_1get_1height_FUNC,
@@ -104,13 +106,16 @@ typedef enum {
 	_1cairo_1pop_1group_1to_1source_FUNC,
 	_1cairo_1ps_1surface_1set_1size_FUNC,
 	_1cairo_1push_1group_FUNC,
+	_1cairo_1recording_1surface_1create_FUNC,
 	_1cairo_1rectangle_FUNC,
+	_1cairo_1rectangle_1list_1destroy_FUNC,
 	_1cairo_1reference_FUNC,
 	_1cairo_1region_1contains_1point_FUNC,
 	_1cairo_1region_1contains_1rectangle_FUNC,
 	_1cairo_1region_1copy_FUNC,
 	_1cairo_1region_1create_FUNC,
 	_1cairo_1region_1create_1rectangle_FUNC,
+	_1cairo_1region_1create_1rectangles_FUNC,
 	_1cairo_1region_1destroy_FUNC,
 	_1cairo_1region_1get_1extents_FUNC,
 	_1cairo_1region_1get_1rectangle_FUNC,
@@ -165,6 +170,7 @@ typedef enum {
 	cairo_1path_1data_1t_1sizeof_FUNC,
 	cairo_1path_1t_1sizeof_FUNC,
 	cairo_1rectangle_1int_1t_1sizeof_FUNC,
+	cairo_1rectangle_1list_1t_1sizeof_FUNC,
 	cairo_1version_FUNC,
 #ifndef JNI64
 	memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2II_FUNC,
@@ -181,6 +187,11 @@ typedef enum {
 #else
 	memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1int_1t_2JJ_FUNC,
 #endif
+#ifndef JNI64
+	memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2II_FUNC,
+#else
+	memmove__Lorg_eclipse_swt_internal_cairo_cairo_1rectangle_1list_1t_2JJ_FUNC,
+#endif
 #ifndef JNI64
 	memmove___3DII_FUNC,
 #else
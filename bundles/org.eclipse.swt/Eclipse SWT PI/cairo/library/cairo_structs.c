@@ -136,3 +136,40 @@ void setcairo_rectangle_int_tFields(JNIEnv *env, jobject lpObject, cairo_rectang
 }
 #endif
 
+#ifndef NO_cairo_rectangle_list_t
+typedef struct cairo_rectangle_list_t_FID_CACHE {
+	int cached;
+	jclass clazz;
+	jfieldID status, rectangles, num_rectangles;
+} cairo_rectangle_list_t_FID_CACHE;
+
+cairo_rectangle_list_t_FID_CACHE cairo_rectangle_list_tFc;
+
+void cachecairo_rectangle_list_tFields(JNIEnv *env, jobject lpObject)
+{
+	if (cairo_rectangle_list_tFc.cached) return;
+	cairo_rectangle_list_tFc.clazz = (*env)->GetObjectClass(env, lpObject);
+	cairo_rectangle_list_tFc.status = (*env)->GetFieldID(env, cairo_rectangle_list_tFc.clazz, "status", "I");
+	cairo_rectangle_list_tFc.rectangles = (*env)->GetFieldID(env, cairo_rectangle_list_tFc.clazz, "rectangles", I_J);
+	cairo_rectangle_list_tFc.num_rectangles = (*env)->GetFieldID(env, cairo_rectangle_list_tFc.clazz, "num_rectangles", "I");
+	cairo_rectangle_list_tFc.cached = 1;
+}
+
+cairo_rectangle_list_t *getcairo_rectangle_list_tFields(JNIEnv *env, jobject lpObject, cairo_rectangle_list_t *lpStruct)
+{
+	if (!cairo_rectangle_list_tFc.cached) cachecairo_rectangle_list_tFields(env, lpObject);
+	lpStruct->status = (*env)->GetIntField(env, lpObject, cairo_rectangle_list_tFc.status);
+	lpStruct->rectangles = (cairo_rectangle_t *)(*env)->GetIntLongField(env, lpObject, cairo_rectangle_list_tFc.rectangles);
+	lpStruct->num_rectangles = (*env)->GetIntField(env, lpObject, cairo_rectangle_list_tFc.num_rectangles);
+	return lpStruct;
+}
+
+void setcairo_rectangle_list_tFields(JNIEnv *env, jobject lpObject, cairo_rectangle_list_t *lpStruct)
+{
+	if (!cairo_rectangle_list_tFc.cached) cachecairo_rectangle_list_tFields(env, lpObject);
+	(*env)->SetIntField(env, lpObject, cairo_rectangle_list_tFc.status, (jint)lpStruct->status);
+	(*env)->SetIntLongField(env, lpObject, cairo_rectangle_list_tFc.rectangles, (jintLong)lpStruct->rectangles);
+	(*env)->SetIntField(env, lpObject, cairo_rectangle_list_tFc.num_rectangles, (jint)lpStruct->num_rectangles);
+}
+#endif
+
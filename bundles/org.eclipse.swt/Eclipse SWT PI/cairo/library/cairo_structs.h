@@ -60,3 +60,15 @@ void setcairo_rectangle_int_tFields(JNIEnv *env, jobject lpObject, cairo_rectang
 #define cairo_rectangle_int_t_sizeof() 0
 #endif
 
+#ifndef NO_cairo_rectangle_list_t
+void cachecairo_rectangle_list_tFields(JNIEnv *env, jobject lpObject);
+cairo_rectangle_list_t *getcairo_rectangle_list_tFields(JNIEnv *env, jobject lpObject, cairo_rectangle_list_t *lpStruct);
+void setcairo_rectangle_list_tFields(JNIEnv *env, jobject lpObject, cairo_rectangle_list_t *lpStruct);
+#define cairo_rectangle_list_t_sizeof() sizeof(cairo_rectangle_list_t)
+#else
+#define cachecairo_rectangle_list_tFields(a,b)
+#define getcairo_rectangle_list_tFields(a,b,c) NULL
+#define setcairo_rectangle_list_tFields(a,b,c)
+#define cairo_rectangle_list_t_sizeof() 0
+#endif
+
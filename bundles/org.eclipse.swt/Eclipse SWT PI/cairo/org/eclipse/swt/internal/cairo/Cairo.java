@@ -97,6 +97,7 @@ public class Cairo extends Platform {
 public static final native int cairo_path_data_t_sizeof ();
 public static final native int cairo_rectangle_int_t_sizeof ();
 public static final native int cairo_path_t_sizeof ();
+public static final native int cairo_rectangle_list_t_sizeof ();
 
 /** Natives */
 public static final native int CAIRO_VERSION_ENCODE(int major, int minor, int micro);
@@ -154,6 +155,16 @@ public static final void cairo_close_path(long /*int*/ cr) {
 	}
 }
 /** @param cr cast=(cairo_t *) */
+public static final native long /*int*/ _cairo_copy_clip_rectangle_list(long /*int*/ cr);
+public static final long /*int*/ cairo_copy_clip_rectangle_list(long /*int*/ cr) {
+	lock.lock();
+	try {
+		return _cairo_copy_clip_rectangle_list(cr);
+	} finally {
+		lock.unlock();
+	}
+}
+/** @param cr cast=(cairo_t *) */
 public static final native void _cairo_copy_page(long /*int*/ cr);
 public static final void cairo_copy_page(long /*int*/ cr) {
 	lock.lock();
@@ -374,6 +385,18 @@ public static final long /*int*/ cairo_image_surface_create(int format, int widt
 		lock.unlock();
 	}
 }
+/**
+ * @param data cast=(unsigned char *)
+ */
+public static final native long /*int*/ _cairo_image_surface_create_for_data(long /*int*/ data, int format, int width, int height, int stride);
+public static final long /*int*/ cairo_image_surface_create_for_data(long /*int*/ data, int format, int width, int height, int stride) {
+	lock.lock();
+	try {
+		return _cairo_image_surface_create_for_data(data, format, width, height, stride);
+	} finally {
+		lock.unlock();
+	}
+}
 /**
  * @param surface cast=(cairo_surface_t *)
  */
@@ -782,6 +805,16 @@ public static final void cairo_ps_surface_set_size(long /*int*/ surface, double
 		lock.unlock();
 	}
 }
+/** @param extents cast=(const cairo_rectangle_t *),flags=no_out */
+public static final native long /*int*/ _cairo_recording_surface_create(int content, double[] extents);
+public static final long /*int*/ cairo_recording_surface_create(int content, double[] extents) {
+	lock.lock();
+	try {
+		return _cairo_recording_surface_create(content, extents);
+	} finally {
+		lock.unlock();
+	}
+}
 /** @param cr cast=(cairo_t *) */
 public static final native void _cairo_rectangle(long /*int*/ cr, double x, double y, double width, double height);
 public static final void cairo_rectangle(long /*int*/ cr, double x, double y, double width, double height) {
@@ -792,6 +825,16 @@ public static final void cairo_rectangle(long /*int*/ cr, double x, double y, do
 		lock.unlock();
 	}
 }
+/** @param rectangle_list cast=(cairo_rectangle_list_t *) */
+public static final native void _cairo_rectangle_list_destroy(long /*int*/ rectangle_list);
+public static final void cairo_rectangle_list_destroy(long /*int*/ rectangle_list) {
+	lock.lock();
+	try {
+		_cairo_rectangle_list_destroy(rectangle_list);
+	} finally {
+		lock.unlock();
+	}
+}
 /** @param cr cast=(cairo_t *) */
 public static final native long /*int*/ _cairo_reference(long /*int*/ cr);
 public static final long /*int*/ cairo_reference(long /*int*/ cr) {
@@ -1386,6 +1429,18 @@ public static final long /*int*/ cairo_region_create_rectangle(cairo_rectangle_i
 		lock.unlock();
 	}
 }
+/**
+ * @param rects cast=(const cairo_rectangle_int_t *),flags=no_out
+ */
+public static final native long /*int*/ _cairo_region_create_rectangles(int[] rects, int count);
+public static final long /*int*/ cairo_region_create_rectangles(int[] rects, int count) {
+	lock.lock();
+	try {
+		return _cairo_region_create_rectangles(rects, count);
+	} finally {
+		lock.unlock();
+	}
+}
 /**
  * @param source1 cast=(cairo_region_t *)
  * @param source2 cast=(const cairo_region_t *)
@@ -1455,6 +1510,12 @@ public static final native void memmove(cairo_path_data_t dest, long /*int*/ src
  * @param size cast=(size_t)
  */
 public static final native void memmove(cairo_rectangle_int_t dest, long /*int*/ src, long /*int*/ size);
+/**
+ * @param dest cast=(void *)
+ * @param src cast=(const void *)
+ * @param size cast=(size_t)
+ */
+public static final native void memmove(cairo_rectangle_list_t dest, long /*int*/ src, long /*int*/ size);
 /**
  * @param dest cast=(void *)
  * @param src cast=(const void *)
@@ -14915,6 +14915,16 @@ JNIEXPORT void JNICALL OS_NATIVE(_1g_1object_1unref)
 }
 #endif
 
+#ifndef NO__1g_1object_1weak_1ref
+JNIEXPORT void JNICALL OS_NATIVE(_1g_1object_1weak_1ref)
+	(JNIEnv *env, jclass that, jintLong arg0, jintLong arg1, jintLong arg2)
+{
+	OS_NATIVE_ENTER(env, that, _1g_1object_1weak_1ref_FUNC);
+	g_object_weak_ref((GObject *)arg0, (GWeakNotify)arg1, (gpointer)arg2);
+	OS_NATIVE_EXIT(env, that, _1g_1object_1weak_1ref_FUNC);
+}
+#endif
+
 #ifndef NO__1g_1quark_1from_1string
 JNIEXPORT jint JNICALL OS_NATIVE(_1g_1quark_1from_1string)
 	(JNIEnv *env, jclass that, jbyteArray arg0)
@@ -17531,6 +17541,30 @@ fail:
 }
 #endif
 
+#if (!defined(NO_memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I) && !defined(JNI64)) || (!defined(NO_memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J) && defined(JNI64))
+#ifndef JNI64
+JNIEXPORT void JNICALL OS_NATIVE(memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I)(JNIEnv *env, jclass that, jintLong arg0, jobject arg1, jintLong arg2)
+#else
+JNIEXPORT void JNICALL OS_NATIVE(memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J)(JNIEnv *env, jclass that, jintLong arg0, jobject arg1, jintLong arg2)
+#endif
+{
+	GdkEventScroll _arg1, *lparg1=NULL;
+#ifndef JNI64
+	OS_NATIVE_ENTER(env, that, memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I_FUNC);
+#else
+	OS_NATIVE_ENTER(env, that, memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J_FUNC);
+#endif
+	if (arg1) if ((lparg1 = getGdkEventScrollFields(env, arg1, &_arg1)) == NULL) goto fail;
+	memmove((void *)arg0, (const void *)lparg1, (size_t)arg2);
+fail:
+#ifndef JNI64
+	OS_NATIVE_EXIT(env, that, memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I_FUNC);
+#else
+	OS_NATIVE_EXIT(env, that, memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J_FUNC);
+#endif
+}
+#endif
+
 #if (!defined(NO_memmove__ILorg_eclipse_swt_internal_gtk_GdkRGBA_2I) && !defined(JNI64)) || (!defined(NO_memmove__JLorg_eclipse_swt_internal_gtk_GdkRGBA_2J) && defined(JNI64))
 #ifndef JNI64
 JNIEXPORT void JNICALL OS_NATIVE(memmove__ILorg_eclipse_swt_internal_gtk_GdkRGBA_2I)(JNIEnv *env, jclass that, jintLong arg0, jobject arg1, jintLong arg2)
@@ -225,8 +225,8 @@
 #define NO_memmove__JLorg_eclipse_swt_internal_gtk_GdkEventMotion_2J
 #define NO_memmove__Lorg_eclipse_swt_internal_gtk_GdkEventMotion_2II
 #define NO_memmove__Lorg_eclipse_swt_internal_gtk_GdkEventMotion_2JJ
-#define NO_memmove__Iorg_eclipse_swt_internal_gtk_GdkEventScroll_2I
-#define NO_memmove__Jorg_eclipse_swt_internal_gtk_GdkEventScroll_2J
+#define NO_memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I
+#define NO_memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J
 #define NO_memmove__Lorg_eclipse_swt_internal_gtk_GdkEventScroll_2II
 #define NO_memmove__Lorg_eclipse_swt_internal_gtk_GdkEventScroll_2JJ
 #define NO_memmove__Iorg_eclipse_swt_internal_gtk_GdkEventWindowState_2I
@@ -93,6 +93,95 @@ JNIEXPORT jboolean JNICALL OS_NATIVE(GDK_1WINDOWING_1WAYLAND)
 }
 #endif
 
+#ifndef NO_GetDirectBufferAddress
+JNIEXPORT jintLong JNICALL OS_NATIVE(GetDirectBufferAddress)
+	(JNIEnv *env, jclass that, jobject arg0)
+{
+	jintLong rc = 0;
+	OS_NATIVE_ENTER(env, that, GetDirectBufferAddress_FUNC);
+	rc = (jintLong)(*env)->GetDirectBufferAddress(env, arg0);
+	OS_NATIVE_EXIT(env, that, GetDirectBufferAddress_FUNC);
+	return rc;
+}
+#endif
+
+#ifndef NO_NewDirectByteBuffer
+JNIEXPORT jobject JNICALL OS_NATIVE(NewDirectByteBuffer)
+	(JNIEnv *env, jclass that, jintLong arg0, jlong arg1)
+{
+	jobject rc = NULL;
+	OS_NATIVE_ENTER(env, that, NewDirectByteBuffer_FUNC);
+	rc = (*env)->NewDirectByteBuffer(env, (void *)arg0, arg1);
+	OS_NATIVE_EXIT(env, that, NewDirectByteBuffer_FUNC);
+	return rc;
+}
+#endif
+
+#ifndef NO_cairo_1points
+JNIEXPORT void JNICALL OS_NATIVE(cairo_1points)
+	(JNIEnv *env, jclass that, jintLong arg0, jintArray arg1, jint arg2)
+{
+	jint *lparg1=NULL;
+	jint i;
+	OS_NATIVE_ENTER(env, that, cairo_1points_FUNC);
+	if (arg1) if ((lparg1 = (*env)->GetPrimitiveArrayCritical(env, arg1, NULL)) == NULL) goto fail;
+	for (i = 0; i < arg2; i++) {
+		cairo_rectangle((cairo_t *)arg0, lparg1[i * 2], lparg1[i * 2 + 1], 1, 1);
+	}
+fail:
+	if (arg1 && lparg1) (*env)->ReleasePrimitiveArrayCritical(env, arg1, lparg1, JNI_ABORT);
+	OS_NATIVE_EXIT(env, that, cairo_1points_FUNC);
+}
+#endif
+
+#ifndef NO_cairo_1rectangles
+JNIEXPORT void JNICALL OS_NATIVE(cairo_1rectangles)
+	(JNIEnv *env, jclass that, jintLong arg0, jintArray arg1, jint arg2)
+{
+	jint *lparg1=NULL;
+	jint i, x, y, width, height;
+	OS_NATIVE_ENTER(env, that, cairo_1rectangles_FUNC);
+	if (arg1) if ((lparg1 = (*env)->GetPrimitiveArrayCritical(env, arg1, NULL)) == NULL) goto fail;
+	for (i = 0; i < arg2; i++) {
+		x = lparg1[i * 4];
+		y = lparg1[i * 4 + 1];
+		width = lparg1[i * 4 + 2];
+		height = lparg1[i * 4 + 3];
+		/* All the rectangles turn the same way, so that they add up with the winding rule */
+		if (width < 0) {
+			x += width;
+			width = -width;
+		}
+		if (height < 0) {
+			y += height;
+			height = -height;
+		}
+		cairo_rectangle((cairo_t *)arg0, x, y, width, height);
+	}
+fail:
+	if (arg1 && lparg1) (*env)->ReleasePrimitiveArrayCritical(env, arg1, lparg1, JNI_ABORT);
+	OS_NATIVE_EXIT(env, that, cairo_1rectangles_FUNC);
+}
+#endif
+
+#ifndef NO_cairo_1segments
+JNIEXPORT void JNICALL OS_NATIVE(cairo_1segments)
+	(JNIEnv *env, jclass that, jintLong arg0, jintArray arg1, jint arg2, jdouble arg3, jdouble arg4)
+{
+	jint *lparg1=NULL;
+	jint i;
+	OS_NATIVE_ENTER(env, that, cairo_1segments_FUNC);
+	if (arg1) if ((lparg1 = (*env)->GetPrimitiveArrayCritical(env, arg1, NULL)) == NULL) goto fail;
+	for (i = 0; i < arg2; i++) {
+		cairo_move_to((cairo_t *)arg0, lparg1[i * 4] + arg3, lparg1[i * 4 + 1] + arg4);
+		cairo_line_to((cairo_t *)arg0, lparg1[i * 4 + 2] + arg3, lparg1[i * 4 + 3] + arg4);
+	}
+fail:
+	if (arg1 && lparg1) (*env)->ReleasePrimitiveArrayCritical(env, arg1, lparg1, JNI_ABORT);
+	OS_NATIVE_EXIT(env, that, cairo_1segments_FUNC);
+}
+#endif
+
 #ifndef NO_imContextNewProc_1CALLBACK
 static jintLong superIMContextNewProc;
 static GtkIMContext* lastIMContext;
@@ -1201,6 +1201,8 @@ char * OS_nativeFunctionNames[] = {
 	"G_1TYPE_1INT",
 	"G_1TYPE_1INT64",
 	"G_1VALUE_1TYPE",
+	"GetDirectBufferAddress",
+	"NewDirectByteBuffer",
 	"PangoAttrColor_1sizeof",
 	"PangoAttrInt_1sizeof",
 	"PangoAttribute_1sizeof",
@@ -1381,6 +1383,7 @@ char * OS_nativeFunctionNames[] = {
 #endif
 	"_1g_1object_1set_1qdata",
 	"_1g_1object_1unref",
+	"_1g_1object_1weak_1ref",
 	"_1g_1quark_1from_1string",
 	"_1g_1set_1prgname",
 	"_1g_1signal_1add_1emission_1hook",
@@ -1588,6 +1591,9 @@ char * OS_nativeFunctionNames[] = {
 	"_1swt_1fixed_1resize",
 	"_1swt_1fixed_1restack",
 	"_1ubuntu_1menu_1proxy_1get",
+	"cairo_1points",
+	"cairo_1rectangles",
+	"cairo_1segments",
 	"g_1main_1context_1wakeup",
 	"g_1strdup",
 	"g_1value_1get_1double",
@@ -1638,6 +1644,11 @@ char * OS_nativeFunctionNames[] = {
 #else
 	"memmove__JLorg_eclipse_swt_internal_gtk_GdkEventMotion_2J",
 #endif
+#ifndef JNI64
+	"memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I",
+#else
+	"memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J",
+#endif
 #ifndef JNI64
 	"memmove__ILorg_eclipse_swt_internal_gtk_GdkRGBA_2I",
 #else
@@ -1187,6 +1187,8 @@ typedef enum {
 	G_1TYPE_1INT_FUNC,
 	G_1TYPE_1INT64_FUNC,
 	G_1VALUE_1TYPE_FUNC,
+	GetDirectBufferAddress_FUNC,
+	NewDirectByteBuffer_FUNC,
 	PangoAttrColor_1sizeof_FUNC,
 	PangoAttrInt_1sizeof_FUNC,
 	PangoAttribute_1sizeof_FUNC,
@@ -1367,6 +1369,7 @@ typedef enum {
 #endif
 	_1g_1object_1set_1qdata_FUNC,
 	_1g_1object_1unref_FUNC,
+	_1g_1object_1weak_1ref_FUNC,
 	_1g_1quark_1from_1string_FUNC,
 	_1g_1set_1prgname_FUNC,
 	_1g_1signal_1add_1emission_1hook_FUNC,
@@ -1574,6 +1577,9 @@ typedef enum {
 	_1swt_1fixed_1resize_FUNC,
 	_1swt_1fixed_1restack_FUNC,
 	_1ubuntu_1menu_1proxy_1get_FUNC,
+	cairo_1points_FUNC,
+	cairo_1rectangles_FUNC,
+	cairo_1segments_FUNC,
 	g_1main_1context_1wakeup_FUNC,
 	g_1strdup_FUNC,
 	g_1value_1get_1double_FUNC,
@@ -1624,6 +1630,11 @@ typedef enum {
 #else
 	memmove__JLorg_eclipse_swt_internal_gtk_GdkEventMotion_2J_FUNC,
 #endif
+#ifndef JNI64
+	memmove__ILorg_eclipse_swt_internal_gtk_GdkEventScroll_2I_FUNC,
+#else
+	memmove__JLorg_eclipse_swt_internal_gtk_GdkEventScroll_2J_FUNC,
+#endif
 #ifndef JNI64
 	memmove__ILorg_eclipse_swt_internal_gtk_GdkRGBA_2I_FUNC,
 #else
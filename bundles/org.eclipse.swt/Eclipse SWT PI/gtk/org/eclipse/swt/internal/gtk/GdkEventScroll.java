@@ -36,5 +36,9 @@ public class GdkEventScroll extends GdkEvent {
 	public double x_root;
 	/** @field cast=(gdouble) */
 	public double y_root;
+	/** @field cast=(gdouble) */
+	public double delta_x;
+	/** @field cast=(gdouble) */
+	public double delta_y;
 	public static final int sizeof = GDK.GdkEventScroll_sizeof();
 }
@@ -445,6 +445,46 @@ public class OS extends C {
 	 * @category custom
 	 */
 	public static final native boolean GDK_WINDOWING_WAYLAND();
+	/** @method flags=no_gen
+	 * @category custom
+	 */
+	public static final native long /*int*/ GetDirectBufferAddress(java.nio.Buffer buffer);
+	/** @method flags=no_gen
+	 * @category custom
+	 */
+	public static final native java.nio.ByteBuffer NewDirectByteBuffer(long /*int*/ address, long capacity);
+	/**
+	 * Adds a 1x1 rectangle to the path for each of the first count points
+	 * of the array, which holds alternating x and y values.
+	 *
+	 * @method flags=no_gen
+	 * @param cairo cast=(cairo_t *)
+	 * @param pointArray flags=no_out critical
+	 * @category custom
+	 */
+	public static final native void cairo_points(long /*int*/ cairo, int[] pointArray, int count);
+	/**
+	 * Adds the first count rectangles of the array, which holds x, y, width
+	 * and height quadruples, to the path. Rectangles with a negative width
+	 * or height are normalized, so that all of them are added in the same
+	 * direction.
+	 *
+	 * @method flags=no_gen
+	 * @param cairo cast=(cairo_t *)
+	 * @param rectArray flags=no_out critical
+	 * @category custom
+	 */
+	public static final native void cairo_rectangles(long /*int*/ cairo, int[] rectArray, int count);
+	/**
+	 * Adds the first count line segments of the array, which holds x1, y1,
+	 * x2 and y2 quadruples, to the path, offset by the given amounts.
+	 *
+	 * @method flags=no_gen
+	 * @param cairo cast=(cairo_t *)
+	 * @param segmentArray flags=no_out critical
+	 * @category custom
+	 */
+	public static final native void cairo_segments(long /*int*/ cairo, int[] segmentArray, int count, double xOffset, double yOffset);
 	/** Custom callbacks */
 	/** @method flags=no_gen
 	 * @category custom
@@ -2147,6 +2187,20 @@ public static final void g_object_unref(long /*int*/ object) {
 		lock.unlock();
 	}
 }
+/**
+ * @param object cast=(GObject *)
+ * @param notify cast=(GWeakNotify)
+ * @param data cast=(gpointer)
+ */
+public static final native void _g_object_weak_ref(long /*int*/ object, long /*int*/ notify, long /*int*/ data);
+public static final void g_object_weak_ref(long /*int*/ object, long /*int*/ notify, long /*int*/ data) {
+	lock.lock();
+	try {
+		_g_object_weak_ref(object, notify, data);
+	} finally {
+		lock.unlock();
+	}
+}
 
 
 /**
@@ -2882,6 +2936,12 @@ public static final native void memmove(long /*int*/ dest, GdkEventExpose src, l
  * @param size cast=(size_t)
  */
 public static final native void memmove(long /*int*/ dest, GdkEventMotion src, long /*int*/ size);
+/**
+ * @param dest cast=(void *)
+ * @param src cast=(const void *),flags=no_out
+ * @param size cast=(size_t)
+ */
+public static final native void memmove(long /*int*/ dest, GdkEventScroll src, long /*int*/ size);
 /** @param src flags=no_out */
 public static final native void memmove(long /*int*/ dest, GtkWidgetClass src);
 /**
@@ -744,6 +744,9 @@ void printErrors () {
  * @see #destroy
  */
 protected void release () {
+	/* Dispose the shared images */
+	ImageCache.release (this);
+
 	if (paragraphStyle != null) paragraphStyle.release();
 	paragraphStyle = null;
 
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+
+import org.eclipse.swt.*;
+
+/**
+ * Instances of this class record the drawing operations performed by
+ * a GC, so that they can be replayed on other GCs without issuing the
+ * operations again.
+ * <p>
+ * A display list is drawn by creating a GC on it, which records every
+ * operation performed with the GC until it is disposed. The recorded
+ * operations are replayed with {@link GC#drawDisplayList(DisplayList, int, int)},
+ * using the transform and clipping of the destination GC. Content that
+ * does not change, such as the background of a diagram, can be recorded
+ * once and replayed on every paint event.
+ * </p>
+ * <p>
+ * Where drawing operations cannot be recorded, as on Windows and macOS,
+ * the display list keeps the result of the drawing in an image instead.
+ * Such a display list is opaque, and it is scaled when it is replayed
+ * with a transform. Otherwise, the areas of the display list where
+ * nothing was drawn are transparent.
+ * </p>
+ * <p>
+ * Application code must explicitly invoke the <code>DisplayList.dispose()</code>
+ * method to release the operating system resources managed by each instance
+ * when those instances are no longer required.
+ * </p>
+ *
+ * @see GC#drawDisplayList(DisplayList, int, int)
+ * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
+ *
+ * @since 3.109
+ */
+public final class DisplayList extends Resource implements Drawable {
+	/*
+	* This platform cannot record drawing operations, so the
+	* operations are drawn on an image that is drawn when the
+	* display list is replayed.
+	*/
+	Image image;
+
+/**
+ * Constructs an empty display list of the given size. Drawing outside
+ * of the bounds of the display list is clipped.
+ * <p>
+ * You must dispose the display list when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the display list
+ * @param width the width of the display list
+ * @param height the height of the display list
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if either the width or height is negative or zero</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for display list creation</li>
+ * </ul>
+ *
+ * @see #dispose()
+ */
+public DisplayList(Device device, int width, int height) {
+	super(device);
+	if (width <= 0 || height <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	image = new Image(this.device, width, height);
+	init();
+}
+
+@Override
+void destroy() {
+	image.dispose();
+	image = null;
+}
+
+/**
+ * Returns the bounds of the receiver. The rectangle will always
+ * have x and y values of 0, and the width and height of the
+ * display list.
+ *
+ * @return a rectangle specifying the display list's bounds
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public Rectangle getBounds() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	return image.getBounds();
+}
+
+/**
+ * Invokes platform specific functionality to allocate a new GC handle.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>DisplayList</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param data the platform specific GC data
+ * @return the platform specific GC handle
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+@Override
+public long /*int*/ internal_new_GC(GCData data) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	return image.internal_new_GC(data);
+}
+
+/**
+ * Invokes platform specific functionality to dispose a GC handle.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>DisplayList</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param hDC the platform specific GC handle
+ * @param data the platform specific GC data
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+@Override
+public void internal_dispose_GC(long /*int*/ hDC, GCData data) {
+	image.internal_dispose_GC(hDC, data);
+}
+
+/**
+ * Returns <code>true</code> if the display list has been disposed,
+ * and <code>false</code> otherwise.
+ * <p>
+ * This method gets the dispose state for the display list.
+ * When a display list has been disposed, it is an error to
+ * invoke any other method (except {@link #dispose()}) using the display list.
+ *
+ * @return <code>true</code> when the display list is disposed and <code>false</code> otherwise
+ */
+@Override
+public boolean isDisposed() {
+	return image == null;
+}
+
+/**
+ * Returns a string containing a concise, human-readable
+ * description of the receiver.
+ *
+ * @return a string representation of the receiver
+ */
+@Override
+public String toString() {
+	if (isDisposed()) return "DisplayList {*DISPOSED*}";
+	return "DisplayList {" + image + "}";
+}
+}
@@ -601,6 +601,48 @@ public void asyncExec (Runnable runnable) {
 	}
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, replacing any runnable that was
+ * posted with an equal key by this method and has not been
+ * run yet. The caller of this method continues to run in
+ * parallel, and is not notified when the runnable has completed.
+ * <p>
+ * This is useful to collapse redundant updates, such as progress
+ * reports coming from a background thread, into a single execution
+ * on the user-interface thread. Keys are compared using
+ * <code>equals()</code>.
+ * </p>
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param key the key identifying the runnables to coalesce
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the key or the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec
+ *
+ * @since 3.109
+ */
+public void asyncExecCoalesced (Object key, Runnable runnable) {
+	synchronized (Device.class) {
+		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+		if (key == null || runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
+		synchronizer.asyncExecCoalesced (key, runnable);
+	}
+}
+
 /**
  * Causes the system hardware to emit a short sound
  * (if it supports this capability).
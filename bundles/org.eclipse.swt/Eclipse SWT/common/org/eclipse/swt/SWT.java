@@ -1788,6 +1788,12 @@ public class SWT {
 
 	/**
 	 * Style constant for no paint event merging behavior (value is 1&lt;&lt;21).
+	 * <p>
+	 * When the damaged area of a control is made of several rectangles,
+	 * a paint event is sent for each rectangle instead of a single event
+	 * for their bounds. The <code>count</code> field of the event is the
+	 * number of paint events that follow.
+	 * </p>
 	 *
 	 * <br>Note that this is a <em>HINT</em>.
 	 * <p><b>Used By:</b><ul>
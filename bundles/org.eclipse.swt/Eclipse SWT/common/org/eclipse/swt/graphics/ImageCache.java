@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.internal.*;
+
+/**
+ * Instances of this class share the images loaded from the same
+ * source on a device, so that an image used in many places is only
+ * decoded once.
+ * <p>
+ * Images are looked up by their source, a file name together with the
+ * time the file was last modified, a URL, or an image data provider,
+ * and by the zoom of the device. Every call to one of the
+ * <code>get</code> methods must be balanced by a call to
+ * {@link #release(Image)}, and the images returned by the cache must
+ * never be disposed by the caller. Images that are no longer used are
+ * kept for future requests, and the least recently used ones are
+ * disposed when the memory taken by all the images of the cache
+ * exceeds the maximum size of the cache.
+ * </p>
+ * <p>
+ * The methods of this class must be called from the thread that
+ * creates the images of the device. The images of the cache are
+ * disposed when the device is disposed.
+ * </p>
+ *
+ * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
+ *
+ * @since 3.109
+ */
+public final class ImageCache {
+
+	/**
+	 * The default maximum size of a cache, in bytes.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 32 * 1024 * 1024;
+
+	static final Map<Device, ImageCache> caches = new HashMap<>();
+
+	Device device;
+	long maximumSize = DEFAULT_MAXIMUM_SIZE, size;
+	int hitCount, missCount, evictionCount;
+
+	/* Entries in least recently used order */
+	final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	final Map<Image, Entry> images = new IdentityHashMap<>();
+
+	static final class Key {
+		final Object source;
+		final long modified;
+		final int zoom;
+
+		Key(Object source, long modified, int zoom) {
+			this.source = source;
+			this.modified = modified;
+			this.zoom = zoom;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (object == this) return true;
+			if (!(object instanceof Key)) return false;
+			Key key = (Key)object;
+			return source.equals(key.source) && modified == key.modified && zoom == key.zoom;
+		}
+
+		@Override
+		public int hashCode() {
+			return (source.hashCode() * 31 + Long.hashCode(modified)) * 31 + zoom;
+		}
+	}
+
+	static final class Entry {
+		final Key key;
+		final Image image;
+		final long size;
+		int references;
+
+		Entry(Key key, Image image, long size) {
+			this.key = key;
+			this.image = image;
+			this.size = size;
+		}
+	}
+
+ImageCache(Device device) {
+	this.device = device;
+}
+
+/**
+ * Returns the image cache of the given device, creating it the first
+ * time it is requested.
+ *
+ * @param device the device whose cache is returned
+ * @return the image cache of the device
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the device has been disposed</li>
+ * </ul>
+ */
+public static ImageCache getCache(Device device) {
+	if (device == null) device = Device.getDevice();
+	if (device == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (device.isDisposed()) SWT.error(SWT.ERROR_DEVICE_DISPOSED);
+	synchronized (caches) {
+		return caches.computeIfAbsent(device, ImageCache::new);
+	}
+}
+
+/**
+ * Disposes all the images of the cache of the given device, including
+ * the ones that are still used, and forgets the cache. Called by the
+ * device when it is released.
+ */
+static void release(Device device) {
+	ImageCache cache;
+	synchronized (caches) {
+		cache = caches.remove(device);
+	}
+	if (cache == null) return;
+	for (Entry entry : cache.entries.values()) {
+		if (!entry.image.isDisposed()) entry.image.dispose();
+	}
+	cache.entries.clear();
+	cache.images.clear();
+	cache.size = 0;
+}
+
+/**
+ * Returns the image loaded from the file with the given name. The
+ * image is loaded again when the file has been modified since the
+ * cached image was loaded.
+ *
+ * @param filename the name of the file to load the image from
+ * @return the shared image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the device has been disposed</li>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the file</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image file contains invalid data </li>
+ *    <li>ERROR_UNSUPPORTED_DEPTH - if the image file describes an image with an unsupported depth</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an unrecognized format</li>
+ * </ul>
+ *
+ * @see #release(Image)
+ */
+public Image get(String filename) {
+	if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	File file = new File(filename);
+	return get(new Key(file.getAbsolutePath(), file.lastModified(), DPIUtil.getDeviceZoom()), filename);
+}
+
+/**
+ * Returns the image loaded from the given URL.
+ *
+ * @param url the URL to load the image from
+ * @return the shared image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the URL is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the device has been disposed</li>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the URL</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data </li>
+ *    <li>ERROR_UNSUPPORTED_DEPTH - if the image stream describes an image with an unsupported depth</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ *
+ * @see #release(Image)
+ */
+public Image get(URL url) {
+	if (url == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	return get(new Key(url.toExternalForm(), 0, DPIUtil.getDeviceZoom()), url);
+}
+
+/**
+ * Returns the image created from the given image data provider.
+ * Providers are compared with <code>equals()</code>, which is the
+ * identity of the provider unless it is redefined.
+ *
+ * @param imageDataProvider the provider of the image data
+ * @return the shared image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the provider is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the provider returns null for the 100% zoom</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the device has been disposed</li>
+ * </ul>
+ *
+ * @see #release(Image)
+ */
+public Image get(ImageDataProvider imageDataProvider) {
+	if (imageDataProvider == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	return get(new Key(imageDataProvider, 0, DPIUtil.getDeviceZoom()), imageDataProvider);
+}
+
+Image get(Key key, Object source) {
+	if (device.isDisposed()) SWT.error(SWT.ERROR_DEVICE_DISPOSED);
+	Entry entry = entries.get(key);
+	if (entry != null && entry.image.isDisposed()) {
+		/* The image was disposed by mistake, load it again */
+		remove(entry);
+		entry = null;
+	}
+	if (entry != null) {
+		hitCount++;
+	} else {
+		missCount++;
+		Image image = load(source);
+		Rectangle bounds = DPIUtil.autoScaleUp(image.getBounds());
+		entry = new Entry(key, image, (long)bounds.width * bounds.height * 4);
+		entries.put(key, entry);
+		images.put(image, entry);
+		size += entry.size;
+	}
+	entry.references++;
+	evict();
+	return entry.image;
+}
+
+Image load(Object source) {
+	if (source instanceof String) {
+		return new Image(device, (String)source);
+	}
+	if (source instanceof URL) {
+		try (InputStream stream = ((URL)source).openStream()) {
+			return new Image(device, stream);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
+			return null;
+		}
+	}
+	return new Image(device, (ImageDataProvider)source);
+}
+
+/**
+ * Releases an image returned by one of the <code>get</code> methods.
+ * The image is kept in the cache once it is no longer used, until it
+ * is evicted.
+ *
+ * @param image the image to release
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the image is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the image does not come from this cache or has already been released</li>
+ * </ul>
+ */
+public void release(Image image) {
+	if (image == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	Entry entry = images.get(image);
+	if (entry == null || entry.references == 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	entry.references--;
+	evict();
+}
+
+/**
+ * Disposes the least recently used images that are no longer used
+ * until the cache fits in its maximum size.
+ */
+void evict() {
+	if (size <= maximumSize) return;
+	Iterator<Entry> iterator = entries.values().iterator();
+	while (size > maximumSize && iterator.hasNext()) {
+		Entry entry = iterator.next();
+		if (entry.references > 0) continue;
+		iterator.remove();
+		images.remove(entry.image);
+		size -= entry.size;
+		evictionCount++;
+		if (!entry.image.isDisposed()) entry.image.dispose();
+	}
+}
+
+void remove(Entry entry) {
+	entries.remove(entry.key);
+	images.remove(entry.image);
+	size -= entry.size;
+}
+
+/**
+ * Disposes all the images of the cache that are no longer used.
+ */
+public void clear() {
+	long maximumSize = this.maximumSize;
+	this.maximumSize = -1;
+	evict();
+	this.maximumSize = maximumSize;
+}
+
+/**
+ * Returns the maximum number of bytes taken by the images of the
+ * cache. The size of an image is estimated as four bytes per pixel.
+ *
+ * @return the maximum size of the cache in bytes
+ */
+public long getMaximumSize() {
+	return maximumSize;
+}
+
+/**
+ * Sets the maximum number of bytes taken by the images of the cache,
+ * disposing the least recently used images that are no longer used if
+ * the cache is larger. Images that are still in use are never disposed,
+ * so the cache can temporarily be larger than its maximum size.
+ *
+ * @param maximumSize the maximum size of the cache in bytes
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the size is negative</li>
+ * </ul>
+ */
+public void setMaximumSize(long maximumSize) {
+	if (maximumSize < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	this.maximumSize = maximumSize;
+	evict();
+}
+
+/**
+ * Returns the number of bytes taken by the images of the cache,
+ * estimated as four bytes per pixel.
+ *
+ * @return the size of the cache in bytes
+ */
+public long getSize() {
+	return size;
+}
+
+/**
+ * Returns the number of requests that returned an image of the cache.
+ *
+ * @return the number of cache hits
+ */
+public int getHitCount() {
+	return hitCount;
+}
+
+/**
+ * Returns the number of requests that loaded a new image.
+ *
+ * @return the number of cache misses
+ */
+public int getMissCount() {
+	return missCount;
+}
+
+/**
+ * Returns the number of images the cache disposed, either to fit in
+ * its maximum size or when it was cleared.
+ *
+ * @return the number of evicted images
+ */
+public int getEvictionCount() {
+	return evictionCount;
+}
+
+}
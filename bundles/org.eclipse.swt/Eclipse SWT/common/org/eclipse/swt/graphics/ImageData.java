@@ -18,6 +18,7 @@ import java.io.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
+import org.eclipse.swt.internal.image.*;
 
 /**
  * Instances of this class are device-independent descriptions
@@ -1162,6 +1163,155 @@ public ImageData scaledTo(int width, int height) {
 	return dest;
 }
 
+/**
+ * Returns a copy of the receiver which has been stretched or
+ * shrunk to the specified size using the specified filter. If
+ * either the width or height is negative, the resulting image
+ * will be inverted in the associated axis.
+ * <p>
+ * The filter is one of <code>SWT.NONE</code>, which copies the
+ * nearest pixel like {@link #scaledTo(int, int)},
+ * <code>SWT.LOW</code>, which interpolates linearly between the
+ * pixels, or <code>SWT.HIGH</code>, which uses a Lanczos filter
+ * that keeps the result sharper. <code>SWT.DEFAULT</code> is the
+ * same as <code>SWT.LOW</code>.
+ * </p><p>
+ * The <code>SWT.LOW</code> and <code>SWT.HIGH</code> filters
+ * blend neighboring pixels. Images with a palette are therefore
+ * scaled to 24 bit direct images, and the transparent pixel or
+ * the mask of images is turned into alpha data, which also
+ * smooths their edges.
+ * </p>
+ *
+ * @param width the width of the new ImageData
+ * @param height the height of the new ImageData
+ * @param filter the filter used to compute the pixels of the new ImageData
+ * @return a scaled copy of the image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the filter is not one of SWT.DEFAULT, SWT.NONE, SWT.LOW or SWT.HIGH</li>
+ * </ul>
+ *
+ * @since 3.109
+ */
+public ImageData scaledTo(int width, int height, int filter) {
+	int resamplerFilter;
+	switch (filter) {
+		case SWT.NONE:
+			return scaledTo(width, height);
+		case SWT.DEFAULT:
+		case SWT.LOW:
+			resamplerFilter = ImageResampler.BILINEAR;
+			break;
+		case SWT.HIGH:
+			resamplerFilter = ImageResampler.LANCZOS;
+			break;
+		default:
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+			return null;
+	}
+	final boolean flipX = (width < 0);
+	if (flipX) width = - width;
+	final boolean flipY = (height < 0);
+	if (flipY) height = - height;
+
+	/* Create a destination image with no data */
+	boolean hasAlpha = alphaData != null || maskData != null || transparentPixel != -1;
+	PaletteData destPalette = palette.isDirect ? palette : new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	ImageData dest = new ImageData(
+		width, height, palette.isDirect ? depth : 24, destPalette,
+		scanlinePad, null, 0, null,
+		hasAlpha ? new byte[width * height] : null, alpha, -1, type,
+		x, y, disposalMethod, delayTime);
+
+	/* Resample premultiplied ARGB pixels */
+	int[] pixels = new int[this.width * this.height];
+	int[] lineData = new int[this.width];
+	byte[] alphas = new byte[this.width];
+	int[] rgbs = null;
+	if (!palette.isDirect) {
+		rgbs = new int[1 << depth];
+		for (int i = 0; i < palette.colors.length && i < rgbs.length; i++) {
+			RGB rgb = palette.colors[i];
+			if (rgb != null) rgbs[i] = (rgb.red << 16) | (rgb.green << 8) | rgb.blue;
+		}
+	}
+	ImageData mask = alphaData == null && hasAlpha ? getTransparencyMask() : null;
+	int redMask = palette.redMask, greenMask = palette.greenMask, blueMask = palette.blueMask;
+	int redShift = palette.redShift, greenShift = palette.greenShift, blueShift = palette.blueShift;
+	for (int y = 0, offset = 0; y < this.height; y++) {
+		getPixels(0, y, this.width, lineData, 0);
+		if (alphaData != null) {
+			getAlphas(0, y, this.width, alphas, 0);
+		} else if (mask != null) {
+			for (int x = 0; x < this.width; x++) {
+				alphas[x] = (byte) (mask.getPixel(x, y) != 0 ? 255 : 0);
+			}
+		}
+		for (int x = 0; x < this.width; x++, offset++) {
+			int r, g, b;
+			if (rgbs != null) {
+				int rgb = rgbs[lineData[x]];
+				r = rgb >> 16;
+				g = (rgb >> 8) & 0xFF;
+				b = rgb & 0xFF;
+			} else {
+				int pixel = lineData[x];
+				r = pixel & redMask;
+				r = (redShift < 0) ? r >>> -redShift : r << redShift;
+				g = pixel & greenMask;
+				g = (greenShift < 0) ? g >>> -greenShift : g << greenShift;
+				b = pixel & blueMask;
+				b = (blueShift < 0) ? b >>> -blueShift : b << blueShift;
+			}
+			int a = 255;
+			if (hasAlpha) {
+				a = alphas[x] & 0xFF;
+				r = (r * a + 127) / 255;
+				g = (g * a + 127) / 255;
+				b = (b * a + 127) / 255;
+			}
+			pixels[offset] = (a << 24) | (r << 16) | (g << 8) | b;
+		}
+	}
+	pixels = ImageResampler.resample(pixels, this.width, this.height, width, height, resamplerFilter);
+
+	/* Store the pixels in the format of the destination */
+	lineData = new int[width];
+	alphas = new byte[width];
+	redMask = destPalette.redMask;
+	greenMask = destPalette.greenMask;
+	blueMask = destPalette.blueMask;
+	redShift = destPalette.redShift;
+	greenShift = destPalette.greenShift;
+	blueShift = destPalette.blueShift;
+	for (int y = 0; y < height; y++) {
+		int offset = (flipY ? height - 1 - y : y) * width;
+		for (int x = 0; x < width; x++) {
+			int pixel = pixels[offset + (flipX ? width - 1 - x : x)];
+			int a = pixel >>> 24;
+			int r = (pixel >> 16) & 0xFF;
+			int g = (pixel >> 8) & 0xFF;
+			int b = pixel & 0xFF;
+			if (hasAlpha) {
+				if (a != 0) {
+					r = (r * 255 + a / 2) / a;
+					g = (g * 255 + a / 2) / a;
+					b = (b * 255 + a / 2) / a;
+				}
+				alphas[x] = (byte) a;
+			}
+			r = ((redShift < 0) ? r << -redShift : r >>> redShift) & redMask;
+			g = ((greenShift < 0) ? g << -greenShift : g >>> greenShift) & greenMask;
+			b = ((blueShift < 0) ? b << -blueShift : b >>> blueShift) & blueMask;
+			lineData[x] = r | g | b;
+		}
+		dest.setPixels(0, y, width, lineData, 0);
+		if (hasAlpha) dest.setAlphas(0, y, width, alphas, 0);
+	}
+	return dest;
+}
+
 /**
  * Sets the alpha value at offset <code>x</code> in
  * scanline <code>y</code> in the receiver's alpha data.
@@ -1884,6 +2034,13 @@ static void blit(int op,
 		(srcRedMask == destRedMask) && (srcGreenMask == destGreenMask) &&
 		(srcBlueMask == destBlueMask) && (srcAlphaMask == destAlphaMask)) {
 		/*** Fast blit (straight copy) ***/
+		if (srcWidth == destWidth && !flipX) {
+			final int rowLength = destWidth * sbpp;
+			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dpr += dpryi) {
+				System.arraycopy(srcData, spr, destData, dpr, rowLength);
+			}
+			return;
+		}
 		switch (sbpp) {
 			case 1:
 				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
@@ -1926,31 +2083,40 @@ static void blit(int op,
 		}
 		return;
 	}
-	/*Fast 32 to 32 blit */
-	if (alphaMode == 0x10000 && stype == TYPE_GENERIC_32_MSB && dtype == TYPE_GENERIC_32_MSB) {
-		if (srcRedMask == 0xFF00 && srcGreenMask == 0xff0000 && srcBlueMask == 0xff000000 && destRedMask == 0xFF0000 && destGreenMask == 0xff00 && destBlueMask == 0xff) {
-			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-					destData[dp] = srcData[sp + 3];
-					destData[dp + 1] = srcData[sp + 2];
-					destData[dp + 2] = srcData[sp + 1];
-					destData[dp + 3] = srcData[sp];
-					sp += (sfx >>> 16) * 4;
+	/*** Fast blit (byte shuffle) ***/
+	if (alphaMode == 0x10000 && srcAlphaMask == 0 && destAlphaMask == 0 && (sbpp == 3 || sbpp == 4) && (dbpp == 3 || dbpp == 4)) {
+		/*
+		* When every channel fills one byte of the source and of the
+		* destination pixels, which is the case of the common 24 and
+		* 32 bit RGB formats in either order, a pixel is converted by
+		* moving its bytes.
+		*/
+		final int sr = getChannelByte(srcRedMask, srcDepth, srcOrder);
+		final int sg = getChannelByte(srcGreenMask, srcDepth, srcOrder);
+		final int sb = getChannelByte(srcBlueMask, srcDepth, srcOrder);
+		final int dr = getChannelByte(destRedMask, destDepth, destOrder);
+		final int dg = getChannelByte(destGreenMask, destDepth, destOrder);
+		final int db = getChannelByte(destBlueMask, destDepth, destOrder);
+		if (sr != -1 && sg != -1 && sb != -1 && dr != -1 && dg != -1 && db != -1 && dr != dg && dr != db && dg != db) {
+			if (dbpp == 4) {
+				final int dz = 6 - dr - dg - db;
+				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
+					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+						destData[dp + dr] = srcData[sp + sr];
+						destData[dp + dg] = srcData[sp + sg];
+						destData[dp + db] = srcData[sp + sb];
+						destData[dp + dz] = 0;
+						sp += (sfx >>> 16) * sbpp;
+					}
 				}
-			}
-			return;
-		}
-	}
-	/*Fast 24 to 32 blit */
-	if (alphaMode == 0x10000 && stype == TYPE_GENERIC_24 && dtype == TYPE_GENERIC_32_MSB) {
-		if (srcRedMask == 0xFF && srcGreenMask == 0xff00 && srcBlueMask == 0xff0000 && destRedMask == 0xFF0000 && destGreenMask == 0xff00 && destBlueMask == 0xff) {
-			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-					destData[dp] = 0;
-					destData[dp + 1] = srcData[sp + 2];
-					destData[dp + 2] = srcData[sp + 1];
-					destData[dp + 3] = srcData[sp];
-					sp += (sfx >>> 16) * 3;
+			} else {
+				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
+					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+						destData[dp + dr] = srcData[sp + sr];
+						destData[dp + dg] = srcData[sp + sg];
+						destData[dp + db] = srcData[sp + sb];
+						sp += (sfx >>> 16) * sbpp;
+					}
 				}
 			}
 			return;
@@ -2767,32 +2933,6 @@ static void blit(int op,
 	boolean flipX, boolean flipY) {
 	if ((destWidth <= 0) || (destHeight <= 0) || (alphaMode == ALPHA_TRANSPARENT)) return;
 
-	/*** Fast blit (straight copy) ***/
-	if (srcX == 0 && srcY == 0 && destX == 0 && destY == 0 && destWidth == srcWidth && destHeight == srcHeight) {
-		if (destDepth == 24 && srcDepth == 8 && (op & BLIT_ALPHA) == 0 && destRedMask == 0xFF0000 && destGreenMask == 0xFF00 && destBlueMask == 0xFF) {
-			for (int y = 0, sp = 0, dp = 0, spad = srcStride - srcWidth, dpad = destStride - (destWidth * 3); y < destHeight; y++, sp += spad, dp += dpad) {
-				for (int x = 0; x < destWidth; x++) {
-					int index = srcData[sp++] & 0xff;
-					destData[dp++] = srcReds[index];
-					destData[dp++] = srcGreens[index];
-					destData[dp++] = srcBlues[index];
-				}
-			}
-			return;
-		}
-		if (destDepth == 32 && destOrder == MSB_FIRST && srcDepth == 8 && (op & BLIT_ALPHA) == 0 && destRedMask == 0xFF0000 && destGreenMask == 0xFF00 && destBlueMask == 0xFF) {
-			for (int y = 0, sp = 0, dp = 0, spad = srcStride - srcWidth, dpad = destStride - (destWidth * 4); y < destHeight; y++, sp += spad, dp += dpad) {
-				for (int x = 0; x < destWidth; x++) {
-					int index = srcData[sp++] & 0xff;
-					dp++;
-					destData[dp++] = srcReds[index];
-					destData[dp++] = srcGreens[index];
-					destData[dp++] = srcBlues[index];
-				}
-			}
-			return;
-		}
-	}
 	// these should be supplied as params later
 	final int destAlphaMask = 0;
 
@@ -2883,6 +3023,30 @@ static void blit(int op,
 		apr = 0;
 	}
 
+	int dp = dpr;
+	int sp = spr;
+
+	/*** Fast blit (palette lookup) ***/
+	if (alphaMode == 0x10000 && destAlphaMask == 0 && stype == TYPE_INDEX_8 && (dbpp == 3 || dbpp == 4)) {
+		final int dr = getChannelByte(destRedMask, destDepth, destOrder);
+		final int dg = getChannelByte(destGreenMask, destDepth, destOrder);
+		final int db = getChannelByte(destBlueMask, destDepth, destOrder);
+		if (dr != -1 && dg != -1 && db != -1 && dr != dg && dr != db && dg != db) {
+			final int dz = (dbpp == 4) ? 6 - dr - dg - db : -1;
+			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
+				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+					final int index = srcData[sp] & 0xff;
+					destData[dp + dr] = srcReds[index];
+					destData[dp + dg] = srcGreens[index];
+					destData[dp + db] = srcBlues[index];
+					if (dz != -1) destData[dp + dz] = 0;
+					sp += (sfx >>> 16);
+				}
+			}
+			return;
+		}
+	}
+
 	/*** Comprehensive blit (apply transformations) ***/
 	final int destRedShift = getChannelShift(destRedMask);
 	final int destRedWidth = getChannelWidth(destRedMask, destRedShift);
@@ -2901,8 +3065,6 @@ static void blit(int op,
 	final byte[] destAlphas = ANY_TO_EIGHT[destAlphaWidth];
 	final int destAlphaPreShift = 8 - destAlphaWidth;
 
-	int dp = dpr;
-	int sp = spr;
 	int ap = apr, alpha = alphaMode;
 	int r = 0, g = 0, b = 0, a = 0, index = 0;
 	int rq = 0, gq = 0, bq = 0, aq = 0;
@@ -3444,6 +3606,19 @@ static void blit(int op,
 	}
 }
 
+/**
+ * Computes the offset of the byte that holds the channel with the
+ * given mask in a 24 or 32 bit pixel, or -1 if the channel does not
+ * fill exactly one byte.
+ */
+static int getChannelByte(int mask, int depth, int order) {
+	int bytes = depth >> 3;
+	for (int i = 0; i < bytes; i++) {
+		if (mask == 0xff << (i * 8)) return (depth == 32 && order == LSB_FIRST) ? i : bytes - 1 - i;
+	}
+	return -1;
+}
+
 /**
  * Computes the required channel shift from a mask.
  */
@@ -156,6 +156,84 @@ public ImageData[] load(InputStream stream) {
 	return data;
 }
 
+/**
+ * Loads an array of <code>ImageData</code> objects from the
+ * specified input stream, decoding only the part of the images
+ * and at the size described by the given options. Throws an error
+ * if either an error occurs while loading the images, or if the
+ * images are not of a supported type. Returns the loaded image
+ * data array.
+ * <p>
+ * This is useful to load thumbnails or a part of a large image
+ * without decoding all of its pixels at their full size.
+ * </p>
+ *
+ * @param stream the input stream to load the images from
+ * @param options the subsampling factor and the region to load
+ * @return an array of <code>ImageData</code> objects loaded from the specified input stream
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream or the options are null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the subsampling factor is less than 1,
+ *    or if the region is empty or does not intersect any of the images</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ *
+ * @see LoadOptions
+ * @since 3.109
+ */
+public ImageData[] load(InputStream stream, LoadOptions options) {
+	if (stream == null || options == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (options.subsampling < 1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	Rectangle region = options.region;
+	if (region != null && region.isEmpty()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	reset();
+	data = FileFormat.load(stream, this, options.subsampling, region == null ? null : new Rectangle(region.x, region.y, region.width, region.height));
+	return data;
+}
+
+/**
+ * Returns an iterator over the <code>ImageData</code> objects of
+ * the specified input stream, which loads the frames of animated
+ * images one at a time, as they are requested. Throws an error if
+ * either an error occurs while loading the images, or if the images
+ * are not of a supported type.
+ * <p>
+ * This is useful to play long animations without decoding all of
+ * their frames up front. The logical screen size and the background
+ * pixel are set when the iterator is returned, and the repeat count
+ * once the frame that follows it has been loaded. The
+ * <code>data</code> field is not set, and the stream must not be
+ * closed before the iteration is complete. Only GIF animations are
+ * loaded lazily, the images of the other formats are loaded before
+ * this method returns.
+ * </p>
+ *
+ * @param stream the input stream to load the images from
+ * @return an iterator over the images of the input stream
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ * The iterator throws the same exceptions when the frames it loads
+ * contain invalid data or cannot be read.
+ *
+ * @since 3.109
+ */
+public Iterator<ImageData> loadFrames(InputStream stream) {
+	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	reset();
+	return FileFormat.loadFrames(stream, this);
+}
+
 /**
  * Loads an array of <code>ImageData</code> objects from the
  * file with the specified name. Throws an error if either
@@ -192,6 +270,48 @@ public ImageData[] load(String filename) {
 	return null;
 }
 
+/**
+ * Returns the pages of the file with the specified name, as a list
+ * of <code>ImageData</code> objects that are loaded when they are
+ * requested. Throws an error if either an error occurs while loading
+ * the images, or if the images are not of a supported type.
+ * <p>
+ * Multi-page TIFF files are mapped in memory, only their chain of
+ * directories is read by this method, and each call to
+ * <code>get(int)</code> decodes the requested page from the mapped
+ * file. Callers should keep the pages they use, since they are not
+ * kept by the list. The images of the other formats are loaded
+ * before this method returns. The <code>data</code> field is not set,
+ * and the file must not be modified while the list is in use.
+ * </p>
+ *
+ * @param filename the name of the file to load the images from
+ * @return a read-only list of the images in the file
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if filename is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the file</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image file contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an unrecognized format</li>
+ * </ul>
+ * The list throws the same exceptions when the pages it loads
+ * contain invalid data or cannot be read.
+ *
+ * @since 3.109
+ */
+public List<ImageData> loadPages(String filename) {
+	if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	reset();
+	try (InputStream stream = new FileInputStream(filename)) {
+		return FileFormat.loadPages(filename, stream, this);
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
+	return null;
+}
+
 /**
  * Saves the image data in this ImageLoader to the specified stream.
  * The format parameter can have one of the following values:
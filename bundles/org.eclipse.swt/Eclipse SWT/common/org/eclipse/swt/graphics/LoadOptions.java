@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+
+/**
+ * Instances of this class describe which part of an image an
+ * <code>ImageLoader</code> decodes, and at which size.
+ * <p>
+ * Loading a reduced or partial image is cheaper than loading the
+ * full image and scaling or cropping it afterwards. JPEG images are
+ * scaled down while they are decoded, and PNG images only convert
+ * and store the rows and columns that are kept. Other formats are
+ * reduced once they have been decoded.
+ * </p>
+ * <p>
+ * Application code does <em>not</em> need to explicitly release the
+ * resources managed by each instance when those instances are no longer
+ * required, and thus no <code>dispose()</code> method is provided.
+ * </p>
+ *
+ * @see ImageLoader#load(java.io.InputStream, LoadOptions)
+ * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
+ *
+ * @since 3.109
+ */
+public final class LoadOptions {
+
+	/**
+	 * the factor by which the width and the height of the images
+	 * are reduced. The default is 1, which loads the images at their
+	 * full size.
+	 * <p>
+	 * A factor of <code>n</code> results in images that are
+	 * <code>n</code> times smaller, rounded up. JPEG images use the
+	 * scaled decoding of the JPEG decoder for factors of 2, 4 and 8,
+	 * which averages the pixels. For the other formats and factors,
+	 * every <code>n</code>th pixel of every <code>n</code>th row is
+	 * kept.
+	 * </p>
+	 */
+	public int subsampling = 1;
+
+	/**
+	 * the area of the images to load, in pixels of the full size
+	 * images, or <code>null</code> to load the entire images. The
+	 * region is clipped to the bounds of each image.
+	 * <p>
+	 * For an animation, the region is in the coordinates of the
+	 * logical screen. The logical screen is clipped to the region,
+	 * whose origin becomes the origin of the loaded frames, and the
+	 * frames that do not intersect the region are left out.
+	 * </p>
+	 */
+	public Rectangle region;
+
+/**
+ * Constructs a new instance of this class that loads the
+ * entire images at their full size.
+ */
+public LoadOptions() {
+}
+
+/**
+ * Constructs a new instance of this class given the subsampling
+ * factor and the region to load.
+ *
+ * @param subsampling the factor by which the images are reduced
+ * @param region the area of the images to load or <code>null</code>
+ */
+public LoadOptions(int subsampling, Rectangle region) {
+	this.subsampling = subsampling;
+	this.region = region;
+}
+
+/**
+ * Returns a string containing a concise, human-readable
+ * description of the receiver.
+ *
+ * @return a string representation of the <code>LoadOptions</code>
+ */
+@Override
+public String toString() {
+	return "LoadOptions {subsampling=" + subsampling + " region=" + region + "}"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+}
+}
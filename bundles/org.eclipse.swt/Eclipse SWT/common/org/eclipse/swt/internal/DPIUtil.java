@@ -74,8 +74,6 @@ public class DPIUtil {
 	 * </ul>
 	 * The current default is to use "nearest", except on
 	 * GTK when the deviceZoom is not an integer multiple of 100%.
-	 * The smooth strategy currently doesn't work on Win32 and Cocoa, see
-	 * <a href="https://bugs.eclipse.org/493455">bug 493455</a>.
 	 */
 	private static final String SWT_AUTOSCALE_METHOD = "swt.autoScale.method";
 	static {
@@ -97,7 +95,7 @@ public class DPIUtil {
 public static ImageData autoScaleDown (Device device, final ImageData imageData) {
 	if (deviceZoom == 100 || imageData == null || (device != null && !device.isAutoScalable())) return imageData;
 	float scaleFactor = 1.0f / getScalingFactor ();
-	return autoScaleImageData(device, imageData, scaleFactor);
+	return autoScaleImageData(imageData, scaleFactor);
 }
 
 public static int[] autoScaleDown(int[] pointArray) {
@@ -218,10 +216,14 @@ public static Rectangle autoScaleDown (Drawable drawable, Rectangle rect) {
 public static ImageData autoScaleImageData (Device device, final ImageData imageData, int targetZoom, int currentZoom) {
 	if (imageData == null || targetZoom == currentZoom || (device != null && !device.isAutoScalable())) return imageData;
 	float scaleFactor = (float) targetZoom / (float) currentZoom;
-	return autoScaleImageData(device, imageData, scaleFactor);
+	return autoScaleImageData(imageData, scaleFactor);
 }
 
-private static ImageData autoScaleImageData (Device device, final ImageData imageData, float scaleFactor) {
+/*
+ * The image data is scaled without a device. The public methods only
+ * use their device to check whether it is auto-scalable.
+ */
+private static ImageData autoScaleImageData (final ImageData imageData, float scaleFactor) {
 	// Guards are already implemented in callers: if (deviceZoom == 100 || imageData == null || scaleFactor == 1.0f) return imageData;
 	int width = imageData.width;
 	int height = imageData.height;
@@ -229,25 +231,7 @@ private static ImageData autoScaleImageData (Device device, final ImageData imag
 	int scaledHeight = Math.round ((float) height * scaleFactor);
 	switch (autoScaleMethod) {
 	case SMOOTH:
-		Image original = new Image (device, (ImageDataProvider) zoom -> imageData);
-
-		/* Create a 24 bit image data with alpha channel */
-		final ImageData resultData = new ImageData (scaledWidth, scaledHeight, 24, new PaletteData (0xFF, 0xFF00, 0xFF0000));
-		resultData.alphaData = new byte [scaledWidth * scaledHeight];
-
-		Image resultImage = new Image (device, (ImageDataProvider) zoom -> resultData);
-		GC gc = new GC (resultImage);
-		gc.setAntialias (SWT.ON);
-		gc.drawImage (original, 0, 0, DPIUtil.autoScaleDown (width), DPIUtil.autoScaleDown (height),
-				/* E.g. destWidth here is effectively DPIUtil.autoScaleDown (scaledWidth), but avoiding rounding errors.
-				 * Nevertheless, we still have some rounding errors due to the point-based API GC#drawImage(..).
-				 */
-				0, 0, Math.round (DPIUtil.autoScaleDown ((float) width * scaleFactor)), Math.round (DPIUtil.autoScaleDown ((float) height * scaleFactor)));
-		gc.dispose ();
-		original.dispose ();
-		ImageData result = resultImage.getImageData (DPIUtil.getDeviceZoom ());
-		resultImage.dispose ();
-		return result;
+		return imageData.scaledTo (scaledWidth, scaledHeight, SWT.HIGH);
 	case NEAREST:
 	default:
 		return imageData.scaledTo (scaledWidth, scaledHeight);
@@ -274,7 +258,7 @@ public static Rectangle autoScaleBounds (Rectangle rect, int targetZoom, int cur
 public static ImageData autoScaleUp (Device device, final ImageData imageData) {
 	if (deviceZoom == 100 || imageData == null || (device != null && !device.isAutoScalable())) return imageData;
 	float scaleFactor = deviceZoom / 100f;
-	return autoScaleImageData(device, imageData, scaleFactor);
+	return autoScaleImageData(imageData, scaleFactor);
 }
 
 public static int[] autoScaleUp(int[] pointArray) {
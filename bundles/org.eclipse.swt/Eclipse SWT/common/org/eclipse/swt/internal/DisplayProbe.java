@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+/**
+ * A probe is told how long the user-interface thread spent
+ * in each unit of work that a display runs.
+ * <p>
+ * Probes are called on the user-interface thread and must
+ * return quickly. The reported units can nest, for example
+ * the time of a <code>PAINT</code> is also part of the
+ * <code>EVENT</code> that caused it.
+ * </p>
+ * <p>
+ * IMPORTANT: This interface is <em>not</em> part of the SWT
+ * public API. Only the GTK display reports to a probe. It is
+ * installed with <code>Display.setData()</code> under the key
+ * <code>"org.eclipse.swt.internal.gtk.probe"</code>, or as a
+ * {@link HistogramProbe} when the system property
+ * <code>org.eclipse.swt.internal.gtk.probeFile</code> names the
+ * file to write the histograms to when the display is disposed.
+ * </p>
+ */
+public interface DisplayProbe {
+
+	/** The dispatch of a single native event */
+	public static final int EVENT = 0;
+
+	/** The run of a single timer runnable */
+	public static final int TIMER = 1;
+
+	/** A pass over the queued asyncExec and syncExec runnables */
+	public static final int RUNNABLE = 2;
+
+	/** The paint handling of a single control */
+	public static final int PAINT = 3;
+
+	/** The deferred work run by the display when it reads and dispatches events */
+	public static final int IDLE = 4;
+
+	/** The number of kinds */
+	public static final int KIND_COUNT = 5;
+
+/**
+ * Reports a unit of work.
+ *
+ * @param kind the kind of the work, one of <code>EVENT</code>, <code>TIMER</code>,
+ *   <code>RUNNABLE</code>, <code>PAINT</code> or <code>IDLE</code>
+ * @param start the value of <code>System.nanoTime()</code> when the work started
+ * @param duration the time the work took in nanoseconds
+ */
+public void record (int kind, long start, long duration);
+
+}
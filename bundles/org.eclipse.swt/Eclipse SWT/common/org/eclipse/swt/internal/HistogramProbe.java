@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+import java.io.*;
+
+/**
+ * A probe that keeps a histogram of the reported durations for
+ * each kind of work. The buckets are powers of two nanoseconds,
+ * so recording does not allocate and takes constant time.
+ */
+public class HistogramProbe implements DisplayProbe {
+	final long [][] buckets = new long [KIND_COUNT][64];
+	final long [] counts = new long [KIND_COUNT];
+	final long [] totals = new long [KIND_COUNT];
+	final long [] maximums = new long [KIND_COUNT];
+
+	static final String [] NAMES = {"event", "timer", "runnable", "paint", "idle"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+@Override
+public void record (int kind, long start, long duration) {
+	if (duration < 0) duration = 0;
+	buckets [kind][64 - Long.numberOfLeadingZeros (duration)]++;
+	counts [kind]++;
+	totals [kind] += duration;
+	if (duration > maximums [kind]) maximums [kind] = duration;
+}
+
+/**
+ * Returns the number of units of work of the given kind
+ * that were reported.
+ *
+ * @param kind the kind of the work
+ * @return the number of reports
+ */
+public long getCount (int kind) {
+	return counts [kind];
+}
+
+/**
+ * Returns the total time of the units of work of the given
+ * kind that were reported, in nanoseconds.
+ *
+ * @param kind the kind of the work
+ * @return the total time
+ */
+public long getTotal (int kind) {
+	return totals [kind];
+}
+
+/**
+ * Returns an upper bound of the time under which the given
+ * fraction of the reported units of work of the given kind
+ * completed, in nanoseconds.
+ *
+ * @param kind the kind of the work
+ * @param fraction the fraction, between 0 and 1
+ * @return the upper bound, or 0 if nothing was reported
+ */
+public long getPercentile (int kind, double fraction) {
+	long count = counts [kind];
+	if (count == 0) return 0;
+	long threshold = (long) Math.ceil (count * fraction), sum = 0;
+	long [] histogram = buckets [kind];
+	for (int i = 0; i < histogram.length; i++) {
+		sum += histogram [i];
+		if (sum >= threshold && sum > 0) {
+			return i == 0 ? 0 : Math.min (maximums [kind], (1L << i) - 1);
+		}
+	}
+	return maximums [kind];
+}
+
+/**
+ * Forgets everything that was reported.
+ */
+public void reset () {
+	for (int kind = 0; kind < KIND_COUNT; kind++) {
+		java.util.Arrays.fill (buckets [kind], 0);
+		counts [kind] = totals [kind] = maximums [kind] = 0;
+	}
+}
+
+/**
+ * Writes a summary and the histograms to the given stream.
+ *
+ * @param stream the stream to write to
+ */
+public void write (PrintStream stream) {
+	for (int kind = 0; kind < KIND_COUNT; kind++) {
+		long count = counts [kind];
+		stream.print (NAMES [kind] + ": count=" + count + " total=" + totals [kind] / 1000 + "us"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if (count != 0) {
+			stream.print (" mean=" + totals [kind] / count / 1000 + "us"); //$NON-NLS-1$ //$NON-NLS-2$
+			stream.print (" p50<=" + getPercentile (kind, 0.5) / 1000 + "us"); //$NON-NLS-1$ //$NON-NLS-2$
+			stream.print (" p99<=" + getPercentile (kind, 0.99) / 1000 + "us"); //$NON-NLS-1$ //$NON-NLS-2$
+			stream.print (" max=" + maximums [kind] / 1000 + "us"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		stream.println ();
+		long [] histogram = buckets [kind];
+		for (int i = 0; i < histogram.length; i++) {
+			if (histogram [i] == 0) continue;
+			long low = i == 0 ? 0 : 1L << (i - 1);
+			stream.println ("\t>= " + low + "ns: " + histogram [i]); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
+
+/**
+ * Writes a summary and the histograms to the file with
+ * the given name, replacing its contents.
+ *
+ * @param fileName the name of the file
+ * @throws IOException if the file cannot be written
+ */
+public void dump (String fileName) throws IOException {
+	try (PrintStream stream = new PrintStream (new FileOutputStream (fileName), false, "UTF-8")) { //$NON-NLS-1$
+		write (stream);
+	}
+}
+
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+/**
+ * A watchdog reports when the user-interface thread of a display
+ * has been busy with the same unit of work for longer than a
+ * threshold.
+ * <p>
+ * The display marks the start and the end of its units of work
+ * with <code>begin()</code> and <code>end()</code>, which only
+ * write two fields. A daemon thread checks them periodically and
+ * when the threshold is exceeded takes the stack of the
+ * user-interface thread and reports it once per stall.
+ * </p>
+ * <p>
+ * IMPORTANT: This class is <em>not</em> part of the SWT public
+ * API. Only the GTK display reports its units of work. A watchdog
+ * is installed with <code>Display.setData()</code> under the key
+ * <code>"org.eclipse.swt.internal.gtk.watchdog"</code>, or with
+ * {@link #PRINT_LISTENER} when the system property
+ * <code>org.eclipse.swt.internal.gtk.watchdogThreshold</code> sets
+ * the threshold in milliseconds.
+ * </p>
+ */
+public class Watchdog implements Runnable {
+	final long threshold;
+	final StallListener listener;
+	Thread uiThread;
+	/* The thread that is watching, a stopped thread exits when it is replaced */
+	volatile Thread thread;
+
+	/* Written by the user-interface thread only */
+	int depth;
+	volatile long busySince;
+	volatile int sequence;
+
+/**
+ * Listeners are told about stalls of the user-interface thread.
+ * They are called on the watchdog thread.
+ */
+public interface StallListener {
+
+/**
+ * Reports a stall.
+ *
+ * @param uiThread the user-interface thread
+ * @param duration the time the thread has been busy in milliseconds
+ * @param stack the stack of the thread when the stall was detected
+ */
+public void stalled (Thread uiThread, long duration, StackTraceElement [] stack);
+
+}
+
+/**
+ * A listener that prints the stalls to <code>System.err</code>.
+ */
+public static final StallListener PRINT_LISTENER = (uiThread, duration, stack) -> {
+	StringBuilder buffer = new StringBuilder ();
+	buffer.append ("SWT: UI thread \"").append (uiThread.getName ()).append ("\" busy for ").append (duration).append (" ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	for (StackTraceElement element : stack) {
+		buffer.append ("\n\tat ").append (element); //$NON-NLS-1$
+	}
+	System.err.println (buffer);
+};
+
+/**
+ * Constructs a new watchdog.
+ *
+ * @param threshold the time in milliseconds after which a unit of work is a stall
+ * @param listener the listener to report the stalls to
+ *
+ * @exception IllegalArgumentException if the threshold is not positive or the listener is null
+ */
+public Watchdog (long threshold, StallListener listener) {
+	if (threshold <= 0 || listener == null) throw new IllegalArgumentException ();
+	this.threshold = threshold;
+	this.listener = listener;
+}
+
+/**
+ * Returns the threshold in milliseconds.
+ *
+ * @return the threshold
+ */
+public long getThreshold () {
+	return threshold;
+}
+
+/**
+ * Starts watching the given thread. Called by the display.
+ *
+ * @param uiThread the user-interface thread of the display
+ */
+public synchronized void start (Thread uiThread) {
+	if (thread != null) return;
+	this.uiThread = uiThread;
+	Thread thread = new Thread (this, "SWT Watchdog"); //$NON-NLS-1$
+	thread.setDaemon (true);
+	this.thread = thread;
+	thread.start ();
+}
+
+/**
+ * Stops watching. Called by the display.
+ * <p>
+ * The watching thread is not joined since it may be running the
+ * listener, which could be waiting for the user-interface thread.
+ * It exits as soon as it notices that it is no longer the watching
+ * thread, and never reports a stall after that, even if the
+ * watchdog is started again.
+ * </p>
+ */
+public synchronized void stop () {
+	if (thread == null) return;
+	thread.interrupt ();
+	thread = null;
+}
+
+/**
+ * Marks the start of a unit of work. Must be called on the
+ * user-interface thread.
+ */
+public void begin () {
+	depth++;
+	sequence++;
+	busySince = System.nanoTime ();
+}
+
+/**
+ * Marks the end of a unit of work. Must be called on the
+ * user-interface thread.
+ * <p>
+ * When units of work nest, for example when a listener runs
+ * a modal event loop, the enclosing unit is considered to
+ * restart when the nested one ends.
+ * </p>
+ */
+public void end () {
+	if (depth == 0) return;
+	if (--depth == 0) {
+		busySince = 0;
+	} else {
+		sequence++;
+		busySince = System.nanoTime ();
+	}
+}
+
+@Override
+public void run () {
+	Thread current = Thread.currentThread ();
+	Thread uiThread;
+	synchronized (this) {
+		uiThread = this.uiThread;
+	}
+	long interval = Math.max (threshold / 4, 10);
+	int reported = 0;
+	while (thread == current) {
+		try {
+			Thread.sleep (interval);
+		} catch (InterruptedException e) {
+			return;
+		}
+		int sequence = this.sequence;
+		long since = busySince;
+		if (since == 0 || sequence == reported) continue;
+		long duration = (System.nanoTime () - since) / 1000000;
+		if (duration < threshold) continue;
+		StackTraceElement [] stack = uiThread.getStackTrace ();
+		/* Drop the stack if the unit of work ended while it was taken */
+		if (sequence != this.sequence || busySince == 0 || thread != current) continue;
+		reported = sequence;
+		try {
+			listener.stalled (uiThread, duration, stack);
+		} catch (Throwable e) {
+			/* Keep watching, a failing listener must not end the thread */
+			System.err.println ("SWT: Watchdog listener failed"); //$NON-NLS-1$
+			e.printStackTrace ();
+		}
+	}
+}
+
+}
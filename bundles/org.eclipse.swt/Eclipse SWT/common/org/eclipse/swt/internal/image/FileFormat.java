@@ -15,6 +15,7 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.util.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
@@ -33,6 +34,11 @@ public abstract class FileFormat {
 	LEDataOutputStream outputStream;
 	ImageLoader loader;
 	int compression;
+	int subsampling = 1;
+	Rectangle region;
+	/* set by the formats that subsample and clip while they decode */
+	boolean optionsApplied;
+	boolean regionOutside;
 
 static FileFormat getFileFormat (LEDataInputStream stream, String format) throws Exception {
 	Class<?> clazz = Class.forName(FORMAT_PACKAGE + '.' + format + FORMAT_SUFFIX);
@@ -56,14 +62,169 @@ abstract ImageData[] loadFromByteStream();
 public ImageData[] loadFromStream(LEDataInputStream stream) {
 	try {
 		inputStream = stream;
-		return loadFromByteStream();
+		ImageData[] images = loadFromByteStream();
+		if (!optionsApplied && (subsampling != 1 || region != null)) {
+			images = reduce(images);
+		}
+		return images;
 	} catch (Exception e) {
-		if (e instanceof IOException) {
-			SWT.error(SWT.ERROR_IO, e);
+		loadError(e);
+		return null;
+	}
+}
+
+/**
+ * Read the specified input stream, and return an iterator over the
+ * device independent images represented by the stream. The formats
+ * that hold animations read each image when it is requested, the
+ * others read all the images at once.
+ */
+Iterator<ImageData> loadFramesFromStream(LEDataInputStream stream) {
+	return Arrays.asList(loadFromStream(stream)).iterator();
+}
+
+/**
+ * Throw the error that reports the given exception,
+ * which occurred while loading an image.
+ */
+void loadError(Exception e) {
+	if (e instanceof IOException) {
+		SWT.error(SWT.ERROR_IO, e);
+	} else if (regionOutside) {
+		throw (IllegalArgumentException) e;
+	} else {
+		SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+	}
+}
+
+/**
+ * Answer the part of an image of the given size that is loaded,
+ * which is the region intersected with the bounds of the image.
+ */
+Rectangle getRegion(int width, int height) {
+	Rectangle bounds = new Rectangle(0, 0, width, height);
+	if (region == null) return bounds;
+	Rectangle result = region.intersection(bounds);
+	if (result.isEmpty()) {
+		regionOutside = true;
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	return result;
+}
+
+/**
+ * Subsample and clip the decoded images for the formats that do
+ * not do it while decoding.
+ * <p>
+ * The frames of an animation are placed on the logical screen of
+ * the loader, so the region is in the coordinates of the logical
+ * screen. The logical screen is clipped to the region and every
+ * frame is moved so that the region origin becomes the origin of
+ * the screen. The other images are clipped in their own coordinates.
+ * The images that do not intersect the region are left out. A frame
+ * that is left out adds its delay to the previous frame, so that the
+ * timing of the animation does not change.
+ * </p>
+ */
+ImageData[] reduce(ImageData[] images) {
+	int step = subsampling;
+	Rectangle screen = null;
+	if (loader.logicalScreenWidth > 0 && loader.logicalScreenHeight > 0) {
+		screen = new Rectangle(0, 0, loader.logicalScreenWidth, loader.logicalScreenHeight);
+		if (region != null) {
+			screen = region.intersection(screen);
+			if (screen.isEmpty()) {
+				regionOutside = true;
+				SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+			}
+		}
+		loader.logicalScreenWidth = (screen.width + step - 1) / step;
+		loader.logicalScreenHeight = (screen.height + step - 1) / step;
+	}
+	List<ImageData> result = new ArrayList<>(images.length);
+	for (ImageData image : images) {
+		Rectangle area;
+		int x = 0, y = 0;
+		if (screen != null) {
+			/* Keep the pixels on the subsampling grid of the screen */
+			Rectangle bounds = screen.intersection(new Rectangle(image.x, image.y, image.width, image.height));
+			if (bounds.isEmpty()) bounds = new Rectangle(screen.x, screen.y, 0, 0);
+			x = screen.x + (bounds.x - screen.x + step - 1) / step * step;
+			y = screen.y + (bounds.y - screen.y + step - 1) / step * step;
+			area = new Rectangle(x - image.x, y - image.y, bounds.x + bounds.width - x, bounds.y + bounds.height - y);
+			x = (x - screen.x) / step;
+			y = (y - screen.y) / step;
 		} else {
-			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+			area = new Rectangle(0, 0, image.width, image.height);
+			if (region != null) area = region.intersection(area);
 		}
-		return null;
+		if (area.width <= 0 || area.height <= 0) {
+			if (!result.isEmpty()) {
+				ImageData previous = result.get(result.size() - 1);
+				previous.delayTime += image.delayTime;
+			}
+			continue;
+		}
+		ImageData reduced = reduce(image, area, step);
+		reduced.x = x;
+		reduced.y = y;
+		result.add(reduced);
+	}
+	if (result.isEmpty()) {
+		regionOutside = true;
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	return result.toArray(new ImageData[result.size()]);
+}
+
+/**
+ * Subsample and clip a decoded image to the given area of the
+ * image. Every step-th pixel of every step-th row of the area is
+ * kept.
+ */
+static ImageData reduce(ImageData image, Rectangle area, int step) {
+	int width = (area.width + step - 1) / step;
+	int height = (area.height + step - 1) / step;
+	if (width == image.width && height == image.height) return image;
+	ImageData result = new ImageData(width, height, image.depth, image.palette, image.scanlinePad, new byte[(((width * image.depth + 7) / 8) + (image.scanlinePad - 1)) / image.scanlinePad * image.scanlinePad * height]);
+	reducePixels(image, result, area, step);
+	if (image.maskData != null) {
+		PaletteData maskPalette = new PaletteData(new RGB(0, 0, 0), new RGB(255, 255, 255));
+		ImageData mask = new ImageData(image.width, image.height, 1, maskPalette, image.maskPad, image.maskData);
+		ImageData resultMask = new ImageData(width, height, 1, maskPalette, image.maskPad, new byte[((width + 7) / 8 + (image.maskPad - 1)) / image.maskPad * image.maskPad * height]);
+		reducePixels(mask, resultMask, area, step);
+		result.maskPad = image.maskPad;
+		result.maskData = resultMask.data;
+	}
+	if (image.alphaData != null) {
+		byte[] alphas = new byte[image.width];
+		byte[] resultAlphas = new byte[width];
+		result.alphaData = new byte[width * height];
+		for (int y = 0; y < height; y++) {
+			image.getAlphas(0, area.y + y * step, image.width, alphas, 0);
+			for (int x = 0; x < width; x++) {
+				resultAlphas[x] = alphas[area.x + x * step];
+			}
+			result.setAlphas(0, y, width, resultAlphas, 0);
+		}
+	}
+	result.transparentPixel = image.transparentPixel;
+	result.alpha = image.alpha;
+	result.type = image.type;
+	result.disposalMethod = image.disposalMethod;
+	result.delayTime = image.delayTime;
+	return result;
+}
+
+static void reducePixels(ImageData image, ImageData result, Rectangle area, int step) {
+	int[] pixels = new int[image.width];
+	int[] resultPixels = new int[result.width];
+	for (int y = 0; y < result.height; y++) {
+		image.getPixels(0, area.y + y * step, image.width, pixels, 0);
+		for (int x = 0; x < result.width; x++) {
+			resultPixels[x] = pixels[area.x + x * step];
+		}
+		result.setPixels(0, y, result.width, resultPixels, 0);
 	}
 }
 
@@ -72,8 +233,63 @@ public ImageData[] loadFromStream(LEDataInputStream stream) {
  * return the device independent image array represented by the stream.
  */
 public static ImageData[] load(InputStream is, ImageLoader loader) {
-	FileFormat fileFormat = null;
+	return load(is, loader, 1, null);
+}
+
+/**
+ * Read the specified input stream using the specified loader, and
+ * return the device independent image array represented by the stream,
+ * reduced by the subsampling factor and clipped to the region.
+ */
+public static ImageData[] load(InputStream is, ImageLoader loader, int subsampling, Rectangle region) {
+	LEDataInputStream stream = new LEDataInputStream(is);
+	FileFormat fileFormat = findFileFormat(stream);
+	fileFormat.loader = loader;
+	fileFormat.subsampling = subsampling;
+	fileFormat.region = region;
+	return fileFormat.loadFromStream(stream);
+}
+
+/**
+ * Read the specified input stream using the specified loader, and
+ * return an iterator over the device independent images represented
+ * by the stream, which reads the frames of animations one at a time.
+ */
+public static Iterator<ImageData> loadFrames(InputStream is, ImageLoader loader) {
 	LEDataInputStream stream = new LEDataInputStream(is);
+	FileFormat fileFormat = findFileFormat(stream);
+	fileFormat.loader = loader;
+	return fileFormat.loadFramesFromStream(stream);
+}
+
+/**
+ * Read the pages of the specified file using the specified loader.
+ * The given stream is open on the file, and is used to find its format.
+ * The formats that support random access map the file and read each
+ * page when it is requested, the others read all the pages at once.
+ */
+public static List<ImageData> loadPages(String filename, InputStream is, ImageLoader loader) {
+	LEDataInputStream stream = new LEDataInputStream(is);
+	FileFormat fileFormat = findFileFormat(stream);
+	fileFormat.loader = loader;
+	return fileFormat.loadPagesFromFile(filename, stream);
+}
+
+/**
+ * Read the pages of the specified file, which is also open on the
+ * specified input stream, and return a list of the device independent
+ * images they represent.
+ */
+List<ImageData> loadPagesFromFile(String filename, LEDataInputStream stream) {
+	return Arrays.asList(loadFromStream(stream));
+}
+
+/**
+ * Answer the file format of the specified input stream.
+ * Throw an error if the format is not supported.
+ */
+static FileFormat findFileFormat(LEDataInputStream stream) {
+	FileFormat fileFormat = null;
 	for (int i = 1; i < FORMATS.length; i++) {
 		if (FORMATS[i] != null) {
 			try {
@@ -86,8 +302,7 @@ public static ImageData[] load(InputStream is, ImageLoader loader) {
 		}
 	}
 	if (fileFormat == null) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
-	fileFormat.loader = loader;
-	return fileFormat.loadFromStream(stream);
+	return fileFormat;
 }
 
 /**
@@ -17,6 +17,7 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.*;
 
 public final class GIFFileFormat extends FileFormat {
 	String signature;
@@ -25,6 +26,9 @@ public final class GIFFileFormat extends FileFormat {
 	int delayTime = 0;
 	int transparentPixel = -1;
 	int repeatCount = 1;
+	/* the global palette, and the identifier of the next block */
+	PaletteData globalPalette;
+	int nextID;
 
 	static final int GIF_APPLICATION_EXTENSION_BLOCK_ID = 0xFF;
 	static final int GIF_GRAPHICS_CONTROL_BLOCK_ID = 0xF9;
@@ -68,6 +72,66 @@ public final class GIFFileFormat extends FileFormat {
 	 */
 	@Override
 	ImageData[] loadFromByteStream() {
+		readHeader();
+		ImageData[] images = new ImageData[0];
+		ImageData image;
+		while ((image = readNextImage(images.length > 0)) != null) {
+			ImageData[] oldImages = images;
+			images = new ImageData[oldImages.length + 1];
+			System.arraycopy(oldImages, 0, images, 0, oldImages.length);
+			images[images.length - 1] = image;
+		}
+		return images;
+	}
+
+	/**
+	 * Read the header of the GIF stored in the input stream, and
+	 * return an iterator that reads each image when it is requested,
+	 * so that long animations are not decoded all at once.
+	 */
+	@Override
+	Iterator<ImageData> loadFramesFromStream(LEDataInputStream stream) {
+		inputStream = stream;
+		try {
+			readHeader();
+		} catch (Exception e) {
+			loadError(e);
+		}
+		return new Iterator<ImageData>() {
+			ImageData next;
+			int count;
+			boolean done;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null && !done) {
+					try {
+						next = readNextImage(count > 0);
+					} catch (Exception e) {
+						done = true;
+						loadError(e);
+					}
+					done = next == null;
+				}
+				return next != null;
+			}
+
+			@Override
+			public ImageData next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				ImageData image = next;
+				next = null;
+				count++;
+				return image;
+			}
+		};
+	}
+
+	/**
+	 * Read the header and the global palette of the GIF,
+	 * and the identifier of the first block.
+	 */
+	void readHeader() {
 		byte[] signature = new byte[3];
 		byte[] versionBytes = new byte[3];
 		byte[] block = new byte[7];
@@ -103,20 +167,23 @@ public final class GIFFileFormat extends FileFormat {
 			defaultDepth = bitsPerPixel;
 		}
 		loader.backgroundPixel = backgroundPixel;
+		globalPalette = palette;
+		nextID = readID();
+	}
 
-		ImageData[] images = new ImageData[0];
-		int id = readID();
-		while (id != GIF_TRAILER_ID && id != -1) {
-			if (id == GIF_IMAGE_BLOCK_ID) {
-				ImageData image = readImageBlock(palette);
+	/**
+	 * Read the blocks up to and including the next image, and return
+	 * the image, or null when there are no more images.
+	 */
+	ImageData readNextImage(boolean hasImages) {
+		ImageData image = null;
+		while (image == null && nextID != GIF_TRAILER_ID && nextID != -1) {
+			if (nextID == GIF_IMAGE_BLOCK_ID) {
+				image = readImageBlock(globalPalette);
 				if (loader.hasListeners()) {
 					loader.notifyListeners(new ImageLoaderEvent(loader, image, 3, true));
 				}
-				ImageData[] oldImages = images;
-				images = new ImageData[oldImages.length + 1];
-				System.arraycopy(oldImages, 0, images, 0, oldImages.length);
-				images[images.length - 1] = image;
-			} else if (id == GIF_EXTENSION_BLOCK_ID) {
+			} else if (nextID == GIF_EXTENSION_BLOCK_ID) {
 				/* Read the extension block. Currently, only the
 				 * interesting parts of certain extensions are kept,
 				 * and the rest is discarded. In future, if we want
@@ -127,13 +194,16 @@ public final class GIFFileFormat extends FileFormat {
 			} else {
 				/* The GIF is not to spec, but try to salvage it
 				 * if we read at least one image. */
-				if (images.length > 0) break;
+				if (hasImages) {
+					nextID = -1;
+					break;
+				}
 				SWT.error(SWT.ERROR_INVALID_IMAGE);
 			}
-			id = readID(); // block terminator (0)
-			if (id == 0) id = readID(); // next block ID (unless we just read it)
+			nextID = readID(); // block terminator (0)
+			if (nextID == 0) nextID = readID(); // next block ID (unless we just read it)
 		}
-		return images;
+		return image;
 	}
 
 	/**
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.util.*;
+
+/**
+ * Resamples images with a bilinear or a Lanczos filter.
+ * <p>
+ * The pixels are premultiplied ARGB values, one <code>int</code>
+ * per pixel. The filter is applied separately to the rows and to
+ * the columns, and the filter support is widened by the reduction
+ * factor when an image is reduced, so that every source pixel
+ * contributes to the result. The weights are precomputed in fixed
+ * point once per axis. The rows of both passes are distributed
+ * over the processors.
+ * </p>
+ */
+public final class ImageResampler {
+
+	public static final int BILINEAR = 0;
+	public static final int LANCZOS = 1;
+
+	static final int PRECISION_BITS = 14;
+	static final int HALF = 1 << (PRECISION_BITS - 1);
+	static final int STRIP_HEIGHT = 32;
+
+	/**
+	 * The source pixels that contribute to each destination pixel
+	 * of an axis, and their weights.
+	 */
+	static final class Coefficients {
+		/* first source pixel and number of source pixels, per destination pixel */
+		int[] bounds;
+		/* weights in fixed point, size per destination pixel */
+		int[] weights;
+		int size;
+	}
+
+/**
+ * Resamples an image given as premultiplied ARGB pixels to the
+ * given size.
+ *
+ * @param pixels the pixels of the image, row by row
+ * @param width the width of the image
+ * @param height the height of the image
+ * @param destWidth the width of the result
+ * @param destHeight the height of the result
+ * @param filter one of BILINEAR or LANCZOS
+ * @return the pixels of the result, row by row
+ */
+public static int[] resample(int[] pixels, int width, int height, int destWidth, int destHeight, int filter) {
+	int[] result = pixels;
+	int firstRow = 0, rowCount = height;
+	Coefficients vertical = null;
+	if (destHeight != height) {
+		vertical = computeCoefficients(height, destHeight, filter);
+		/* Only the rows used by the vertical pass are resampled horizontally */
+		firstRow = vertical.bounds[0];
+		int last = (destHeight - 1) * 2;
+		rowCount = vertical.bounds[last] + vertical.bounds[last + 1] - firstRow;
+	}
+	if (destWidth != width) {
+		/* The first row of the result is the row firstRow of the image */
+		result = resampleRows(result, width, firstRow, rowCount, destWidth, computeCoefficients(width, destWidth, filter));
+	} else {
+		firstRow = 0;
+	}
+	if (vertical != null) {
+		result = resampleColumns(result, destWidth, firstRow, destHeight, vertical);
+	}
+	return result == pixels ? pixels.clone() : result;
+}
+
+static double support(int filter) {
+	return filter == LANCZOS ? 3 : 1;
+}
+
+static double weight(int filter, double x) {
+	if (x < 0) x = -x;
+	if (filter == LANCZOS) {
+		if (x >= 3) return 0;
+		return sinc(x) * sinc(x / 3);
+	}
+	return x < 1 ? 1 - x : 0;
+}
+
+static double sinc(double x) {
+	if (x == 0) return 1;
+	x *= Math.PI;
+	return Math.sin(x) / x;
+}
+
+static Coefficients computeCoefficients(int size, int destSize, int filter) {
+	double scale = (double) size / destSize;
+	double filterScale = Math.max(scale, 1);
+	double support = support(filter) * filterScale;
+	Coefficients coefficients = new Coefficients();
+	int kernelSize = coefficients.size = (int) Math.ceil(support) * 2 + 1;
+	int[] bounds = coefficients.bounds = new int[destSize * 2];
+	int[] weights = coefficients.weights = new int[destSize * kernelSize];
+	double[] kernel = new double[kernelSize];
+	for (int i = 0; i < destSize; i++) {
+		double center = (i + 0.5) * scale;
+		int min = Math.max((int) Math.floor(center - support + 0.5), 0);
+		int max = Math.min((int) Math.floor(center + support + 0.5), size);
+		int count = Math.min(max - min, kernelSize);
+		double total = 0;
+		for (int j = 0; j < count; j++) {
+			kernel[j] = weight(filter, (j + min - center + 0.5) / filterScale);
+			total += kernel[j];
+		}
+		if (total == 0) {
+			/* Happens at the borders when enlarging, use the closest pixel */
+			count = 1;
+			min = Math.min(Math.max((int) center, 0), size - 1);
+			kernel[0] = total = 1;
+		}
+		bounds[i * 2] = min;
+		bounds[i * 2 + 1] = count;
+		int sum = 0;
+		for (int j = 0; j < count; j++) {
+			sum += weights[i * kernelSize + j] = (int) Math.round(kernel[j] / total * (1 << PRECISION_BITS));
+		}
+		/* The rounding residue goes to the centre tap, so that the weights sum to one */
+		int centre = Math.min(Math.max((int) center - min, 0), count - 1);
+		weights[i * kernelSize + centre] += (1 << PRECISION_BITS) - sum;
+	}
+	return coefficients;
+}
+
+static int[] resampleRows(int[] pixels, int width, int firstRow, int rowCount, int destWidth, Coefficients coefficients) {
+	int[] result = new int[destWidth * rowCount];
+	int[] bounds = coefficients.bounds;
+	int[] weights = coefficients.weights;
+	int kernelSize = coefficients.size;
+	int stripCount = (rowCount + STRIP_HEIGHT - 1) / STRIP_HEIGHT;
+	ParallelStrips.run(stripCount, "SWT Image Resampler", strip -> { //$NON-NLS-1$
+		int endRow = Math.min(rowCount, (strip + 1) * STRIP_HEIGHT);
+		for (int y = strip * STRIP_HEIGHT; y < endRow; y++) {
+			int row = (firstRow + y) * width;
+			int destRow = y * destWidth;
+			for (int x = 0; x < destWidth; x++) {
+				int offset = row + bounds[x * 2];
+				int count = bounds[x * 2 + 1];
+				int k = x * kernelSize;
+				int a = HALF, r = HALF, g = HALF, b = HALF;
+				for (int j = 0; j < count; j++) {
+					int pixel = pixels[offset + j];
+					int weight = weights[k + j];
+					a += (pixel >>> 24) * weight;
+					r += ((pixel >> 16) & 0xFF) * weight;
+					g += ((pixel >> 8) & 0xFF) * weight;
+					b += (pixel & 0xFF) * weight;
+				}
+				result[destRow + x] = pack(a, r, g, b);
+			}
+		}
+	});
+	return result;
+}
+
+static int[] resampleColumns(int[] pixels, int width, int firstRow, int destHeight, Coefficients coefficients) {
+	int[] result = new int[width * destHeight];
+	int[] bounds = coefficients.bounds;
+	int[] weights = coefficients.weights;
+	int kernelSize = coefficients.size;
+	int stripCount = (destHeight + STRIP_HEIGHT - 1) / STRIP_HEIGHT;
+	ParallelStrips.run(stripCount, "SWT Image Resampler", strip -> { //$NON-NLS-1$
+		/* Accumulate whole rows so that the source is read sequentially */
+		int[] sums = new int[width * 4];
+		int endRow = Math.min(destHeight, (strip + 1) * STRIP_HEIGHT);
+		for (int y = strip * STRIP_HEIGHT; y < endRow; y++) {
+			Arrays.fill(sums, HALF);
+			int min = bounds[y * 2] - firstRow;
+			int count = bounds[y * 2 + 1];
+			int k = y * kernelSize;
+			for (int j = 0; j < count; j++) {
+				int row = (min + j) * width;
+				int weight = weights[k + j];
+				for (int x = 0, i = 0; x < width; x++, i += 4) {
+					int pixel = pixels[row + x];
+					sums[i] += (pixel >>> 24) * weight;
+					sums[i + 1] += ((pixel >> 16) & 0xFF) * weight;
+					sums[i + 2] += ((pixel >> 8) & 0xFF) * weight;
+					sums[i + 3] += (pixel & 0xFF) * weight;
+				}
+			}
+			int destRow = y * width;
+			for (int x = 0, i = 0; x < width; x++, i += 4) {
+				result[destRow + x] = pack(sums[i], sums[i + 1], sums[i + 2], sums[i + 3]);
+			}
+		}
+	});
+	return result;
+}
+
+/**
+ * Packs the fixed point channel sums into a premultiplied pixel.
+ * Filters with negative lobes can overshoot, so the alpha is
+ * clamped to 0..255 and the colors to 0..alpha.
+ */
+static int pack(int a, int r, int g, int b) {
+	a >>= PRECISION_BITS;
+	r >>= PRECISION_BITS;
+	g >>= PRECISION_BITS;
+	b >>= PRECISION_BITS;
+	a = a < 0 ? 0 : (a > 255 ? 255 : a);
+	r = r < 0 ? 0 : (r > a ? a : r);
+	g = g < 0 ? 0 : (g > a ? a : g);
+	b = b < 0 ? 0 : (b > a ? a : b);
+	return (a << 24) | (r << 16) | (g << 8) | b;
+}
+
+}
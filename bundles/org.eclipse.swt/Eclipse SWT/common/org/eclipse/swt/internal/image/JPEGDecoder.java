@@ -18,6 +18,7 @@
 package org.eclipse.swt.internal.image;
 
 import java.io.*;
+import java.util.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
@@ -40,6 +41,8 @@ public class JPEGDecoder {
 	static final int CENTERJSAMPLE = 128;
 	static final int MIN_GET_BITS = 32-7;
 	static final int INPUT_BUFFER_SIZE = 4096;
+	static final int PARALLEL_MIN_PIXELS = 512 * 512;
+	static final int PARALLEL_GROUPS_PER_THREAD = 4;
 
 	static final int SCALEBITS = 16;	/* speediest right-shift on some machines */
 	static final int ONE_HALF = 1 << (SCALEBITS-1);
@@ -228,6 +231,29 @@ public class JPEGDecoder {
 		63, 63, 63, 63, 63, 63, 63, 63
 	};
 
+	/* Keeps the bytes read from the stream until the header has been read */
+	static final class RecordingInputStream extends FilterInputStream {
+		ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+
+		RecordingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int nbytes = super.read(b, off, len);
+			if (recorded != null && nbytes > 0) recorded.write(b, off, nbytes);
+			return nbytes;
+		}
+
+		/* Stops recording and returns the bytes read, less the given number of unread bytes */
+		byte[] stop(int unread) {
+			byte[] bytes = recorded.toByteArray();
+			recorded = null;
+			return Arrays.copyOf(bytes, bytes.length - unread);
+		}
+	}
+
 	static final class JQUANT_TBL {
 		/* This array gives the coefficient quantizers in natural array order
 		 * (not the zigzag order in which they are stored in a JPEG DQT marker).
@@ -1662,6 +1688,11 @@ public class JPEGDecoder {
 		/* Per-component upsampling method pointers */
 		int[] methods = new int[MAX_COMPONENTS];
 
+		/* Fancy chroma upsampling method done during color conversion, or
+		 * NOOP_UPSAMPLE when the chroma components are upsampled separately.
+		 */
+		int fancy_convert;
+
 		int next_row_out;		/* counts rows emitted from color_buf */
 		int rows_to_go;	/* counts rows remaining in image */
 
@@ -1803,20 +1834,18 @@ public class JPEGDecoder {
 				compptr = cinfo.comp_info[ci];
 				/* Select the proper IDCT routine for this component's scaling */
 				switch (compptr.DCT_scaled_size) {
-//					#ifdef IDCT_SCALING_SUPPORTED
-//					case 1:
+					case 1:
 //						method_ptr = jpeg_idct_1x1;
-//						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
-//						break;
-//					case 2:
+						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
+						break;
+					case 2:
 //						method_ptr = jpeg_idct_2x2;
-//						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
-//						break;
-//					case 4:
+						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
+						break;
+					case 4:
 //						method_ptr = jpeg_idct_4x4;
-//						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
-//						break;
-//					#endif
+						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
+						break;
 					case DCTSIZE:
 						switch (cinfo.dct_method) {
 //							#ifdef DCT_ISLOW_SUPPORTED
@@ -2378,87 +2407,72 @@ static void jpeg_create_decompress(jpeg_decompress_struct cinfo) {
 static void jpeg_calc_output_dimensions (jpeg_decompress_struct cinfo)
 /* Do computations that are needed before master selection phase */
 {
-//#ifdef IDCT_SCALING_SUPPORTED
-//	int ci;
-//	jpeg_component_info compptr;
-//#endif
+	int ci;
+	jpeg_component_info compptr;
 
 	/* Prevent application from calling me at wrong times */
 	if (cinfo.global_state != DSTATE_READY)
 		error();
 //		ERREXIT1(cinfo, JERR_BAD_STATE, cinfo.global_state);
 
-//#ifdef IDCT_SCALING_SUPPORTED
-//
-//	/* Compute actual output image dimensions and DCT scaling choices. */
-//	if (cinfo.scale_num * 8 <= cinfo.scale_denom) {
-//		/* Provide 1/8 scaling */
-//		cinfo.output_width = (int)
-//			jdiv_round_up(cinfo.image_width, 8L);
-//		cinfo.output_height = (int)
-//			jdiv_round_up(cinfo.image_height, 8L);
-//		cinfo.min_DCT_scaled_size = 1;
-//	} else if (cinfo.scale_num * 4 <= cinfo.scale_denom) {
-//		/* Provide 1/4 scaling */
-//		cinfo.output_width = (int)
-//			jdiv_round_up(cinfo.image_width, 4L);
-//		cinfo.output_height = (int)
-//			jdiv_round_up(cinfo.image_height, 4L);
-//		cinfo.min_DCT_scaled_size = 2;
-//	} else if (cinfo.scale_num * 2 <= cinfo.scale_denom) {
-//		/* Provide 1/2 scaling */
-//		cinfo.output_width = (int)
-//			jdiv_round_up(cinfo.image_width, 2L);
-//		cinfo.output_height = (int)
-//			jdiv_round_up(cinfo.image_height, 2L);
-//		cinfo.min_DCT_scaled_size = 4;
-//	} else {
-//		/* Provide 1/1 scaling */
-//		cinfo.output_width = cinfo.image_width;
-//		cinfo.output_height = cinfo.image_height;
-//		cinfo.min_DCT_scaled_size = DCTSIZE;
-//	}
-//	/* In selecting the actual DCT scaling for each component, we try to
-//	 * scale up the chroma components via IDCT scaling rather than upsampling.
-//	 * This saves time if the upsampler gets to use 1:1 scaling.
-//	 * Note this code assumes that the supported DCT scalings are powers of 2.
-//	 */
-//	for (ci = 0; ci < cinfo.num_components; ci++) {
-//		compptr = cinfo.comp_info[ci];
-//		int ssize = cinfo.min_DCT_scaled_size;
-//		while (ssize < DCTSIZE &&
-//			(compptr.h_samp_factor * ssize * 2 <= cinfo.max_h_samp_factor * cinfo.min_DCT_scaled_size) &&
-//			(compptr.v_samp_factor * ssize * 2 <= cinfo.max_v_samp_factor * cinfo.min_DCT_scaled_size))
-//		{
-//			ssize = ssize * 2;
-//		}
-//		compptr.DCT_scaled_size = ssize;
-//	}
-//
-//	/* Recompute downsampled dimensions of components;
-//	 * application needs to know these if using raw downsampled data.
-//	 */
-//	for (ci = 0; ci < cinfo.num_components; ci++) {
-//		compptr = cinfo.comp_info[ci];
-//		/* Size in samples, after IDCT scaling */
-//		compptr.downsampled_width = (int)
-//			jdiv_round_up((long) cinfo.image_width * (long) (compptr.h_samp_factor * compptr.DCT_scaled_size),
-//				(cinfo.max_h_samp_factor * DCTSIZE));
-//		compptr.downsampled_height = (int)
-//			jdiv_round_up((long) cinfo.image_height * (long) (compptr.v_samp_factor * compptr.DCT_scaled_size),
-//				(cinfo.max_v_samp_factor * DCTSIZE));
-//	}
-//
-//#else /* !IDCT_SCALING_SUPPORTED */
-
-	/* Hardwire it to "no scaling" */
-	cinfo.output_width = cinfo.image_width;
-	cinfo.output_height = cinfo.image_height;
-	/* jdinput.c has already initialized DCT_scaled_size to DCTSIZE,
-	 * and has computed unscaled downsampled_width and downsampled_height.
+	/* Compute actual output image dimensions and DCT scaling choices. */
+	if (cinfo.scale_num * 8 <= cinfo.scale_denom) {
+		/* Provide 1/8 scaling */
+		cinfo.output_width = (int)
+			jdiv_round_up(cinfo.image_width, 8L);
+		cinfo.output_height = (int)
+			jdiv_round_up(cinfo.image_height, 8L);
+		cinfo.min_DCT_scaled_size = 1;
+	} else if (cinfo.scale_num * 4 <= cinfo.scale_denom) {
+		/* Provide 1/4 scaling */
+		cinfo.output_width = (int)
+			jdiv_round_up(cinfo.image_width, 4L);
+		cinfo.output_height = (int)
+			jdiv_round_up(cinfo.image_height, 4L);
+		cinfo.min_DCT_scaled_size = 2;
+	} else if (cinfo.scale_num * 2 <= cinfo.scale_denom) {
+		/* Provide 1/2 scaling */
+		cinfo.output_width = (int)
+			jdiv_round_up(cinfo.image_width, 2L);
+		cinfo.output_height = (int)
+			jdiv_round_up(cinfo.image_height, 2L);
+		cinfo.min_DCT_scaled_size = 4;
+	} else {
+		/* Provide 1/1 scaling */
+		cinfo.output_width = cinfo.image_width;
+		cinfo.output_height = cinfo.image_height;
+		cinfo.min_DCT_scaled_size = DCTSIZE;
+	}
+	/* In selecting the actual DCT scaling for each component, we try to
+	 * scale up the chroma components via IDCT scaling rather than upsampling.
+	 * This saves time if the upsampler gets to use 1:1 scaling.
+	 * Note this code assumes that the supported DCT scalings are powers of 2.
 	 */
+	for (ci = 0; ci < cinfo.num_components; ci++) {
+		compptr = cinfo.comp_info[ci];
+		int ssize = cinfo.min_DCT_scaled_size;
+		while (ssize < DCTSIZE &&
+			(compptr.h_samp_factor * ssize * 2 <= cinfo.max_h_samp_factor * cinfo.min_DCT_scaled_size) &&
+			(compptr.v_samp_factor * ssize * 2 <= cinfo.max_v_samp_factor * cinfo.min_DCT_scaled_size))
+		{
+			ssize = ssize * 2;
+		}
+		compptr.DCT_scaled_size = ssize;
+	}
 
-//#endif /* IDCT_SCALING_SUPPORTED */
+	/* Recompute downsampled dimensions of components;
+	 * application needs to know these if using raw downsampled data.
+	 */
+	for (ci = 0; ci < cinfo.num_components; ci++) {
+		compptr = cinfo.comp_info[ci];
+		/* Size in samples, after IDCT scaling */
+		compptr.downsampled_width = (int)
+			jdiv_round_up((long) cinfo.image_width * (long) (compptr.h_samp_factor * compptr.DCT_scaled_size),
+				(cinfo.max_h_samp_factor * DCTSIZE));
+		compptr.downsampled_height = (int)
+			jdiv_round_up((long) cinfo.image_height * (long) (compptr.v_samp_factor * compptr.DCT_scaled_size),
+				(cinfo.max_v_samp_factor * DCTSIZE));
+	}
 
 	/* Report number of components in selected colorspace. */
 	/* Probably this should be in the color conversion module... */
@@ -2886,6 +2900,29 @@ static void jinit_upsampler (jpeg_decompress_struct cinfo) {
 						 [(int) jround_up(cinfo.output_width, cinfo.max_h_samp_factor)];
 		}
 	}
+
+	/* When both chroma components of a YCbCr image use the same fancy 2h
+	 * upsampling, the upsampling is folded into the color conversion so that
+	 * the upsampled chroma rows never need to be stored.  The chroma input
+	 * rows are then passed through like fullsize components.
+	 */
+	upsample.fancy_convert = NOOP_UPSAMPLE;
+	if (cinfo.cconvert.color_convert == YCC_RGB_CONVERT && cinfo.num_components == 3 &&
+		upsample.methods[0] == FULLSIZE_UPSAMPLE &&
+		(upsample.methods[1] == H2V1_FANCY_UPSAMPLE || upsample.methods[1] == H2V2_FANCY_UPSAMPLE) &&
+		upsample.methods[2] == upsample.methods[1])
+	{
+		int width = cinfo.comp_info[1].downsampled_width;
+		if (cinfo.comp_info[2].downsampled_width == width &&
+			cinfo.output_width > width * 2 - 2 && cinfo.output_width <= width * 2)
+		{
+			upsample.fancy_convert = upsample.methods[1];
+			for (ci = 1; ci < 3; ci++) {
+				upsample.methods[ci] = FULLSIZE_UPSAMPLE;
+				upsample.color_buf[ci] = null;
+			}
+		}
+	}
 }
 
 static void jinit_phuff_decoder (jpeg_decompress_struct cinfo) {
@@ -2931,6 +2968,267 @@ static void jinit_inverse_dct (jpeg_decompress_struct cinfo) {
 static final int CONST_BITS = 13;
 static final int PASS1_BITS = 2;
 static final int RANGE_MASK =(MAXJSAMPLE * 4 + 3);
+static void inverse_DCT (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col)
+{
+	switch (compptr.DCT_scaled_size) {
+		case 1: jpeg_idct_1x1(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col); break;
+		case 2: jpeg_idct_2x2(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col); break;
+		case 4: jpeg_idct_4x4(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col); break;
+		default: jpeg_idct_islow(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col); break;
+	}
+}
+
+/*
+ * Perform dequantization and inverse DCT on one block of coefficients,
+ * producing a reduced-size 4x4 output block.
+ */
+static void jpeg_idct_4x4 (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col)
+{
+	int tmp0, tmp2, tmp10, tmp12;
+	int z1, z2, z3, z4;
+	short[] inptr = coef_block;
+	int[] quantptr = compptr.dct_table;
+	int[] wsptr = cinfo.workspace;
+	byte[] outptr;
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
+	int ctr;
+
+	/* Pass 1: process columns from input, store into work array. */
+	for (ctr = 0; ctr < DCTSIZE; ctr++) {
+		/* Don't bother to process column 4, because second pass won't use it */
+		if (ctr == 4)
+			continue;
+		if (inptr[DCTSIZE*1+ctr] == 0 && inptr[DCTSIZE*2+ctr] == 0 &&
+			inptr[DCTSIZE*3+ctr] == 0 && inptr[DCTSIZE*5+ctr] == 0 &&
+			inptr[DCTSIZE*6+ctr] == 0 && inptr[DCTSIZE*7+ctr] == 0)
+		{
+			/* AC terms all zero; we need not examine term 4 for 4x4 output */
+			int dcval = (inptr[DCTSIZE*0+ctr] * quantptr[DCTSIZE*0+ctr]) << PASS1_BITS;
+
+			wsptr[DCTSIZE*0+ctr] = dcval;
+			wsptr[DCTSIZE*1+ctr] = dcval;
+			wsptr[DCTSIZE*2+ctr] = dcval;
+			wsptr[DCTSIZE*3+ctr] = dcval;
+			continue;
+		}
+
+		/* Even part */
+
+		tmp0 = inptr[DCTSIZE*0+ctr] * quantptr[DCTSIZE*0+ctr];
+		tmp0 <<= (CONST_BITS+1);
+
+		z2 = inptr[DCTSIZE*2+ctr] * quantptr[DCTSIZE*2+ctr];
+		z3 = inptr[DCTSIZE*6+ctr] * quantptr[DCTSIZE*6+ctr];
+
+		tmp2 = (z2 * 15137/*FIX_1_847759065*/) + (z3 * - 6270/*FIX_0_765366865*/);
+
+		tmp10 = tmp0 + tmp2;
+		tmp12 = tmp0 - tmp2;
+
+		/* Odd part */
+
+		z1 = inptr[DCTSIZE*7+ctr] * quantptr[DCTSIZE*7+ctr];
+		z2 = inptr[DCTSIZE*5+ctr] * quantptr[DCTSIZE*5+ctr];
+		z3 = inptr[DCTSIZE*3+ctr] * quantptr[DCTSIZE*3+ctr];
+		z4 = inptr[DCTSIZE*1+ctr] * quantptr[DCTSIZE*1+ctr];
+
+		tmp0 = (z1 * - 1730/*FIX_0_211164243*/) /* sqrt(2) * (c3-c1) */
+			+ (z2 * 11893/*FIX_1_451774981*/) /* sqrt(2) * (c3+c7) */
+			+ (z3 * - 17799/*FIX_2_172734803*/) /* sqrt(2) * (-c1-c5) */
+			+ (z4 * 8697/*FIX_1_061594337*/); /* sqrt(2) * (c5+c7) */
+
+		tmp2 = (z1 * - 4176/*FIX_0_509795579*/) /* sqrt(2) * (c7-c5) */
+			+ (z2 * - 4926/*FIX_0_601344887*/) /* sqrt(2) * (c5-c1) */
+			+ (z3 * 7373/*FIX_0_899976223*/) /* sqrt(2) * (c3-c7) */
+			+ (z4 * 20995/*FIX_2_562915447*/); /* sqrt(2) * (c1+c3) */
+
+		/* Final output stage */
+
+//		#define DESCALE(x,n)	RIGHT_SHIFT((x) + (ONE << ((n)-1)), n)
+		wsptr[DCTSIZE*0+ctr] = (tmp10 + tmp2 + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+		wsptr[DCTSIZE*3+ctr] = (tmp10 - tmp2 + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+		wsptr[DCTSIZE*1+ctr] = (tmp12 + tmp0 + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+		wsptr[DCTSIZE*2+ctr] = (tmp12 - tmp0 + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+	}
+
+	/* Pass 2: process 4 rows from work array, store into output array. */
+
+	int wsptr_offset = 0;
+	for (ctr = 0; ctr < 4; ctr++) {
+		outptr = output_buf[ctr+output_buf_offset];
+		/* It's not clear whether a zero row test is worthwhile here ... */
+
+		if (wsptr[1+wsptr_offset] == 0 && wsptr[2+wsptr_offset] == 0 && wsptr[3+wsptr_offset] == 0 &&
+			wsptr[5+wsptr_offset] == 0 && wsptr[6+wsptr_offset] == 0 && wsptr[7+wsptr_offset] == 0)
+		{
+			/* AC terms all zero */
+			byte dcval = range_limit[range_limit_offset + (((wsptr[0+wsptr_offset] + (1 << (PASS1_BITS+2))) >> (PASS1_BITS+3)) & RANGE_MASK)];
+
+			outptr[0+output_col] = dcval;
+			outptr[1+output_col] = dcval;
+			outptr[2+output_col] = dcval;
+			outptr[3+output_col] = dcval;
+
+			wsptr_offset += DCTSIZE;		/* advance pointer to next row */
+			continue;
+		}
+
+		/* Even part */
+
+		tmp0 = wsptr[0+wsptr_offset] << (CONST_BITS+1);
+
+		tmp2 = (wsptr[2+wsptr_offset] * 15137/*FIX_1_847759065*/)
+			+ (wsptr[6+wsptr_offset] * - 6270/*FIX_0_765366865*/);
+
+		tmp10 = tmp0 + tmp2;
+		tmp12 = tmp0 - tmp2;
+
+		/* Odd part */
+
+		z1 = wsptr[7+wsptr_offset];
+		z2 = wsptr[5+wsptr_offset];
+		z3 = wsptr[3+wsptr_offset];
+		z4 = wsptr[1+wsptr_offset];
+
+		tmp0 = (z1 * - 1730/*FIX_0_211164243*/) /* sqrt(2) * (c3-c1) */
+			+ (z2 * 11893/*FIX_1_451774981*/) /* sqrt(2) * (c3+c7) */
+			+ (z3 * - 17799/*FIX_2_172734803*/) /* sqrt(2) * (-c1-c5) */
+			+ (z4 * 8697/*FIX_1_061594337*/); /* sqrt(2) * (c5+c7) */
+
+		tmp2 = (z1 * - 4176/*FIX_0_509795579*/) /* sqrt(2) * (c7-c5) */
+			+ (z2 * - 4926/*FIX_0_601344887*/) /* sqrt(2) * (c5-c1) */
+			+ (z3 * 7373/*FIX_0_899976223*/) /* sqrt(2) * (c3-c7) */
+			+ (z4 * 20995/*FIX_2_562915447*/); /* sqrt(2) * (c1+c3) */
+
+		/* Final output stage */
+
+		outptr[0+output_col] = range_limit[range_limit_offset + (((tmp10 + tmp2 + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+		outptr[3+output_col] = range_limit[range_limit_offset + (((tmp10 - tmp2 + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+		outptr[1+output_col] = range_limit[range_limit_offset + (((tmp12 + tmp0 + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+		outptr[2+output_col] = range_limit[range_limit_offset + (((tmp12 - tmp0 + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+
+		wsptr_offset += DCTSIZE;		/* advance pointer to next row */
+	}
+}
+
+/*
+ * Perform dequantization and inverse DCT on one block of coefficients,
+ * producing a reduced-size 2x2 output block.
+ */
+static void jpeg_idct_2x2 (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col)
+{
+	int tmp0, tmp10, z1;
+	short[] inptr = coef_block;
+	int[] quantptr = compptr.dct_table;
+	int[] wsptr = cinfo.workspace;
+	byte[] outptr;
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
+	int ctr;
+
+	/* Pass 1: process columns from input, store into work array. */
+	for (ctr = 0; ctr < DCTSIZE; ctr++) {
+		/* Don't bother to process columns 2,4,6 */
+		if (ctr == 2 || ctr == 4 || ctr == 6)
+			continue;
+		if (inptr[DCTSIZE*1+ctr] == 0 && inptr[DCTSIZE*3+ctr] == 0 &&
+			inptr[DCTSIZE*5+ctr] == 0 && inptr[DCTSIZE*7+ctr] == 0)
+		{
+			/* AC terms all zero; we need not examine terms 2,4,6 for 2x2 output */
+			int dcval = (inptr[DCTSIZE*0+ctr] * quantptr[DCTSIZE*0+ctr]) << PASS1_BITS;
+
+			wsptr[DCTSIZE*0+ctr] = dcval;
+			wsptr[DCTSIZE*1+ctr] = dcval;
+			continue;
+		}
+
+		/* Even part */
+
+		z1 = inptr[DCTSIZE*0+ctr] * quantptr[DCTSIZE*0+ctr];
+		tmp10 = z1 << (CONST_BITS+2);
+
+		/* Odd part */
+
+		z1 = inptr[DCTSIZE*7+ctr] * quantptr[DCTSIZE*7+ctr];
+		tmp0 = z1 * - 5906/*FIX_0_720959822*/; /* sqrt(2) * (c7-c5+c3-c1) */
+		z1 = inptr[DCTSIZE*5+ctr] * quantptr[DCTSIZE*5+ctr];
+		tmp0 += z1 * 6967/*FIX_0_850430095*/; /* sqrt(2) * (-c1+c3+c5+c7) */
+		z1 = inptr[DCTSIZE*3+ctr] * quantptr[DCTSIZE*3+ctr];
+		tmp0 += z1 * - 10426/*FIX_1_272758580*/; /* sqrt(2) * (-c1+c3-c5-c7) */
+		z1 = inptr[DCTSIZE*1+ctr] * quantptr[DCTSIZE*1+ctr];
+		tmp0 += z1 * 29692/*FIX_3_624509785*/; /* sqrt(2) * (c1+c3+c5+c7) */
+
+		/* Final output stage */
+
+		wsptr[DCTSIZE*0+ctr] = (tmp10 + tmp0 + (1 << (CONST_BITS-PASS1_BITS+1))) >> (CONST_BITS-PASS1_BITS+2);
+		wsptr[DCTSIZE*1+ctr] = (tmp10 - tmp0 + (1 << (CONST_BITS-PASS1_BITS+1))) >> (CONST_BITS-PASS1_BITS+2);
+	}
+
+	/* Pass 2: process 2 rows from work array, store into output array. */
+
+	int wsptr_offset = 0;
+	for (ctr = 0; ctr < 2; ctr++) {
+		outptr = output_buf[ctr+output_buf_offset];
+		/* It's not clear whether a zero row test is worthwhile here ... */
+
+		if (wsptr[1+wsptr_offset] == 0 && wsptr[3+wsptr_offset] == 0 && wsptr[5+wsptr_offset] == 0 && wsptr[7+wsptr_offset] == 0) {
+			/* AC terms all zero */
+			byte dcval = range_limit[range_limit_offset + (((wsptr[0+wsptr_offset] + (1 << (PASS1_BITS+2))) >> (PASS1_BITS+3)) & RANGE_MASK)];
+
+			outptr[0+output_col] = dcval;
+			outptr[1+output_col] = dcval;
+
+			wsptr_offset += DCTSIZE;		/* advance pointer to next row */
+			continue;
+		}
+
+		/* Even part */
+
+		tmp10 = wsptr[0+wsptr_offset] << (CONST_BITS+2);
+
+		/* Odd part */
+
+		tmp0 = (wsptr[7+wsptr_offset] * - 5906/*FIX_0_720959822*/) /* sqrt(2) * (c7-c5+c3-c1) */
+			+ (wsptr[5+wsptr_offset] * 6967/*FIX_0_850430095*/) /* sqrt(2) * (-c1+c3+c5+c7) */
+			+ (wsptr[3+wsptr_offset] * - 10426/*FIX_1_272758580*/) /* sqrt(2) * (-c1+c3-c5-c7) */
+			+ (wsptr[1+wsptr_offset] * 29692/*FIX_3_624509785*/); /* sqrt(2) * (c1+c3+c5+c7) */
+
+		/* Final output stage */
+
+		outptr[0+output_col] = range_limit[range_limit_offset + (((tmp10 + tmp0 + (1 << (CONST_BITS+PASS1_BITS+3+1))) >> (CONST_BITS+PASS1_BITS+3+2)) & RANGE_MASK)];
+		outptr[1+output_col] = range_limit[range_limit_offset + (((tmp10 - tmp0 + (1 << (CONST_BITS+PASS1_BITS+3+1))) >> (CONST_BITS+PASS1_BITS+3+2)) & RANGE_MASK)];
+
+		wsptr_offset += DCTSIZE;		/* advance pointer to next row */
+	}
+}
+
+/*
+ * Perform dequantization and inverse DCT on one block of coefficients,
+ * producing a reduced-size 1x1 output block.
+ */
+static void jpeg_idct_1x1 (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col)
+{
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
+
+	/* We hardly need an inverse DCT routine for this: just take the
+	 * average pixel value, which is one-eighth of the DC coefficient.
+	 */
+	int dcval = coef_block[0] * compptr.dct_table[0];
+	dcval = (dcval + (1 << 2)) >> 3;
+
+	output_buf[output_buf_offset][output_col] = range_limit[range_limit_offset + (dcval & RANGE_MASK)];
+}
+
 static void jpeg_idct_islow (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
 	short[] coef_block,
 	byte[][] output_buf, int output_buf_offset, int output_col)
@@ -2948,6 +3246,30 @@ static void jpeg_idct_islow (jpeg_decompress_struct cinfo, jpeg_component_info c
 	int[] workspace = cinfo.workspace;	/* buffers data between passes */
 //	SHIFT_TEMPS
 
+	/* Blocks without AC terms are common in smooth areas and come out as a
+	 * single value, which is what the two passes below compute for them.
+	 */
+	if (coef_block[1] == 0 && coef_block[DCTSIZE] == 0) {
+		int k = 2;
+		while (k < DCTSIZE2 && coef_block[k] == 0) k++;
+		if (k == DCTSIZE2) {
+			int dcval = (coef_block[0] * compptr.dct_table[0]) << PASS1_BITS;
+			byte value = range_limit[range_limit_offset + (((dcval + (1 << ((PASS1_BITS+3)-1))) >> PASS1_BITS+3) & RANGE_MASK)];
+			for (ctr = 0; ctr < DCTSIZE; ctr++) {
+				outptr = output_buf[ctr+output_buf_offset];
+				outptr[output_col] = value;
+				outptr[output_col+1] = value;
+				outptr[output_col+2] = value;
+				outptr[output_col+3] = value;
+				outptr[output_col+4] = value;
+				outptr[output_col+5] = value;
+				outptr[output_col+6] = value;
+				outptr[output_col+7] = value;
+			}
+			return;
+		}
+	}
+
 	/* Pass 1: process columns from input, store into work array. */
 	/* Note results are scaled up by sqrt(8) compared to a true IDCT; */
 	/* furthermore, we scale the results by 2**PASS1_BITS. */
@@ -3772,10 +4094,7 @@ static int decompress_onepass (jpeg_decompress_struct cinfo, byte[][][] output_b
 		for (MCU_col_num = coef.MCU_ctr; MCU_col_num <= last_MCU_col; MCU_col_num++) {
 			/* Try to fetch an MCU.	Entropy decoder expects buffer to be zeroed. */
 			for (int i = 0; i < cinfo.blocks_in_MCU; i++) {
-				short[] blk = coef.MCU_buffer[i];
-				for (int j = 0; j < blk.length; j++) {
-					blk[j] = 0;
-				}
+				Arrays.fill(coef.MCU_buffer[i], (short) 0);
 			}
 			if (! cinfo.entropy.decode_mcu (cinfo, coef.MCU_buffer)) {
 				/* Suspension forced; update state counters and exit */
@@ -3805,7 +4124,7 @@ static int decompress_onepass (jpeg_decompress_struct cinfo, byte[][][] output_b
 					if (cinfo.input_iMCU_row < last_iMCU_row ||	yoffset+yindex < compptr.last_row_height) {
 						output_col = start_col;
 						for (xindex = 0; xindex < useful_width; xindex++) {
-							jpeg_idct_islow(cinfo, compptr, coef.MCU_buffer[blkn+xindex], output_ptr, output_ptr_offset, output_col);
+							inverse_DCT(cinfo, compptr, coef.MCU_buffer[blkn+xindex], output_ptr, output_ptr_offset, output_col);
 							output_col += compptr.DCT_scaled_size;
 						}
 					}
@@ -4024,7 +4343,7 @@ static int decompress_smooth_data (jpeg_decompress_struct cinfo, byte[][][] outp
 					workspace[2] = (short) pred;
 				}
 				/* OK, do the IDCT */
-				jpeg_idct_islow(cinfo, compptr, workspace, output_ptr, output_ptr_offset, output_col);
+				inverse_DCT(cinfo, compptr, workspace, output_ptr, output_ptr_offset, output_col);
 				/* Advance for next column */
 				DC1 = DC2; DC2 = DC3;
 				DC4 = DC5; DC5 = DC6;
@@ -4088,7 +4407,7 @@ static int decompress_data (jpeg_decompress_struct cinfo, byte[][][] output_buf,
 			int buffer_ptr_offset = 0;
 			output_col = 0;
 			for (block_num = 0; block_num < compptr.width_in_blocks; block_num++) {
-				jpeg_idct_islow(cinfo, compptr, buffer_ptr[buffer_ptr_offset], output_ptr, output_ptr_offset, output_col);
+				inverse_DCT(cinfo, compptr, buffer_ptr[buffer_ptr_offset], output_ptr, output_ptr_offset, output_col);
 
 				buffer_ptr_offset++;
 				output_col += compptr.DCT_scaled_size;
@@ -4779,7 +5098,13 @@ static void sep_upsample (jpeg_decompress_struct cinfo, byte[][][] input_buf, in
 	switch (cinfo.cconvert.color_convert) {
 		case NULL_CONVERT: null_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
 		case GRAYSCALE_CONVERT: grayscale_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
-		case YCC_RGB_CONVERT: ycc_rgb_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
+		case YCC_RGB_CONVERT:
+			if (upsample.fancy_convert != NOOP_UPSAMPLE) {
+				fancy_ycc_rgb_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows);
+			} else {
+				ycc_rgb_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows);
+			}
+			break;
 		case GRAY_RGB_CONVERT: gray_rgb_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
 		case YCCK_CMYK_CONVERT: error(); break;
 	}
@@ -5063,17 +5388,101 @@ static void ycc_rgb_convert (jpeg_decompress_struct cinfo,
 		outptr = output_buf[output_buf_offset++];
 		int outptr_offset = 0;
 		for (col = 0; col < num_cols; col++) {
-			y = (inptr0[col] & 0xFF);
+			y = (inptr0[col] & 0xFF) + range_limit_offset;
 			cb = (inptr1[col] & 0xFF);
 			cr = (inptr2[col] & 0xFF);
 			/* Range-limiting is essential due to noise introduced by DCT losses. */
-			outptr[outptr_offset + RGB_RED] =	range_limit[y + Crrtab[cr] + range_limit_offset];
-			outptr[outptr_offset + RGB_GREEN] = range_limit[y + ((Cbgtab[cb] + Crgtab[cr]>>SCALEBITS)) + range_limit_offset];
-			outptr[outptr_offset + RGB_BLUE] =	range_limit[y + Cbbtab[cb] + range_limit_offset];
+			outptr[outptr_offset + RGB_RED] =	range_limit[y + Crrtab[cr]];
+			outptr[outptr_offset + RGB_GREEN] = range_limit[y + ((Cbgtab[cb] + Crgtab[cr]>>SCALEBITS))];
+			outptr[outptr_offset + RGB_BLUE] =	range_limit[y + Cbbtab[cb]];
 			outptr_offset += RGB_PIXELSIZE;
 		}
 	}
 }
+/*
+ * Upsample the chroma components of a 2h1v or 2h2v YCbCr image with the
+ * triangle filter of h2v1_fancy_upsample/h2v2_fancy_upsample and convert
+ * to RGB in the same pass.  input_row counts output rows in the row group,
+ * the chroma buffers hold the downsampled rows.  The results are identical
+ * to running the upsampler followed by ycc_rgb_convert.
+ */
+static void fancy_ycc_rgb_convert (jpeg_decompress_struct cinfo,
+	byte[][][] input_buf, int[] input_buf_offset, int input_row,
+	byte[][] output_buf, int output_buf_offset, int num_rows)
+{
+	jpeg_color_deconverter cconvert = cinfo.cconvert;
+	boolean h2v2 = cinfo.upsample.fancy_convert == H2V2_FANCY_UPSAMPLE;
+	int y, cb, cr;
+	byte[] outptr;
+	byte[] inptr0, cbptr0, cbptr1, crptr0, crptr1;
+	int col;
+	int num_cols = cinfo.output_width;
+	int width = cinfo.comp_info[1].downsampled_width;
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset;
+	int[] Crrtab = cconvert.Cr_r_tab;
+	int[] Cbbtab = cconvert.Cb_b_tab;
+	int[] Crgtab = cconvert.Cr_g_tab;
+	int[] Cbgtab = cconvert.Cb_g_tab;
+	/* The column sums below are 3 * nearer row + further row.  For 2h1v both
+	 * rows are the same, the biases then give the rounding of 2h1v upsampling.
+	 */
+	int even_bias = h2v2 ? 8 : 4;
+	int odd_bias = h2v2 ? 7 : 8;
+
+	while (--num_rows >= 0) {
+		inptr0 = input_buf[0][input_row+input_buf_offset[0]];
+		if (h2v2) {
+			int inrow = input_row >> 1;
+			/* next nearest is the row above for even rows, below for odd rows */
+			int nextrow = (input_row & 1) == 0 ? inrow - 1 : inrow + 1;
+			cbptr0 = input_buf[1][inrow+input_buf_offset[1]];
+			cbptr1 = input_buf[1][nextrow+input_buf_offset[1]];
+			crptr0 = input_buf[2][inrow+input_buf_offset[2]];
+			crptr1 = input_buf[2][nextrow+input_buf_offset[2]];
+		} else {
+			cbptr0 = cbptr1 = input_buf[1][input_row+input_buf_offset[1]];
+			crptr0 = crptr1 = input_buf[2][input_row+input_buf_offset[2]];
+		}
+		input_row++;
+		outptr = output_buf[output_buf_offset++];
+		int outptr_offset = 0;
+
+		/* The first column has no left neighbour, the last none on the right */
+		int cbthis = (cbptr0[0] & 0xFF) * 3 + (cbptr1[0] & 0xFF), cblast = cbthis, cbnext;
+		int crthis = (crptr0[0] & 0xFF) * 3 + (crptr1[0] & 0xFF), crlast = crthis, crnext;
+		for (col = 0; col < width; col++) {
+			if (col + 1 < width) {
+				cbnext = (cbptr0[col+1] & 0xFF) * 3 + (cbptr1[col+1] & 0xFF);
+				crnext = (crptr0[col+1] & 0xFF) * 3 + (crptr1[col+1] & 0xFF);
+			} else {
+				cbnext = cbthis;
+				crnext = crthis;
+			}
+
+			y = (inptr0[col*2] & 0xFF) + range_limit_offset;
+			cb = (cbthis * 3 + cblast + even_bias) >> 4;
+			cr = (crthis * 3 + crlast + even_bias) >> 4;
+			outptr[outptr_offset + RGB_RED] =	range_limit[y + Crrtab[cr]];
+			outptr[outptr_offset + RGB_GREEN] = range_limit[y + ((Cbgtab[cb] + Crgtab[cr]>>SCALEBITS))];
+			outptr[outptr_offset + RGB_BLUE] =	range_limit[y + Cbbtab[cb]];
+			outptr_offset += RGB_PIXELSIZE;
+
+			/* The upsampled width is rounded up, skip the extra odd column */
+			if (col*2 + 1 == num_cols) break;
+			y = (inptr0[col*2+1] & 0xFF) + range_limit_offset;
+			cb = (cbthis * 3 + cbnext + odd_bias) >> 4;
+			cr = (crthis * 3 + crnext + odd_bias) >> 4;
+			outptr[outptr_offset + RGB_RED] =	range_limit[y + Crrtab[cr]];
+			outptr[outptr_offset + RGB_GREEN] = range_limit[y + ((Cbgtab[cb] + Crgtab[cr]>>SCALEBITS))];
+			outptr[outptr_offset + RGB_BLUE] =	range_limit[y + Cbbtab[cb]];
+			outptr_offset += RGB_PIXELSIZE;
+
+			cblast = cbthis; cbthis = cbnext;
+			crlast = crthis; crthis = crnext;
+		}
+	}
+}
 
 static boolean process_APPn(int n, jpeg_decompress_struct cinfo) {
 	if (n == 0 || n == 14) {
@@ -6309,12 +6718,185 @@ static boolean isFileFormat(LEDataInputStream stream) {
 	}
 }
 
-static ImageData[] loadFromByteStream(InputStream inputStream, ImageLoader loader) {
+/*
+ * Read scanlines into the image data, keeping every step-th pixel
+ * of every step-th row of the given area of the output image.
+ * Stops after the last row of the area unless all is true.
+ */
+static void read_scanlines(jpeg_decompress_struct cinfo, byte[][] buffer, byte[] data, int row_stride,
+	int x, int y, int width, int height, int step, boolean all)
+{
+	read_scanlines(cinfo, buffer, data, row_stride, x, y, width, height, step, all, 0);
+}
+
+/*
+ * Same as above for an image whose first scanline is the given row
+ * of the output image.
+ */
+static void read_scanlines(jpeg_decompress_struct cinfo, byte[][] buffer, byte[] data, int row_stride,
+	int x, int y, int width, int height, int step, boolean all, int first_row)
+{
+	int pixel_size = cinfo.out_color_components;
+	int last_row = y + (height - 1) * step;
+	while (cinfo.output_scanline < cinfo.output_height) {
+		if (!all && first_row + cinfo.output_scanline > last_row) break;
+		int scanline = first_row + cinfo.output_scanline;
+		int rows = jpeg_read_scanlines(cinfo, buffer, buffer.length);
+		for (int i = 0; i < rows; i++, scanline++) {
+			if (scanline < y || scanline > last_row || (scanline - y) % step != 0) continue;
+			int offset = row_stride * ((scanline - y) / step);
+			if (step == 1) {
+				System.arraycopy(buffer[i], x * pixel_size, data, offset, width * pixel_size);
+			} else {
+				byte[] row = buffer[i];
+				for (int col = 0, index = x * pixel_size; col < width; col++, index += step * pixel_size) {
+					for (int k = 0; k < pixel_size; k++) {
+						data[offset++] = row[index + k];
+					}
+				}
+			}
+		}
+	}
+}
+
+/*
+ * Returns the offset of the SOF0 or SOF1 marker in the given header,
+ * or -1.
+ */
+static int find_sof(byte[] header) {
+	int offset = 2;
+	while (offset + 4 <= header.length) {
+		if ((header[offset] & 0xFF) != 0xFF) return -1;
+		int marker = header[offset + 1] & 0xFF;
+		if (marker == 0xFF) {
+			offset++;
+			continue;
+		}
+		if (marker == M_SOF0 || marker == M_SOF1) return offset + 7 <= header.length ? offset : -1;
+		offset += 2 + (((header[offset + 2] & 0xFF) << 8) | (header[offset + 3] & 0xFF));
+	}
+	return -1;
+}
+
+/*
+ * Decodes a sequential image whose restart intervals start at the
+ * beginning of an iMCU row on several threads.  Restart intervals do
+ * not share any entropy decoder state, so groups of intervals are
+ * decoded as images of their own, made of the header of the image
+ * with the height of the group and the compressed data of the group.
+ * A group starts at a multiple of eight intervals so that its restart
+ * markers are numbered from RST0 like those of a whole image.  The
+ * pixels are the same as when the image is decoded sequentially.
+ *
+ * Images with fancy 2h2v chroma upsampling are not decoded this way
+ * because the upsampling reads chroma rows of the neighbouring iMCU
+ * rows, which would change the pixels at the group boundaries.
+ *
+ * Returns false when the image is not decoded this way, in which case
+ * the caller decodes it sequentially.
+ */
+static boolean read_restart_intervals(jpeg_decompress_struct cinfo, byte[] header, byte[] data, int row_stride,
+	int x, int y, int width, int height, int step)
+{
+	if (cinfo.progressive_mode || cinfo.buffered_image || cinfo.restart_interval == 0) return false;
+	if (cinfo.comps_in_scan != cinfo.num_components || (cinfo.comps_in_scan == 1 && cinfo.max_v_samp_factor != 1)) return false;
+	if (cinfo.restart_interval % cinfo.MCUs_per_row != 0 || cinfo.upsample.need_context_rows) return false;
+	if ((long) cinfo.output_width * cinfo.output_height < PARALLEL_MIN_PIXELS) return false;
+	int threads = Runtime.getRuntime().availableProcessors();
+	int iMCU_rows = cinfo.restart_interval / cinfo.MCUs_per_row;
+	int intervals = (cinfo.total_iMCU_rows + iMCU_rows - 1) / iMCU_rows;
+	int target_size = (intervals + threads * PARALLEL_GROUPS_PER_THREAD - 1) / (threads * PARALLEL_GROUPS_PER_THREAD);
+	int group_size = Math.max(8, (target_size + 7) & ~7);
+	int groups = (intervals + group_size - 1) / group_size;
+	if (threads < 2 || groups < 2) return false;
+	int sof = find_sof(header);
+	if (sof == -1) return false;
+
+	/* Read the rest of the image, the sequential decoder reads it from memory from now on */
+	ByteArrayOutputStream stream = new ByteArrayOutputStream();
+	stream.write(cinfo.buffer, cinfo.bytes_offset, cinfo.bytes_in_buffer - cinfo.bytes_offset);
+	try {
+		byte[] chunk = new byte[INPUT_BUFFER_SIZE * 16];
+		int nbytes;
+		while ((nbytes = cinfo.inputStream.read(chunk)) > 0) {
+			stream.write(chunk, 0, nbytes);
+		}
+	} catch (IOException e) {
+		error(SWT.ERROR_IO);
+	}
+	byte[] scan = stream.toByteArray();
+	cinfo.inputStream = new ByteArrayInputStream(scan);
+	cinfo.bytes_in_buffer = cinfo.bytes_offset = 0;
+
+	/* Find the compressed data of each interval */
+	int[] starts = new int[intervals], ends = new int[intervals];
+	int count = 0, offset = 0;
+	while (count < intervals && offset + 1 < scan.length) {
+		if ((scan[offset] & 0xFF) != 0xFF) {
+			offset++;
+			continue;
+		}
+		int marker = scan[offset + 1] & 0xFF;
+		if (marker == 0 || marker == 0xFF) {
+			offset += marker == 0 ? 2 : 1;
+			continue;
+		}
+		ends[count++] = offset;
+		if (count == intervals) break;
+		if (marker != M_RST0 + ((count - 1) & 7)) return false;
+		offset += 2;
+		starts[count] = offset;
+	}
+	if (count != intervals) return false;
+
+	int image_height = cinfo.image_height;
+	int input_rows = iMCU_rows * cinfo.max_v_samp_factor * DCTSIZE;
+	int output_rows = iMCU_rows * cinfo.max_v_samp_factor * cinfo.min_DCT_scaled_size;
+	int scale_denom = cinfo.scale_denom;
+	int last_row = y + (height - 1) * step;
+	ParallelStrips.run(groups, "SWT JPEG Decoder", group -> { //$NON-NLS-1$
+		int first = group * group_size, last = Math.min(first + group_size, intervals);
+		int first_row = first * output_rows;
+		if (first_row > last_row || last * output_rows <= y) return;
+		byte[] group_header = header.clone();
+		int group_height = Math.min(last * input_rows, image_height) - first * input_rows;
+		group_header[sof + 5] = (byte) (group_height >> 8);
+		group_header[sof + 6] = (byte) group_height;
+		jpeg_decompress_struct ginfo = new jpeg_decompress_struct();
+		ginfo.inputStream = new SequenceInputStream(new ByteArrayInputStream(group_header),
+			new ByteArrayInputStream(scan, starts[first], ends[last - 1] - starts[first]));
+		jpeg_create_decompress(ginfo);
+		jpeg_read_header(ginfo, true);
+		ginfo.scale_num = 1;
+		ginfo.scale_denom = scale_denom;
+		jpeg_start_decompress(ginfo);
+		byte[][] buffer = new byte[Math.max(ginfo.rec_outbuf_height, ginfo.max_v_samp_factor * ginfo.min_DCT_scaled_size)][ginfo.output_width * ginfo.out_color_components];
+		read_scanlines(ginfo, buffer, data, row_stride, x, y, width, height, step, false, first_row);
+		jpeg_destroy_decompress(ginfo);
+	});
+	return true;
+}
+
+static ImageData[] loadFromByteStream(InputStream inputStream, ImageLoader loader, FileFormat format) {
 	jpeg_decompress_struct cinfo = new jpeg_decompress_struct();
-	cinfo.inputStream = inputStream;
+	RecordingInputStream recorder = new RecordingInputStream(inputStream);
+	cinfo.inputStream = recorder;
 	jpeg_create_decompress(cinfo);
 	jpeg_read_header(cinfo, true);
+	byte[] header = recorder.stop(cinfo.bytes_in_buffer - cinfo.bytes_offset);
 	cinfo.buffered_image = cinfo.progressive_mode && loader.hasListeners();
+	/*
+	* Reduce the image with the scaled inverse DCT as far as the
+	* subsampling factor allows, and keep every step-th pixel for
+	* the rest of it.
+	*/
+	Rectangle region = format.getRegion(cinfo.image_width, cinfo.image_height);
+	int subsampling = format.subsampling;
+	int scale = 1;
+	while (scale < DCTSIZE && subsampling % (scale * 2) == 0) scale *= 2;
+	int step = subsampling / scale;
+	cinfo.scale_num = 1;
+	cinfo.scale_denom = scale;
 	jpeg_start_decompress(cinfo);
 	PaletteData palette = null;
 	switch (cinfo.out_color_space) {
@@ -6331,35 +6913,34 @@ static ImageData[] loadFromByteStream(InputStream inputStream, ImageLoader loade
 		default:
 			error();
 	}
+	int x = region.x / scale, y = region.y / scale;
+	int width = (region.width + subsampling - 1) / subsampling;
+	int height = (region.height + subsampling - 1) / subsampling;
 	int scanlinePad = 4;
-	int row_stride = (((cinfo.output_width * cinfo.out_color_components * 8 + 7) / 8) + (scanlinePad - 1)) / scanlinePad * scanlinePad;
-	byte[][] buffer = new byte[1][row_stride];
-	byte[] data = new byte[row_stride * cinfo.output_height];
+	int row_stride = (((width * cinfo.out_color_components * 8 + 7) / 8) + (scanlinePad - 1)) / scanlinePad * scanlinePad;
+	/* Ask for a whole iMCU row at a time so that every call completes a row group */
+	byte[][] buffer = new byte[Math.max(cinfo.rec_outbuf_height, cinfo.max_v_samp_factor * cinfo.min_DCT_scaled_size)][cinfo.output_width * cinfo.out_color_components];
+	byte[] data = new byte[row_stride * height];
 	ImageData imageData = ImageData.internal_new(
-			cinfo.output_width, cinfo.output_height, palette.isDirect ? 24 : 8, palette, scanlinePad, data,
+			width, height, palette.isDirect ? 24 : 8, palette, scanlinePad, data,
 			0, null, null, -1, -1, SWT.IMAGE_JPEG, 0, 0, 0, 0);
 	if (cinfo.buffered_image) {
 		boolean done;
 		do {
 			int incrementCount = cinfo.input_scan_number - 1;
 			jpeg_start_output(cinfo, cinfo.input_scan_number);
-			while (cinfo.output_scanline < cinfo.output_height) {
-				int offset = row_stride * cinfo.output_scanline;
-				jpeg_read_scanlines(cinfo, buffer, 1);
-				System.arraycopy(buffer[0], 0, data, offset, row_stride);
-			}
+			read_scanlines(cinfo, buffer, data, row_stride, x, y, width, height, step, true);
 			jpeg_finish_output(cinfo);
 			loader.notifyListeners(new ImageLoaderEvent(loader, (ImageData)imageData.clone(), incrementCount, done = jpeg_input_complete(cinfo)));
 		} while (!done);
-	} else {
-		while (cinfo.output_scanline < cinfo.output_height) {
-			int offset = row_stride * cinfo.output_scanline;
-			jpeg_read_scanlines(cinfo, buffer, 1);
-			System.arraycopy(buffer[0], 0, data, offset, row_stride);
-		}
+		jpeg_finish_decompress(cinfo);
+	} else if (!read_restart_intervals(cinfo, header, data, row_stride, x, y, width, height, step)) {
+		read_scanlines(cinfo, buffer, data, row_stride, x, y, width, height, step, false);
+		/* The rows below the region are not decoded */
+		if (cinfo.output_scanline == cinfo.output_height) jpeg_finish_decompress(cinfo);
 	}
-	jpeg_finish_decompress(cinfo);
 	jpeg_destroy_decompress(cinfo);
+	format.optionsApplied = true;
 	return new ImageData[]{imageData};
 }
 
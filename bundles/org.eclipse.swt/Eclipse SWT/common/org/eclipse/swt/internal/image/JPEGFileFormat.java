@@ -1390,7 +1390,7 @@ boolean isZeroInRow(int[] dataUnit, int rIndex) {
 ImageData[] loadFromByteStream() {
 	//TEMPORARY CODE
 	if (System.getProperty("org.eclipse.swt.internal.image.JPEGFileFormat_3.2") == null) {
-		return JPEGDecoder.loadFromByteStream(inputStream, loader);
+		return JPEGDecoder.loadFromByteStream(inputStream, loader, this);
 	}
 	JPEGStartOfImage soi = new JPEGStartOfImage(inputStream);
 	if (!soi.verify()) SWT.error(SWT.ERROR_INVALID_IMAGE);
@@ -20,9 +20,11 @@ import org.eclipse.swt.graphics.*;
 final class LZWCodec {
 	int bitsPerPixel, blockSize, blockIndex, currentByte, bitsLeft,
 		codeSize, clearCode, endCode, newCodes, topSlot, currentSlot,
-		imageWidth, imageHeight, imageX, imageY, pass, line, codeMask;
-	byte[] block, lineArray;
-	int[] stack, suffix, prefix;
+		imageWidth, imageHeight, imageX, imageY, pass, line, codeMask,
+		bitBuffer, bitCount;
+	boolean endOfData;
+	byte[] block, lineArray, suffix;
+	int[] prefix, lengths;
 	LZWNode[] nodeStack;
 	LEDataInputStream inputStream;
 	LEDataOutputStream outputStream;
@@ -36,73 +38,84 @@ final class LZWCodec {
 
 /**
  * Decode the input.
+ * <p>
+ * The strings of the code table are stored as the code of their
+ * prefix, their last pixel and their length, so that the pixels of
+ * a code are written backwards straight into the frame. The rows
+ * are copied to the image as soon as they are complete.
+ * </p>
  */
 void decode() {
-	int code;
-	int oc = 0;
-	int fc = 0;
-	byte[] buf = new byte[imageWidth];
-	int stackIndex = 0;
-	int bufIndex = 0;
-	int c;
-	while ((c = nextCode()) != endCode) {
-		if (c == clearCode) {
+	int width = imageWidth, total = width * imageHeight;
+	byte[] pixels = new byte[total];
+	int pos = 0, rows = 0, oldCode = -1;
+	while (pos < total) {
+		int code = nextCode();
+		if (code == endCode) break;
+		if (code == clearCode) {
 			codeSize = bitsPerPixel + 1;
-			codeMask = MASK_TABLE[bitsPerPixel];
+			codeMask = (1 << codeSize) - 1;
 			currentSlot = newCodes;
 			topSlot = 1 << codeSize;
-			while ((c = nextCode()) == clearCode) {}
-			if (c != endCode) {
-				oc = fc = c;
-				buf[bufIndex] = (byte)c;
-				bufIndex++;
-				if (bufIndex == imageWidth) {
-					nextPutPixels(buf);
-					bufIndex = 0;
-				}
-			}
+			oldCode = -1;
+			continue;
+		}
+		if (oldCode == -1) {
+			pixels[pos++] = (byte)code;
+			oldCode = code;
 		} else {
-			code = c;
-			if (code >= currentSlot) {
-				code = oc;
-				stack[stackIndex] = fc;
-				stackIndex++;
+			int length, first;
+			if (code < newCodes) {
+				length = 1;
+				first = code;
+				if (pos < total) pixels[pos] = (byte)code;
+			} else if (code < currentSlot) {
+				length = lengths[code];
+				first = writeString(pixels, pos, code, length);
+			} else {
+				/* The code being defined: the previous string followed by its first pixel */
+				length = lengths[oldCode] + 1;
+				first = writeString(pixels, pos, oldCode, length - 1);
+				if (pos + length - 1 < total) pixels[pos + length - 1] = (byte)first;
 			}
-			while (code >= newCodes) {
-				stack[stackIndex] = suffix[code];
-				stackIndex++;
-				code = prefix[code];
-			}
-			stack[stackIndex] = code;
-			stackIndex++;
+			pos += length;
 			if (currentSlot < topSlot) {
-				fc = code;
-				suffix[currentSlot] = fc;
-				prefix[currentSlot] = oc;
+				prefix[currentSlot] = oldCode;
+				suffix[currentSlot] = (byte)first;
+				lengths[currentSlot] = lengths[oldCode] + 1;
 				currentSlot++;
-				oc = c;
-			}
-			if (currentSlot >= topSlot) {
-				if (codeSize < 12) {
-					codeMask = MASK_TABLE[codeSize];
-					codeSize++;
-					topSlot = topSlot + topSlot;
-				}
+				oldCode = code;
 			}
-			while (stackIndex > 0) {
-				stackIndex--;
-				buf[bufIndex] = (byte)stack[stackIndex];
-				bufIndex++;
-				if (bufIndex == imageWidth) {
-					nextPutPixels(buf);
-					bufIndex = 0;
-				}
+			if (currentSlot >= topSlot && codeSize < 12) {
+				codeSize++;
+				codeMask = (1 << codeSize) - 1;
+				topSlot += topSlot;
 			}
 		}
+		int completeRows = Math.min(pos, total) / width;
+		while (rows < completeRows) {
+			nextPutPixels(pixels, rows * width);
+			rows++;
+		}
+	}
+	if (pos < total && pos % width != 0) {
+		nextPutPixels(pixels, rows * width);
 	}
-	if (bufIndex != 0 && line < imageHeight) {
-		nextPutPixels(buf);
+	skipBlocks();
+}
+/**
+ * Write the string of the given code backwards from the end, and
+ * answer its first pixel. Pixels beyond the end of the frame are
+ * dropped.
+ */
+int writeString(byte[] pixels, int pos, int code, int length) {
+	int total = pixels.length;
+	for (int i = pos + length - 1; i > pos; i--) {
+		if (i < total) pixels[i] = suffix[code];
+		code = prefix[code];
 	}
+	if (pos < total) pixels[pos] = (byte)code;
+	return code;
 }
 /**
  * Decode the LZW-encoded bytes in the given byte stream
@@ -230,13 +243,19 @@ void initializeForDecoding() {
 	clearCode = 1 << bitsPerPixel;
 	endCode = clearCode + 1;
 	newCodes = currentSlot = endCode + 1;
-	currentByte = -1;
-	blockSize = bitsLeft = 0;
-	blockIndex = 0;
-	codeMask = MASK_TABLE[codeSize - 1];
-	stack = new int[4096];
-	suffix = new int[4096];
+	bitBuffer = bitCount = 0;
+	blockSize = blockIndex = 0;
+	endOfData = false;
+	codeMask = (1 << codeSize) - 1;
+	suffix = new byte[4096];
 	prefix = new int[4096];
+	lengths = new int[4096];
+	/* The root codes stand for themselves */
+	for (int i = 0; i < newCodes; i++) {
+		suffix[i] = (byte)i;
+		prefix[i] = i;
+		lengths[i] = 1;
+	}
 	block = new byte[256];
 	imageWidth = image.width;
 	imageHeight = image.height;
@@ -274,40 +293,46 @@ void initializeForEncoding() {
 	imageX = imageWidth + 1; // Force a read
 }
 /**
- * Answer the next code from the input byte array.
+ * Answer the next code from the input byte array. The bytes of the
+ * current block are shifted into a bit buffer until it holds a code.
  */
 int nextCode() {
-	int code;
-	if (bitsLeft == 0) {
+	while (bitCount < codeSize) {
 		if (blockIndex >= blockSize) {
+			if (endOfData) return endCode;
 			blockSize = readBlock();
 			blockIndex = 0;
-			if (blockSize == 0) return endCode;
+			if (blockSize == 0) {
+				endOfData = true;
+				return endCode;
+			}
 		}
-		blockIndex++;
-		currentByte = block[blockIndex] & 0xFF;
-		bitsLeft = 8;
-		code = currentByte;
-	} else {
-		int shift = bitsLeft - 8;
-		if (shift < 0)
-			code = currentByte >> (0 - shift);
-		else
-			code = currentByte << shift;
+		bitBuffer |= (block[++blockIndex] & 0xFF) << bitCount;
+		bitCount += 8;
 	}
-	while (codeSize > bitsLeft) {
-		if (blockIndex >= blockSize) {
-			blockSize = readBlock();
-			blockIndex = 0;
-			if (blockSize == 0) return endCode;
+	int code = bitBuffer & codeMask;
+	bitBuffer >>>= codeSize;
+	bitCount -= codeSize;
+	return code;
+}
+/**
+ * Skip the data blocks that follow the end of the image, up to and
+ * including the block terminator. A stream that ends before the
+ * terminator is accepted, since the image is complete.
+ */
+void skipBlocks() {
+	try {
+		while (!endOfData) {
+			int size = inputStream.read();
+			if (size <= 0) {
+				endOfData = true;
+			} else if (inputStream.read(block, 1, size) == -1) {
+				endOfData = true;
+			}
 		}
-		blockIndex++;
-		currentByte = block[blockIndex] & 0xFF;
-		code += currentByte << bitsLeft;
-		bitsLeft += 8;
+	} catch (Exception e) {
+		SWT.error(SWT.ERROR_IO, e);
 	}
-	bitsLeft -= codeSize;
-	return code & codeMask;
 }
 /**
  * Answer the next pixel to encode in the image
@@ -390,24 +415,17 @@ void nextPutCode(int aCode) {
 /**
  * Copy a row of pixel values to the image.
  */
-void nextPutPixels(byte[] buf) {
-	if (image.depth == 8) {
-		// Slight optimization for depth = 8.
-		int start = line * image.bytesPerLine;
-		for (int i = 0; i < imageWidth; i++)
-			image.data[start + i] = buf[i];
-	} else {
-		image.setPixels(0, line, imageWidth, buf, 0);
-	}
+void nextPutPixels(byte[] buf, int offset) {
+	putRow(buf, offset, line);
 	if (interlaced) {
 		if (pass == 1) {
-			copyRow(buf, 7);
+			copyRow(buf, offset, 7);
 			line += 8;
 		} else if (pass == 2) {
-			copyRow(buf, 3);
+			copyRow(buf, offset, 3);
 			line += 8;
 		} else if (pass == 3) {
-			copyRow(buf, 1);
+			copyRow(buf, offset, 1);
 			line += 4;
 		} else if (pass == 4) {
 			line += 2;
@@ -437,13 +455,24 @@ void nextPutPixels(byte[] buf) {
  * Copy duplicate rows of pixel values to the image.
  * This is to fill in rows if the image is interlaced.
  */
-void copyRow(byte[] buf, int copies) {
+void copyRow(byte[] buf, int offset, int copies) {
 	for (int i = 1; i <= copies; i++) {
 		if (line + i < imageHeight) {
-			image.setPixels(0, line + i, imageWidth, buf, 0);
+			putRow(buf, offset, line + i);
 		}
 	}
 }
+/**
+ * Copy a row of pixel values to the given line of the image.
+ */
+void putRow(byte[] buf, int offset, int y) {
+	if (image.depth == 8) {
+		// Slight optimization for depth = 8.
+		System.arraycopy(buf, offset, image.data, y * image.bytesPerLine, imageWidth);
+	} else {
+		image.setPixels(0, y, imageWidth, buf, offset);
+	}
+}
 /**
  * Read a block from the byte stream.
  * Return the number of bytes read.
@@ -15,6 +15,7 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.util.*;
 import java.util.zip.*;
 
 import org.eclipse.swt.*;
@@ -23,11 +24,16 @@ import org.eclipse.swt.graphics.*;
 public final class PNGFileFormat extends FileFormat {
 	static final int SIGNATURE_LENGTH = 8;
 	static final int PRIME = 65521;
+	/* Number of ImageLoaderEvents sent while a non-interlaced image loads */
+	static final int ROW_INCREMENTS = 8;
 	PngIhdrChunk headerChunk;
 	PngPlteChunk paletteChunk;
 	ImageData imageData;
-	byte[] data;
 	byte[] alphaPalette;
+	byte[] pixelRow;
+	Rectangle area;
+	int step;
+	boolean truncated;
 	byte headerByte1;
 	byte headerByte2;
 	int adler;
@@ -51,15 +57,25 @@ ImageData[] loadFromByteStream() {
 		headerChunk = chunkReader.getIhdrChunk();
 		int width = headerChunk.getWidth(), height = headerChunk.getHeight();
 		if (width <= 0 || height <= 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
-		int imageSize = getAlignedBytesPerRow() * height;
-		data = new byte[imageSize];
+		/*
+		* The rows are converted to the SWT format as they are
+		* decoded, so the image data has its final size here.
+		* Only the rows and columns that are kept are stored.
+		*/
+		area = getRegion(width, height);
+		step = subsampling;
+		optionsApplied = true;
+		int imageWidth = (area.width + step - 1) / step;
+		int imageHeight = (area.height + step - 1) / step;
+		int depth = headerChunk.getSwtBitsPerPixel();
+		int bytesPerLine = (((imageWidth * depth + 7) / 8) + 3) / 4 * 4;
 		imageData = ImageData.internal_new(
-			width,
-			height,
-			headerChunk.getSwtBitsPerPixel(),
+			imageWidth,
+			imageHeight,
+			depth,
 			new PaletteData(0, 0, 0),
 			4,
-			data,
+			new byte[bytesPerLine * imageHeight],
 			0,
 			null,
 			null,
@@ -75,8 +91,9 @@ ImageData[] loadFromByteStream() {
 			imageData.palette = headerChunk.getPaletteData();
 		}
 
-		// Read and process chunks until the IEND chunk is encountered.
-		while (chunkReader.hasMoreChunks()) {
+		// Read and process chunks until the IEND chunk is encountered,
+		// or until the pixel data below the region has been skipped.
+		while (chunkReader.hasMoreChunks() && !truncated) {
 			readNextChunk(chunkReader);
 		}
 
@@ -170,139 +187,6 @@ boolean isFileFormat(LEDataInputStream stream) {
 		return false;
 	}
 }
-/**
- * SWT does not support 16-bit depths. If this image uses
- * 16-bit depths, convert the data to an 8-bit depth.
- */
-byte[] validateBitDepth(byte[] data) {
-	if (headerChunk.getBitDepth() > 8) {
-		byte[] result = new byte[data.length / 2];
-		compress16BitDepthTo8BitDepth(data, 0, result, 0, result.length);
-		return result;
-	} else {
-		return data;
-	}
-}
-/**
- * SWT does not support greyscale as a color type. For
- * plain grayscale, we create a palette. For Grayscale
- * with Alpha, however, we need to convert the pixels
- * to use RGB values.
- * Note: This method assumes that the bit depth of the
- * data has already been restricted to 8 or less.
- */
-void setPixelData(byte[] data, ImageData imageData) {
-	switch (headerChunk.getColorType()) {
-		case PngIhdrChunk.COLOR_TYPE_GRAYSCALE_WITH_ALPHA:
-		{
-			int width = imageData.width;
-			int height = imageData.height;
-			int destBytesPerLine = imageData.bytesPerLine;
-			/*
-			* If the image uses 16-bit depth, it is converted
-			* to an 8-bit depth image.
-			*/
-			int srcBytesPerLine = getAlignedBytesPerRow();
-			if (headerChunk.getBitDepth() > 8) srcBytesPerLine /= 2;
-
-			byte[] rgbData = new byte[destBytesPerLine * height];
-			byte[] alphaData = new byte[width * height];
-			for (int y = 0; y < height; y++) {
-				int srcIndex = srcBytesPerLine * y;
-				int destIndex = destBytesPerLine * y;
-				int destAlphaIndex = width * y;
-				for (int x = 0; x < width; x++) {
-					byte grey = data[srcIndex];
-					byte alpha = data[srcIndex + 1];
-					rgbData[destIndex + 0] = grey;
-					rgbData[destIndex + 1] = grey;
-					rgbData[destIndex + 2] = grey;
-					alphaData[destAlphaIndex] = alpha;
-					srcIndex += 2;
-					destIndex += 3;
-					destAlphaIndex++;
-				}
-			}
-			imageData.data = rgbData;
-			imageData.alphaData = alphaData;
-			break;
-		}
-		case PngIhdrChunk.COLOR_TYPE_RGB_WITH_ALPHA:
-		{
-			int width = imageData.width;
-			int height = imageData.height;
-			int destBytesPerLine = imageData.bytesPerLine;
-			int srcBytesPerLine = getAlignedBytesPerRow();
-			/*
-			* If the image uses 16-bit depth, it is converted
-			* to an 8-bit depth image.
-			*/
-			if (headerChunk.getBitDepth() > 8) srcBytesPerLine /= 2;
-
-			byte[] rgbData = new byte[destBytesPerLine * height];
-			byte[] alphaData = new byte[width * height];
-			for (int y = 0; y < height; y++) {
-				int srcIndex = srcBytesPerLine * y;
-				int destIndex = destBytesPerLine * y;
-				int destAlphaIndex = width * y;
-				for (int x = 0; x < width; x++) {
-					rgbData[destIndex + 0] = data[srcIndex + 0];
-					rgbData[destIndex + 1] = data[srcIndex + 1];
-					rgbData[destIndex + 2] = data[srcIndex + 2];
-					alphaData[destAlphaIndex] = data[srcIndex + 3];
-					srcIndex += 4;
-					destIndex += 3;
-					destAlphaIndex++;
-				}
-			}
-			imageData.data = rgbData;
-			imageData.alphaData = alphaData;
-			break;
-		}
-		case PngIhdrChunk.COLOR_TYPE_PALETTE:
-			imageData.data = data;
-			if (alphaPalette != null) {
-				int size = imageData.width * imageData.height;
-				byte[] alphaData = new byte[size];
-				byte[] pixelData = new byte[size];
-				imageData.getPixels(0, 0, size, pixelData, 0);
-				for (int i = 0; i < pixelData.length; i++) {
-					alphaData[i] = alphaPalette[pixelData[i] & 0xFF];
-				}
-				imageData.alphaData = alphaData;
-			}
-			break;
-		case PngIhdrChunk.COLOR_TYPE_RGB:
-		default:
-			int height = imageData.height;
-			int destBytesPerLine = imageData.bytesPerLine;
-			int srcBytesPerLine = getAlignedBytesPerRow();
-			/*
-			* If the image uses 16-bit depth, it is converted
-			* to an 8-bit depth image.
-			*/
-			if (headerChunk.getBitDepth() > 8) srcBytesPerLine /= 2;
-			if (destBytesPerLine != srcBytesPerLine) {
-				for (int y = 0; y < height; y++) {
-					System.arraycopy(data, y * srcBytesPerLine, imageData.data, y * destBytesPerLine, srcBytesPerLine);
-				}
-			} else {
-				imageData.data = data;
-			}
-			break;
-	}
-}
-/**
- * PNG supports some color types and bit depths that are
- * unsupported by SWT. If the image uses an unsupported
- * color type (either of the gray scale types) or bit
- * depth (16), convert the data to an SWT-supported
- * format. Then assign the data into the ImageData given.
- */
-void setImageDataValues(byte[] data, ImageData imageData) {
-	byte[] result = validateBitDepth(data);
-	setPixelData(result, imageData);
-}
 /**
  * Read the image data from the data stream. This must handle
  * decoding the data, filtering, and interlacing.
@@ -318,6 +202,13 @@ void readPixelData(PngIdatChunk chunk, PngChunkReader chunkReader) throws IOExce
 	} else {
 		stream = new PngDecodingDataStream(stream);
 	}
+	byte colorType = headerChunk.getColorType();
+	if (colorType == PngIhdrChunk.COLOR_TYPE_GRAYSCALE_WITH_ALPHA ||
+		colorType == PngIhdrChunk.COLOR_TYPE_RGB_WITH_ALPHA ||
+		(colorType == PngIhdrChunk.COLOR_TYPE_PALETTE && alphaPalette != null))
+	{
+		imageData.alphaData = new byte[imageData.width * imageData.height];
+	}
 	int interlaceMethod = headerChunk.getInterlaceMethod();
 	if (interlaceMethod == PngIhdrChunk.INTERLACE_METHOD_NONE) {
 		readNonInterlacedImage(stream);
@@ -329,15 +220,11 @@ void readPixelData(PngIdatChunk chunk, PngChunkReader chunkReader) throws IOExce
 	* when it is closed. This may leave unread IDAT chunks. The fix
 	* is to read all available bytes before closing it.
 	*/
-	while (stream.available() > 0) stream.read();
+	if (!truncated) {
+		while (stream.available() > 0) stream.read();
+	}
 	stream.close();
 }
-/**
- * Answer the number of bytes in a word-aligned row of pixel data.
- */
-int getAlignedBytesPerRow() {
-	return ((getBytesPerRow(headerChunk.getWidth()) + 3) / 4) * 4;
-}
 /**
  * Answer the number of bytes in each row of the image
  * data. Each PNG row is byte-aligned, so images with bit
@@ -384,7 +271,6 @@ void readInterlaceFrame(
 	int frameCount) throws IOException
 {
 	int width = headerChunk.getWidth();
-	int alignedBytesPerRow = getAlignedBytesPerRow();
 	int height = headerChunk.getHeight();
 	if (startRow >= height || startColumn >= width) return;
 
@@ -401,42 +287,10 @@ void readInterlaceFrame(
 			read += inputStream.read(currentRow, read, bytesPerRow - read);
 		}
 		filterRow(currentRow, lastRow, filterType);
-		if (headerChunk.getBitDepth() >= 8) {
-			int bytesPerPixel = getBytesPerPixel();
-			int dataOffset = (row * alignedBytesPerRow) + (startColumn * bytesPerPixel);
-			for (int rowOffset = 0; rowOffset < currentRow.length; rowOffset += bytesPerPixel) {
-				for (int byteOffset = 0; byteOffset < bytesPerPixel; byteOffset++) {
-					data[dataOffset + byteOffset] = currentRow[rowOffset + byteOffset];
-				}
-				dataOffset += (columnInterval * bytesPerPixel);
-			}
-		} else {
-			int bitsPerPixel = headerChunk.getBitDepth();
-			int pixelsPerByte = 8 / bitsPerPixel;
-			int column = startColumn;
-			int rowBase = row * alignedBytesPerRow;
-			int valueMask = 0;
-			for (int i = 0; i < bitsPerPixel; i++) {
-				valueMask <<= 1;
-				valueMask |= 1;
-			}
-			int maxShift = 8 - bitsPerPixel;
-			for (int byteOffset = 0; byteOffset < currentRow.length; byteOffset++) {
-				for (int bitOffset = maxShift; bitOffset >= 0; bitOffset -= bitsPerPixel) {
-					if (column < width) {
-						int dataOffset = rowBase + (column * bitsPerPixel / 8);
-						int value = (currentRow[byteOffset] >> bitOffset) & valueMask;
-						int dataShift = maxShift - (bitsPerPixel * (column % pixelsPerByte));
-						data[dataOffset] |= value << dataShift;
-					}
-					column += columnInterval;
-				}
-			}
-		}
+		setRow(currentRow, row, startColumn, columnInterval);
 		currentRow = (currentRow == row1) ? row2 : row1;
 		lastRow = (lastRow == row1) ? row2 : row1;
 	}
-	setImageDataValues(data, imageData);
 	fireInterlacedFrameEvent(frameCount);
 }
 /**
@@ -468,17 +322,23 @@ void fireInterlacedFrameEvent(int frameCount) {
 /**
  * Read the pixel data for a non-interlaced image from the
  * data stream.
- * Update the imageData to reflect the new data.
+ * Each row is stored into the imageData as soon as it has
+ * been unfiltered. When there are listeners, they are notified
+ * as parts of the image become available. Each event only holds
+ * the rows stored since the previous one, its y is the first
+ * of these rows in the image.
  */
 void readNonInterlacedImage(InputStream inputStream) throws IOException {
-	int dataOffset = 0;
-	int alignedBytesPerRow = getAlignedBytesPerRow();
 	int bytesPerRow = getBytesPerRow();
 	byte[] row1 = new byte[bytesPerRow];
 	byte[] row2 = new byte[bytesPerRow];
 	byte[] currentRow = row1;
 	byte[] lastRow = row2;
-	int height = headerChunk.getHeight();
+	/* The rows below the region are not needed */
+	int height = area.y + (imageData.height - 1) * step + 1;
+	truncated = height < headerChunk.getHeight();
+	int rowsPerIncrement = (height + ROW_INCREMENTS - 1) / ROW_INCREMENTS;
+	int incrementCount = 0, firstRow = 0;
 	for (int row = 0; row < height; row++) {
 		byte filterType = (byte)inputStream.read();
 		int read = 0;
@@ -486,37 +346,131 @@ void readNonInterlacedImage(InputStream inputStream) throws IOException {
 			read += inputStream.read(currentRow, read, bytesPerRow - read);
 		}
 		filterRow(currentRow, lastRow, filterType);
-		System.arraycopy(currentRow, 0, data, dataOffset, bytesPerRow);
-		dataOffset += alignedBytesPerRow;
+		setRow(currentRow, row, 0, 1);
 		currentRow = (currentRow == row1) ? row2 : row1;
 		lastRow = (lastRow == row1) ? row2 : row1;
+		if ((row + 1) % rowsPerIncrement == 0 || row + 1 == height) {
+			/* Rows above the region are not stored */
+			int storedRows = row < area.y ? 0 : Math.min((row - area.y) / step + 1, imageData.height);
+			if (loader.hasListeners() && storedRows > firstRow) {
+				boolean endOfImage = row + 1 == height;
+				loader.notifyListeners(new ImageLoaderEvent(loader, getRows(firstRow, storedRows), incrementCount++, endOfImage));
+				firstRow = storedRows;
+			}
+		}
 	}
-	setImageDataValues(data, imageData);
 }
 /**
- * SWT does not support 16-bit depth color formats.
- * Convert the 16-bit data to 8-bit data.
- * The correct way to do this is to multiply each
- * 16 bit value by the value:
- * (2^8 - 1) / (2^16 - 1).
- * The fast way to do this is just to drop the low
- * byte of the 16-bit value.
+ * Answer a copy of the rows of the imageData from firstRow
+ * up to, but not including, lastRow.
  */
-static void compress16BitDepthTo8BitDepth(
-	byte[] source,
-	int sourceOffset,
-	byte[] destination,
-	int destinationOffset,
-	int numberOfValues)
-{
-	//double multiplier = (Compatibility.pow2(8) - 1) / (Compatibility.pow2(16) - 1);
-	for (int i = 0; i < numberOfValues; i++) {
-		int sourceIndex = sourceOffset + (2 * i);
-		int destinationIndex = destinationOffset + i;
-		//int value = (source[sourceIndex] << 8) | source[sourceIndex + 1];
-		//byte compressedValue = (byte)(value * multiplier);
-		byte compressedValue = source[sourceIndex];
-		destination[destinationIndex] = compressedValue;
+ImageData getRows(int firstRow, int lastRow) {
+	int bytesPerLine = imageData.bytesPerLine;
+	int width = imageData.width;
+	byte[] data = Arrays.copyOfRange(imageData.data, firstRow * bytesPerLine, lastRow * bytesPerLine);
+	byte[] alphaData = imageData.alphaData == null ? null : Arrays.copyOfRange(imageData.alphaData, firstRow * width, lastRow * width);
+	return ImageData.internal_new(
+		width,
+		lastRow - firstRow,
+		imageData.depth,
+		imageData.palette,
+		imageData.scanlinePad,
+		data,
+		0,
+		null,
+		alphaData,
+		imageData.alpha,
+		imageData.transparentPixel,
+		imageData.type,
+		imageData.x,
+		firstRow,
+		imageData.disposalMethod,
+		imageData.delayTime);
+}
+/**
+ * Store a row of unfiltered pixel data into the imageData,
+ * converting it to a format supported by SWT. The pixels in
+ * the row go to every columnInterval-th column, starting at
+ * startColumn. Rows and columns outside of the loaded area or
+ * between the subsampled ones are dropped.
+ * SWT does not support 16-bit depths, only the high byte of
+ * each sample is kept. Grayscale with alpha is stored as RGB,
+ * the alpha values of both alpha color types go to the
+ * alphaData of the image.
+ */
+void setRow(byte[] row, int y, int startColumn, int columnInterval) {
+	if (y < area.y || (y - area.y) % step != 0) return;
+	int destY = (y - area.y) / step;
+	if (destY >= imageData.height) return;
+	int width = imageData.width;
+	byte[] data = imageData.data;
+	byte[] alphaData = imageData.alphaData;
+	int rowBase = destY * imageData.bytesPerLine;
+	int alphaBase = destY * width;
+	byte colorType = headerChunk.getColorType();
+	int bitDepth = headerChunk.getBitDepth();
+	int sampleSize = bitDepth > 8 ? 2 : 1;
+	boolean hasAlpha = colorType == PngIhdrChunk.COLOR_TYPE_GRAYSCALE_WITH_ALPHA || colorType == PngIhdrChunk.COLOR_TYPE_RGB_WITH_ALPHA;
+	if (!hasAlpha && bitDepth <= 8 && columnInterval == 1 && step == 1 && width == headerChunk.getWidth()) {
+		System.arraycopy(row, 0, data, rowBase, row.length);
+	} else {
+		int samples = headerChunk.getBitsPerPixel() / bitDepth;
+		int valueMask = (1 << bitDepth) - 1;
+		for (int x = 0; x < width; x++) {
+			/* Find the pixel of the row that goes to column x */
+			int pixel = area.x + x * step - startColumn;
+			if (columnInterval != 1) {
+				if (pixel < 0 || pixel % columnInterval != 0) continue;
+				pixel /= columnInterval;
+			}
+			if (bitDepth < 8) {
+				int srcBit = pixel * bitDepth, destBit = x * bitDepth;
+				int value = (row[srcBit >> 3] >> (8 - bitDepth - (srcBit & 7))) & valueMask;
+				data[rowBase + (destBit >> 3)] |= value << (8 - bitDepth - (destBit & 7));
+				continue;
+			}
+			int srcIndex = pixel * samples * sampleSize;
+			switch (colorType) {
+				case PngIhdrChunk.COLOR_TYPE_GRAYSCALE_WITH_ALPHA: {
+					int destIndex = rowBase + x * 3;
+					byte grey = row[srcIndex];
+					data[destIndex + 0] = grey;
+					data[destIndex + 1] = grey;
+					data[destIndex + 2] = grey;
+					alphaData[alphaBase + x] = row[srcIndex + sampleSize];
+					break;
+				}
+				case PngIhdrChunk.COLOR_TYPE_RGB_WITH_ALPHA: {
+					int destIndex = rowBase + x * 3;
+					data[destIndex + 0] = row[srcIndex];
+					data[destIndex + 1] = row[srcIndex + sampleSize];
+					data[destIndex + 2] = row[srcIndex + 2 * sampleSize];
+					alphaData[alphaBase + x] = row[srcIndex + 3 * sampleSize];
+					break;
+				}
+				default: {
+					int destIndex = rowBase + x * samples;
+					for (int i = 0; i < samples; i++) {
+						data[destIndex + i] = row[srcIndex + i * sampleSize];
+					}
+				}
+			}
+		}
+	}
+	if (colorType == PngIhdrChunk.COLOR_TYPE_PALETTE && alphaPalette != null) setPaletteAlpha(destY);
+}
+/**
+ * Compute the alpha values of a row of a palette image
+ * from the alpha values of its palette entries.
+ */
+void setPaletteAlpha(int y) {
+	int width = imageData.width;
+	if (pixelRow == null) pixelRow = new byte[width];
+	imageData.getPixels(0, y, width, pixelRow, 0);
+	byte[] alphaData = imageData.alphaData;
+	int alphaBase = y * width;
+	for (int x = 0; x < width; x++) {
+		alphaData[alphaBase + x] = alphaPalette[pixelRow[x] & 0xFF];
 	}
 }
 /**
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * Runs a task for each strip of an image on as many threads as
+ * there are processors, the calling thread being one of them.
+ * The threads only live for the duration of the call.
+ */
+final class ParallelStrips {
+
+static void run(int stripCount, String threadName, IntConsumer task) {
+
+	int threadCount = Math.min(stripCount, Runtime.getRuntime().availableProcessors());
+	if (threadCount <= 1) {
+		for (int strip = 0; strip < stripCount; strip++) {
+			task.accept(strip);
+		}
+		return;
+	}
+
+	AtomicInteger nextStrip = new AtomicInteger();
+	Throwable[] error = new Throwable[1];
+	Runnable worker = () -> {
+		try {
+			int strip;
+			while ((strip = nextStrip.getAndIncrement()) < stripCount) {
+				task.accept(strip);
+			}
+		} catch (Throwable t) {
+			synchronized (error) {
+				if (error[0] == null) error[0] = t;
+			}
+			nextStrip.set(stripCount);
+		}
+	};
+	Thread[] threads = new Thread[threadCount - 1];
+	for (int i = 0; i < threads.length; i++) {
+		threads[i] = new Thread(worker, threadName);
+		threads[i].setDaemon(true);
+		threads[i].start();
+	}
+	worker.run();
+	boolean interrupted = false;
+	for (int i = 0; i < threads.length; i++) {
+		while (threads[i].isAlive()) {
+			try {
+				threads[i].join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+	}
+	if (interrupted) Thread.currentThread().interrupt();
+
+	synchronized (error) {
+		if (error[0] instanceof RuntimeException) throw (RuntimeException) error[0];
+		if (error[0] instanceof Error) throw (Error) error[0];
+	}
+
+}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,7 +33,12 @@ final class PngEncoder extends Object {
 	static final int BEST_COMPRESSION = 9;
 	static final int DEFAULT_COMPRESSION = -1;
 
+	/* The rows are compressed in strips of about this many bytes */
+	static final int STRIP_SIZE = 128 * 1024;
+	static final int DICTIONARY_SIZE = 32 * 1024;
+
 	ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+	LEDataOutputStream outputStream;
 	PngChunk chunk;
 
 	ImageLoader loader;
@@ -41,6 +46,7 @@ final class PngEncoder extends Object {
 	int transparencyType;
 
 	int width, height, bitDepth, colorType;
+	int bytesPerPixel, bytesPerRow, level;
 
 	int compressionMethod = 0;
 	int filterMethod = 0;
@@ -112,6 +118,20 @@ void writeChunk(byte[] tag, byte[] buffer) {
 
 }
 
+/**
+ * Writes the chunks written so far to the output stream.
+ */
+void flush() {
+
+	try {
+		outputStream.write(bytes.toByteArray());
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
+	bytes.reset();
+
+}
+
 void writeSignature() {
 
 	bytes.write(SIGNATURE, 0, 8);
@@ -233,108 +253,286 @@ void writeTransparency() {
 
 }
 
-void writeImageData() throws IOException {
+void writeImageData() {
 
-	ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
-	OutputStream os = null;
 	switch (loader.compression) {
 	case 0:
-		os = new DeflaterOutputStream(baos, new Deflater(NO_COMPRESSION));
+		level = NO_COMPRESSION;
 		break;
 	case 1:
-		os = new DeflaterOutputStream(baos, new Deflater(BEST_SPEED));
+		level = BEST_SPEED;
 		break;
 	case 3:
-		os = new DeflaterOutputStream(baos, new Deflater(BEST_COMPRESSION));
+		level = BEST_COMPRESSION;
 		break;
 	default:
-		os = new DeflaterOutputStream(baos, new Deflater(DEFAULT_COMPRESSION));
+		level = DEFAULT_COMPRESSION;
 		break;
 	}
 
-	if (colorType == 3) {
-
-		byte[] lineData = new byte[width];
-
-		for (int y = 0; y < height; y++) {
+	bytesPerPixel = colorType == 3 ? 1 : (colorType == 6 ? 4 : 3);
+	bytesPerRow = width * bytesPerPixel;
+
+	/*
+	* The rows are filtered and deflated in strips by several threads,
+	* the way pigz compresses a file. Every strip except the last ends
+	* with a sync flush so that the compressed strips can be concatenated
+	* into a single zlib stream, and every strip except the first uses
+	* the end of the previous strip as its preset dictionary, so that
+	* the compression ratio is almost the one of a single deflater.
+	* A strip filters the last rows of the previous strip again for
+	* its dictionary, so that each strip is filtered and deflated by
+	* the same task. Each compressed strip is written as an IDAT chunk
+	* as soon as the strips before it have been written.
+	*/
+	int rowsPerStrip = Math.max(1, STRIP_SIZE / (bytesPerRow + 1));
+	int dictionaryRows = Math.min(rowsPerStrip, (DICTIONARY_SIZE + bytesPerRow) / (bytesPerRow + 1));
+	int stripCount = (height + rowsPerStrip - 1) / rowsPerStrip;
+	byte[][] compressed = new byte[stripCount][];
+	int[] adlers = new int[stripCount];
+	int[] lengths = new int[stripCount];
+	int[] nextStrip = new int[1];
+	int[] adler = {1};
+
+	int flevel = level == NO_COMPRESSION || level == BEST_SPEED ? 0 : (level == DEFAULT_COMPRESSION ? 2 : 3);
+	int cmf = 0x78, flg = flevel << 6;
+	flg += 31 - ((cmf << 8) + flg) % 31;
+	byte[] zlibHeader = {(byte) cmf, (byte) flg};
+
+	ParallelStrips.run(stripCount, "SWT PNG Encoder", strip -> { //$NON-NLS-1$
+		int startY = strip * rowsPerStrip;
+		int dictionaryY = strip > 0 ? startY - dictionaryRows : startY;
+		byte[] filtered = filterRows(dictionaryY, Math.min(height, startY + rowsPerStrip));
+		int offset = (startY - dictionaryY) * (bytesPerRow + 1);
+		byte[] result = deflate(filtered, offset, strip == stripCount - 1);
+		Adler32 checksum = new Adler32();
+		checksum.update(filtered, offset, filtered.length - offset);
+		synchronized (compressed) {
+			compressed[strip] = result;
+			adlers[strip] = (int) checksum.getValue();
+			lengths[strip] = filtered.length - offset;
+			while (nextStrip[0] < stripCount && compressed[nextStrip[0]] != null) {
+				int next = nextStrip[0]++;
+				ByteArrayOutputStream baos = new ByteArrayOutputStream(compressed[next].length + 6);
+				if (next == 0) baos.write(zlibHeader, 0, zlibHeader.length);
+				baos.write(compressed[next], 0, compressed[next].length);
+				compressed[next] = null;
+				adler[0] = combineAdler32(adler[0], adlers[next], lengths[next]);
+				if (next == stripCount - 1) writeInt(baos, adler[0]);
+				writeChunk(TAG_IDAT, baos.toByteArray());
+				flush();
+			}
+		}
+	});
 
-			int filter = 0;
-			os.write(filter);
+}
 
-			data.getPixels(0, y, width, lineData, 0);
+/**
+ * Answers the filtered rows from startY to endY, each preceded
+ * by its filter type.
+ */
+byte[] filterRows(int startY, int endY) {
+
+	byte[] result = new byte[(endY - startY) * (bytesPerRow + 1)];
+	byte[] row = new byte[bytesPerRow];
+	byte[] previousRow = new byte[bytesPerRow];
+	byte[][] candidates = new byte[PngIhdrChunk.FILTER_PAETH + 1][bytesPerRow];
+	int[] lineData = colorType == 3 ? null : new int[width];
+	byte[] alphaData = colorType == 6 ? new byte[width] : null;
+
+	/*
+	* Adaptive filtering does not pay off for palette images
+	* or when the data is stored without compression.
+	*/
+	boolean adaptive = colorType != 3 && level != NO_COMPRESSION;
+
+	if (startY > 0) {
+		getRow(startY - 1, previousRow, lineData, alphaData);
+	}
+	int offset = 0;
+	for (int y = startY; y < endY; y++) {
 
-			os.write(lineData);
+		getRow(y, row, lineData, alphaData);
 
+		int filter = PngIhdrChunk.FILTER_NONE;
+		byte[] filteredRow = row;
+		if (adaptive) {
+			filter = chooseFilter(row, previousRow, candidates);
+			if (filter != PngIhdrChunk.FILTER_NONE) filteredRow = candidates[filter];
 		}
+		result[offset++] = (byte) filter;
+		System.arraycopy(filteredRow, 0, result, offset, bytesPerRow);
+		offset += bytesPerRow;
+
+		byte[] temp = previousRow;
+		previousRow = row;
+		row = temp;
 
 	}
+	return result;
 
-	else {
+}
 
-		int[] lineData = new int[width];
-		byte[] alphaData = null;
-		if (colorType == 6) {
-			alphaData = new byte[width];
+/**
+ * Applies every filter type to the row and answers the one whose
+ * output has the smallest sum of absolute values, which is the
+ * heuristic recommended by the PNG specification.
+ */
+int chooseFilter(byte[] row, byte[] previousRow, byte[][] candidates) {
+
+	int bpp = bytesPerPixel;
+	byte[] sub = candidates[PngIhdrChunk.FILTER_SUB];
+	byte[] up = candidates[PngIhdrChunk.FILTER_UP];
+	byte[] average = candidates[PngIhdrChunk.FILTER_AVERAGE];
+	byte[] paeth = candidates[PngIhdrChunk.FILTER_PAETH];
+
+	for (int i = 0; i < bytesPerRow; i++) {
+		int current = row[i] & 0xFF;
+		int left = (i < bpp) ? 0 : row[i - bpp] & 0xFF;
+		int above = previousRow[i] & 0xFF;
+		int aboveLeft = (i < bpp) ? 0 : previousRow[i - bpp] & 0xFF;
+
+		sub[i] = (byte) (current - left);
+		up[i] = (byte) (current - above);
+		average[i] = (byte) (current - ((left + above) >> 1));
+
+		int a = Math.abs(above - aboveLeft);
+		int b = Math.abs(left - aboveLeft);
+		int c = Math.abs(left - aboveLeft + above - aboveLeft);
+		int predictor;
+		if (a <= b && a <= c) {
+			predictor = left;
+		} else if (b <= c) {
+			predictor = above;
+		} else {
+			predictor = aboveLeft;
+		}
+		paeth[i] = (byte) (current - predictor);
+	}
+
+	int filter = PngIhdrChunk.FILTER_NONE;
+	long smallest = sumOfAbsoluteValues(row);
+	for (int type = PngIhdrChunk.FILTER_SUB; type <= PngIhdrChunk.FILTER_PAETH; type++) {
+		long sum = sumOfAbsoluteValues(candidates[type]);
+		if (sum < smallest) {
+			smallest = sum;
+			filter = type;
 		}
+	}
+	return filter;
 
-		int redMask = data.palette.redMask;
-		int redShift = data.palette.redShift;
-		int greenMask = data.palette.greenMask;
-		int greenShift = data.palette.greenShift;
-		int blueShift = data.palette.blueShift;
-		int blueMask = data.palette.blueMask;
+}
 
-		byte[] lineBytes = new byte[width * (colorType == 6 ? 4 : 3)];
+static long sumOfAbsoluteValues(byte[] bytes) {
 
-		for (int y = 0; y < height; y++) {
+	long sum = 0;
+	for (int i = 0; i < bytes.length; i++) {
+		sum += Math.abs(bytes[i]);
+	}
+	return sum;
 
-			int filter = 0;
-			os.write(filter);
+}
 
-			data.getPixels(0, y, width, lineData, 0);
+/**
+ * Stores the bytes of the given row of the image in the PNG format.
+ */
+void getRow(int y, byte[] row, int[] lineData, byte[] alphaData) {
 
-			if (colorType == 6) {
-				data.getAlphas(0, y, width, alphaData, 0);
-			}
+	if (colorType == 3) {
+		data.getPixels(0, y, width, row, 0);
+		return;
+	}
 
-			int offset = 0;
-			for (int x = 0; x < lineData.length; x++) {
+	int redMask = data.palette.redMask;
+	int redShift = data.palette.redShift;
+	int greenMask = data.palette.greenMask;
+	int greenShift = data.palette.greenShift;
+	int blueShift = data.palette.blueShift;
+	int blueMask = data.palette.blueMask;
 
-				int pixel = lineData[x];
+	data.getPixels(0, y, width, lineData, 0);
 
-				int r = pixel & redMask;
-				lineBytes[offset++] = (byte) ((redShift < 0) ? r >>> -redShift
-						: r << redShift);
-				int g = pixel & greenMask;
-				lineBytes[offset++] = (byte) ((greenShift < 0) ? g >>> -greenShift
-						: g << greenShift);
-				int b = pixel & blueMask;
-				lineBytes[offset++] = (byte) ((blueShift < 0) ? b >>> -blueShift
-						: b << blueShift);
+	if (colorType == 6) {
+		data.getAlphas(0, y, width, alphaData, 0);
+	}
 
-				if (colorType == 6) {
-					lineBytes[offset++] = alphaData[x];
-				}
+	int offset = 0;
+	for (int x = 0; x < width; x++) {
 
-			}
+		int pixel = lineData[x];
 
-			os.write(lineBytes);
+		int r = pixel & redMask;
+		row[offset++] = (byte) ((redShift < 0) ? r >>> -redShift
+				: r << redShift);
+		int g = pixel & greenMask;
+		row[offset++] = (byte) ((greenShift < 0) ? g >>> -greenShift
+				: g << greenShift);
+		int b = pixel & blueMask;
+		row[offset++] = (byte) ((blueShift < 0) ? b >>> -blueShift
+				: b << blueShift);
 
+		if (colorType == 6) {
+			row[offset++] = alphaData[x];
 		}
 
 	}
 
-	os.flush();
-	os.close();
+}
+
+/**
+ * Compresses a strip of filtered rows into raw deflate data. The
+ * strip starts at the given offset of the input, the bytes before
+ * it are used as the preset dictionary. The last strip finishes the
+ * deflate stream, the others end with a sync flush on a byte boundary.
+ */
+byte[] deflate(byte[] input, int offset, boolean last) {
 
-	byte[] compressed = baos.toByteArray();
-	if (os == baos) {
-		/* Use PngDeflater for J2ME. */
-		PngDeflater deflater = new PngDeflater();
-		compressed = deflater.deflate(compressed);
+	Deflater deflater = new Deflater(level, true);
+	try {
+		if (offset > 0) {
+			int length = Math.min(offset, DICTIONARY_SIZE);
+			deflater.setDictionary(input, offset - length, length);
+		}
+		deflater.setInput(input, offset, input.length - offset);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream((input.length - offset) / 2 + 64);
+		byte[] buffer = new byte[8192];
+		if (last) {
+			deflater.finish();
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				baos.write(buffer, 0, count);
+			}
+		} else {
+			int count;
+			do {
+				count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+				baos.write(buffer, 0, count);
+			} while (count == buffer.length);
+		}
+		return baos.toByteArray();
+	} finally {
+		deflater.end();
 	}
 
-	writeChunk(TAG_IDAT, compressed);
+}
+
+/**
+ * Answers the Adler-32 checksum of two concatenated blocks of data
+ * given the checksums of the blocks and the length of the second.
+ */
+static int combineAdler32(int adler1, int adler2, int length2) {
+
+	final int BASE = 65521;
+	long remainder = length2 % BASE;
+	long sum1 = adler1 & 0xFFFF;
+	long sum2 = (remainder * sum1) % BASE;
+	sum1 += (adler2 & 0xFFFF) + BASE - 1;
+	sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + BASE - remainder;
+	if (sum1 >= BASE) sum1 -= BASE;
+	if (sum1 >= BASE) sum1 -= BASE;
+	if (sum2 >= (BASE << 1)) sum2 -= (BASE << 1);
+	if (sum2 >= BASE) sum2 -= BASE;
+	return (int) (sum1 | (sum2 << 16));
 
 }
 
@@ -346,6 +544,8 @@ void writeEnd() {
 
 public void encode(LEDataOutputStream outputStream) {
 
+	this.outputStream = outputStream;
+
 	try {
 
 		writeSignature();
@@ -364,6 +564,7 @@ public void encode(LEDataOutputStream outputStream) {
 			writeTransparency();
 		}
 
+		flush();
 		writeImageData();
 		writeEnd();
 
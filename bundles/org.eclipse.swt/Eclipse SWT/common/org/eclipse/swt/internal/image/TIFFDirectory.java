@@ -426,6 +426,21 @@ void parseEntries(byte[] buffer) throws IOException {
 	}
 }
 
+/**
+ * Answer the offset of the directory that follows the directory at
+ * the given offset, without reading its entries.
+ */
+int readNextIFDOffset(int offset) throws IOException {
+	byte[] buffer = new byte[2];
+	file.seek(offset);
+	file.read(buffer);
+	int numberEntries = toInt(buffer, 0, TYPE_SHORT);
+	file.seek(offset + 2 + IFD_ENTRY_SIZE * numberEntries);
+	buffer = new byte[4];
+	file.read(buffer);
+	return toInt(buffer, 0, TYPE_LONG);
+}
+
 public ImageData read(int [] nextIFDOffset) throws IOException {
 	/* Set TIFF default values */
 	bitsPerSample = new int[] {1};
@@ -17,12 +17,17 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
 
 /**
  * Baseline TIFF decoder revision 6.0
  * Extension T4-encoding CCITT T.4 1D
  */
 public final class TIFFFileFormat extends FileFormat {
+	boolean isLittleEndian;
 
 @Override
 boolean isFileFormat(LEDataInputStream stream) {
@@ -41,23 +46,29 @@ boolean isFileFormat(LEDataInputStream stream) {
 	}
 }
 
+/**
+ * Read the header of the file, and answer the offset of its first directory.
+ */
+int readHeader(TIFFRandomFileAccess file) throws IOException {
+	byte[] header = new byte[8];
+	file.read(header);
+	if (header[0] != header[1]) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	if (!(header[0] == 0x49 && header[2] == 42 && header[3] == 0) &&
+		!(header[0] == 0x4d && header[2] == 0 && header[3] == 42)) {
+		SWT.error(SWT.ERROR_INVALID_IMAGE);
+	}
+	isLittleEndian = header[0] == 0x49;
+	return isLittleEndian ?
+		(header[4] & 0xFF) | ((header[5] & 0xFF) << 8) | ((header[6] & 0xFF) << 16) | ((header[7] & 0xFF) << 24) :
+		(header[7] & 0xFF) | ((header[6] & 0xFF) << 8) | ((header[5] & 0xFF) << 16) | ((header[4] & 0xFF) << 24);
+}
+
 @Override
 ImageData[] loadFromByteStream() {
-	byte[] header = new byte[8];
-	boolean isLittleEndian;
 	ImageData[] images = new ImageData[0];
 	TIFFRandomFileAccess file = new TIFFRandomFileAccess(inputStream);
 	try {
-		file.read(header);
-		if (header[0] != header[1]) SWT.error(SWT.ERROR_INVALID_IMAGE);
-		if (!(header[0] == 0x49 && header[2] == 42 && header[3] == 0) &&
-			!(header[0] == 0x4d && header[2] == 0 && header[3] == 42)) {
-			SWT.error(SWT.ERROR_INVALID_IMAGE);
-		}
-		isLittleEndian = header[0] == 0x49;
-		int offset = isLittleEndian ?
-			(header[4] & 0xFF) | ((header[5] & 0xFF) << 8) | ((header[6] & 0xFF) << 16) | ((header[7] & 0xFF) << 24) :
-			(header[7] & 0xFF) | ((header[6] & 0xFF) << 8) | ((header[5] & 0xFF) << 16) | ((header[4] & 0xFF) << 24);
+		int offset = readHeader(file);
 		while (offset != 0) {
 			file.seek(offset);
 			TIFFDirectory directory = new TIFFDirectory(file, isLittleEndian, loader);
@@ -75,6 +86,56 @@ ImageData[] loadFromByteStream() {
 	return images;
 }
 
+/**
+ * Map the file, and walk its chain of directories without reading
+ * their entries. Each page is decoded from the mapped file when it is
+ * requested, so that large multi-page documents are neither copied
+ * in memory nor decoded all at once.
+ */
+@Override
+List<ImageData> loadPagesFromFile(String filename, LEDataInputStream stream) {
+	ByteBuffer buffer = null;
+	int[] offsets = new int[0];
+	try (FileChannel channel = FileChannel.open(Paths.get(filename))) {
+		/* TIFF offsets are 32 bit, only the first 2GB can be addressed */
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+		TIFFRandomFileAccess file = new TIFFRandomFileAccess(buffer.duplicate());
+		int offset = readHeader(file);
+		Set<Integer> visited = new HashSet<>();
+		while (offset != 0 && visited.add(offset)) {
+			int[] oldOffsets = offsets;
+			offsets = new int[oldOffsets.length + 1];
+			System.arraycopy(oldOffsets, 0, offsets, 0, oldOffsets.length);
+			offsets[offsets.length - 1] = offset;
+			offset = new TIFFDirectory(file, isLittleEndian, loader).readNextIFDOffset(offset);
+		}
+	} catch (Exception e) {
+		loadError(e);
+	}
+	ByteBuffer mappedBuffer = buffer;
+	int[] pageOffsets = offsets;
+	return new AbstractList<ImageData>() {
+		@Override
+		public ImageData get(int index) {
+			int offset = pageOffsets[index];
+			/* Every page reads its own view of the file */
+			TIFFRandomFileAccess file = new TIFFRandomFileAccess(mappedBuffer.duplicate());
+			try {
+				file.seek(offset);
+				return new TIFFDirectory(file, isLittleEndian, loader).read(new int[1]);
+			} catch (Exception e) {
+				loadError(e);
+				return null;
+			}
+		}
+
+		@Override
+		public int size() {
+			return pageOffsets.length;
+		}
+	};
+}
+
 @Override
 void unloadIntoByteStream(ImageLoader loader) {
 	/* We do not currently support writing multi-page tiff,
@@ -14,12 +14,15 @@
 package org.eclipse.swt.internal.image;
 
 import java.io.*;
+import java.nio.*;
 
 final class TIFFRandomFileAccess {
 
 	LEDataInputStream inputStream;
 	int start, current, next;
 	byte[][] buffers;
+	/* the mapped file, read in place instead of the stream */
+	ByteBuffer buffer;
 
 	static final int CHUNK_SIZE = 8192;
 	static final int LIST_SIZE = 128;
@@ -30,7 +33,21 @@ public TIFFRandomFileAccess(LEDataInputStream stream) {
 	buffers = new byte[LIST_SIZE][];
 }
 
+/**
+ * Read the file mapped in the given buffer. The bytes are read from
+ * the buffer when they are requested, so only the parts of the file
+ * that are used are paged in.
+ */
+public TIFFRandomFileAccess(ByteBuffer buffer) {
+	this.buffer = buffer;
+}
+
 void seek(int pos) throws IOException {
+	if (buffer != null) {
+		if (pos < 0 || pos > buffer.limit()) throw new IOException();
+		buffer.position(pos);
+		return;
+	}
 	if (pos == current) return;
 	if (pos < start) throw new IOException();
 	current = pos;
@@ -56,6 +73,11 @@ void seek(int pos) throws IOException {
 }
 
 void read(byte b[]) throws IOException {
+	if (buffer != null) {
+		if (b.length > buffer.remaining()) throw new EOFException();
+		buffer.get(b);
+		return;
+	}
 	int size = b.length;
 	int nCached = Math.min(size, next - current);
 	int nMissing = size - next + current;
@@ -22,106 +22,193 @@ import org.eclipse.swt.internal.*;
  * look up mechanism that maps an event type
  * to a listener.  Multiple listeners for the
  * same event type are supported.
+ * <p>
+ * The listeners are kept in one bucket per event
+ * type so that sending an event only visits the
+ * listeners of its type, and the bucket of an SWT
+ * event type is found without a search.
+ * </p>
  */
 
 class EventTable {
 	int [] types;
-	Listener [] listeners;
-	int level;
+	Listener [][] listeners;
+	int [][] orders;
+	short [] lookup;
+	int level, nextOrder;
 	static final int GROW_SIZE = 4;
+	static final int LOOKUP_SIZE = 64;
+
+/*
+ * Returns the index of the bucket of the given type, or -1.  The
+ * SWT event types are below LOOKUP_SIZE and are found through the
+ * lookup table, other types are searched for.
+ */
+int indexOf (int eventType) {
+	if (types == null) return -1;
+	if (0 <= eventType && eventType < LOOKUP_SIZE) {
+		if (lookup == null || eventType >= lookup.length) return -1;
+		return lookup [eventType] - 1;
+	}
+	for (int i=0; i<types.length; i++) {
+		if (types [i] == eventType && listeners [i] != null) return i;
+	}
+	return -1;
+}
 
 public Listener [] getListeners (int eventType) {
-	if (types == null) return new Listener [0];
+	int index = indexOf (eventType);
+	if (index == -1) return new Listener [0];
+	Listener [] bucket = listeners [index];
 	int count = 0;
-	for (int i=0; i<types.length; i++) {
-		if (types [i] == eventType) count++;
+	for (int i=0; i<bucket.length; i++) {
+		if (bucket [i] != null) count++;
 	}
-	if (count == 0) return new Listener [0];
 	Listener [] result = new Listener [count];
 	count = 0;
-	for (int i=0; i<types.length; i++) {
-		if (types [i] == eventType) {
-			result [count++] = listeners [i];
-		}
+	for (int i=0; i<bucket.length; i++) {
+		if (bucket [i] != null) result [count++] = bucket [i];
 	}
 	return result;
 }
 
 public void hook (int eventType, Listener listener) {
-	if (types == null) types = new int [GROW_SIZE];
-	if (listeners == null) listeners = new Listener [GROW_SIZE];
-	int length = types.length, index = length - 1;
-	while (index >= 0) {
-		if (types [index] != 0) break;
-		--index;
+	int index = indexOf (eventType);
+	if (index == -1) {
+		if (types == null) types = new int [GROW_SIZE];
+		if (listeners == null) listeners = new Listener [GROW_SIZE][];
+		if (orders == null) orders = new int [GROW_SIZE][];
+		int length = types.length;
+		index = 0;
+		while (index < length && listeners [index] != null) index++;
+		if (index == length) {
+			int [] newTypes = new int [length + GROW_SIZE];
+			System.arraycopy (types, 0, newTypes, 0, length);
+			types = newTypes;
+			Listener [][] newListeners = new Listener [length + GROW_SIZE][];
+			System.arraycopy (listeners, 0, newListeners, 0, length);
+			listeners = newListeners;
+			int [][] newOrders = new int [length + GROW_SIZE][];
+			System.arraycopy (orders, 0, newOrders, 0, length);
+			orders = newOrders;
+		}
+		types [index] = eventType;
+		listeners [index] = new Listener [GROW_SIZE];
+		orders [index] = new int [GROW_SIZE];
+		if (0 <= eventType && eventType < LOOKUP_SIZE) {
+			if (lookup == null || eventType >= lookup.length) {
+				short [] newLookup = new short [eventType + 1];
+				if (lookup != null) System.arraycopy (lookup, 0, newLookup, 0, lookup.length);
+				lookup = newLookup;
+			}
+			lookup [eventType] = (short) (index + 1);
+		}
+	}
+	Listener [] bucket = listeners [index];
+	int length = bucket.length, slot = length - 1;
+	while (slot >= 0) {
+		if (bucket [slot] != null) break;
+		--slot;
 	}
-	index++;
-	if (index == length) {
-		int [] newTypes = new int [length + GROW_SIZE];
-		System.arraycopy (types, 0, newTypes, 0, length);
-		types = newTypes;
-		Listener [] newListeners = new Listener [length + GROW_SIZE];
-		System.arraycopy (listeners, 0, newListeners, 0, length);
-		listeners = newListeners;
+	slot++;
+	if (slot == length) {
+		int newLength = length + Math.max (GROW_SIZE, length >> 1);
+		Listener [] newBucket = new Listener [newLength];
+		System.arraycopy (bucket, 0, newBucket, 0, length);
+		listeners [index] = bucket = newBucket;
+		int [] newOrders = new int [newLength];
+		System.arraycopy (orders [index], 0, newOrders, 0, length);
+		orders [index] = newOrders;
 	}
-	types [index] = eventType;
-	listeners [index] = listener;
+	bucket [slot] = listener;
+	orders [index][slot] = nextOrder++;
 }
 
 public boolean hooks (int eventType) {
-	if (types == null) return false;
-	for (int i=0; i<types.length; i++) {
-		if (types [i] == eventType) return true;
+	int index = indexOf (eventType);
+	if (index == -1) return false;
+	Listener [] bucket = listeners [index];
+	for (int i=0; i<bucket.length; i++) {
+		if (bucket [i] != null) return true;
 	}
 	return false;
 }
 
 public void sendEvent (Event event) {
-	if (types == null) return;
+	int eventType = event.type;
+	if (eventType == SWT.None) return;
+	int index = indexOf (eventType);
+	if (index == -1) return;
 	level += level >= 0 ? 1 : -1;
 	try {
-		for (int i=0; i<types.length; i++) {
-			if (event.type == SWT.None) return;
-			if (types [i] == event.type) {
-				Listener listener = listeners [i];
-				if (listener != null) {
-					try {
-						listener.handleEvent (event);
-					} catch (RuntimeException runtimeException) {
-						Display display = Display.getCurrent ();
-
-						if (display == null) {
-							throw runtimeException;
-						}
-
-						display.getRuntimeExceptionHandler ().accept (runtimeException);
-					} catch (Error error) {
-						Display display = Display.getCurrent ();
-
-						if (display == null) {
-							throw error;
-						}
-
-						display.getErrorHandler ().accept (error);
-					}
+		/*
+		* Listeners that are added while the event is sent are
+		* appended to the bucket and are notified as well.  The
+		* bucket is read on every iteration because adding a
+		* listener can replace it.  Buckets are never moved or
+		* removed while an event is being sent.
+		*/
+		int i = 0;
+		while (i < listeners [index].length) {
+			Listener listener = listeners [index][i];
+			int order = orders [index][i];
+			i++;
+			if (listener == null) continue;
+			try {
+				listener.handleEvent (event);
+			} catch (RuntimeException runtimeException) {
+				Display display = Display.getCurrent ();
+
+				if (display == null) {
+					throw runtimeException;
 				}
+
+				display.getRuntimeExceptionHandler ().accept (runtimeException);
+			} catch (Error error) {
+				Display display = Display.getCurrent ();
+
+				if (display == null) {
+					throw error;
+				}
+
+				display.getErrorHandler ().accept (error);
+			}
+			if (event.type == SWT.None) return;
+			if (event.type != eventType) {
+				/*
+				* A listener changed the type of the event.  The event
+				* is sent to the listeners of the new type that were
+				* added after this listener, as if all listeners were
+				* kept in one list in the order they were added.
+				*/
+				eventType = event.type;
+				index = indexOf (eventType);
+				if (index == -1) return;
+				Listener [] bucket = listeners [index];
+				int [] bucketOrders = orders [index];
+				i = 0;
+				while (i < bucket.length && (bucket [i] == null || bucketOrders [i] <= order)) i++;
 			}
 		}
 	} finally {
 		boolean compact = level < 0;
 		level -= level >= 0 ? 1 : -1;
 		if (compact && level == 0) {
-			int index = 0;
-			for (int i=0; i<types.length; i++) {
-				if (types [i] != 0) {
-					types [index] = types [i];
-					listeners [index] = listeners [i];
-					index++;
+			for (int i=0; i<listeners.length; i++) {
+				Listener [] bucket = listeners [i];
+				if (bucket == null) continue;
+				int [] bucketOrders = orders [i];
+				int count = 0;
+				for (int j=0; j<bucket.length; j++) {
+					if (bucket [j] != null) {
+						bucketOrders [count] = bucketOrders [j];
+						bucket [count++] = bucket [j];
+					}
 				}
-			}
-			for (int i=index; i<types.length; i++) {
-				types [i] = 0;
-				listeners [i] = null;
+				for (int j=count; j<bucket.length; j++) {
+					bucket [j] = null;
+				}
+				if (count == 0) removeBucket (i);
 			}
 		}
 	}
@@ -130,45 +217,60 @@ public void sendEvent (Event event) {
 public int size () {
 	if (types == null) return 0;
 	int count = 0;
-	for (int i=0; i<types.length; i++) {
-		if (types [i] != 0) count++;
+	for (int i=0; i<listeners.length; i++) {
+		Listener [] bucket = listeners [i];
+		if (bucket == null) continue;
+		for (int j=0; j<bucket.length; j++) {
+			if (bucket [j] != null) count++;
+		}
 	}
 	return count;
 }
 
-void remove (int index) {
+void remove (int index, int slot) {
+	Listener [] bucket = listeners [index];
 	if (level == 0) {
-		int end = types.length - 1;
-		System.arraycopy (types, index + 1, types, index, end - index);
-		System.arraycopy (listeners, index + 1, listeners, index, end - index);
-		index = end;
+		int end = bucket.length - 1;
+		System.arraycopy (bucket, slot + 1, bucket, slot, end - slot);
+		System.arraycopy (orders [index], slot + 1, orders [index], slot, end - slot);
+		bucket [end] = null;
+		if (bucket [0] == null) removeBucket (index);
 	} else {
 		if (level > 0) level = -level;
+		bucket [slot] = null;
 	}
+}
+
+void removeBucket (int index) {
+	int eventType = types [index];
+	if (0 <= eventType && eventType < LOOKUP_SIZE) lookup [eventType] = 0;
 	types [index] = 0;
 	listeners [index] = null;
+	orders [index] = null;
 }
 
 public void unhook (int eventType, Listener listener) {
-	if (types == null) return;
-	for (int i=0; i<types.length; i++) {
-		if (types [i] == eventType && listeners [i] == listener) {
-			remove (i);
+	int index = indexOf (eventType);
+	if (index == -1) return;
+	Listener [] bucket = listeners [index];
+	for (int i=0; i<bucket.length; i++) {
+		if (bucket [i] == listener) {
+			remove (index, i);
 			return;
 		}
 	}
 }
 
 public void unhook (int eventType, SWTEventListener listener) {
-	if (types == null) return;
-	for (int i=0; i<types.length; i++) {
-		if (types [i] == eventType) {
-			if (listeners [i] instanceof TypedListener) {
-				TypedListener typedListener = (TypedListener) listeners [i];
-				if (typedListener.getEventListener () == listener) {
-					remove (i);
-					return;
-				}
+	int index = indexOf (eventType);
+	if (index == -1) return;
+	Listener [] bucket = listeners [index];
+	for (int i=0; i<bucket.length; i++) {
+		if (bucket [i] instanceof TypedListener) {
+			TypedListener typedListener = (TypedListener) bucket [i];
+			if (typedListener.getEventListener () == listener) {
+				remove (index, i);
+				return;
 			}
 		}
 	}
@@ -25,9 +25,12 @@ class RunnableLock {
 	Runnable runnable;
 	Thread thread;
 	Throwable throwable;
+	long time;
+	volatile RunnableLock next;
 
 RunnableLock (Runnable runnable) {
 	this.runnable = runnable;
+	time = System.nanoTime ();
 }
 
 boolean done () {
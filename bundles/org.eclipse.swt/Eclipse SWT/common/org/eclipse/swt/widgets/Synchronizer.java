@@ -13,6 +13,10 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -36,12 +40,30 @@ import org.eclipse.swt.graphics.*;
  */
 public class Synchronizer {
 	Display display;
-	int messageCount;
-	RunnableLock [] messages;
-	Object messageLock = new Object ();
+	/*
+	* Inter-thread messages are kept in an intrusive, lock free,
+	* multi-producer single-consumer linked queue.  Producers only
+	* swap the tail, the user-interface thread is the only consumer
+	* and owns the head, which always points to the last consumed
+	* (or initial stub) message.  Messages that are put back at the
+	* front of the queue (see addFirst) are kept in a small array
+	* that is only accessed by the user-interface thread.  The number
+	* of linked messages is counted separately, so that the display
+	* can check for pending messages without walking the queue.
+	*/
+	volatile RunnableLock head, tail;
+	final AtomicInteger messageCount = new AtomicInteger ();
+	RunnableLock [] firstMessages;
+	int firstStart, firstCount;
+	Map<Object, Runnable> coalescedMessages = new ConcurrentHashMap<> ();
 	Thread syncThread;
+	int timeBudget = DEFAULT_TIME_BUDGET;
+	volatile long messageLatency;
+	static final int DEFAULT_TIME_BUDGET = Math.max (0, Integer.getInteger ("swt.asyncExec.timeBudget", 0).intValue ());
 	static final int GROW_SIZE = 4;
 	static final int MESSAGE_LIMIT = 64;
+	static final AtomicReferenceFieldUpdater<Synchronizer, RunnableLock> TAIL_UPDATER =
+		AtomicReferenceFieldUpdater.newUpdater (Synchronizer.class, RunnableLock.class, "tail");
 
 	//TEMPORARY CODE
 	static final boolean IS_COCOA = "cocoa".equals (SWT.getPlatform ());
@@ -54,6 +76,7 @@ public class Synchronizer {
  */
 public Synchronizer (Display display) {
 	this.display = display;
+	head = tail = new RunnableLock (null);
 }
 
 /**
@@ -63,13 +86,17 @@ public Synchronizer (Display display) {
  * @param toReceiveTheEvents the synchronizer that will receive the events
  */
 void moveAllEventsTo (Synchronizer toReceiveTheEvents) {
-	RunnableLock[] oldMessages;
-	int oldMessageCount;
-	synchronized (messageLock) {
-		oldMessages = messages;
-		messages = null;
-		oldMessageCount = messageCount;
-		messageCount = 0;
+	RunnableLock[] oldMessages = null;
+	int oldMessageCount = 0;
+	RunnableLock lock;
+	while ((lock = removeFirst ()) != null) {
+		if (oldMessages == null) oldMessages = new RunnableLock [GROW_SIZE];
+		if (oldMessageCount == oldMessages.length) {
+			RunnableLock[] newMessages = new RunnableLock [oldMessageCount * 2];
+			System.arraycopy (oldMessages, 0, newMessages, 0, oldMessageCount);
+			oldMessages = newMessages;
+		}
+		oldMessages [oldMessageCount++] = lock;
 	}
 	toReceiveTheEvents.addFirst(oldMessages, oldMessageCount);
 }
@@ -77,6 +104,9 @@ void moveAllEventsTo (Synchronizer toReceiveTheEvents) {
 /**
  * Adds the given events to the beginning of the message queue, to
  * be processed in order.
+ * <p>
+ * This method must only be called from the user-interface thread.
+ * </p>
  *
  * @param toAdd events to add. Permits null if and only if numToAdd is 0.
  * @param numToAdd number of events to add from the beginning of the given array.
@@ -85,39 +115,42 @@ void addFirst (RunnableLock[] toAdd, int numToAdd) {
 	if (numToAdd <= 0) {
 		return;
 	}
-	boolean wake = false;
-	synchronized (messageLock) {
-		int nextSize = messageCount + Math.max(numToAdd, GROW_SIZE);
-		if (messages == null)
-			messages = new RunnableLock[nextSize];
-		if (messages.length < messageCount + numToAdd) {
-			RunnableLock[] newMessages = new RunnableLock[nextSize];
-			System.arraycopy(messages, 0, newMessages, numToAdd, messageCount);
-			messages = newMessages;
-		} else {
-			System.arraycopy(messages, 0, messages, numToAdd, messageCount);
-		}
-		System.arraycopy(toAdd, 0, messages, 0, numToAdd);
-		wake = (messageCount == 0);
-		messageCount += numToAdd;
+	boolean wake = firstCount == 0 && head.next == null;
+	int newCount = firstCount + numToAdd;
+	RunnableLock[] newMessages = firstMessages;
+	if (newMessages == null || newMessages.length < newCount) {
+		newMessages = new RunnableLock [newCount + GROW_SIZE];
+	}
+	if (firstCount > 0) {
+		System.arraycopy (firstMessages, firstStart, newMessages, numToAdd, firstCount);
 	}
+	System.arraycopy (toAdd, 0, newMessages, 0, numToAdd);
+	if (newMessages == firstMessages) {
+		for (int i = newCount; i < firstStart + firstCount; i++) newMessages [i] = null;
+	}
+	firstMessages = newMessages;
+	firstStart = 0;
+	firstCount = newCount;
 	if (wake)
 		display.wakeThread();
 }
 
 void addLast (RunnableLock lock) {
-	boolean wake = false;
-	synchronized (messageLock) {
-		if (messages == null) messages = new RunnableLock [GROW_SIZE];
-		if (messageCount == messages.length) {
-			RunnableLock[] newMessages = new RunnableLock [messageCount + GROW_SIZE];
-			System.arraycopy (messages, 0, newMessages, 0, messageCount);
-			messages = newMessages;
-		}
-		messages [messageCount++] = lock;
-		wake = messageCount == 1;
-	}
-	if (wake) display.wakeThread ();
+	/*
+	* Count the message before it is linked, so that the count is
+	* never zero while a message is pending and the user-interface
+	* thread does not go to sleep with a message in the queue.
+	*/
+	messageCount.incrementAndGet ();
+	RunnableLock prev = TAIL_UPDATER.getAndSet (this, lock);
+	prev.next = lock;
+	/*
+	* Wake the user-interface thread when the queue was empty.  The
+	* head is read after the link has been published so that either
+	* the consumer sees the new message or this thread sees that the
+	* consumer has already reached the previous message.
+	*/
+	if (prev == head) display.wakeThread ();
 }
 
 /**
@@ -142,30 +175,112 @@ protected void asyncExec (Runnable runnable) {
 	addLast (new RunnableLock (runnable));
 }
 
-int getMessageCount () {
-	synchronized (messageLock) {
-		return messageCount;
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, replacing any runnable that was
+ * queued with an equal key and has not been run yet. The
+ * caller of this method continues to run in parallel, and
+ * is not notified when the runnable has completed.
+ *
+ * @param key the key identifying the runnables to coalesce
+ * @param runnable code to run on the user-interface thread.
+ *
+ * @see #asyncExec
+ *
+ * @since 3.109
+ */
+protected void asyncExecCoalesced (Object key, Runnable runnable) {
+	Map<Object, Runnable> messages = coalescedMessages;
+	/*
+	* Only the first runnable for a key is queued. When the message
+	* is run it removes the latest runnable for the key from the map
+	* and runs it, so runnables that were replaced in between are
+	* never run. The message is queued with asyncExec, so that
+	* subclasses that override it see coalesced runnables too.
+	*/
+	if (messages.put (key, runnable) == null) {
+		asyncExec (() -> {
+			Runnable latest = messages.remove (key);
+			if (latest != null) latest.run ();
+		});
 	}
 }
 
+/**
+ * Returns the number of runnables that are waiting to be
+ * run by the user-interface thread. When called from another
+ * thread, the result is only an estimate since messages may
+ * be added or run concurrently.
+ *
+ * @return the number of pending runnables
+ *
+ * @since 3.109
+ */
+public int getMessageCount () {
+	return firstCount + Math.max (0, messageCount.get ());
+}
+
+/**
+ * Returns the time, in nanoseconds, that the most recently run
+ * runnable waited in the queue before the user-interface thread
+ * started to run it.
+ *
+ * @return the latency of the last runnable in nanoseconds
+ *
+ * @since 3.109
+ */
+public long getMessageLatency () {
+	return messageLatency;
+}
+
+/**
+ * Returns the maximum time, in milliseconds, that the user-interface
+ * thread spends running pending runnables each time the display
+ * processes inter-thread messages.
+ *
+ * @return the time budget in milliseconds
+ *
+ * @see #setTimeBudget
+ *
+ * @since 3.109
+ */
+public int getTimeBudget () {
+	return timeBudget;
+}
+
 void releaseSynchronizer () {
 	display = null;
-	messages = null;
-	messageLock = null;
+	head = tail = null;
+	messageCount.set (0);
+	firstMessages = null;
+	firstCount = firstStart = 0;
+	coalescedMessages = null;
 	syncThread = null;
 }
 
 RunnableLock removeFirst () {
-	synchronized (messageLock) {
-		if (messageCount == 0) return null;
-		RunnableLock lock = messages [0];
-		System.arraycopy (messages, 1, messages, 0, --messageCount);
-		messages [messageCount] = null;
-		if (messageCount == 0) {
-			if (messages.length > MESSAGE_LIMIT) messages = null;
+	if (firstCount > 0) {
+		RunnableLock lock = firstMessages [firstStart];
+		firstMessages [firstStart++] = null;
+		if (--firstCount == 0) {
+			firstStart = 0;
+			if (firstMessages.length > MESSAGE_LIMIT) firstMessages = null;
 		}
 		return lock;
 	}
+	/*
+	* A null next pointer means either that the queue is empty or that
+	* a producer has swapped the tail but not linked its message yet.
+	* In the latter case the producer wakes the user-interface thread
+	* once the message is linked.
+	*/
+	RunnableLock first = head, lock = first.next;
+	if (lock == null) return null;
+	head = lock;
+	first.next = null;
+	messageCount.decrementAndGet ();
+	return lock;
 }
 
 boolean runAsyncMessages () {
@@ -174,10 +289,13 @@ boolean runAsyncMessages () {
 
 boolean runAsyncMessages (boolean all) {
 	boolean run = false;
+	long deadline = 0;
+	if (!all && timeBudget > 0) deadline = System.nanoTime () + timeBudget * 1000000L;
 	do {
 		RunnableLock lock = removeFirst ();
 		if (lock == null) return run;
 		run = true;
+		messageLatency = System.nanoTime () - lock.time;
 		synchronized (lock) {
 			syncThread = lock.thread;
 			display.sendPreEvent(SWT.None);
@@ -191,13 +309,48 @@ boolean runAsyncMessages (boolean all) {
 					display.sendPostEvent(SWT.None);
 				}
 				syncThread = null;
+				/*
+				* The message stays reachable as the head of the queue
+				* until the next message is removed, so it must not keep
+				* the runnable and the state it captures alive.
+				*/
+				lock.runnable = null;
 				lock.notifyAll ();
 			}
 		}
-	} while (all);
+		/* Stop when a runnable has disposed the display */
+		if (display == null) break;
+	} while (all || (deadline != 0 && System.nanoTime () - deadline < 0));
 	return run;
 }
 
+/**
+ * Sets the maximum time, in milliseconds, that the user-interface
+ * thread spends running pending runnables each time the display
+ * processes inter-thread messages, before returning to dispatch
+ * operating system events. When the budget is <code>0</code>, a
+ * single runnable is run each time. The default value can be set
+ * using the <code>swt.asyncExec.timeBudget</code> system property.
+ * <p>
+ * Note that a runnable is never interrupted, so a single long
+ * running runnable can exceed the budget.
+ * </p>
+ *
+ * @param milliseconds the time budget in milliseconds
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the budget is negative</li>
+ * </ul>
+ *
+ * @see #getTimeBudget
+ *
+ * @since 3.109
+ */
+public void setTimeBudget (int milliseconds) {
+	if (milliseconds < 0) SWT.error (SWT.ERROR_INVALID_ARGUMENT);
+	timeBudget = milliseconds;
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next
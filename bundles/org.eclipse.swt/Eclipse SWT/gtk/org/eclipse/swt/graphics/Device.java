@@ -106,6 +106,13 @@ public abstract class Device implements Drawable {
 
 	long /*int*/ emptyTab;
 
+	/* Text extents measured by the GCs of the device */
+	TextCache<Point> textExtents;
+	static final int TEXT_EXTENTS_SIZE = 1024;
+
+	/* Counters of the layout caches of the disposed GCs */
+	int layoutHitCount, layoutMissCount, layoutEvictionCount;
+
 	/*
 	* TEMPORARY CODE. When a graphics object is
 	* created and the device parameter is null,
@@ -909,6 +916,9 @@ static synchronized void register (Device device) {
  * @see #destroy
  */
 protected void release () {
+	/* Dispose the shared images */
+	ImageCache.release (this);
+
 	if (shellHandle != 0) GTK.gtk_widget_destroy(shellHandle);
 	shellHandle = 0;
 
@@ -938,6 +948,7 @@ protected void release () {
 
 	if (emptyTab != 0) OS.pango_tab_array_free(emptyTab);
 	emptyTab = 0;
+	textExtents = null;
 
 	/* Free the GTK error and warning handler */
 	if (xDisplay != 0) {
@@ -1065,6 +1076,83 @@ protected int getDeviceZoom() {
 	}
 	return DPIUtil.mapDPIToZoom (dpi);
 }
+/**
+ * Returns the cache of the text extents measured by the GCs of the
+ * receiver, which is emptied when the zoom of the device changes.
+ */
+TextCache<Point> getTextExtents () {
+	TextCache<Point> extents = textExtents;
+	if (extents == null) {
+		textExtents = extents = new TextCache<> (TEXT_EXTENTS_SIZE);
+		extents.zoom = DPIUtil.getDeviceZoom ();
+	} else if (extents.zoom != DPIUtil.getDeviceZoom ()) {
+		extents.clear ();
+		extents.zoom = DPIUtil.getDeviceZoom ();
+	}
+	return extents;
+}
+
+/**
+ * Discards the text extents measured by the GCs of the receiver,
+ * which are no longer valid once the font settings have changed.
+ */
+void clearTextCache () {
+	if (textExtents != null) textExtents.clear ();
+}
+
+/**
+ * Invokes platform specific functionality to discard the text
+ * extents measured by the GCs of the device.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Device</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param device the device whose text extents are discarded
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public static void gtk_clearTextCache (Device device) {
+	device.clearTextCache ();
+}
+
+/**
+ * Invokes platform specific functionality to answer the hit, miss
+ * and eviction counts of the text extents cache of the device,
+ * followed by the hit, miss and eviction counts of the layout caches
+ * of the GCs of the device that have been disposed.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Device</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param device the device whose counts are answered
+ * @return the six counts
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public static int[] gtk_getTextCacheCounts (Device device) {
+	int[] counts = new int[6];
+	TextCache<Point> extents = device.textExtents;
+	if (extents != null) {
+		synchronized (extents) {
+			counts[0] = extents.hitCount;
+			counts[1] = extents.missCount;
+			counts[2] = extents.evictionCount;
+		}
+	}
+	counts[3] = device.layoutHitCount;
+	counts[4] = device.layoutMissCount;
+	counts[5] = device.layoutEvictionCount;
+	return counts;
+}
+
 /**
  * @noreference This method is not intended to be referenced by clients.
  * @nooverride This method is not intended to be re-implemented or extended by clients.
@@ -94,6 +94,18 @@ public final class GC extends Resource {
 	 */
 	private Rectangle clipping;
 
+	/**
+	 * The shaped layouts of the strings most recently drawn or measured,
+	 * and whether the font options of the receiver differ from those of
+	 * the device, so that text extents cannot be shared with other GCs.
+	 */
+	TextCache<LONG> layouts;
+	boolean textOptionsSet;
+	static final int LAYOUTS_SIZE = 32;
+
+	/* Single character strings used to measure characters */
+	static final String[] CHARS = new String[256];
+
 	final static int FOREGROUND = 1 << 0;
 	final static int BACKGROUND = 1 << 1;
 	final static int FONT = 1 << 2;
@@ -607,18 +619,24 @@ void createLayout() {
 	long /*int*/ context = GDK.gdk_pango_context_get();
 	if (context == 0) SWT.error(SWT.ERROR_NO_HANDLES);
 	data.context = context;
-	long /*int*/ layout = OS.pango_layout_new(context);
-	if (layout == 0) SWT.error(SWT.ERROR_NO_HANDLES);
-	data.layout = layout;
 	OS.pango_context_set_language(context, GTK.gtk_get_default_language());
 	OS.pango_context_set_base_dir(context, (data.style & SWT.MIRRORED) != 0 ? OS.PANGO_DIRECTION_RTL : OS.PANGO_DIRECTION_LTR);
-	OS.pango_layout_set_auto_dir(layout, false);
+	layouts = new TextCache<>(LAYOUTS_SIZE);
 }
 
 void disposeLayout() {
 	data.string = null;
 	if (data.context != 0) OS.g_object_unref(data.context);
-	if (data.layout != 0) OS.g_object_unref(data.layout);
+	if (layouts != null) {
+		for (LONG layout : layouts.clear()) OS.g_object_unref(layout.value);
+		Device device = data.device;
+		if (device != null) {
+			device.layoutHitCount += layouts.hitCount;
+			device.layoutMissCount += layouts.missCount;
+			device.layoutEvictionCount += layouts.evictionCount;
+		}
+	}
+	layouts = null;
 	data.layout = data.context = 0;
 }
 
@@ -720,6 +738,51 @@ void drawArcInPixels(int x, int y, int width, int height, int startAngle, int ar
 	Cairo.cairo_stroke(cairo);
 }
 
+/**
+ * Replays the drawing operations recorded in the given display list,
+ * with the top left corner of the display list at the specified point.
+ * The operations are transformed and clipped by the transform and the
+ * clipping of the receiver, and their alpha is multiplied by the alpha
+ * of the receiver.
+ *
+ * @param list the display list to replay
+ * @param x the x coordinate of where to draw the display list
+ * @param y the y coordinate of where to draw the display list
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the display list is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the display list has been disposed</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the receiver draws on the display list</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see DisplayList
+ *
+ * @since 3.109
+ */
+public void drawDisplayList(DisplayList list, int x, int y) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (list == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (list.isDisposed() || list == drawable) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	Point loc = DPIUtil.autoScaleUp(drawable, new Point(x, y));
+	drawDisplayListInPixels(list, loc.x, loc.y, DPIUtil.autoScaleUp(drawable, 1f));
+}
+void drawDisplayListInPixels(DisplayList list, int x, int y, float scale) {
+	long /*int*/ cairo = data.cairo;
+	Cairo.cairo_save(cairo);
+	Cairo.cairo_translate(cairo, x, y);
+	if (scale != 1) Cairo.cairo_scale(cairo, scale, scale);
+	Cairo.cairo_set_source_surface(cairo, list.surface, 0, 0);
+	if (data.alpha != 0xFF) {
+		Cairo.cairo_paint_with_alpha(cairo, data.alpha / (float)0xFF);
+	} else {
+		Cairo.cairo_paint(cairo);
+	}
+	Cairo.cairo_restore(cairo);
+}
+
 /**
  * Draws a rectangle, based on the specified arguments, which has
  * the appearance of the platform's <em>focus rectangle</em> if the
@@ -913,6 +976,54 @@ void drawLineInPixels(int x1, int y1, int x2, int y2) {
 	Cairo.cairo_stroke(cairo);
 }
 
+/**
+ * Draws the line segments which are defined by the specified array
+ * of integer coordinates, using the foreground color. The array
+ * contains quadruples of x1, y1, x2 and y2 values, each of which is
+ * drawn as a line between the points (<code>x1</code>, <code>y1</code>)
+ * and (<code>x2</code>, <code>y2</code>). Values at the end of the
+ * array that do not form a complete quadruple are ignored.
+ * <p>
+ * The result is the same as calling <code>drawLine</code> for each
+ * segment. Drawing many segments that share the same attributes with
+ * a single call is much faster on some platforms.
+ * </p><p>
+ * Note: On GTK, the segments are drawn as a single path, so pixels
+ * covered by several segments are only drawn once, which is visible
+ * when the alpha is not opaque.
+ * </p>
+ *
+ * @param segmentArray an array of x1, y1, x2 and y2 values
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the segment array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawLine(int, int, int, int)
+ *
+ * @since 3.109
+ */
+public void drawLines(int[] segmentArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (segmentArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	drawLinesInPixels(DPIUtil.autoScaleUp(drawable, segmentArray));
+}
+void drawLinesInPixels(int[] segmentArray) {
+	int count = segmentArray.length / 4;
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	if (Cairo.cairo_version() >= Cairo.CAIRO_VERSION_ENCODE(1, 12, 0)) {
+		Cairo.cairo_set_antialias(cairo, Cairo.CAIRO_ANTIALIAS_BEST);
+	}
+	/* Build the whole path in one native call and stroke it once */
+	OS.cairo_segments(cairo, segmentArray, count, data.cairoXoffset, data.cairoYoffset);
+	Cairo.cairo_stroke(cairo);
+}
+
 /**
  * Draws the outline of an oval, using the foreground color,
  * within the specified rectangular area.
@@ -1033,6 +1144,48 @@ void drawPointInPixels (int x, int y) {
 	Cairo.cairo_fill(cairo);
 }
 
+/**
+ * Draws the pixels which are defined by the specified array of
+ * integer coordinates, using the foreground color. The array
+ * contains alternating x and y values. A value at the end of the
+ * array that does not form a complete pair is ignored.
+ * <p>
+ * The result is the same as calling <code>drawPoint</code> for each
+ * point. Drawing many points with a single call is much faster on
+ * some platforms.
+ * </p><p>
+ * Note: On GTK, the points are drawn as a single path, so points
+ * drawn more than once are only drawn once, which is visible when the
+ * alpha is not opaque.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPoint(int, int)
+ *
+ * @since 3.109
+ */
+public void drawPoints(int[] pointArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	drawPointsInPixels(DPIUtil.autoScaleUp(drawable, pointArray));
+}
+void drawPointsInPixels(int[] pointArray) {
+	int count = pointArray.length / 2;
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	OS.cairo_points(cairo, pointArray, count);
+	fillWinding(cairo);
+}
+
 /**
  * Draws the closed polygon which is defined by the specified array
  * of integer coordinates, using the receiver's foreground color. The array
@@ -1766,6 +1919,76 @@ void fillRectangleInPixels(Rectangle rect) {
 	fillRectangleInPixels(rect.x, rect.y, rect.width, rect.height);
 }
 
+/**
+ * Fills the interior of the rectangles which are defined by the
+ * specified array of integer coordinates, using the receiver's
+ * background color. The array contains quadruples of x, y, width
+ * and height values. Values at the end of the array that do not form
+ * a complete quadruple are ignored.
+ * <p>
+ * The result is the same as calling <code>fillRectangle</code> for
+ * each rectangle. Filling many rectangles with a single call is much
+ * faster on some platforms.
+ * </p><p>
+ * Note: On GTK, the rectangles are filled as a single path, so pixels
+ * covered by several rectangles are only filled once, which is
+ * visible when the alpha is not opaque.
+ * </p>
+ *
+ * @param rectArray an array of x, y, width and height values
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #fillRectangle(int, int, int, int)
+ *
+ * @since 3.109
+ */
+public void fillRectangles(int[] rectArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rectArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	int[] scaledRectArray = DPIUtil.autoScaleUp(drawable, rectArray);
+	if (scaledRectArray != rectArray) {
+		/* Scale the corners like fillRectangle(), so that adjacent rectangles stay adjacent */
+		for (int i = 0; i + 3 < rectArray.length; i += 4) {
+			Point corner = DPIUtil.autoScaleUp(new Point(rectArray[i] + rectArray[i + 2], rectArray[i + 1] + rectArray[i + 3]));
+			scaledRectArray[i + 2] = corner.x - scaledRectArray[i];
+			scaledRectArray[i + 3] = corner.y - scaledRectArray[i + 1];
+		}
+	}
+	fillRectanglesInPixels(scaledRectArray);
+}
+void fillRectanglesInPixels(int[] rectArray) {
+	int count = rectArray.length / 4;
+	if (count == 0) return;
+	if (data.regionSet != 0) {
+		for (int i = 0; i < count * 4; i += 4) {
+			fillRectangleInPixels(rectArray[i], rectArray[i + 1], rectArray[i + 2], rectArray[i + 3]);
+		}
+		return;
+	}
+	checkGC(FILL);
+	long /*int*/ cairo = data.cairo;
+	OS.cairo_rectangles(cairo, rectArray, count);
+	fillWinding(cairo);
+}
+
+/**
+ * Fills the current path with the winding rule, so that the
+ * overlapping shapes added by the batched operations do not
+ * cancel out with the even-odd rule of the receiver.
+ */
+void fillWinding(long /*int*/ cairo) {
+	int fillRule = Cairo.cairo_get_fill_rule(cairo);
+	Cairo.cairo_set_fill_rule(cairo, Cairo.CAIRO_FILL_RULE_WINDING);
+	Cairo.cairo_fill(cairo);
+	Cairo.cairo_set_fill_rule(cairo, fillRule);
+}
+
 /**
  * Fills the interior of the round-cornered rectangle specified by
  * the arguments, using the receiver's background color.
@@ -1862,7 +2085,7 @@ int fixMnemonic (char [] buffer) {
 public int getAdvanceWidth(char ch) {
 	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	//BOGUS
-	return stringExtentInPixels(new String(new char[]{ch})).x;
+	return getTextExtent(getCharString(ch), 0).x;
 }
 
 /**
@@ -1993,7 +2216,14 @@ public Pattern getBackgroundPattern() {
 public int getCharWidth(char ch) {
 	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	//BOGUS
-	return stringExtentInPixels(new String(new char[]{ch})).x;
+	return getTextExtent(getCharString(ch), 0).x;
+}
+
+static String getCharString(char ch) {
+	if (ch >= CHARS.length) return String.valueOf(ch);
+	String string = CHARS[ch];
+	if (string == null) CHARS[ch] = string = String.valueOf(ch);
+	return string;
 }
 
 /**
@@ -3191,6 +3421,10 @@ public void setFont(Font font) {
 	if (font != null && font.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	data.font = font != null ? font : data.device.systemFont;
 	data.state &= ~FONT;
+
+	/* The cached layouts keep the font they were shaped with */
+	data.string = null;
+	data.layout = 0;
 	data.stringWidth = data.stringHeight = -1;
 }
 
@@ -3613,13 +3847,32 @@ void setLineWidthInPixels(int lineWidth) {
 }
 
 void setString(String string, int flags) {
-	if (data.layout == 0) createLayout();
+	if (data.context == 0) createLayout();
 	if (string == data.string && (flags & ~SWT.DRAW_TRANSPARENT) == (data.drawFlags  & ~SWT.DRAW_TRANSPARENT)) {
 		return;
 	}
+	Font font = data.font;
+	LONG cached = layouts.get(font, string, flags);
+	if (cached != null) {
+		data.layout = cached.value;
+	} else {
+		long /*int*/ layout = OS.pango_layout_new(data.context);
+		if (layout == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+		OS.pango_layout_set_auto_dir(layout, false);
+		OS.pango_layout_set_font_description(layout, font.handle);
+		setLayoutText(layout, string, flags);
+		LONG evicted = layouts.put(font, string, flags, new LONG(layout));
+		if (evicted != null) OS.g_object_unref(evicted.value);
+		data.layout = layout;
+	}
+	data.string = string;
+	data.stringWidth = data.stringHeight = -1;
+	data.drawFlags = flags;
+}
+
+void setLayoutText(long /*int*/ layout, String string, int flags) {
 	byte[] buffer;
 	int mnemonic, length = string.length ();
-	long /*int*/ layout = data.layout;
 	char[] text = new char[length];
 	string.getChars(0, length, text, 0);
 	if ((flags & SWT.DRAW_MNEMONIC) != 0 && (mnemonic = fixMnemonic(text)) != -1) {
@@ -3649,9 +3902,6 @@ void setString(String string, int flags) {
 	OS.pango_layout_set_text(layout, buffer, buffer.length);
 	OS.pango_layout_set_single_paragraph_mode(layout, (flags & SWT.DRAW_DELIMITER) == 0);
 	OS.pango_layout_set_tabs(layout, (flags & SWT.DRAW_TAB) != 0 ? 0 : data.device.emptyTab);
-	data.string = string;
-	data.stringWidth = data.stringHeight = -1;
-	data.drawFlags = flags;
 }
 
 /**
@@ -3700,6 +3950,7 @@ public void setTextAntialias(int antialias) {
 	if (data.context == 0) createLayout();
 	OS.pango_cairo_context_set_font_options(data.context, options);
     Cairo.cairo_font_options_destroy(options);
+	textOptionsSet = true;
 }
 
 /**
@@ -3874,12 +4125,28 @@ public Point textExtent(String string, int flags) {
 	return DPIUtil.autoScaleDown(drawable, textExtentInPixels(string, flags));
 }
 Point textExtentInPixels(String string, int flags) {
-	setString(string, flags);
-	checkGC(FONT);
-	if (data.stringWidth == -1) {
-		computeStringSize();
+	Point extent = getTextExtent(string, flags);
+	return new Point(extent.x, extent.y);
+}
+
+/**
+ * Returns the extent of the string, which is shared with the other GCs
+ * of the device and must not be modified.
+ */
+Point getTextExtent(String string, int flags) {
+	TextCache<Point> extents = textOptionsSet ? null : data.device.getTextExtents();
+	Font font = data.font;
+	Point extent = extents != null ? extents.get(font, string, flags) : null;
+	if (extent == null) {
+		setString(string, flags);
+		checkGC(FONT);
+		if (data.stringWidth == -1) {
+			computeStringSize();
+		}
+		extent = new Point(data.stringWidth, data.stringHeight);
+		if (extents != null) extents.put(font, string, flags, extent);
 	}
-	return new Point(data.stringWidth, data.stringHeight);
+	return extent;
 }
 
 /**
@@ -15,6 +15,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.nio.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
@@ -172,6 +173,11 @@ public final class Image extends Resource implements Drawable {
 	 */
 	private int currentDeviceZoom = 100;
 
+	/**
+	 * The caller owned buffer holding the pixels of the image, if any.
+	 */
+	ByteBuffer pixelBuffer;
+
 Image(Device device) {
 	super(device);
 	currentDeviceZoom = DPIUtil.getDeviceZoom();
@@ -467,6 +473,72 @@ public Image(Device device, ImageData data) {
 	init();
 }
 
+/**
+ * Constructs an instance of this class whose pixels are stored in
+ * the given direct buffer, without copying them.
+ * <p>
+ * The buffer holds the rows of the image in cairo's ARGB32 format,
+ * starting at index zero: every pixel is a 32-bit integer in native
+ * byte order holding premultiplied alpha, red, green and blue, from
+ * the most to the least significant byte. The rows are
+ * <code>stride</code> bytes apart. The size of the image is given in
+ * pixels and the image is not scaled for the zoom of the device.
+ * </p><p>
+ * The buffer stays owned by the caller, who may paint into it at any
+ * time and must then call {@link #pixelBufferChanged()}. Drawing on
+ * the image with a <code>GC</code> updates the buffer in turn. The
+ * image keeps a reference to the buffer until it is disposed.
+ * </p><p>
+ * <b>Warning</b>: This API is currently only implemented on GTK.
+ * </p><p>
+ * You must dispose the image when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the image
+ * @param buffer the direct buffer holding the pixels of the image
+ * @param width the width of the image in pixels
+ * @param height the height of the image in pixels
+ * @param stride the number of bytes between the start of two rows
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_NULL_ARGUMENT - if the buffer is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the buffer is not direct or is read-only</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if either the width or height is negative or zero</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the stride is smaller than four bytes per pixel or not a multiple of four</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the buffer is too small for the image</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for image creation</li>
+ * </ul>
+ *
+ * @see #getPixelBuffer()
+ * @see #pixelBufferChanged()
+ * @see #dispose()
+ *
+ * @since 3.109
+ */
+public Image(Device device, ByteBuffer buffer, int width, int height, int stride) {
+	super(device);
+	if (buffer == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (!buffer.isDirect() || buffer.isReadOnly()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (width <= 0 || height <= 0 || stride < width * 4 || (stride & 3) != 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if ((long)stride * height > buffer.capacity()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	long /*int*/ data = OS.GetDirectBufferAddress(buffer);
+	if (data == 0 || (data & 3) != 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	currentDeviceZoom = DPIUtil.getDeviceZoom();
+	this.width = width;
+	this.height = height;
+	surface = Cairo.cairo_image_surface_create_for_data(data, Cairo.CAIRO_FORMAT_ARGB32, width, height, stride);
+	if (surface == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	if (DPIUtil.useCairoAutoScale()) {
+		double scaleFactor = currentDeviceZoom / 100f;
+		Cairo.cairo_surface_set_device_scale(surface, scaleFactor, scaleFactor);
+	}
+	pixelBuffer = buffer;
+	init();
+}
+
 /**
  * Constructs an instance of this class, whose type is
  * <code>SWT.ICON</code>, from the two given <code>ImageData</code>
@@ -772,7 +844,8 @@ boolean refreshImageForZoom () {
 			}
 			currentDeviceZoom = deviceZoomLevel;
 		}
-	} else {
+	} else if (pixelBuffer == null) {
+		/* The pixels of an image created from a buffer are never scaled */
 		int deviceZoomLevel = deviceZoom;
 		if (deviceZoomLevel != currentDeviceZoom) {
 			ImageData data = getImageDataAtCurrentZoom();
@@ -928,6 +1001,7 @@ void destroy() {
 	if (surface != 0) Cairo.cairo_surface_destroy(surface);
 	surface = mask = 0;
 	memGC = null;
+	pixelBuffer = null;
 }
 
 /**
@@ -1173,6 +1247,49 @@ public ImageData getImageData (int zoom) {
 	}
 }
 
+/**
+ * Returns a direct buffer mapping the pixels of the receiver, so that
+ * they can be read and written without copying them.
+ * <p>
+ * The buffer holds the rows of the image in cairo's native format,
+ * the one described in {@link #Image(Device, ByteBuffer, int, int, int)},
+ * and its byte order is the native one, so that it can be viewed as
+ * an <code>IntBuffer</code> of pixels. The rows are
+ * <code>capacity() / height</code> bytes apart, where height is the
+ * height of the image in pixels. The alpha byte is meaningless when
+ * the image has no transparency. Pending drawing operations are
+ * completed before the buffer is returned. After writing into the
+ * buffer, {@link #pixelBufferChanged()} must be called.
+ * </p><p>
+ * The buffer must not be accessed after the receiver has been disposed.
+ * </p><p>
+ * <b>Warning</b>: This API is currently only implemented on GTK.
+ * </p>
+ *
+ * @return a buffer mapping the pixels of the image
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_INVALID_IMAGE - if the pixels of the image are not held in memory</li>
+ * </ul>
+ *
+ * @see #pixelBufferChanged()
+ *
+ * @since 3.109
+ */
+public ByteBuffer getPixelBuffer() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (Cairo.cairo_surface_get_type(surface) != Cairo.CAIRO_SURFACE_TYPE_IMAGE) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	Cairo.cairo_surface_flush(surface);
+	long /*int*/ data = Cairo.cairo_image_surface_get_data(surface);
+	if (data == 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	int stride = Cairo.cairo_image_surface_get_stride(surface);
+	int height = Cairo.cairo_image_surface_get_height(surface);
+	ByteBuffer buffer = OS.NewDirectByteBuffer(data, (long)stride * height);
+	if (buffer == null) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	return buffer.order(ByteOrder.nativeOrder());
+}
+
 /**
  * Invokes platform specific functionality to allocate a new image.
  * <p>
@@ -1485,6 +1602,28 @@ public boolean isDisposed() {
 	return surface == 0;
 }
 
+/**
+ * Notifies the receiver that its pixels have been written directly,
+ * either in the buffer the receiver was created from or in the one
+ * returned by {@link #getPixelBuffer()}. This must be called before
+ * the image is drawn again.
+ * <p>
+ * <b>Warning</b>: This API is currently only implemented on GTK.
+ * </p>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #getPixelBuffer()
+ *
+ * @since 3.109
+ */
+public void pixelBufferChanged() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	Cairo.cairo_surface_mark_dirty(surface);
+}
+
 /**
  * Sets the color to which to map the transparent pixel.
  * <p>
@@ -14,6 +14,8 @@
 package org.eclipse.swt.graphics;
 
 
+import java.util.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
 import org.eclipse.swt.internal.cairo.*;
@@ -95,38 +97,150 @@ Region(Device device, long /*int*/ handle) {
 }
 
 static long /*int*/ gdk_region_polygon(int[] pointArray, int npoints, int fill_rule) {
-	//TODO this does not perform well and could fail if the polygon is too big
-	int minX = pointArray[0], maxX = minX;
-	int minY = pointArray[1], maxY = minY;
-	int count = npoints * 2;
-	for (int i=2; i<count; i+=2) {
-		int x = pointArray[i], y = pointArray[i + 1];
-		if (x < minX) minX = x;
-		if (x > maxX) maxX = x;
-		if (y < minY) minY = y;
-		if (y > maxY) maxY = y;
+	int[] count = new int[1];
+	int[] rects = polygonRectangles(pointArray, npoints, fill_rule == GDK.GDK_EVEN_ODD_RULE, count);
+	long /*int*/ polyRgn = Cairo.cairo_region_create_rectangles(rects, count[0]);
+	if (polyRgn == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	return polyRgn;
+}
+
+/**
+ * Returns the rectangles covering the pixels whose center is inside the
+ * polygon, which are the pixels painted when the polygon is filled
+ * without antialiasing.
+ * <p>
+ * The polygon is scanned one row of pixels at a time, keeping the edges
+ * that cross the center of the row in an active edge list. Consecutive
+ * rows that cover the same columns are merged into one band, so that
+ * the rectangles are already sorted and banded the way cairo regions
+ * store them.
+ * </p>
+ *
+ * @param pointArray the points of the polygon, as x and y values
+ * @param npoints the number of points of the polygon
+ * @param evenOdd whether the even-odd rule decides which areas are inside, rather than the winding rule
+ * @param count returns the number of rectangles
+ * @return the rectangles, as x, y, width and height values
+ */
+static int[] polygonRectangles(int[] pointArray, int npoints, boolean evenOdd, int[] count) {
+	/* Build the edge table, with every edge going down, sorted by top row */
+	int[] edgeX = new int[npoints], edgeY = new int[npoints], edgeBottom = new int[npoints];
+	int[] edgeDX = new int[npoints], edgeDY = new int[npoints], edgeDir = new int[npoints];
+	long[] edgeTable = new long[npoints];
+	int edgeCount = 0;
+	for (int i = 0; i < npoints; i++) {
+		int j = (i + 1) % npoints;
+		int x1 = pointArray[i * 2], y1 = pointArray[i * 2 + 1];
+		int x2 = pointArray[j * 2], y2 = pointArray[j * 2 + 1];
+		if (y1 == y2) continue;
+		int dir = 1;
+		if (y1 > y2) {
+			int t = x1; x1 = x2; x2 = t;
+			t = y1; y1 = y2; y2 = t;
+			dir = -1;
+		}
+		edgeX[edgeCount] = x1;
+		edgeY[edgeCount] = y1;
+		edgeBottom[edgeCount] = y2;
+		edgeDX[edgeCount] = x2 - x1;
+		edgeDY[edgeCount] = y2 - y1;
+		edgeDir[edgeCount] = dir;
+		edgeTable[edgeCount] = ((long)y1 << 32) | edgeCount;
+		edgeCount++;
 	}
-	long /*int*/ surface = Cairo.cairo_image_surface_create(Cairo.CAIRO_FORMAT_ARGB32, maxX - minX, maxY - minY);
-	if (surface == 0) SWT.error(SWT.ERROR_NO_HANDLES);
-	long /*int*/ cairo = Cairo.cairo_create(surface);
-	if (cairo == 0) SWT.error(SWT.ERROR_NO_HANDLES);
-	Cairo.cairo_move_to(cairo, pointArray[0] - minX, pointArray[1] - minY);
-	for (int i=2; i<count; i+=2) {
-		Cairo.cairo_line_to(cairo, pointArray[i]- minX, pointArray[i+1] - minY);
+	edgeTable = Arrays.copyOf(edgeTable, edgeCount);
+	Arrays.sort(edgeTable);
+
+	int[] active = new int[edgeCount];
+	long[] crossings = new long[edgeCount];
+	int[] spans = new int[16], bandSpans = new int[16];
+	int[] rects = new int[64];
+	int activeCount = 0, nextEdge = 0, spanCount = 0, bandSpanCount = 0, rectCount = 0;
+	int y = edgeCount > 0 ? (int)(edgeTable[0] >> 32) : 0;
+	int bandY = y;
+	while (true) {
+		/* Update the active edges, the center of the row is between their top and bottom */
+		int n = 0;
+		for (int i = 0; i < activeCount; i++) {
+			if (edgeBottom[active[i]] > y) active[n++] = active[i];
+		}
+		activeCount = n;
+		if (activeCount == 0) {
+			if (nextEdge == edgeCount) break;
+
+			/* End the current band and skip the rows that no edge crosses */
+			rects = addBand(rects, rectCount, bandSpans, bandSpanCount, bandY, y);
+			rectCount += bandSpanCount / 2;
+			bandSpanCount = 0;
+			y = Math.max(y, (int)(edgeTable[nextEdge] >> 32));
+			bandY = y;
+		}
+		while (nextEdge < edgeCount && (int)(edgeTable[nextEdge] >> 32) <= y) {
+			active[activeCount++] = (int)edgeTable[nextEdge++];
+		}
+
+		/*
+		* Find the first column whose center is right of each edge,
+		* x + 0.5 >= x1 + (y + 0.5 - y1) * dx / dy, in exact arithmetic.
+		*/
+		for (int i = 0; i < activeCount; i++) {
+			int e = active[i];
+			long dy = edgeDY[e];
+			long numerator = 2L * edgeX[e] * dy + (2L * y + 1 - 2L * edgeY[e]) * edgeDX[e] - dy;
+			long column = -Math.floorDiv(-numerator, 2 * dy);
+			crossings[i] = (column << 1) | (edgeDir[e] > 0 ? 1 : 0);
+		}
+		Arrays.sort(crossings, 0, activeCount);
+
+		/* Collect the spans of the row */
+		spanCount = 0;
+		int winding = 0;
+		for (int i = 0; i < activeCount; i++) {
+			winding += (crossings[i] & 1) != 0 ? 1 : -1;
+			if (i + 1 == activeCount) break;
+			int left = (int)(crossings[i] >> 1), right = (int)(crossings[i + 1] >> 1);
+			boolean inside = evenOdd ? (winding & 1) != 0 : winding != 0;
+			if (!inside || left == right) continue;
+			if (spanCount > 0 && spans[spanCount - 1] == left) {
+				spans[spanCount - 1] = right;
+			} else {
+				if (spanCount + 2 > spans.length) spans = Arrays.copyOf(spans, spans.length * 2);
+				spans[spanCount++] = left;
+				spans[spanCount++] = right;
+			}
+		}
+
+		/* Extend the current band, or start a new one when the spans change */
+		boolean same = spanCount == bandSpanCount;
+		for (int i = 0; same && i < spanCount; i++) {
+			same = spans[i] == bandSpans[i];
+		}
+		if (!same) {
+			rects = addBand(rects, rectCount, bandSpans, bandSpanCount, bandY, y);
+			rectCount += bandSpanCount / 2;
+			int[] t = bandSpans; bandSpans = spans; spans = t;
+			bandSpanCount = spanCount;
+			bandY = y;
+		}
+		y++;
 	}
-	Cairo.cairo_close_path(cairo);
-	Cairo.cairo_set_source_rgb(cairo, 1, 1, 1);
-	int cairo_rule = Cairo.CAIRO_FILL_RULE_WINDING;
-	if (fill_rule == GDK.GDK_EVEN_ODD_RULE) {
-		cairo_rule = Cairo.CAIRO_FILL_RULE_EVEN_ODD;
+	rects = addBand(rects, rectCount, bandSpans, bandSpanCount, bandY, y);
+	rectCount += bandSpanCount / 2;
+	count[0] = rectCount;
+	return rects;
+}
+
+static int[] addBand(int[] rects, int rectCount, int[] spans, int spanCount, int y, int bottom) {
+	if (spanCount == 0) return rects;
+	int length = (rectCount + spanCount / 2) * 4;
+	if (length > rects.length) rects = Arrays.copyOf(rects, Math.max(length, rects.length * 2));
+	for (int i = 0, j = rectCount * 4; i < spanCount; i += 2, j += 4) {
+		rects[j] = spans[i];
+		rects[j + 1] = y;
+		rects[j + 2] = spans[i + 1] - spans[i];
+		rects[j + 3] = bottom - y;
 	}
-	Cairo.cairo_set_fill_rule(cairo, cairo_rule);
-	Cairo.cairo_fill(cairo);
-	Cairo.cairo_destroy(cairo);
-	long /*int*/ polyRgn = GDK.gdk_cairo_region_create_from_surface(surface);
-	Cairo.cairo_region_translate (polyRgn, minX, minY);
-	Cairo.cairo_surface_destroy(surface);
-	return polyRgn;
+	return rects;
 }
 
 static void cairo_region_get_rectangles(long /*int*/ region, long /*int*/[] rectangles, int[] n_rectangles) {
@@ -263,6 +377,7 @@ public void add(Region region) {
  */
 public boolean contains(int x, int y) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (DPIUtil.getDeviceZoom() == 100) return containsInPixels(x, y);
 	return contains(new Point(x, y));
 }
 boolean containsInPixels(int x, int y) {
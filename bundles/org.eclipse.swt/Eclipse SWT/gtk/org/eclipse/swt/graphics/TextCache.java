@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+
+import java.util.*;
+
+import org.eclipse.swt.*;
+
+/**
+ * Instances of this class map the strings measured or drawn with a
+ * font to the values computed for them, such as their extents or their
+ * shaped Pango layouts. The least recently used entries are evicted
+ * once the cache holds its maximum number of entries.
+ * <p>
+ * Fonts are compared by identity, so that the entries of a font are
+ * never returned for another font created after it was disposed.
+ * </p>
+ */
+final class TextCache<V> {
+
+	/* The flags that change how a string is laid out */
+	static final int FLAGS = SWT.DRAW_DELIMITER | SWT.DRAW_TAB | SWT.DRAW_MNEMONIC;
+
+	final int maximumSize;
+	int zoom;
+	int hitCount, missCount, evictionCount;
+
+	/* Entries in least recently used order */
+	final LinkedHashMap<Key, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+	final Key probe = new Key();
+
+	static final class Key {
+		Font font;
+		String string;
+		int flags, hash;
+
+		void set(Font font, String string, int flags) {
+			this.font = font;
+			this.string = string;
+			this.flags = flags;
+			hash = font == null ? 0 : (System.identityHashCode(font) * 31 + string.hashCode()) * 31 + flags;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (object == this) return true;
+			if (!(object instanceof Key)) return false;
+			Key key = (Key)object;
+			return font == key.font && flags == key.flags && string.equals(key.string);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+TextCache(int maximumSize) {
+	this.maximumSize = maximumSize;
+}
+
+/**
+ * Returns the value cached for the string laid out with the given
+ * font and flags, or <code>null</code> if there is none.
+ */
+synchronized V get(Font font, String string, int flags) {
+	probe.set(font, string, flags & FLAGS);
+	V value = entries.get(probe);
+	probe.set(null, null, 0);
+	if (value != null) {
+		hitCount++;
+	} else {
+		missCount++;
+	}
+	return value;
+}
+
+/**
+ * Caches the value computed for the string laid out with the given
+ * font and flags, and returns the value that was evicted to make room
+ * for it, or <code>null</code> if there is none.
+ */
+synchronized V put(Font font, String string, int flags, V value) {
+	Key key = new Key();
+	key.set(font, string, flags & FLAGS);
+	entries.put(key, value);
+	if (entries.size() <= maximumSize) return null;
+	Iterator<V> iterator = entries.values().iterator();
+	V eldest = iterator.next();
+	iterator.remove();
+	evictionCount++;
+	return eldest;
+}
+
+synchronized Collection<V> clear() {
+	Collection<V> values = new ArrayList<>(entries.values());
+	entries.clear();
+	return values;
+}
+
+}
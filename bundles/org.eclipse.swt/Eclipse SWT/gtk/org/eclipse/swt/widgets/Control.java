@@ -657,6 +657,16 @@ void checkMirrored () {
 	if ((style & SWT.RIGHT_TO_LEFT) != 0) style |= SWT.MIRRORED;
 }
 
+/*
+ * Returns true if consecutive motion and smooth scroll events should
+ * be merged before they are sent. This is enabled for a control or
+ * for the whole display using the "org.eclipse.swt.internal.gtk.compressEvents"
+ * data key.
+ */
+boolean compressEvents () {
+	return (state & COMPRESS_EVENTS) != 0 || display.compressEvents;
+}
+
 /**
  * Convenience method for checking whether an (x, y) coordinate is in the set
  * region. Only relevant for GTK3.10+.
@@ -3458,7 +3468,8 @@ long /*int*/ gtk_draw (long /*int*/ widget, long /*int*/ cairo) {
 		cairoClipRegion(cairo);
 	}
 	if (!hooksPaint ()) return 0;
-	Event event = new Event ();
+	Display display = this.display;
+	Event event = display.newEvent ();
 	event.count = 1;
 	Rectangle eventBounds = DPIUtil.autoScaleDown (new Rectangle (rect.x, rect.y, rect.width, rect.height));
 	if ((style & SWT.MIRRORED) != 0) eventBounds.x = DPIUtil.autoScaleDown (getClientWidth ()) - eventBounds.width - eventBounds.x;
@@ -3474,15 +3485,68 @@ long /*int*/ gtk_draw (long /*int*/ widget, long /*int*/ cairo) {
 		data.cairo = cairo;
 	}
 	GC gc = event.gc = GC.gtk_new (this, data);
+	/*
+	* Feature in GTK. The damaged area of the widget is clipped to a
+	* list of rectangles, but only their bounds are reported to the
+	* paint event. When NO_MERGE_PAINTS is set, send a paint event
+	* for each damaged rectangle, like on Windows, so that the paint
+	* listeners only redraw the content that actually changed.
+	*/
+	Rectangle [] damage = null;
+	if ((style & SWT.NO_MERGE_PAINTS) != 0) damage = getDamagedRectangles (cairo);
+	DisplayProbe probe = display.probe;
+	long start = probe != null ? System.nanoTime () : 0;
 	// Note: use GC#setClipping(x,y,width,height) because GC#setClipping(Rectangle) got broken by bug 446075
 	gc.setClipping (eventBounds.x, eventBounds.y, eventBounds.width, eventBounds.height);
 	drawWidget (gc);
-	sendEvent (SWT.Paint, event);
+	if (damage != null) {
+		for (int i=0; i<damage.length; i++) {
+			Rectangle bounds = damage [i];
+			if ((style & SWT.MIRRORED) != 0) bounds.x = DPIUtil.autoScaleDown (getClientWidth ()) - bounds.width - bounds.x;
+			event.setBounds (bounds);
+			event.count = damage.length - 1 - i;
+			gc.setClipping (bounds.x, bounds.y, bounds.width, bounds.height);
+			sendEvent (SWT.Paint, event);
+			// widget could be disposed at this point
+			if (isDisposed ()) break;
+		}
+	} else {
+		sendEvent (SWT.Paint, event);
+	}
+	if (probe != null) probe.record (DisplayProbe.PAINT, start, System.nanoTime () - start);
 	gc.dispose ();
 	event.gc = null;
+	display.releaseEvent (event);
 	return 0;
 }
 
+/**
+ * Returns the rectangles of the clip of the cairo context in points,
+ * or <code>null</code> if the clip is a single rectangle or cannot be
+ * represented by rectangles.
+ */
+Rectangle [] getDamagedRectangles (long /*int*/ cairo) {
+	long /*int*/ list = Cairo.cairo_copy_clip_rectangle_list (cairo);
+	if (list == 0) return null;
+	cairo_rectangle_list_t rectangleList = new cairo_rectangle_list_t ();
+	Cairo.memmove (rectangleList, list, cairo_rectangle_list_t.sizeof);
+	Rectangle [] result = null;
+	int count = rectangleList.num_rectangles;
+	if (rectangleList.status == Cairo.CAIRO_STATUS_SUCCESS && count > 1) {
+		double [] rects = new double [count * 4];
+		Cairo.memmove (rects, rectangleList.rectangles, rects.length * 8);
+		result = new Rectangle [count];
+		for (int i=0, j=0; i<count; i++, j+=4) {
+			int x = (int) Math.floor (rects [j]), y = (int) Math.floor (rects [j + 1]);
+			int width = (int) Math.ceil (rects [j] + rects [j + 2]) - x;
+			int height = (int) Math.ceil (rects [j + 1] + rects [j + 3]) - y;
+			result [i] = DPIUtil.autoScaleDown (new Rectangle (x, y, width, height));
+		}
+	}
+	Cairo.cairo_rectangle_list_destroy (list);
+	return result;
+}
+
 @Override
 long /*int*/ gtk_focus (long /*int*/ widget, long /*int*/ directionType) {
 	/* Stop GTK traversal for every widget */
@@ -3664,6 +3728,7 @@ long /*int*/ gtk_motion_notify_event (long /*int*/ widget, long /*int*/ event) {
 			sendMouseEvent (SWT.MouseEnter, 0, gdkEvent.time, x, y, gdkEvent.is_hint != 0, state);
 		}
 	}
+	if (compressEvents () && display.isEventCompressed (event)) return 0;
 	result = sendMouseEvent (SWT.MouseMove, 0, gdkEvent.time, x, y, gdkEvent.is_hint != 0, state) ? 0 : 1;
 	return result;
 }
@@ -3713,8 +3778,10 @@ long /*int*/ gtk_scroll_event (long /*int*/ widget, long /*int*/ eventPtr) {
 			return sendMouseEvent (SWT.MouseHorizontalWheel, 0, -3, 0, true, gdkEvent.time, gdkEvent.x_root, gdkEvent.y_root, false, gdkEvent.state) ? 0 : 1;
 		case GDK.GDK_SCROLL_SMOOTH:
 			long /*int*/ result = 0;
+			if (compressEvents () && display.isEventCompressed (eventPtr)) return 0;
 			double[] delta_x = new double[1], delta_y = new double [1];
 			if (GDK.gdk_event_get_scroll_deltas (eventPtr, delta_x, delta_y)) {
+				display.takeCompressedDeltas (eventPtr, delta_x, delta_y);
 				if (delta_x [0] != 0) {
 					result = (sendMouseEvent (SWT.MouseHorizontalWheel, 0, (int)(-3 * delta_x [0]), 0, true, gdkEvent.time, gdkEvent.x_root, gdkEvent.y_root, false, gdkEvent.state) ? 0 : 1);
 				}
@@ -4326,7 +4393,10 @@ boolean sendMouseEvent (int type, int button, int count, int detail, boolean sen
 		}
 		return true;
 	}
-	Event event = new Event ();
+	/* Events that are sent right away can be reused, queued or posted events cannot */
+	Display display = this.display;
+	boolean pooled = send && OS.isX11 ();
+	Event event = pooled ? display.newEvent () : new Event ();
 	event.time = time;
 	event.button = button;
 	event.detail = detail;
@@ -4404,7 +4474,9 @@ boolean sendMouseEvent (int type, int button, int count, int detail, boolean sen
 			}
 		}
 	}
-	return sendOrPost(type, event);
+	boolean doit = sendOrPost(type, event);
+	if (pooled) display.releaseEvent (event);
+	return doit;
 }
 
 private boolean sendOrPost(int type, Event event) {
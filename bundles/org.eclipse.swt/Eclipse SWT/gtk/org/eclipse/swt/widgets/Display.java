@@ -111,9 +111,6 @@ public class Display extends Device {
 
 	static boolean strictChecks = System.getProperty("org.eclipse.swt.internal.gtk.enableStrictChecks") != null;
 
-	private static final int SLOT_IN_USE = -2;
-	private static final int LAST_TABLE_INDEX = -1;
-
 	/* Events Dispatching and Callback */
 	int gdkEventCount;
 	long /*int*/ [] gdkEvents;
@@ -132,30 +129,65 @@ public class Display extends Device {
 	static String APP_VERSION = ""; //$NON-NLS-1$
 	static final String DISPATCH_EVENT_KEY = "org.eclipse.swt.internal.gtk.dispatchEvent"; //$NON-NLS-1$
 	static final String ADD_WIDGET_KEY = "org.eclipse.swt.internal.addWidget"; //$NON-NLS-1$
+	static final String COMPRESS_EVENTS_KEY = "org.eclipse.swt.internal.gtk.compressEvents"; //$NON-NLS-1$
+	static final String COMPRESSED_EVENT_COUNT_KEY = "org.eclipse.swt.internal.gtk.compressedEventCount"; //$NON-NLS-1$
+	static final String POOL_EVENTS_KEY = "org.eclipse.swt.internal.gtk.poolEvents"; //$NON-NLS-1$
+	static final String PROBE_KEY = "org.eclipse.swt.internal.gtk.probe"; //$NON-NLS-1$
+	static final String WATCHDOG_KEY = "org.eclipse.swt.internal.gtk.watchdog"; //$NON-NLS-1$
+	static final String TEXT_CACHE_COUNTS_KEY = "org.eclipse.swt.internal.gtk.textCacheCounts"; //$NON-NLS-1$
 	long /*int*/ [] closures, closuresProc;
 	int [] closuresCount;
 	int [] signalIds;
 	long /*int*/ shellMapProcClosure;
 
+	/* Motion and scroll event compression */
+	boolean compressEvents;
+	long compressedEventCount;
+	/* Scroll deltas of skipped events, for the window and device they were sent to */
+	long /*int*/ compressedWindow, compressedDevice;
+	double compressedDeltaX, compressedDeltaY;
+
+	/* Event pool */
+	boolean poolEvents;
+	Event [] eventPool;
+	int eventPoolCount;
+	static final int EVENT_POOL_SIZE = 16;
+	static final int RELEASED_EVENT_VALUE = 0xDEADBEEF;
+
+	/* Probe */
+	DisplayProbe probe;
+	static final String PROBE_FILE = System.getProperty ("org.eclipse.swt.internal.gtk.probeFile"); //$NON-NLS-1$
+
+	/* Watchdog */
+	Watchdog watchdog;
+	static final long WATCHDOG_THRESHOLD = Long.getLong ("org.eclipse.swt.internal.gtk.watchdogThreshold", 0); //$NON-NLS-1$
+
 	/* Widget Table */
-	int [] indexTable;
-	int freeSlot;
 	long /*int*/ lastHandle;
 	Widget lastWidget;
-	Widget [] widgetTable;
+	WidgetTable widgetTable;
 	final static int GROW_SIZE = 1024;
-	static final int SWT_OBJECT_INDEX;
 	static final int SWT_OBJECT_INDEX1;
 	static final int SWT_OBJECT_INDEX2;
+	static final int SWT_OBJECT_WEAK_REF;
 	static {
-		byte [] buffer = Converter.wcsToMbcs ("SWT_OBJECT_INDEX", true); //$NON-NLS-1$
-		SWT_OBJECT_INDEX = OS.g_quark_from_string (buffer);
-		buffer = Converter.wcsToMbcs ("SWT_OBJECT_INDEX1", true); //$NON-NLS-1$
+		byte [] buffer = Converter.wcsToMbcs ("SWT_OBJECT_INDEX1", true); //$NON-NLS-1$
 		SWT_OBJECT_INDEX1 = OS.g_quark_from_string (buffer);
 		buffer = Converter.wcsToMbcs ("SWT_OBJECT_INDEX2", true); //$NON-NLS-1$
 		SWT_OBJECT_INDEX2 = OS.g_quark_from_string (buffer);
+		buffer = Converter.wcsToMbcs ("SWT_OBJECT_WEAK_REF", true); //$NON-NLS-1$
+		SWT_OBJECT_WEAK_REF = OS.g_quark_from_string (buffer);
 	}
 
+	/*
+	* The widget table is keyed by address, so a handle must leave the
+	* table when its object is finalized, before the address can be
+	* reused by another object. The notify callback is static and never
+	* disposed because objects can be finalized after the display.
+	*/
+	static Callback weakNotifyCallback;
+	static long /*int*/ weakNotifyProc;
+
 	/* Modality */
 	Shell [] modalShells;
 	Dialog modalDialog;
@@ -193,8 +225,9 @@ public class Display extends Device {
 	TrayItem currentTrayItem;
 
 	/* Timers */
-	int [] timerIds;
-	Runnable [] timerList;
+	TimerWheel timerWheel;
+	int timerId;
+	long timerDeadline;
 	Callback timerCallback;
 	long /*int*/ timerProc;
 	Callback windowTimerCallback;
@@ -795,37 +828,22 @@ void addSkinnableWidget (Widget widget) {
 
 void addWidget (long /*int*/ handle, Widget widget) {
 	if (handle == 0) return;
-	// Last element in the indexTable is -1, so if freeSlot == -1 we have no place anymore
-	if (freeSlot == LAST_TABLE_INDEX) {
-		int length = (freeSlot = indexTable.length) + GROW_SIZE;
-		int[] newIndexTable = new int[length];
-		Widget[] newWidgetTable = new Widget [length];
-		System.arraycopy (indexTable, 0, newIndexTable, 0, freeSlot);
-		System.arraycopy (widgetTable, 0, newWidgetTable, 0, freeSlot);
-		for (int i = freeSlot; i < length - 1; i++) {
-			newIndexTable[i] = i + 1;
+	if (OS.g_object_get_qdata (handle, SWT_OBJECT_WEAK_REF) == 0) {
+		if (weakNotifyCallback == null) {
+			weakNotifyCallback = new Callback (Display.class, "weakNotifyProc", 2); //$NON-NLS-1$
+			weakNotifyProc = weakNotifyCallback.getAddress ();
+			if (weakNotifyProc == 0) error (SWT.ERROR_NO_MORE_CALLBACKS);
 		}
-		// mark last slot as "need resize"
-		newIndexTable[length - 1] = LAST_TABLE_INDEX;
-		indexTable = newIndexTable;
-		widgetTable = newWidgetTable;
-	}
-	int index = freeSlot + 1;
-	if(strictChecks) {
-		long /*int*/ data = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX);
-		if(data > 0 && data != index) {
-			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Potential leak of " + widget + debugInfoForIndex(data - 1));
+		OS.g_object_set_qdata (handle, SWT_OBJECT_WEAK_REF, 1);
+		OS.g_object_weak_ref (handle, weakNotifyProc, 0);
+	}
+	Widget oldWidget = widgetTable.put (handle, widget);
+	if (handle == lastHandle) lastWidget = null;
+	if (oldWidget != null && oldWidget != widget) {
+		if (strictChecks) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Potential leak of " + oldWidget + " replaced by " + widget + dumpWidgetTableInfo());
 		}
 	}
-	OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, index);
-	int oldSlot = freeSlot;
-	freeSlot = indexTable[oldSlot];
-	// Mark old index slot as used
-	indexTable [oldSlot] = SLOT_IN_USE;
-	if(widgetTable [oldSlot] != null) {
-		SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Trying to override non empty slot with " + widget + debugInfoForIndex(oldSlot));
-	}
-	widgetTable [oldSlot] = widget;
 }
 
 /**
@@ -863,6 +881,54 @@ public void asyncExec (Runnable runnable) {
 	}
 }
 
+/**
+ * Causes the <code>run()</code> method of the runnable to
+ * be invoked by the user-interface thread at the next
+ * reasonable opportunity, replacing any runnable that was
+ * posted with an equal key by this method and has not been
+ * run yet. The caller of this method continues to run in
+ * parallel, and is not notified when the runnable has completed.
+ * <p>
+ * This is useful to collapse redundant updates, such as progress
+ * reports coming from a background thread, into a single execution
+ * on the user-interface thread. Keys are compared using
+ * <code>equals()</code>.
+ * </p>
+ * <p>
+ * Note that at the time the runnable is invoked, widgets
+ * that have the receiver as their display may have been
+ * disposed. Therefore, it is necessary to check for this
+ * case inside the runnable before accessing the widget.
+ * </p>
+ *
+ * @param key the key identifying the runnables to coalesce
+ * @param runnable code to run on the user-interface thread
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the key or the runnable is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #asyncExec
+ *
+ * @since 3.109
+ */
+public void asyncExecCoalesced (Object key, Runnable runnable) {
+	synchronized (Device.class) {
+		if (isDisposed ()) error (SWT.ERROR_DEVICE_DISPOSED);
+		if (key == null || runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
+		synchronized (idleLock) {
+			if (idleNeeded && idleHandle == 0) {
+	 			//NOTE: calling unlocked function in OS
+				idleHandle = OS._g_idle_add (idleProc, 0);
+			}
+		}
+		synchronizer.asyncExecCoalesced (key, runnable);
+	}
+}
+
 /**
  * Causes the system hardware to emit a short sound
  * (if it supports this capability).
@@ -1363,7 +1429,18 @@ long /*int*/ eventProc (long /*int*/ event, long /*int*/ data) {
 	if (tracker != null) {
 		dispatch = tracker.processEvent (event);
 	}
-	if (dispatch) GTK.gtk_main_do_event (event);
+	if (dispatch) {
+		DisplayProbe probe = this.probe;
+		Watchdog watchdog = this.watchdog;
+		long start = probe != null ? System.nanoTime () : 0;
+		if (watchdog != null) watchdog.begin ();
+		try {
+			GTK.gtk_main_do_event (event);
+		} finally {
+			if (watchdog != null) watchdog.end ();
+		}
+		if (probe != null) probe.record (DisplayProbe.EVENT, start, System.nanoTime () - start);
+	}
 	if (dispatchEvents == null) putGdkEvents ();
 	return 0;
 }
@@ -1801,6 +1878,24 @@ public Object getData (String key) {
 	if (key.equals (GET_EMISSION_PROC_KEY)) {
 		return new LONG (emissionProc);
 	}
+	if (key.equals (COMPRESS_EVENTS_KEY)) {
+		return Boolean.valueOf (compressEvents);
+	}
+	if (key.equals (COMPRESSED_EVENT_COUNT_KEY)) {
+		return Long.valueOf (compressedEventCount);
+	}
+	if (key.equals (POOL_EVENTS_KEY)) {
+		return Boolean.valueOf (poolEvents);
+	}
+	if (key.equals (PROBE_KEY)) {
+		return probe;
+	}
+	if (key.equals (WATCHDOG_KEY)) {
+		return watchdog;
+	}
+	if (key.equals (TEXT_CACHE_COUNTS_KEY)) {
+		return Device.gtk_getTextCacheCounts (this);
+	}
 	if (keys == null) return null;
 	for (int i=0; i<keys.length; i++) {
 		if (keys [i].equals (key)) return values [i];
@@ -2752,8 +2847,10 @@ public Shell [] getShells () {
 	checkDevice ();
 	int index = 0;
 	Shell [] result = new Shell [16];
-	for (int i = 0; i < widgetTable.length; i++) {
-		Widget widget = widgetTable [i];
+	java.util.List<Widget> leaked = null;
+	Widget [] widgets = widgetTable.values;
+	for (int i = 0; i < widgets.length; i++) {
+		Widget widget = widgets [i];
 		if (!(widget instanceof Shell)) {
 			continue;
 		}
@@ -2777,17 +2874,27 @@ public Shell [] getShells () {
 
 			// We don't throw an error here because it was not broken here, but
 			// we at least try to report an error (we have no logging context).
-			System.err.println ("SWT ERROR: disposed shell detected in the table" + debugInfoForIndex(i));
+			System.err.println ("SWT ERROR: disposed shell detected in the table" + debugInfoForHandle(widgetTable.keys [i]));
 
 			// As of today widgetTable contains *four* entries for the *same*
 			// Shell instance. If we found one broken, there can be others...
 			// So we clean here all the occurencies of the leaked shell.
-			for (int j = i; j < widgetTable.length; j++) {
-				if(widgetTable[j] == widget) {
-					widgetTable[j] = null;
-				}
+			if (leaked == null) leaked = new ArrayList<> ();
+			leaked.add (widget);
+		}
+	}
+	if (leaked != null) {
+		long /*int*/ [] handles = widgetTable.keys;
+		java.util.List<Long> leakedHandles = new ArrayList<> ();
+		for (int i = 0; i < handles.length; i++) {
+			if (handles [i] != 0 && leaked.contains (widgets [i])) {
+				leakedHandles.add (Long.valueOf (handles [i]));
 			}
 		}
+		for (Long handle : leakedHandles) {
+			widgetTable.remove (handle.longValue ());
+		}
+		lastWidget = null;
 	}
 	if (index == result.length) return result;
 	Shell [] newResult = new Shell [index];
@@ -3435,12 +3542,12 @@ public boolean getTouchEnabled() {
 Widget getWidget (long /*int*/ handle) {
 	if (handle == 0) return null;
 	if (lastWidget != null && lastHandle == handle) return lastWidget;
-	long /*int*/ index = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
-	if (0 <= index && index < widgetTable.length) {
+	Widget widget = widgetTable.get (handle);
+	if (widget != null) {
 		lastHandle = handle;
-		return lastWidget = widgetTable [(int)/*64*/index];
+		lastWidget = widget;
 	}
-	return null;
+	return widget;
 }
 
 long /*int*/ idleProc (long /*int*/ data) {
@@ -3471,6 +3578,11 @@ protected void init () {
 	initializeSystemSettings ();
 	initializeWidgetTable ();
 	initializeWindowManager ();
+	if (PROBE_FILE != null) probe = new HistogramProbe ();
+	if (WATCHDOG_THRESHOLD > 0) {
+		watchdog = new Watchdog (WATCHDOG_THRESHOLD, Watchdog.PRINT_LISTENER);
+		watchdog.start (thread);
+	}
 }
 
 void initializeCallbacks () {
@@ -3776,10 +3888,7 @@ void initializeSystemSettings () {
 }
 
 void initializeWidgetTable () {
-	indexTable = new int [GROW_SIZE];
-	widgetTable = new Widget [GROW_SIZE];
-	for (int i=0; i<GROW_SIZE-1; i++) indexTable [i] = i + 1;
-	indexTable [GROW_SIZE - 1] = -1;
+	widgetTable = new WidgetTable ();
 }
 
 void initializeWindowManager () {
@@ -3870,6 +3979,142 @@ public long /*int*/ internal_new_GC (GCData data) {
 	return gc;
 }
 
+/*
+ * Sets all fields of the given event to the given value, or to null.
+ * A value of 0 restores the state of a new event.
+ */
+static void fillEvent (Event event, int value) {
+	event.display = null;
+	event.widget = null;
+	event.item = null;
+	event.gc = null;
+	event.text = null;
+	event.segments = null;
+	event.segmentsChars = null;
+	event.data = null;
+	event.touches = null;
+	event.type = event.detail = event.index = value;
+	event.x = event.y = event.width = event.height = value;
+	event.count = event.time = event.button = value;
+	event.character = (char) value;
+	event.keyCode = event.keyLocation = event.stateMask = value;
+	event.start = event.end = value;
+	event.xDirection = event.yDirection = value;
+	event.magnification = event.rotation = value;
+	event.doit = value == 0;
+}
+
+/*
+ * Returns true if all fields of the given event still have the values
+ * set by fillEvent().
+ */
+static boolean isEventFilled (Event event, int value) {
+	return event.display == null && event.widget == null && event.item == null && event.gc == null
+		&& event.text == null && event.segments == null && event.segmentsChars == null
+		&& event.data == null && event.touches == null
+		&& event.type == value && event.detail == value && event.index == value
+		&& event.x == value && event.y == value && event.width == value && event.height == value
+		&& event.count == value && event.time == value && event.button == value
+		&& event.character == (char) value && event.keyCode == value && event.keyLocation == value
+		&& event.stateMask == value && event.start == value && event.end == value
+		&& event.xDirection == value && event.yDirection == value
+		&& event.magnification == value && event.rotation == value && event.doit == (value == 0);
+}
+
+/*
+ * Returns an event for a synchronous dispatch. When event pooling is
+ * enabled the event is taken from the pool and must be handed back
+ * with releaseEvent() once the dispatch is finished and the caller
+ * has read the fields it needs.
+ *
+ * With strict checks, a released event that was modified is reported
+ * here. Only modifications are detected: reading a field cannot be
+ * trapped, so a listener that reads a retained event is not reported.
+ * It reads RELEASED_EVENT_VALUE in every field instead, which makes the
+ * mistake visible in its results.
+ */
+Event newEvent () {
+	if (eventPoolCount == 0) return new Event ();
+	Event event = eventPool [--eventPoolCount];
+	eventPool [eventPoolCount] = null;
+	if (strictChecks) {
+		if (!isEventFilled (event, RELEASED_EVENT_VALUE)) {
+			SWT.error (SWT.ERROR_INVALID_ARGUMENT, null, " [Event was modified after it was released, a listener retained it: " + event + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		fillEvent (event, 0);
+	}
+	return event;
+}
+
+/*
+ * Clears the given event and puts it back into the pool. Listeners
+ * that keep a reference to the event after the dispatch see it
+ * without display and widget. With strict checks, the fields of the
+ * event are set to RELEASED_EVENT_VALUE rather than cleared, so that
+ * newEvent() can detect modifications.
+ */
+void releaseEvent (Event event) {
+	if (!poolEvents) return;
+	if (eventPool == null) eventPool = new Event [EVENT_POOL_SIZE];
+	if (eventPoolCount == eventPool.length) return;
+	for (int i=0; i<eventPoolCount; i++) {
+		if (eventPool [i] == event) return;
+	}
+	fillEvent (event, strictChecks ? RELEASED_EVENT_VALUE : 0);
+	eventPool [eventPoolCount++] = event;
+}
+
+/*
+ * Returns true when the next event in the GDK queue supersedes the
+ * given motion or smooth scroll event, so that sending an SWT event
+ * for it can be skipped. The next event must be of the same type and
+ * have the same window, device and modifier state. Smooth scroll
+ * deltas of skipped events are accumulated and must be added to the
+ * deltas of the event that is not skipped (see takeCompressedDeltas).
+ */
+boolean isEventCompressed (long /*int*/ event) {
+	long /*int*/ next = GDK.gdk_event_peek ();
+	if (next == 0) return false;
+	boolean result = false;
+	int type = GDK.GDK_EVENT_TYPE (event);
+	if (GDK.GDK_EVENT_TYPE (next) == type) {
+		switch (type) {
+			case GDK.GDK_MOTION_NOTIFY: {
+				GdkEventMotion gdkEvent = new GdkEventMotion (), nextEvent = new GdkEventMotion ();
+				OS.memmove (gdkEvent, event, GdkEventMotion.sizeof);
+				OS.memmove (nextEvent, next, GdkEventMotion.sizeof);
+				result = gdkEvent.window == nextEvent.window && gdkEvent.device == nextEvent.device
+					&& gdkEvent.state == nextEvent.state && gdkEvent.is_hint == 0 && nextEvent.is_hint == 0;
+				break;
+			}
+			case GDK.GDK_SCROLL: {
+				GdkEventScroll gdkEvent = new GdkEventScroll (), nextEvent = new GdkEventScroll ();
+				OS.memmove (gdkEvent, event, GdkEventScroll.sizeof);
+				OS.memmove (nextEvent, next, GdkEventScroll.sizeof);
+				result = gdkEvent.window == nextEvent.window && gdkEvent.device == nextEvent.device
+					&& gdkEvent.state == nextEvent.state && gdkEvent.direction == GDK.GDK_SCROLL_SMOOTH
+					&& nextEvent.direction == GDK.GDK_SCROLL_SMOOTH;
+				if (result) {
+					if (gdkEvent.window != compressedWindow || gdkEvent.device != compressedDevice) {
+						compressedWindow = gdkEvent.window;
+						compressedDevice = gdkEvent.device;
+						compressedDeltaX = compressedDeltaY = 0;
+					}
+					double [] delta_x = new double [1], delta_y = new double [1];
+					if (GDK.gdk_event_get_scroll_deltas (event, delta_x, delta_y)) {
+						compressedDeltaX += delta_x [0];
+						compressedDeltaY += delta_y [0];
+					}
+				}
+				break;
+			}
+		}
+	}
+	GDK.gdk_event_free (next);
+	if (result) compressedEventCount++;
+	return result;
+}
+
 boolean isValidThread () {
 	return thread == Thread.currentThread ();
 }
@@ -4419,11 +4664,25 @@ void putGdkEvents () {
  */
 public boolean readAndDispatch () {
 	checkDevice ();
+	Watchdog watchdog = this.watchdog;
+	if (watchdog == null) return readAndDispatchEvents ();
+	watchdog.begin ();
+	try {
+		return readAndDispatchEvents ();
+	} finally {
+		watchdog.end ();
+	}
+}
+
+boolean readAndDispatchEvents () {
+	DisplayProbe probe = this.probe;
+	long start = probe != null ? System.nanoTime () : 0;
 	runSkin ();
 	runDeferredLayouts ();
 	boolean events = false;
 	events |= runSettings ();
 	events |= runPopups ();
+	if (probe != null) probe.record (DisplayProbe.IDLE, start, System.nanoTime () - start);
 	/*
 	* This call to gdk_threads_leave() is a temporary work around
 	* to avoid deadlocks when gdk_threads_init() is called by native
@@ -4433,7 +4692,10 @@ public boolean readAndDispatch () {
 	GDK.gdk_threads_leave();
 	events |= OS.g_main_context_iteration (0, false);
 	if (events) {
+		probe = this.probe;
+		start = probe != null ? System.nanoTime () : 0;
 		runDeferredEvents ();
+		if (probe != null) probe.record (DisplayProbe.IDLE, start, System.nanoTime () - start);
 		return true;
 	}
 	return isDisposed () || runAsyncMessages (false);
@@ -4574,13 +4836,9 @@ void releaseDisplay () {
 	if (shellMapProcClosure != 0) OS.g_closure_unref (shellMapProcClosure);
 
 	/* Dispose the timer callback */
-	if (timerIds != null) {
-		for (int i=0; i<timerIds.length; i++) {
-			if (timerIds [i] != 0) OS.g_source_remove (timerIds [i]);
-		}
-	}
-	timerIds = null;
-	timerList = null;
+	if (timerId != 0) OS.g_source_remove (timerId);
+	timerId = 0;
+	timerWheel = null;
 	timerProc = 0;
 	timerCallback.dispose ();
 	timerCallback = null;
@@ -4673,8 +4931,22 @@ void releaseDisplay () {
 	thread = null;
 	lastWidget = activeShell = null;
 	flushData = closures = null;
-	indexTable = signalIds = null;
-	widgetTable = modalShells = null;
+	signalIds = null;
+	widgetTable = null;
+	poolEvents = false;
+	eventPool = null;
+	eventPoolCount = 0;
+	if (PROBE_FILE != null && probe instanceof HistogramProbe) {
+		try {
+			((HistogramProbe) probe).dump (PROBE_FILE);
+		} catch (IOException e) {
+			// skip writing the probe histograms
+		}
+	}
+	probe = null;
+	if (watchdog != null) watchdog.stop ();
+	watchdog = null;
+	modalShells = null;
 	data = null;
 	values = keys = null;
 	windowManager = null;
@@ -4752,6 +5024,30 @@ long /*int*/ removeGdkEvent () {
 	return event;
 }
 
+/*
+ * Adds the smooth scroll deltas of the events that were skipped by
+ * isEventCompressed to the deltas of the given scroll event and clears
+ * them. The deltas are only added when the event has the window and
+ * device of the skipped events. Otherwise the run of skipped events was
+ * interrupted, for example because the event that ended it was not
+ * delivered, and the deltas are dropped.
+ */
+void takeCompressedDeltas (long /*int*/ event, double [] delta_x, double [] delta_y) {
+	if (compressedWindow == 0) return;
+	GdkEventScroll gdkEvent = new GdkEventScroll ();
+	OS.memmove (gdkEvent, event, GdkEventScroll.sizeof);
+	if (gdkEvent.window == compressedWindow && gdkEvent.device == compressedDevice) {
+		delta_x [0] += compressedDeltaX;
+		delta_y [0] += compressedDeltaY;
+	}
+	resetCompressedDeltas ();
+}
+
+void resetCompressedDeltas () {
+	compressedWindow = compressedDevice = 0;
+	compressedDeltaX = compressedDeltaY = 0;
+}
+
 void removeIdleProc () {
 	synchronized (idleLock) {
 		if (idleHandle != 0) OS.g_source_remove (idleHandle);
@@ -4808,34 +5104,26 @@ void removePopup (Menu menu) {
 Widget removeWidget (long /*int*/ handle) {
 	if (handle == 0) return null;
 	lastWidget = null;
-	Widget widget = null;
-	int index;
-	long /*int*/ data = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
-	if(data < 0 || data > Integer.MAX_VALUE) {
-		SWT.error(SWT.ERROR_INVALID_RETURN_VALUE, null, ". g_object_get_qdata returned unexpected index value" +  debugInfoForIndex(data));
-	}
-	index = (int)data;
-	if (0 <= index && index < widgetTable.length) {
-		widget = widgetTable [index];
-		widgetTable [index] = null;
-		indexTable [index] = freeSlot;
-		freeSlot = index;
-		OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, 0);
-
-		if(widget == null) {
-			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Widget already released" + debugInfoForIndex(index));
-		}
-	} else {
-		SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Invalid index for handle " + handle + debugInfoForIndex(index));
+	Widget widget = widgetTable.remove (handle);
+	if (widget == null) {
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Widget already released" + debugInfoForHandle(handle));
 	}
 	return widget;
 }
 
-String debugInfoForIndex(long /*int*/ index) {
-	String s = ", index: " + index;
-	int idx = (int) index;
-	if (idx >= 0 && idx < widgetTable.length) {
-		s += ", current value at: " + widgetTable[idx];
+static long /*int*/ weakNotifyProc (long /*int*/ data, long /*int*/ object) {
+	Display display = getCurrent ();
+	if (display == null || display.widgetTable == null) return 0;
+	display.widgetTable.remove (object);
+	if (object == display.lastHandle) display.lastWidget = null;
+	return 0;
+}
+
+String debugInfoForHandle(long /*int*/ handle) {
+	String s = ", handle: " + handle;
+	Widget widget = widgetTable.get (handle);
+	if (widget != null) {
+		s += ", current value: " + widget;
 	}
 	s += dumpWidgetTableInfo();
 	return s;
@@ -4843,31 +5131,48 @@ String debugInfoForIndex(long /*int*/ index) {
 
 String dumpWidgetTableInfo() {
 	StringBuilder sb = new StringBuilder(", table size: ");
-	sb.append(widgetTable.length);
-	IdentityHashMap<Widget, Collection<Integer>> disposed = new IdentityHashMap<>();
-	for (int i = 0; i < widgetTable.length; i++) {
-		Widget w = widgetTable[i];
+	sb.append(widgetTable.size);
+	IdentityHashMap<Widget, Collection<Long>> disposed = new IdentityHashMap<>();
+	for (int i = 0; i < widgetTable.values.length; i++) {
+		Widget w = widgetTable.values[i];
 		if (w != null && w.isDisposed()) {
-			Collection<Integer> list = disposed.get(w);
+			Collection<Long> list = disposed.get(w);
 			if (list == null) {
 				list = new ArrayList<>();
 				disposed.put(w, list);
 			}
-			list.add(Integer.valueOf(i));
+			list.add(Long.valueOf(widgetTable.keys[i]));
 		}
 	}
 	if (!disposed.isEmpty()) {
 		sb.append(", leaked elements:");
-		Set<Entry<Widget,Collection<Integer>>> set = disposed.entrySet();
-		for (Entry<Widget, Collection<Integer>> entry : set) {
+		Set<Entry<Widget,Collection<Long>>> set = disposed.entrySet();
+		for (Entry<Widget, Collection<Long>> entry : set) {
 			sb.append(" ").append(entry.getKey()).append(" at ").append(entry.getValue()).append(",");
 		}
 	}
 	return sb.toString();
 }
 
+/*
+ * Runs the messages of the synchronizer. The messages are also run
+ * by idleProc() while a native modal loop is running, so they are
+ * reported to the watchdog here rather than only in readAndDispatch().
+ */
 boolean runAsyncMessages (boolean all) {
-	return synchronizer.runAsyncMessages (all);
+	DisplayProbe probe = this.probe;
+	Watchdog watchdog = this.watchdog;
+	if (probe == null && watchdog == null) return synchronizer.runAsyncMessages (all);
+	long start = System.nanoTime ();
+	boolean result;
+	if (watchdog != null) watchdog.begin ();
+	try {
+		result = synchronizer.runAsyncMessages (all);
+	} finally {
+		if (watchdog != null) watchdog.end ();
+	}
+	if (result && probe != null) probe.record (DisplayProbe.RUNNABLE, start, System.nanoTime () - start);
+	return result;
 }
 
 boolean runDeferredEvents () {
@@ -4944,6 +5249,7 @@ boolean runPopups () {
 boolean runSettings () {
 	if (!runSettings) return false;
 	runSettings = false;
+	Device.gtk_clearTextCache (this);
 	saveResources ();
 	initializeSystemColors ();
 	sendEvent (SWT.Settings, null);
@@ -5146,6 +5452,29 @@ public void setData (String key, Object value) {
 		removeIdleProc ();
 		return;
 	}
+	if (key.equals (COMPRESS_EVENTS_KEY)) {
+		compressEvents = Boolean.TRUE.equals (value);
+		if (!compressEvents) resetCompressedDeltas ();
+		return;
+	}
+	if (key.equals (POOL_EVENTS_KEY)) {
+		poolEvents = Boolean.TRUE.equals (value);
+		if (!poolEvents) {
+			eventPool = null;
+			eventPoolCount = 0;
+		}
+		return;
+	}
+	if (key.equals (PROBE_KEY)) {
+		probe = value instanceof DisplayProbe ? (DisplayProbe) value : null;
+		return;
+	}
+	if (key.equals (WATCHDOG_KEY)) {
+		if (watchdog != null) watchdog.stop ();
+		watchdog = value instanceof Watchdog ? (Watchdog) value : null;
+		if (watchdog != null) watchdog.start (thread);
+		return;
+	}
 
 	/* Remove the key/value pair */
 	if (value == null) {
@@ -5483,61 +5812,60 @@ public boolean sleep () {
 public void timerExec (int milliseconds, Runnable runnable) {
 	checkDevice ();
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
-	if (timerList == null) timerList = new Runnable [4];
-	if (timerIds == null) timerIds = new int [4];
-	int index = 0;
-	while (index < timerList.length) {
-		if (timerList [index] == runnable) break;
-		index++;
-	}
-	if (index != timerList.length) {
-		OS.g_source_remove (timerIds [index]);
-		timerList [index] = null;
-		timerIds [index] = 0;
-		if (milliseconds < 0) return;
+	if (timerWheel == null) timerWheel = new TimerWheel ();
+	if (milliseconds < 0) {
+		if (!timerWheel.cancel (runnable)) return;
 	} else {
-		if (milliseconds < 0) return;
-		index = 0;
-		while (index < timerList.length) {
-			if (timerList [index] == null) break;
-			index++;
-		}
-		if (index == timerList.length) {
-			Runnable [] newTimerList = new Runnable [timerList.length + 4];
-			System.arraycopy (timerList, 0, newTimerList, 0, timerList.length);
-			timerList = newTimerList;
-			int [] newTimerIds = new int [timerIds.length + 4];
-			System.arraycopy (timerIds, 0, newTimerIds, 0, timerIds.length);
-			timerIds = newTimerIds;
-		}
-	}
-	int timerId = OS.g_timeout_add (milliseconds, timerProc, index);
-	if (timerId != 0) {
-		timerIds [index] = timerId;
-		timerList [index] = runnable;
+		timerWheel.schedule (runnable, timerWheel.now () + milliseconds);
 	}
+	updateTimer ();
 }
 
 long /*int*/ timerProc (long /*int*/ i) {
-	if (timerList == null) return 0;
-	int index = (int)/*64*/i;
-	if (0 <= index && index < timerList.length) {
-		Runnable runnable = timerList [index];
-		timerList [index] = null;
-		timerIds [index] = 0;
-		if (runnable != null) {
-			try {
-				runnable.run ();
-			} catch (RuntimeException exception) {
-				runtimeExceptionHandler.accept (exception);
-			} catch (Error exception) {
-				errorHandler.accept (exception);
-			}
+	if (timerWheel == null) return 0;
+	/* Returning 0 removes the timeout */
+	timerId = 0;
+	long time = timerWheel.now ();
+	Runnable runnable;
+	while ((runnable = timerWheel.poll (time)) != null) {
+		DisplayProbe probe = this.probe;
+		Watchdog watchdog = this.watchdog;
+		long start = probe != null ? System.nanoTime () : 0;
+		if (watchdog != null) watchdog.begin ();
+		try {
+			runnable.run ();
+		} catch (RuntimeException exception) {
+			runtimeExceptionHandler.accept (exception);
+		} catch (Error exception) {
+			errorHandler.accept (exception);
+		} finally {
+			if (watchdog != null) watchdog.end ();
 		}
+		if (probe != null) probe.record (DisplayProbe.TIMER, start, System.nanoTime () - start);
+		if (timerWheel == null) return 0;
 	}
+	updateTimer ();
 	return 0;
 }
 
+/*
+ * Makes sure that the timeout fires no later than the next
+ * deadline of the timer wheel. A timeout that fires early
+ * polls nothing and is added again.
+ */
+void updateTimer () {
+	long deadline = timerWheel.nextDeadline ();
+	if (timerId != 0 && (deadline == -1 || deadline < timerDeadline)) {
+		OS.g_source_remove (timerId);
+		timerId = 0;
+	}
+	if (timerId == 0 && deadline != -1) {
+		long delay = Math.max (0, deadline - timerWheel.now ());
+		timerId = OS.g_timeout_add ((int) Math.min (delay, Integer.MAX_VALUE), timerProc, 0);
+		timerDeadline = deadline;
+	}
+}
+
 long /*int*/ caretProc (long /*int*/ clientData) {
 	caretId = 0;
 	if (currentCaret == null) {
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+
+import java.util.*;
+
+/**
+ * Instances of this class keep the runnables scheduled with
+ * <code>Display.timerExec()</code> so that the display needs
+ * a single native timeout for all of them.
+ * <p>
+ * The timers are kept in a hierarchical timing wheel with a
+ * resolution of one millisecond. Each of the levels has 256
+ * slots, a slot of the first level holds the timers of one
+ * millisecond and the slots of the other levels are moved
+ * down when the time reaches them. Scheduling and cancelling
+ * a timer takes constant time. Timers with the same deadline
+ * expire in the order they were scheduled.
+ * </p>
+ */
+final class TimerWheel {
+	final Timer [][] wheels = new Timer [LEVELS][SLOTS];
+	final Map<Runnable, Timer> timers = new IdentityHashMap<> ();
+	final long origin = System.nanoTime ();
+	long current, floor, sequence;
+	int firstLevelCount;
+	static final int BITS = 8, SLOTS = 1 << BITS, MASK = SLOTS - 1, LEVELS = 4;
+
+	static final class Timer {
+		Runnable runnable;
+		long deadline, sequence;
+		int level;
+		Timer next, previous;
+	}
+
+TimerWheel () {
+	for (int level=0; level<LEVELS; level++) {
+		for (int slot=0; slot<SLOTS; slot++) {
+			Timer head = wheels [level][slot] = new Timer ();
+			head.next = head.previous = head;
+		}
+	}
+}
+
+/*
+ * Returns the current time in milliseconds.
+ */
+long now () {
+	return (System.nanoTime () - origin) / 1000000;
+}
+
+void add (Timer timer) {
+	long delta = timer.deadline - current;
+	int level = 0;
+	while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) level++;
+	timer.level = level;
+	if (level == 0) firstLevelCount++;
+	Timer head = wheels [level][(int) (timer.deadline >>> (BITS * level)) & MASK];
+	/* Keep the slot ordered, timers moved down from another level can be older */
+	Timer previous = head.previous;
+	while (previous != head && previous.sequence > timer.sequence) previous = previous.previous;
+	timer.previous = previous;
+	timer.next = previous.next;
+	previous.next.previous = timer;
+	previous.next = timer;
+}
+
+void unlink (Timer timer) {
+	if (timer.level == 0) firstLevelCount--;
+	timer.previous.next = timer.next;
+	timer.next.previous = timer.previous;
+	timer.next = timer.previous = null;
+}
+
+/*
+ * Schedules the runnable to run at the given time, replacing
+ * an earlier schedule of the same runnable.
+ */
+void schedule (Runnable runnable, long deadline) {
+	Timer timer = timers.get (runnable);
+	if (timer != null) {
+		unlink (timer);
+	} else {
+		/* Nothing is in the wheel, skip the elapsed time */
+		if (timers.isEmpty ()) current = Math.max (current, Math.min (now (), deadline));
+		timer = new Timer ();
+		timer.runnable = runnable;
+		timers.put (runnable, timer);
+	}
+	timer.deadline = Math.max (deadline, Math.max (current, floor));
+	timer.sequence = sequence++;
+	add (timer);
+}
+
+/*
+ * Cancels the runnable. Returns false if it was not scheduled.
+ */
+boolean cancel (Runnable runnable) {
+	Timer timer = timers.remove (runnable);
+	if (timer == null) return false;
+	unlink (timer);
+	return true;
+}
+
+/*
+ * Returns the next runnable with a deadline that is not after
+ * the given time and removes it, or returns null if there is
+ * none. Runnables scheduled while the expired ones are polled
+ * are not due before the next millisecond.
+ */
+Runnable poll (long time) {
+	floor = Math.max (floor, time + 1);
+	while (current <= time) {
+		if (timers.isEmpty ()) {
+			current = time + 1;
+			break;
+		}
+		if (firstLevelCount == 0) {
+			/* Skip to the time when the next slots move down */
+			long cascade = ((current >>> BITS) + 1) << BITS;
+			if (cascade > time + 1) {
+				current = time + 1;
+				break;
+			}
+			current = cascade;
+			cascade ();
+			continue;
+		}
+		Timer head = wheels [0][(int) current & MASK];
+		Timer timer = head.next;
+		if (timer != head) {
+			unlink (timer);
+			timers.remove (timer.runnable);
+			return timer.runnable;
+		}
+		current++;
+		cascade ();
+	}
+	return null;
+}
+
+/*
+ * Moves down the timers of the slots that the time has reached.
+ */
+void cascade () {
+	for (int level=1; level<LEVELS; level++) {
+		if ((current & ((1L << (BITS * level)) - 1)) != 0) break;
+		Timer head = wheels [level][(int) (current >>> (BITS * level)) & MASK];
+		Timer timer = head.next;
+		head.next = head.previous = head;
+		while (timer != head) {
+			Timer next = timer.next;
+			add (timer);
+			timer = next;
+		}
+	}
+}
+
+/*
+ * Returns the time when the wheel needs to be polled next, or
+ * -1 if there are no timers. This is the deadline of the next
+ * timer of the first level or the time when the timers of the
+ * other levels move down, whichever comes first.
+ */
+long nextDeadline () {
+	if (timers.isEmpty ()) return -1;
+	long cascade = ((current >>> BITS) + 1) << BITS;
+	if (firstLevelCount == 0) return cascade;
+	for (long time=current; time<cascade; time++) {
+		Timer head = wheels [0][(int) time & MASK];
+		if (head.next != head) return time;
+	}
+	return cascade;
+}
+
+int size () {
+	return timers.size ();
+}
+
+}
@@ -122,6 +122,9 @@ public abstract class Widget {
 	/* Should sub-windows be checked when EnterNotify received */
 	static final int CHECK_SUBWINDOW = 1<<25;
 
+	/* Should consecutive motion and smooth scroll events be merged */
+	static final int COMPRESS_EVENTS = 1<<26;
+
 	/* Bidi "auto" text direction */
 	static final int HAS_AUTO_DIRECTION = 0;
 
@@ -234,6 +237,7 @@ public abstract class Widget {
 
 	static final String IS_ACTIVE = "org.eclipse.swt.internal.control.isactive"; //$NON-NLS-1$
 	static final String KEY_CHECK_SUBWINDOW = "org.eclipse.swt.internal.control.checksubwindow"; //$NON-NLS-1$
+	static final String KEY_COMPRESS_EVENTS = "org.eclipse.swt.internal.gtk.compressEvents"; //$NON-NLS-1$
 	static final String KEY_GTK_CSS = "org.eclipse.swt.internal.gtk.css"; //$NON-NLS-1$
 
 	static Callback gdkSeatGrabPrepareFunc;
@@ -578,6 +582,9 @@ public Object getData (String key) {
 	if (key.equals (KEY_CHECK_SUBWINDOW)) {
 		return new Boolean ((state & CHECK_SUBWINDOW) != 0);
 	}
+	if (key.equals (KEY_COMPRESS_EVENTS)) {
+		return Boolean.valueOf ((state & COMPRESS_EVENTS) != 0);
+	}
 	if (key.equals(IS_ACTIVE)) return Boolean.valueOf(isActive ());
 	if ((state & KEYED_DATA) != 0) {
 		Object [] table = (Object []) data;
@@ -1395,8 +1402,10 @@ void sendEvent (int eventType, Event event, boolean send) {
 	if (eventTable == null && !display.filters (eventType)) {
 		return;
 	}
+	Display display = this.display;
+	boolean pooled = event == null && send;
 	if (event == null) {
-		event = new Event();
+		event = pooled ? display.newEvent () : new Event();
 	}
 	event.type = eventType;
 	event.display = display;
@@ -1406,6 +1415,7 @@ void sendEvent (int eventType, Event event, boolean send) {
 	}
 	if (send) {
 		sendEvent (event);
+		if (pooled) display.releaseEvent (event);
 	} else {
 		display.postEvent (event);
 	}
@@ -1591,6 +1601,16 @@ public void setData (String key, Object value) {
 		}
 		return;
 	}
+	if (key.equals (KEY_COMPRESS_EVENTS)) {
+		if (value instanceof Boolean) {
+			if (((Boolean)value).booleanValue ()) {
+				state |= COMPRESS_EVENTS;
+			} else {
+				state &= ~COMPRESS_EVENTS;
+			}
+		}
+		return;
+	}
 
 	int index = 1;
 	Object [] table = null;
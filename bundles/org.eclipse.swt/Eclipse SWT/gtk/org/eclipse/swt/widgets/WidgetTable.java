@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+
+/**
+ * Instances of this class map native handles to the widgets
+ * that own them.
+ * <p>
+ * The table is an open addressing hash table with linear probing
+ * that is keyed directly by the handle, so looking up a widget
+ * does not need to call into the operating system. A handle of
+ * <code>0</code> marks an empty slot. Removed entries are not
+ * replaced by tombstones, instead the following entries of the
+ * probe sequence are shifted back.
+ * </p>
+ */
+final class WidgetTable {
+	long /*int*/ [] keys;
+	Widget [] values;
+	int size, mask, shift;
+	static final int INITIAL_SIZE = 1024;
+
+WidgetTable () {
+	allocate (INITIAL_SIZE);
+}
+
+void allocate (int length) {
+	keys = new long /*int*/ [length];
+	values = new Widget [length];
+	mask = length - 1;
+	shift = 64 - Integer.numberOfTrailingZeros (length);
+}
+
+int hash (long /*int*/ key) {
+	/*
+	* Handles are aligned pointers, so the low bits carry little
+	* information. Fibonacci hashing spreads them over the table.
+	*/
+	return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+}
+
+Widget get (long /*int*/ key) {
+	long /*int*/ [] keys = this.keys;
+	int index = hash (key);
+	long /*int*/ current;
+	while ((current = keys [index]) != 0) {
+		if (current == key) return values [index];
+		index = (index + 1) & mask;
+	}
+	return null;
+}
+
+Widget put (long /*int*/ key, Widget value) {
+	int index = hash (key);
+	long /*int*/ current;
+	while ((current = keys [index]) != 0) {
+		if (current == key) {
+			Widget oldValue = values [index];
+			values [index] = value;
+			return oldValue;
+		}
+		index = (index + 1) & mask;
+	}
+	keys [index] = key;
+	values [index] = value;
+	/* Keep the load factor below 1/2 so that probe sequences stay short */
+	if (++size > keys.length >> 1) rehash (keys.length << 1);
+	return null;
+}
+
+void rehash (int length) {
+	long /*int*/ [] oldKeys = keys;
+	Widget [] oldValues = values;
+	allocate (length);
+	for (int i = 0; i < oldKeys.length; i++) {
+		long /*int*/ key = oldKeys [i];
+		if (key == 0) continue;
+		int index = hash (key);
+		while (keys [index] != 0) index = (index + 1) & mask;
+		keys [index] = key;
+		values [index] = oldValues [i];
+	}
+}
+
+Widget remove (long /*int*/ key) {
+	int index = hash (key);
+	long /*int*/ current;
+	while ((current = keys [index]) != key) {
+		if (current == 0) return null;
+		index = (index + 1) & mask;
+	}
+	Widget oldValue = values [index];
+	size--;
+	/*
+	* Shift back the entries that follow in the probe sequence and
+	* whose home slot is not between the hole and their position.
+	*/
+	int hole = index;
+	while (true) {
+		index = (index + 1) & mask;
+		long /*int*/ key2 = keys [index];
+		if (key2 == 0) break;
+		int home = hash (key2);
+		if (((index - home) & mask) >= ((index - hole) & mask)) {
+			keys [hole] = key2;
+			values [hole] = values [index];
+			hole = index;
+		}
+	}
+	keys [hole] = 0;
+	values [hole] = null;
+	return oldValue;
+}
+
+}
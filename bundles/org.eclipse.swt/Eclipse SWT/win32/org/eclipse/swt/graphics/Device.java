@@ -938,6 +938,9 @@ void printErrors () {
  * @see #destroy
  */
 protected void release () {
+	/* Dispose the shared images */
+	ImageCache.release (this);
+
 	if (gdipToken != null) {
 		if (fontCollection != 0) {
 			Gdip.PrivateFontCollection_delete(fontCollection);
@@ -771,6 +771,37 @@ void drawArcInPixels (int x, int y, int width, int height, int startAngle, int a
 	OS.Arc(handle, x, y, x + width + 1, y + height + 1, x1, y1, x2, y2);
 }
 
+/**
+ * Replays the drawing operations recorded in the given display list,
+ * with the top left corner of the display list at the specified point.
+ * The operations are transformed and clipped by the transform and the
+ * clipping of the receiver, and their alpha is multiplied by the alpha
+ * of the receiver.
+ *
+ * @param list the display list to replay
+ * @param x the x coordinate of where to draw the display list
+ * @param y the y coordinate of where to draw the display list
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the display list is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the display list has been disposed</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the receiver draws on the display list</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see DisplayList
+ *
+ * @since 3.109
+ */
+public void drawDisplayList (DisplayList list, int x, int y) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (list == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
+	if (list.isDisposed() || list == drawable) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	drawImage (list.image, x, y);
+}
+
 /**
  * Draws a rectangle, based on the specified arguments, which has
  * the appearance of the platform's <em>focus rectangle</em> if the
@@ -1651,6 +1682,44 @@ void drawLineInPixels (int x1, int y1, int x2, int y2) {
 	}
 }
 
+/**
+ * Draws the line segments which are defined by the specified array
+ * of integer coordinates, using the foreground color. The array
+ * contains quadruples of x1, y1, x2 and y2 values, each of which is
+ * drawn as a line between the points (<code>x1</code>, <code>y1</code>)
+ * and (<code>x2</code>, <code>y2</code>). Values at the end of the
+ * array that do not form a complete quadruple are ignored.
+ * <p>
+ * The result is the same as calling <code>drawLine</code> for each
+ * segment. Drawing many segments that share the same attributes with
+ * a single call is much faster on some platforms.
+ * </p><p>
+ * Note: On GTK, the segments are drawn as a single path, so pixels
+ * covered by several segments are only drawn once, which is visible
+ * when the alpha is not opaque.
+ * </p>
+ *
+ * @param segmentArray an array of x1, y1, x2 and y2 values
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the segment array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawLine(int, int, int, int)
+ *
+ * @since 3.109
+ */
+public void drawLines (int[] segmentArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (segmentArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	for (int i = 0; i + 3 < segmentArray.length; i += 4) {
+		drawLine (segmentArray[i], segmentArray[i + 1], segmentArray[i + 2], segmentArray[i + 3]);
+	}
+}
+
 /**
  * Draws the outline of an oval, using the foreground color,
  * within the specified rectangular area.
@@ -1764,6 +1833,42 @@ void drawPointInPixels (int x, int y) {
 	OS.SetPixel (handle, x, y, data.foreground);
 }
 
+/**
+ * Draws the pixels which are defined by the specified array of
+ * integer coordinates, using the foreground color. The array
+ * contains alternating x and y values. A value at the end of the
+ * array that does not form a complete pair is ignored.
+ * <p>
+ * The result is the same as calling <code>drawPoint</code> for each
+ * point. Drawing many points with a single call is much faster on
+ * some platforms.
+ * </p><p>
+ * Note: On GTK, the points are drawn as a single path, so points
+ * drawn more than once are only drawn once, which is visible when the
+ * alpha is not opaque.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPoint(int, int)
+ *
+ * @since 3.109
+ */
+public void drawPoints (int[] pointArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	for (int i = 0; i + 1 < pointArray.length; i += 2) {
+		drawPoint (pointArray[i], pointArray[i + 1]);
+	}
+}
+
 /**
  * Draws the closed polygon which is defined by the specified array
  * of integer coordinates, using the receiver's foreground color. The array
@@ -2998,6 +3103,43 @@ public void fillRectangle (Rectangle rect) {
 	fillRectangleInPixels(rect.x, rect.y, rect.width, rect.height);
 }
 
+/**
+ * Fills the interior of the rectangles which are defined by the
+ * specified array of integer coordinates, using the receiver's
+ * background color. The array contains quadruples of x, y, width
+ * and height values. Values at the end of the array that do not form
+ * a complete quadruple are ignored.
+ * <p>
+ * The result is the same as calling <code>fillRectangle</code> for
+ * each rectangle. Filling many rectangles with a single call is much
+ * faster on some platforms.
+ * </p><p>
+ * Note: On GTK, the rectangles are filled as a single path, so pixels
+ * covered by several rectangles are only filled once, which is
+ * visible when the alpha is not opaque.
+ * </p>
+ *
+ * @param rectArray an array of x, y, width and height values
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #fillRectangle(int, int, int, int)
+ *
+ * @since 3.109
+ */
+public void fillRectangles (int[] rectArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rectArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	for (int i = 0; i + 3 < rectArray.length; i += 4) {
+		fillRectangle (rectArray[i], rectArray[i + 1], rectArray[i + 2], rectArray[i + 3]);
+	}
+}
+
 /**
  * Fills the interior of the round-cornered rectangle specified by
  * the arguments, using the receiver's background color.
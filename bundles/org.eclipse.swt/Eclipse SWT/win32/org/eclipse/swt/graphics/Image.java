@@ -15,6 +15,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.nio.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
@@ -503,6 +504,56 @@ public Image(Device device, ImageData data) {
 	init();
 }
 
+/**
+ * Constructs an instance of this class whose pixels are stored in
+ * the given direct buffer, without copying them.
+ * <p>
+ * The buffer holds the rows of the image in cairo's ARGB32 format,
+ * starting at index zero: every pixel is a 32-bit integer in native
+ * byte order holding premultiplied alpha, red, green and blue, from
+ * the most to the least significant byte. The rows are
+ * <code>stride</code> bytes apart. The size of the image is given in
+ * pixels and the image is not scaled for the zoom of the device.
+ * </p><p>
+ * The buffer stays owned by the caller, who may paint into it at any
+ * time and must then call {@link #pixelBufferChanged()}. Drawing on
+ * the image with a <code>GC</code> updates the buffer in turn. The
+ * image keeps a reference to the buffer until it is disposed.
+ * </p><p>
+ * <b>Warning</b>: This API is currently only implemented on GTK.
+ * </p><p>
+ * You must dispose the image when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the image
+ * @param buffer the direct buffer holding the pixels of the image
+ * @param width the width of the image in pixels
+ * @param height the height of the image in pixels
+ * @param stride the number of bytes between the start of two rows
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_NULL_ARGUMENT - if the buffer is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the buffer is not direct or is read-only</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if either the width or height is negative or zero</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the stride is smaller than four bytes per pixel or not a multiple of four</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the buffer is too small for the image</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for image creation</li>
+ * </ul>
+ *
+ * @see #getPixelBuffer()
+ * @see #pixelBufferChanged()
+ * @see #dispose()
+ *
+ * @since 3.109
+ */
+public Image(Device device, ByteBuffer buffer, int width, int height, int stride) {
+	super(device);
+	SWT.error(SWT.ERROR_NOT_IMPLEMENTED);
+}
+
 /**
  * Constructs an instance of this class, whose type is
  * <code>SWT.ICON</code>, from the two given <code>ImageData</code>
@@ -1676,6 +1727,42 @@ public ImageData getImageDataAtCurrentZoom() {
 	}
 }
 
+/**
+ * Returns a direct buffer mapping the pixels of the receiver, so that
+ * they can be read and written without copying them.
+ * <p>
+ * The buffer holds the rows of the image in cairo's native format,
+ * the one described in {@link #Image(Device, ByteBuffer, int, int, int)},
+ * and its byte order is the native one, so that it can be viewed as
+ * an <code>IntBuffer</code> of pixels. The rows are
+ * <code>capacity() / height</code> bytes apart, where height is the
+ * height of the image in pixels. The alpha byte is meaningless when
+ * the image has no transparency. Pending drawing operations are
+ * completed before the buffer is returned. After writing into the
+ * buffer, {@link #pixelBufferChanged()} must be called.
+ * </p><p>
+ * The buffer must not be accessed after the receiver has been disposed.
+ * </p><p>
+ * <b>Warning</b>: This API is currently only implemented on GTK.
+ * </p>
+ *
+ * @return a buffer mapping the pixels of the image
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_INVALID_IMAGE - if the pixels of the image are not held in memory</li>
+ * </ul>
+ *
+ * @see #pixelBufferChanged()
+ *
+ * @since 3.109
+ */
+public ByteBuffer getPixelBuffer() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	SWT.error(SWT.ERROR_NOT_IMPLEMENTED);
+	return null;
+}
+
 /**
  * Returns an integer hash code for the receiver. Any two
  * objects that return <code>true</code> when passed to
@@ -2076,6 +2163,28 @@ public boolean isDisposed() {
 	return handle == 0;
 }
 
+/**
+ * Notifies the receiver that its pixels have been written directly,
+ * either in the buffer the receiver was created from or in the one
+ * returned by {@link #getPixelBuffer()}. This must be called before
+ * the image is drawn again.
+ * <p>
+ * <b>Warning</b>: This API is currently only implemented on GTK.
+ * </p>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #getPixelBuffer()
+ *
+ * @since 3.109
+ */
+public void pixelBufferChanged() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	SWT.error(SWT.ERROR_NOT_IMPLEMENTED);
+}
+
 /**
  * Sets the color to which to map the transparent pixel.
  * <p>
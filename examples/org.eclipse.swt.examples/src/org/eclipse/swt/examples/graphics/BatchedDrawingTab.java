@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.swt.examples.graphics;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
+
+/**
+ * This tab draws a waveform, a bar chart and a scatter plot made of
+ * many primitives, either with one call per primitive or with the
+ * batched drawLines(), fillRectangles() and drawPoints() calls, and
+ * reports the time taken to draw them.
+ */
+public class BatchedDrawingTab extends AnimatedGraphicsTab {
+
+	Combo modeCombo;			// combo for per call or batched drawing
+	Spinner countSpinner;		// spinner for the number of primitives, in thousands
+	int phase;					// offset of the waveform
+	double average;				// running average of the drawing time, in milliseconds
+
+public BatchedDrawingTab(GraphicsExample example) {
+	super(example);
+}
+
+/**
+ * This method creates the controls specific to the tab. The call to the
+ * createControlPanel method in the super class create the controls that are
+ * defined in the super class.
+ *
+ * @param parent The parent composite
+ */
+@Override
+public void createControlPanel(Composite parent) {
+	super.createControlPanel(parent);
+
+	Composite comp = new Composite(parent, SWT.NONE);
+	comp.setLayout(new GridLayout(2, false));
+	new Label(comp, SWT.CENTER).setText(GraphicsExample.getResourceString("DrawingMode")); //$NON-NLS-1$
+	modeCombo = new Combo(comp, SWT.DROP_DOWN | SWT.READ_ONLY);
+	modeCombo.add(GraphicsExample.getResourceString("PerCall")); //$NON-NLS-1$
+	modeCombo.add(GraphicsExample.getResourceString("Batched")); //$NON-NLS-1$
+	modeCombo.select(1);
+	modeCombo.addListener(SWT.Selection, event -> {
+		average = 0;
+		example.redraw();
+	});
+
+	comp = new Composite(parent, SWT.NONE);
+	comp.setLayout(new GridLayout(2, false));
+	new Label(comp, SWT.CENTER).setText(GraphicsExample.getResourceString("PrimitiveCount")); //$NON-NLS-1$
+	countSpinner = new Spinner(comp, SWT.BORDER | SWT.WRAP);
+	countSpinner.setMinimum(1);
+	countSpinner.setMaximum(500);
+	countSpinner.setSelection(100);
+	countSpinner.addListener(SWT.Selection, event -> {
+		average = 0;
+		example.redraw();
+	});
+}
+
+@Override
+public String getCategory() {
+	return GraphicsExample.getResourceString("Misc"); //$NON-NLS-1$
+}
+
+@Override
+public String getText() {
+	return GraphicsExample.getResourceString("BatchedDrawing"); //$NON-NLS-1$
+}
+
+@Override
+public String getDescription() {
+	return GraphicsExample.getResourceString("BatchedDrawingDescription"); //$NON-NLS-1$
+}
+
+@Override
+public int getInitialAnimationTime() {
+	return 20;
+}
+
+@Override
+public void next(int width, int height) {
+	phase += 4;
+}
+
+@Override
+public void paint(GC gc, int width, int height) {
+	Device device = gc.getDevice();
+	int count = countSpinner.getSelection() * 1000 / 3;
+	boolean batched = modeCombo.getSelectionIndex() == 1;
+
+	/* Build the primitives before timing, as a charting view would */
+	int[] segments = new int[count * 4];
+	int[] rects = new int[count * 4];
+	int[] points = new int[count * 2];
+	int third = Math.max(1, height / 3);
+	for (int i = 0; i < count; i++) {
+		int x1 = i * width / count, x2 = (i + 1) * width / count;
+		segments[i * 4] = x1;
+		segments[i * 4 + 1] = wave(i, third);
+		segments[i * 4 + 2] = x2;
+		segments[i * 4 + 3] = wave(i + 1, third);
+		int barHeight = Math.abs(wave(i * 7, third) - third / 2);
+		rects[i * 4] = x1;
+		rects[i * 4 + 1] = 2 * third - barHeight;
+		rects[i * 4 + 2] = Math.max(1, x2 - x1);
+		rects[i * 4 + 3] = barHeight;
+		int hash = (i * 0x9E3779B1) ^ phase;
+		points[i * 2] = (hash >>> 8) % Math.max(1, width);
+		points[i * 2 + 1] = 2 * third + (hash & 0x7FFF) % third;
+	}
+
+	gc.setForeground(device.getSystemColor(SWT.COLOR_DARK_BLUE));
+	gc.setBackground(device.getSystemColor(SWT.COLOR_DARK_GREEN));
+	long start = System.nanoTime();
+	if (batched) {
+		gc.drawLines(segments);
+		gc.fillRectangles(rects);
+		gc.drawPoints(points);
+	} else {
+		for (int i = 0; i < segments.length; i += 4) {
+			gc.drawLine(segments[i], segments[i + 1], segments[i + 2], segments[i + 3]);
+		}
+		for (int i = 0; i < rects.length; i += 4) {
+			gc.fillRectangle(rects[i], rects[i + 1], rects[i + 2], rects[i + 3]);
+		}
+		for (int i = 0; i < points.length; i += 2) {
+			gc.drawPoint(points[i], points[i + 1]);
+		}
+	}
+	double time = (System.nanoTime() - start) / 1e6;
+	average = average == 0 ? time : average * 0.9 + time * 0.1;
+
+	String text = (count * 3) + " " + GraphicsExample.getResourceString("Primitives") + ": " + String.format("%.1f ms", average); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	gc.setForeground(device.getSystemColor(SWT.COLOR_BLACK));
+	gc.drawString(text, 10, 10, true);
+}
+
+int wave(int i, int amplitude) {
+	double t = (i + phase) / 50.0;
+	return (int) (amplitude / 2 + amplitude * 0.4 * Math.sin(t) * Math.cos(t / 7));
+}
+}
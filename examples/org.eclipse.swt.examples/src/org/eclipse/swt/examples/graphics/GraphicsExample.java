@@ -463,6 +463,7 @@ GraphicsTab[] createTabs() {
 		new ImageFlipTab(this),
 		new ImageScaleTab(this),
 		new PathTab(this),
+		new BatchedDrawingTab(this),
 	};
 }
 
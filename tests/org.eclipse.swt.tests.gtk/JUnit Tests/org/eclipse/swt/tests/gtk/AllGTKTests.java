@@ -22,7 +22,16 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 		// Test.class be added here.
-	Test_GtkConverter.class
+	Test_GtkConverter.class,
+	Test_GtkWidgetTable.class,
+	Test_GtkDisplayProbe.class,
+	Test_GtkWatchdog.class,
+	Test_GtkImageBuffer.class,
+	Test_GtkEventCompression.class,
+	Test_GtkEventPool.class,
+	Test_GtkTextCache.class,
+	Test_GtkRegion.class,
+	Test_GtkPaintDamage.class
 })
 
 public class AllGTKTests {
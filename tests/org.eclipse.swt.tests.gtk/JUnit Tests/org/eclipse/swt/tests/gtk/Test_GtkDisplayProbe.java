@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.swt.internal.DisplayProbe;
+import org.eclipse.swt.internal.HistogramProbe;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the display reports the work it runs to an installed probe.
+ */
+public class Test_GtkDisplayProbe {
+
+	static final String PROBE_KEY = "org.eclipse.swt.internal.gtk.probe";
+
+	Display display;
+	HistogramProbe probe;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		probe = new HistogramProbe();
+		display.setData(PROBE_KEY, probe);
+	}
+
+	@After
+	public void tearDown() {
+		display.setData(PROBE_KEY, null);
+	}
+
+	@Test
+	public void test_setData() {
+		assertSame(probe, display.getData(PROBE_KEY));
+		display.setData(PROBE_KEY, null);
+		assertNull(display.getData(PROBE_KEY));
+	}
+
+	@Test
+	public void test_runnablesAndTimers() {
+		final boolean[] ran = new boolean[2];
+		display.asyncExec(() -> ran[0] = true);
+		display.timerExec(10, () -> ran[1] = true);
+		long timeout = System.currentTimeMillis() + 5000;
+		while (!(ran[0] && ran[1]) && System.currentTimeMillis() < timeout) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertTrue(ran[0] && ran[1]);
+		assertTrue(probe.getCount(DisplayProbe.RUNNABLE) > 0);
+		assertEquals(1, probe.getCount(DisplayProbe.TIMER));
+		assertTrue(probe.getCount(DisplayProbe.IDLE) > 0);
+	}
+
+	@Test
+	public void test_percentile() {
+		HistogramProbe histogram = new HistogramProbe();
+		assertEquals(0, histogram.getPercentile(DisplayProbe.EVENT, 0.5));
+		for (int i = 0; i < 99; i++) {
+			histogram.record(DisplayProbe.EVENT, 0, 1000);
+		}
+		histogram.record(DisplayProbe.EVENT, 0, 1000000);
+		assertEquals(100, histogram.getCount(DisplayProbe.EVENT));
+		assertEquals(99 * 1000 + 1000000, histogram.getTotal(DisplayProbe.EVENT));
+		assertTrue(histogram.getPercentile(DisplayProbe.EVENT, 0.5) >= 1000);
+		assertTrue(histogram.getPercentile(DisplayProbe.EVENT, 0.5) < 2000);
+		assertEquals(1000000, histogram.getPercentile(DisplayProbe.EVENT, 1));
+		histogram.reset();
+		assertEquals(0, histogram.getCount(DisplayProbe.EVENT));
+	}
+}
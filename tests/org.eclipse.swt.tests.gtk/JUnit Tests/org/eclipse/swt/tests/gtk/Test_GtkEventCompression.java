@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.internal.gtk.GDK;
+import org.eclipse.swt.internal.gtk.GdkEventMotion;
+import org.eclipse.swt.internal.gtk.GdkEventScroll;
+import org.eclipse.swt.internal.gtk.OS;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that consecutive motion and smooth scroll events are merged
+ * when event compression is enabled. The events are put into the GDK
+ * queue directly, so that they are all queued before the first one is
+ * dispatched.
+ */
+public class Test_GtkEventCompression {
+
+	static final String COMPRESS_EVENTS_KEY = "org.eclipse.swt.internal.gtk.compressEvents";
+	static final String COMPRESSED_EVENT_COUNT_KEY = "org.eclipse.swt.internal.gtk.compressedEventCount";
+
+	Display display;
+	Shell shell;
+	Canvas canvas1, canvas2;
+	long pointer;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		display.setData(COMPRESS_EVENTS_KEY, Boolean.TRUE);
+		shell = new Shell(display);
+		shell.setBounds(0, 0, 200, 200);
+		canvas1 = new Canvas(shell, SWT.NONE);
+		canvas1.setBounds(0, 0, 100, 100);
+		canvas2 = new Canvas(shell, SWT.NONE);
+		canvas2.setBounds(100, 0, 100, 100);
+		shell.open();
+		drain();
+		pointer = GDK.gdk_seat_get_pointer(GDK.gdk_display_get_default_seat(GDK.gdk_display_get_default()));
+	}
+
+	@After
+	public void tearDown() {
+		display.setData(COMPRESS_EVENTS_KEY, Boolean.FALSE);
+		shell.dispose();
+	}
+
+	@Test
+	public void test_motionCompressed() throws Exception {
+		List<Event> moves = new ArrayList<>();
+		canvas1.addListener(SWT.MouseMove, event -> moves.add(copy(event)));
+		long count = compressedEventCount();
+		for (int i = 0; i < 5; i++) {
+			putEvent(motionEvent(canvas1, 10 + i, 20));
+		}
+		drain();
+		assertEquals(1, moves.size());
+		/* The last event of the run is the one that is sent */
+		Point last = display.map(null, canvas1, 14, 20);
+		assertEquals(last.x, moves.get(0).x);
+		assertEquals(last.y, moves.get(0).y);
+		assertEquals(count + 4, compressedEventCount());
+	}
+
+	@Test
+	public void test_scrollCompressed() throws Exception {
+		List<Event> wheels = new ArrayList<>();
+		canvas1.addListener(SWT.MouseWheel, event -> wheels.add(copy(event)));
+		long count = compressedEventCount();
+		for (int i = 0; i < 5; i++) {
+			putEvent(scrollEvent(canvas1, 1));
+		}
+		drain();
+		assertEquals(1, wheels.size());
+		assertEquals(-15, wheels.get(0).count);
+		assertEquals(count + 4, compressedEventCount());
+	}
+
+	@Test
+	public void test_scrollNotCompressedAcrossWindows() throws Exception {
+		List<Event> wheels = new ArrayList<>();
+		canvas1.addListener(SWT.MouseWheel, event -> wheels.add(copy(event)));
+		canvas2.addListener(SWT.MouseWheel, event -> wheels.add(copy(event)));
+		putEvent(scrollEvent(canvas1, 1));
+		putEvent(scrollEvent(canvas1, 1));
+		putEvent(scrollEvent(canvas2, 1));
+		drain();
+		assertEquals(2, wheels.size());
+		assertEquals(canvas1, wheels.get(0).widget);
+		assertEquals(-6, wheels.get(0).count);
+		assertEquals(canvas2, wheels.get(1).widget);
+		assertEquals(-3, wheels.get(1).count);
+	}
+
+	@Test
+	public void test_scrollDeltasNotLeaked() throws Exception {
+		/* Deltas of a skipped event must not be added to a scroll event of another window */
+		long skipped = scrollEvent(canvas1, 1);
+		putEvent(scrollEvent(canvas1, 1));
+		Method isEventCompressed = Display.class.getDeclaredMethod("isEventCompressed", long.class);
+		isEventCompressed.setAccessible(true);
+		assertTrue((Boolean) isEventCompressed.invoke(display, skipped));
+		GDK.gdk_event_free(skipped);
+
+		long other = scrollEvent(canvas2, 1);
+		Method takeCompressedDeltas = Display.class.getDeclaredMethod("takeCompressedDeltas", long.class, double[].class, double[].class);
+		takeCompressedDeltas.setAccessible(true);
+		double[] deltaX = {0}, deltaY = {1};
+		takeCompressedDeltas.invoke(display, other, deltaX, deltaY);
+		GDK.gdk_event_free(other);
+		assertEquals(0, deltaX[0], 0);
+		assertEquals(1, deltaY[0], 0);
+
+		/* The queued event only gets its own delta */
+		List<Event> wheels = new ArrayList<>();
+		canvas1.addListener(SWT.MouseWheel, event -> wheels.add(copy(event)));
+		drain();
+		assertEquals(1, wheels.size());
+		assertEquals(-3, wheels.get(0).count);
+	}
+
+	long compressedEventCount() {
+		return ((Long) display.getData(COMPRESSED_EVENT_COUNT_KEY)).longValue();
+	}
+
+	long eventWindow(Control control) throws Exception {
+		Method eventWindow = Control.class.getDeclaredMethod("eventWindow");
+		eventWindow.setAccessible(true);
+		long window = (Long) eventWindow.invoke(control);
+		/* The window is released when the event is freed */
+		OS.g_object_ref(window);
+		return window;
+	}
+
+	long motionEvent(Control control, int x, int y) throws Exception {
+		long eventPtr = GDK.gdk_event_new(GDK.GDK_MOTION_NOTIFY);
+		GdkEventMotion gdkEvent = new GdkEventMotion();
+		gdkEvent.type = GDK.GDK_MOTION_NOTIFY;
+		gdkEvent.window = eventWindow(control);
+		gdkEvent.send_event = 1;
+		gdkEvent.time = GDK.GDK_CURRENT_TIME;
+		gdkEvent.x = gdkEvent.x_root = x;
+		gdkEvent.y = gdkEvent.y_root = y;
+		gdkEvent.device = pointer;
+		OS.memmove(eventPtr, gdkEvent, GdkEventMotion.sizeof);
+		GDK.gdk_event_set_device(eventPtr, pointer);
+		return eventPtr;
+	}
+
+	long scrollEvent(Control control, double deltaY) throws Exception {
+		long eventPtr = GDK.gdk_event_new(GDK.GDK_SCROLL);
+		GdkEventScroll gdkEvent = new GdkEventScroll();
+		gdkEvent.type = GDK.GDK_SCROLL;
+		gdkEvent.window = eventWindow(control);
+		gdkEvent.send_event = 1;
+		gdkEvent.time = GDK.GDK_CURRENT_TIME;
+		gdkEvent.x = gdkEvent.y = 10;
+		gdkEvent.direction = GDK.GDK_SCROLL_SMOOTH;
+		gdkEvent.device = pointer;
+		gdkEvent.delta_y = deltaY;
+		OS.memmove(eventPtr, gdkEvent, GdkEventScroll.sizeof);
+		GDK.gdk_event_set_device(eventPtr, pointer);
+		return eventPtr;
+	}
+
+	void putEvent(long eventPtr) {
+		GDK.gdk_event_put(eventPtr);
+		GDK.gdk_event_free(eventPtr);
+	}
+
+	void drain() {
+		while (display.readAndDispatch()) {}
+	}
+
+	static Event copy(Event event) {
+		Event result = new Event();
+		result.widget = event.widget;
+		result.x = event.x;
+		result.y = event.y;
+		result.count = event.count;
+		return result;
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the reuse of the events that the display sends synchronously.
+ * The events are sent by resizing a composite, which sends a Resize
+ * event created by the widget.
+ */
+public class Test_GtkEventPool {
+
+	static final String POOL_EVENTS_KEY = "org.eclipse.swt.internal.gtk.poolEvents";
+
+	Display display;
+	Shell shell;
+	Composite composite;
+	List<Event> events = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		display.setData(POOL_EVENTS_KEY, Boolean.TRUE);
+		shell = new Shell(display);
+		composite = new Composite(shell, SWT.NONE);
+		composite.addListener(SWT.Resize, event -> {
+			assertSame(composite, event.widget);
+			assertEquals(SWT.Resize, event.type);
+			events.add(event);
+		});
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		setStrictChecks(false);
+		display.setData(POOL_EVENTS_KEY, Boolean.FALSE);
+		shell.dispose();
+	}
+
+	@Test
+	public void test_setData() {
+		assertEquals(Boolean.TRUE, display.getData(POOL_EVENTS_KEY));
+		display.setData(POOL_EVENTS_KEY, Boolean.FALSE);
+		assertEquals(Boolean.FALSE, display.getData(POOL_EVENTS_KEY));
+	}
+
+	@Test
+	public void test_eventReused() {
+		composite.setSize(10, 10);
+		composite.setSize(20, 20);
+		assertEquals(2, events.size());
+		assertSame(events.get(0), events.get(1));
+		/* A released event is cleared */
+		Event event = events.get(0);
+		assertNull(event.widget);
+		assertNull(event.display);
+		assertEquals(SWT.None, event.type);
+		assertTrue(event.doit);
+	}
+
+	@Test
+	public void test_eventNotReusedWhenDisabled() {
+		display.setData(POOL_EVENTS_KEY, Boolean.FALSE);
+		composite.setSize(10, 10);
+		composite.setSize(20, 20);
+		assertEquals(2, events.size());
+		assertNotSame(events.get(0), events.get(1));
+		assertSame(composite, events.get(0).widget);
+	}
+
+	@Test
+	public void test_nestedEventsNotShared() {
+		Composite child = new Composite(composite, SWT.NONE);
+		List<Event> childEvents = new ArrayList<>();
+		child.addListener(SWT.Resize, event -> childEvents.add(event));
+		composite.addListener(SWT.Resize, event -> {
+			child.setSize(5, 5);
+			/* The nested dispatch must not have released this event */
+			assertSame(composite, event.widget);
+		});
+		composite.setSize(10, 10);
+		assertEquals(1, events.size());
+		assertEquals(1, childEvents.size());
+		assertNotSame(events.get(0), childEvents.get(0));
+	}
+
+	@Test
+	public void test_retainedEventPoisoned() throws Exception {
+		setStrictChecks(true);
+		composite.setSize(10, 10);
+		Event event = events.get(0);
+		/* Stale reads see values that no real event has */
+		assertNull(event.widget);
+		assertTrue(event.type != SWT.Resize && event.type != SWT.None);
+		assertTrue(event.x != 0 && !event.doit);
+		composite.setSize(20, 20);
+		assertSame(event, events.get(1));
+	}
+
+	@Test
+	public void test_retainedEventModified() throws Exception {
+		setStrictChecks(true);
+		composite.setSize(10, 10);
+		events.get(0).x = 5;
+		try {
+			composite.setSize(20, 20);
+			fail("Modified event was not detected");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("modified after it was released"));
+		}
+	}
+
+	void setStrictChecks(boolean value) throws Exception {
+		Field strictChecks = Display.class.getDeclaredField("strictChecks");
+		strictChecks.setAccessible(true);
+		strictChecks.setBoolean(null, value);
+	}
+}
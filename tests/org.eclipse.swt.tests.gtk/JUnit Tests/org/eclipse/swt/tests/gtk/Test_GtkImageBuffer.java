@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that images created from a direct buffer share their pixels with it.
+ */
+public class Test_GtkImageBuffer {
+
+	static final int WIDTH = 8, HEIGHT = 4, STRIDE = WIDTH * 4;
+
+	Display display;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+	}
+
+	@Test
+	public void test_invalidArguments() {
+		assertInvalid(null, WIDTH, HEIGHT, STRIDE);
+		assertInvalid(ByteBuffer.allocate(STRIDE * HEIGHT), WIDTH, HEIGHT, STRIDE);
+		assertInvalid(ByteBuffer.allocateDirect(STRIDE * HEIGHT).asReadOnlyBuffer(), WIDTH, HEIGHT, STRIDE);
+		assertInvalid(ByteBuffer.allocateDirect(STRIDE * HEIGHT - 1), WIDTH, HEIGHT, STRIDE);
+		assertInvalid(ByteBuffer.allocateDirect(STRIDE * HEIGHT), 0, HEIGHT, STRIDE);
+		assertInvalid(ByteBuffer.allocateDirect(STRIDE * HEIGHT), WIDTH, HEIGHT, STRIDE - 4);
+		assertInvalid(ByteBuffer.allocateDirect(STRIDE * HEIGHT * 2), WIDTH, HEIGHT, STRIDE + 2);
+	}
+
+	@Test
+	public void test_sharedPixels() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(STRIDE * HEIGHT).order(ByteOrder.nativeOrder());
+		IntBuffer pixels = buffer.asIntBuffer();
+		for (int i = 0; i < WIDTH * HEIGHT; i++) pixels.put(i, 0xFF336699);
+		Image image = new Image(display, buffer, WIDTH, HEIGHT, STRIDE);
+		try {
+			assertEquals(new RGB(0x33, 0x66, 0x99), getRGB(image, 1, 2));
+
+			pixels.put(2 * WIDTH + 1, 0xFF102030);
+			image.pixelBufferChanged();
+			assertEquals(new RGB(0x10, 0x20, 0x30), getRGB(image, 1, 2));
+
+			GC gc = new GC(image);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_RED));
+			gc.fillRectangle(0, 0, WIDTH, HEIGHT);
+			gc.dispose();
+			IntBuffer mapped = image.getPixelBuffer().asIntBuffer();
+			assertEquals(STRIDE * HEIGHT / 4, mapped.capacity());
+			assertEquals(0xFFFF0000, mapped.get(3 * WIDTH + 7));
+			assertEquals(0xFFFF0000, pixels.get(3 * WIDTH + 7));
+		} finally {
+			image.dispose();
+		}
+	}
+
+	@Test
+	public void test_getPixelBuffer() {
+		ImageData data = new ImageData(WIDTH, HEIGHT, 32, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				data.setPixel(x, y, 0x123456);
+				data.setAlpha(x, y, 0xFF);
+			}
+		}
+		Image image = new Image(display, data);
+		try {
+			ByteBuffer buffer = image.getPixelBuffer();
+			int stride = buffer.capacity() / HEIGHT;
+			assertEquals(0xFF123456, buffer.getInt(stride * 3 + 4 * 5));
+			buffer.putInt(stride * 3 + 4 * 5, 0xFF654321);
+			image.pixelBufferChanged();
+			assertEquals(new RGB(0x65, 0x43, 0x21), getRGB(image, 5, 3));
+		} finally {
+			image.dispose();
+		}
+	}
+
+	RGB getRGB(Image image, int x, int y) {
+		ImageData data = image.getImageData();
+		return data.palette.getRGB(data.getPixel(x, y));
+	}
+
+	void assertInvalid(ByteBuffer buffer, int width, int height, int stride) {
+		try {
+			new Image(display, buffer, width, height, stride).dispose();
+			fail("No exception thrown for invalid image buffer");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
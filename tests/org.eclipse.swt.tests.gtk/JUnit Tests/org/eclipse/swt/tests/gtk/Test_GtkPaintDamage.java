@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a canvas with NO_MERGE_PAINTS gets a paint event for
+ * each damaged rectangle, and a canvas without it a single paint event
+ * for the bounds of the damage.
+ */
+public class Test_GtkPaintDamage {
+
+	Display display;
+	Shell shell;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		shell = new Shell(display);
+		shell.setBounds(0, 0, 200, 200);
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	@Test
+	public void test_paintPerDamagedRectangle() {
+		List<Event> paints = redrawDisjoint(SWT.NO_MERGE_PAINTS);
+		assertEquals(2, paints.size());
+		assertEquals(new Rectangle(10, 10, 20, 20), paints.get(0).getBounds());
+		assertEquals(1, paints.get(0).count);
+		assertEquals(new Rectangle(60, 60, 20, 20), paints.get(1).getBounds());
+		assertEquals(0, paints.get(1).count);
+	}
+
+	@Test
+	public void test_paintMerged() {
+		List<Event> paints = redrawDisjoint(SWT.NONE);
+		assertEquals(1, paints.size());
+		assertEquals(new Rectangle(10, 10, 70, 70), paints.get(0).getBounds());
+		assertEquals(0, paints.get(0).count);
+	}
+
+	/**
+	 * Redraws two disjoint rectangles of a canvas with the given style
+	 * and returns copies of the paint events it gets for them.
+	 */
+	List<Event> redrawDisjoint(int style) {
+		Canvas canvas = new Canvas(shell, style);
+		canvas.setBounds(0, 0, 100, 100);
+		shell.open();
+		drain();
+		List<Event> paints = new ArrayList<>();
+		canvas.addListener(SWT.Paint, event -> {
+			Event copy = new Event();
+			copy.setBounds(event.getBounds());
+			copy.count = event.count;
+			paints.add(copy);
+			/* The GC is clipped to the bounds of the event */
+			assertEquals(event.getBounds(), event.gc.getClipping());
+		});
+		canvas.redraw(10, 10, 20, 20, false);
+		canvas.redraw(60, 60, 20, 20, false);
+		canvas.update();
+		drain();
+		return paints;
+	}
+
+	void drain() {
+		while (display.readAndDispatch()) {}
+	}
+}
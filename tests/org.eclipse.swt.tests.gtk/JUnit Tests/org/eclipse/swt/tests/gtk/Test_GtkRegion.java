@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import org.eclipse.swt.internal.cairo.Cairo;
+import org.eclipse.swt.internal.gtk.GDK;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.graphics.Region;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the regions built for polygons with the regions SWT built
+ * before polygons were scanned in Java, by filling the polygon into an
+ * image surface and converting the surface into a region.
+ * <p>
+ * The surface keeps the pixels that are more than half covered by the
+ * antialiased polygon, while the scan keeps the pixels whose center is
+ * inside the polygon. Both are the same for polygons whose edges are
+ * horizontal or vertical, and can only differ for pixels crossed by an
+ * edge of the other polygons.
+ * </p>
+ */
+public class Test_GtkRegion {
+
+	/* Region treats every rule other than GDK_EVEN_ODD_RULE as winding */
+	static final int WINDING_RULE = 1;
+
+	Display display;
+	Method polygonRegion;
+
+	@Before
+	public void setUp() throws Exception {
+		display = Display.getDefault();
+		polygonRegion = Region.class.getDeclaredMethod("gdk_region_polygon", int[].class, int.class, int.class);
+		polygonRegion.setAccessible(true);
+	}
+
+	@Test
+	public void test_rectilinearPolygonsMatchSurface() throws Exception {
+		int[][] polygons = {
+			{10,10, 40,10, 40,30, 70,30, 70,60, 10,60},
+			{0,0, 50,0, 50,50, 20,50, 20,20, 35,20, 35,35, 0,35},
+			{5,5, 60,5, 60,15, 5,15, 5,25, 60,25, 60,35, 5,35},
+		};
+		for (int[] polygon : polygons) {
+			for (int rule : new int[] {GDK.GDK_EVEN_ODD_RULE, WINDING_RULE}) {
+				long expected = surfaceRegion(polygon, rule);
+				long actual = (Long) polygonRegion.invoke(null, polygon, polygon.length / 2, rule);
+				try {
+					for (int y = -1; y <= 71; y++) {
+						for (int x = -1; x <= 71; x++) {
+							assertEquals("pixel " + x + "," + y, Cairo.cairo_region_contains_point(expected, x, y), Cairo.cairo_region_contains_point(actual, x, y));
+						}
+					}
+				} finally {
+					Cairo.cairo_region_destroy(expected);
+					Cairo.cairo_region_destroy(actual);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_polygonsMatchSurfaceAwayFromEdges() throws Exception {
+		Random random = new Random(23);
+		for (int i = 0; i < 200; i++) {
+			int[] polygon = new int[(3 + random.nextInt(8)) * 2];
+			for (int j = 0; j < polygon.length; j++) {
+				polygon[j] = random.nextInt(100);
+			}
+			for (int rule : new int[] {GDK.GDK_EVEN_ODD_RULE, WINDING_RULE}) {
+				long expected = surfaceRegion(polygon, rule);
+				long actual = (Long) polygonRegion.invoke(null, polygon, polygon.length / 2, rule);
+				try {
+					for (int y = -1; y <= 100; y++) {
+						for (int x = -1; x <= 100; x++) {
+							if (Cairo.cairo_region_contains_point(expected, x, y) == Cairo.cairo_region_contains_point(actual, x, y)) continue;
+							/* Only the pixels that an edge crosses may differ */
+							assertTrue("pixel " + x + "," + y + " of polygon " + i, distanceToEdge(polygon, x + 0.5, y + 0.5) < Math.sqrt(0.5));
+						}
+					}
+				} finally {
+					Cairo.cairo_region_destroy(expected);
+					Cairo.cairo_region_destroy(actual);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the region of the polygon the way Region did before it
+	 * scanned polygons, by filling the polygon into an image surface.
+	 */
+	static long surfaceRegion(int[] pointArray, int rule) {
+		int minX = pointArray[0], maxX = minX;
+		int minY = pointArray[1], maxY = minY;
+		for (int i = 2; i < pointArray.length; i += 2) {
+			minX = Math.min(minX, pointArray[i]);
+			maxX = Math.max(maxX, pointArray[i]);
+			minY = Math.min(minY, pointArray[i + 1]);
+			maxY = Math.max(maxY, pointArray[i + 1]);
+		}
+		if (maxX == minX || maxY == minY) return Cairo.cairo_region_create();
+		long surface = Cairo.cairo_image_surface_create(Cairo.CAIRO_FORMAT_ARGB32, maxX - minX, maxY - minY);
+		long cairo = Cairo.cairo_create(surface);
+		Cairo.cairo_move_to(cairo, pointArray[0] - minX, pointArray[1] - minY);
+		for (int i = 2; i < pointArray.length; i += 2) {
+			Cairo.cairo_line_to(cairo, pointArray[i] - minX, pointArray[i + 1] - minY);
+		}
+		Cairo.cairo_close_path(cairo);
+		Cairo.cairo_set_source_rgb(cairo, 1, 1, 1);
+		Cairo.cairo_set_fill_rule(cairo, rule == GDK.GDK_EVEN_ODD_RULE ? Cairo.CAIRO_FILL_RULE_EVEN_ODD : Cairo.CAIRO_FILL_RULE_WINDING);
+		Cairo.cairo_fill(cairo);
+		Cairo.cairo_destroy(cairo);
+		long region = GDK.gdk_cairo_region_create_from_surface(surface);
+		Cairo.cairo_region_translate(region, minX, minY);
+		Cairo.cairo_surface_destroy(surface);
+		return region;
+	}
+
+	static double distanceToEdge(int[] pointArray, double x, double y) {
+		double distance = Double.MAX_VALUE;
+		int count = pointArray.length / 2;
+		for (int i = 0; i < count; i++) {
+			int j = (i + 1) % count;
+			double x1 = pointArray[i * 2], y1 = pointArray[i * 2 + 1];
+			double dx = pointArray[j * 2] - x1, dy = pointArray[j * 2 + 1] - y1;
+			double length = dx * dx + dy * dy;
+			double t = length == 0 ? 0 : Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / length));
+			distance = Math.min(distance, Math.hypot(x - x1 - t * dx, y - y1 - t * dy));
+		}
+		return distance;
+	}
+}
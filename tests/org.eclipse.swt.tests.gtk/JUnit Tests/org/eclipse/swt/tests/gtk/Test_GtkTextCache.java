@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the counters of the text extents cache of the device and of
+ * the layout caches of its GCs, which the display answers for an
+ * internal key.
+ */
+public class Test_GtkTextCache {
+
+	static final String TEXT_CACHE_COUNTS_KEY = "org.eclipse.swt.internal.gtk.textCacheCounts";
+
+	Display display;
+	Image image;
+	GC gc;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		image = new Image(display, 100, 100);
+		gc = new GC(image);
+	}
+
+	@After
+	public void tearDown() {
+		if (!gc.isDisposed()) gc.dispose();
+		image.dispose();
+	}
+
+	@Test
+	public void test_extentsCounted() {
+		String string = "Cached extent " + System.nanoTime();
+		int[] before = counts();
+		gc.textExtent(string);
+		gc.textExtent(new String(string));
+		int[] after = counts();
+		assertEquals(before[0] + 1, after[0]);
+		assertEquals(before[1] + 1, after[1]);
+	}
+
+	@Test
+	public void test_layoutsCountedWhenDisposed() {
+		String string = "Cached layout";
+		int[] before = counts();
+		gc.drawText(string, 0, 0);
+		gc.drawText("Other layout", 0, 0);
+		gc.drawText(new String(string), 0, 0);
+		/* The counters of a GC are added to the device when it is disposed */
+		assertEquals(before[3], counts()[3]);
+		gc.dispose();
+		int[] after = counts();
+		assertEquals(before[3] + 1, after[3]);
+		assertEquals(before[4] + 2, after[4]);
+	}
+
+	@Test
+	public void test_clearTextCache() {
+		/* The display clears the extents when the font settings change */
+		String string = "Cleared extent " + System.nanoTime();
+		gc.textExtent(string);
+		int[] before = counts();
+		Device.gtk_clearTextCache(display);
+		gc.textExtent(new String(string));
+		int[] after = counts();
+		assertEquals(before[0], after[0]);
+		assertEquals(before[1] + 1, after[1]);
+	}
+
+	int[] counts() {
+		return (int[]) display.getData(TEXT_CACHE_COUNTS_KEY);
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.swt.internal.Watchdog;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a watchdog installed on the display reports a stall of the
+ * user-interface thread together with its stack.
+ */
+public class Test_GtkWatchdog {
+
+	static final String WATCHDOG_KEY = "org.eclipse.swt.internal.gtk.watchdog";
+
+	Display display;
+	List<StackTraceElement[]> stalls = Collections.synchronizedList(new ArrayList<>());
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		display.setData(WATCHDOG_KEY, new Watchdog(100, (thread, duration, stack) -> {
+			assertSame(display.getThread(), thread);
+			stalls.add(stack);
+		}));
+	}
+
+	@After
+	public void tearDown() {
+		display.setData(WATCHDOG_KEY, null);
+	}
+
+	@Test
+	public void test_stall() {
+		final boolean[] ran = new boolean[1];
+		display.asyncExec(() -> {
+			stall(500);
+			ran[0] = true;
+		});
+		while (!ran[0]) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertEquals(1, stalls.size());
+		boolean found = false;
+		for (StackTraceElement element : stalls.get(0)) {
+			if (element.getMethodName().equals("stall")) found = true;
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	public void test_noStall() {
+		for (int i = 0; i < 20; i++) {
+			display.asyncExec(() -> stall(10));
+			while (display.readAndDispatch()) {}
+		}
+		assertEquals(0, stalls.size());
+	}
+
+	@Test
+	public void test_timerStall() {
+		final boolean[] ran = new boolean[1];
+		display.timerExec(0, () -> {
+			stall(500);
+			ran[0] = true;
+		});
+		while (!ran[0]) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertEquals(1, stalls.size());
+	}
+
+	@Test
+	public void test_listenerFailure() {
+		AtomicInteger count = new AtomicInteger();
+		Watchdog watchdog = new Watchdog(50, (thread, duration, stack) -> {
+			count.incrementAndGet();
+			throw new AssertionError("listener failure");
+		});
+		watchdog.start(Thread.currentThread());
+		try {
+			for (int i = 0; i < 2; i++) {
+				watchdog.begin();
+				stall(300);
+				watchdog.end();
+			}
+		} finally {
+			watchdog.stop();
+		}
+		/* The watchdog keeps reporting after the listener failed */
+		assertEquals(2, count.get());
+	}
+
+	@Test
+	public void test_restart() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch reported = new CountDownLatch(1), restarted = new CountDownLatch(1);
+		Watchdog watchdog = new Watchdog(50, (thread, duration, stack) -> {
+			if (count.incrementAndGet() == 1) {
+				reported.countDown();
+				/* Block while the watchdog is restarted and ignore the interrupt */
+				while (true) {
+					try {
+						restarted.await();
+						break;
+					} catch (InterruptedException e) {
+					}
+				}
+			}
+		});
+		watchdog.start(Thread.currentThread());
+		try {
+			watchdog.begin();
+			while (!reported.await(10, TimeUnit.MILLISECONDS)) {}
+			watchdog.end();
+			watchdog.stop();
+			watchdog.start(Thread.currentThread());
+			restarted.countDown();
+			/* Only the new thread reports this stall */
+			watchdog.begin();
+			stall(300);
+			watchdog.end();
+		} finally {
+			watchdog.stop();
+		}
+		assertEquals(2, count.get());
+	}
+
+	void stall(long milliseconds) {
+		long end = System.currentTimeMillis() + milliseconds;
+		while (System.currentTimeMillis() < end) {}
+	}
+}
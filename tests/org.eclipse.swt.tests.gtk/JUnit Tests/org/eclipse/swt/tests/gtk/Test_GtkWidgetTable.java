@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat and others. All rights reserved.
+ * The contents of this file are made available under the terms
+ * of the GNU Lesser General Public License (LGPL) Version 2.1 that
+ * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
+ * available at http://www.gnu.org/licenses/lgpl.html.  If the version
+ * of the LGPL at http://www.gnu.org is different to the version of
+ * the LGPL accompanying this distribution and there is any conflict
+ * between the two license versions, the terms of the LGPL accompanying
+ * this distribution shall govern.
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ */
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.internal.gtk.GTK;
+import org.eclipse.swt.internal.gtk.OS;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Widget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the mapping of native handles to widgets done by the display.
+ * The cost of the lookups is measured by the performance tests.
+ */
+public class Test_GtkWidgetTable {
+
+	Display display;
+	Shell shell;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		shell = new Shell(display);
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	@Test
+	public void test_findWidget() {
+		Composite composite = new Composite(shell, SWT.NONE);
+		assertSame(composite, display.findWidget(composite.handle));
+		long handle = composite.handle;
+		composite.dispose();
+		assertNull(display.findWidget(handle));
+	}
+
+	@Test
+	public void test_findWidget_many() {
+		/* More widgets than the initial size of the table, so that it grows */
+		int count = 2000;
+		Composite[] composites = new Composite[count];
+		for (int i = 0; i < count; i++) {
+			composites[i] = new Composite(shell, SWT.NONE);
+		}
+		for (int i = 0; i < count; i++) {
+			assertSame(composites[i], display.findWidget(composites[i].handle));
+		}
+		long[] handles = new long[count];
+		for (int i = 0; i < count; i += 2) {
+			handles[i] = composites[i].handle;
+			composites[i].dispose();
+		}
+		for (int i = 0; i < count; i++) {
+			if (i % 2 == 0) {
+				assertNull(display.findWidget(handles[i]));
+			} else {
+				assertSame(composites[i], display.findWidget(composites[i].handle));
+			}
+		}
+	}
+
+	@Test
+	public void test_findWidget_finalizedHandle() throws Exception {
+		/* A handle whose object is finalized without being removed must not map to a widget */
+		Composite composite = new Composite(shell, SWT.NONE);
+		long handle = GTK.gtk_label_new(null);
+		OS.g_object_ref_sink(handle);
+		Method addWidget = Display.class.getDeclaredMethod("addWidget", long.class, Widget.class);
+		addWidget.setAccessible(true);
+		addWidget.invoke(display, handle, composite);
+		assertSame(composite, display.findWidget(handle));
+		OS.g_object_unref(handle);
+		assertNull(display.findWidget(handle));
+	}
+}
@@ -24,11 +24,13 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({ Test_org_eclipse_swt_graphics_Color.class,
 		Test_org_eclipse_swt_graphics_Cursor.class,
 		Test_org_eclipse_swt_graphics_DeviceData.class,
+		Test_org_eclipse_swt_graphics_DisplayList.class,
 		Test_org_eclipse_swt_graphics_Font.class,
 		Test_org_eclipse_swt_graphics_FontData.class,
 		Test_org_eclipse_swt_graphics_FontMetrics.class,
 		Test_org_eclipse_swt_graphics_GC.class,
 		Test_org_eclipse_swt_graphics_Image.class,
+		Test_org_eclipse_swt_graphics_ImageCache.class,
 		Test_org_eclipse_swt_graphics_ImageData.class,
 		Test_org_eclipse_swt_graphics_PaletteData.class,
 		Test_org_eclipse_swt_graphics_Point.class,
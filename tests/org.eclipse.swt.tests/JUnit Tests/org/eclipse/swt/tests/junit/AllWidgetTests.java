@@ -47,6 +47,7 @@ import org.junit.runners.Suite;
 		Test_org_eclipse_swt_custom_CTabItem.class, Test_org_eclipse_swt_custom_StyledText.class,
 		Test_org_eclipse_swt_custom_StyledText_VariableLineHeight.class, Test_org_eclipse_swt_custom_StyledTextLineSpacingProvider.class,
 		Test_org_eclipse_swt_custom_CTabFolder.class, Test_org_eclipse_swt_widgets_Spinner.class,
+		Test_org_eclipse_swt_custom_SpatialIndex.class,
 		Test_org_eclipse_swt_widgets_ScrolledComposite.class})
 public class AllWidgetTests {
 	public static void main(String[] args) {
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+
+import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.SpatialIndex;
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.custom.SpatialIndex
+ *
+ * @see org.eclipse.swt.custom.SpatialIndex
+ */
+public class Test_org_eclipse_swt_custom_SpatialIndex {
+
+@Before
+public void setUp() {
+	index = new SpatialIndex<>(10);
+}
+
+@Test
+public void test_ConstructorI() {
+	try {
+		new SpatialIndex<String>(0);
+		fail("No exception thrown for cellSize == 0");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for cellSize == 0", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+	assertEquals(0, new SpatialIndex<String>().size());
+}
+
+@Test
+public void test_addLjava_lang_ObjectLorg_eclipse_swt_graphics_Rectangle() {
+	try {
+		index.add(null, new Rectangle(0, 0, 1, 1));
+		fail("No exception thrown for null item");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null item", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+	try {
+		index.add("a", null);
+		fail("No exception thrown for null bounds");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null bounds", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+
+	index.add("a", new Rectangle(0, 0, 5, 5));
+	index.add("b", new Rectangle(3, 3, 5, 5));
+	assertEquals(2, index.size());
+	assertEquals(new Rectangle(3, 3, 5, 5), index.getBounds("b"));
+
+	/* Moving an item keeps its painting order */
+	index.add("a", new Rectangle(100, 100, 5, 5));
+	assertEquals(2, index.size());
+	assertEquals(Collections.singletonList("b"), index.getItems(0, 0, 10, 10));
+	index.add("b", new Rectangle(102, 102, 5, 5));
+	assertEquals(Arrays.asList("a", "b"), index.getItems(100, 100, 10, 10));
+}
+
+@Test
+public void test_getItemII() {
+	index.add("bottom", new Rectangle(0, 0, 20, 20));
+	index.add("top", new Rectangle(10, 10, 20, 20));
+	assertEquals("bottom", index.getItem(5, 5));
+	assertEquals("top", index.getItem(15, 15));
+	assertEquals("top", index.getItem(29, 29));
+	assertNull(index.getItem(30, 30));
+	assertNull(index.getItem(-1, 5));
+}
+
+@Test
+public void test_getItemsIIII() {
+	index.add("a", new Rectangle(-15, -15, 10, 10));
+	index.add("b", new Rectangle(0, 0, 10, 10));
+	index.add("c", new Rectangle(25, 0, 10, 10));
+	index.add("large", new Rectangle(-1000, -1000, 2000, 2000));
+	index.add("empty", new Rectangle(5, 5, 0, 0));
+	assertEquals(Arrays.asList("a", "large"), index.getItems(-10, -10, 5, 5));
+	assertEquals(Arrays.asList("b", "large"), index.getItems(new Rectangle(5, 5, 5, 5)));
+	assertEquals(Arrays.asList("b", "c", "large"), index.getItems(9, 0, 17, 1));
+	assertEquals(Collections.singletonList("large"), index.getItems(10, 0, 15, 10));
+	assertEquals(Arrays.asList("a", "b", "c", "large"), index.getItems(-10000, -10000, 20000, 20000));
+	assertTrue(index.getItems(0, 0, 0, 10).isEmpty());
+}
+
+@Test
+public void test_getItemsIIII_random() {
+	Random random = new Random(7);
+	List<Rectangle> bounds = new ArrayList<>();
+	for (int i = 0; i < 500; i++) {
+		Rectangle rect = new Rectangle(random.nextInt(400) - 200, random.nextInt(400) - 200, random.nextInt(60), random.nextInt(60));
+		bounds.add(rect);
+		index.add(Integer.toString(i), rect);
+	}
+	for (int i = 0; i < 100; i++) {
+		index.remove(Integer.toString(random.nextInt(500)));
+	}
+	for (int i = 0; i < 200; i++) {
+		Rectangle area = new Rectangle(random.nextInt(500) - 250, random.nextInt(500) - 250, random.nextInt(100) + 1, random.nextInt(100) + 1);
+		List<String> expected = new ArrayList<>();
+		for (int j = 0; j < bounds.size(); j++) {
+			String item = Integer.toString(j);
+			if (index.getBounds(item) != null && !bounds.get(j).isEmpty() && bounds.get(j).intersects(area)) expected.add(item);
+		}
+		assertEquals(expected, index.getItems(area));
+	}
+}
+
+@Test
+public void test_removeLjava_lang_Object() {
+	index.add("a", new Rectangle(0, 0, 100, 5));
+	assertTrue(index.remove("a"));
+	assertFalse(index.remove("a"));
+	assertNull(index.getBounds("a"));
+	assertTrue(index.getItems(0, 0, 100, 100).isEmpty());
+	assertEquals(0, index.size());
+
+	index.add("b", new Rectangle(0, 0, 5, 5));
+	index.clear();
+	assertEquals(0, index.size());
+	assertNull(index.getItem(1, 1));
+}
+
+/* custom */
+SpatialIndex<String> index;
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+
+import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.DisplayList;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.Transform;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.graphics.DisplayList
+ *
+ * @see org.eclipse.swt.graphics.DisplayList
+ */
+public class Test_org_eclipse_swt_graphics_DisplayList {
+
+@Before
+public void setUp() {
+	display = Display.getDefault();
+	list = new DisplayList(display, 40, 40);
+	GC gc = new GC(list);
+	gc.setBackground(display.getSystemColor(SWT.COLOR_RED));
+	gc.fillRectangle(10, 10, 20, 20);
+	gc.dispose();
+	image = new Image(display, 100, 100);
+}
+
+@After
+public void tearDown() {
+	list.dispose();
+	image.dispose();
+}
+
+@Test
+public void test_ConstructorLorg_eclipse_swt_graphics_DeviceII() {
+	try {
+		new DisplayList(display, 0, 10).dispose();
+		fail("No exception thrown for width == 0");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for width == 0", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+	try {
+		new DisplayList(display, 10, -1).dispose();
+		fail("No exception thrown for height < 0");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for height < 0", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+	assertEquals(new Rectangle(0, 0, 40, 40), list.getBounds());
+}
+
+@Test
+public void test_dispose() {
+	DisplayList other = new DisplayList(display, 10, 10);
+	assertFalse(other.isDisposed());
+	other.dispose();
+	assertTrue(other.isDisposed());
+	other.dispose();
+}
+
+@Test
+public void test_drawDisplayListLorg_eclipse_swt_graphics_DisplayListII() {
+	GC gc = new GC(image);
+	try {
+		gc.drawDisplayList(null, 0, 0);
+		fail("No exception thrown for null display list");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null display list", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+	DisplayList disposed = new DisplayList(display, 10, 10);
+	disposed.dispose();
+	try {
+		gc.drawDisplayList(disposed, 0, 0);
+		fail("No exception thrown for disposed display list");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for disposed display list", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+
+	gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+	gc.fillRectangle(0, 0, 100, 100);
+	gc.drawDisplayList(list, 5, 5);
+	gc.drawDisplayList(list, 55, 55);
+	gc.dispose();
+	assertEquals(RED, getRGB(20, 20));
+	assertEquals(RED, getRGB(70, 70));
+	assertEquals(WHITE, getRGB(2, 2));
+	assertEquals(WHITE, getRGB(40, 40));
+
+	GC listGC = new GC(list);
+	try {
+		listGC.drawDisplayList(list, 0, 0);
+		fail("No exception thrown for replaying a display list on itself");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for replaying a display list on itself", SWT.ERROR_INVALID_ARGUMENT, e);
+	} finally {
+		listGC.dispose();
+	}
+}
+
+@Test
+public void test_drawDisplayList_transform() {
+	GC gc = new GC(image);
+	gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+	gc.fillRectangle(0, 0, 100, 100);
+	Transform transform = new Transform(display);
+	transform.scale(2, 2);
+	gc.setTransform(transform);
+	gc.drawDisplayList(list, 5, 5);
+	gc.setTransform(null);
+	transform.dispose();
+	gc.dispose();
+
+	/* The rectangle is replayed from 30,30 to 70,70 */
+	assertEquals(RED, getRGB(35, 35));
+	assertEquals(RED, getRGB(65, 65));
+	assertEquals(WHITE, getRGB(25, 25));
+	assertEquals(WHITE, getRGB(75, 75));
+}
+
+RGB getRGB(int x, int y) {
+	ImageData data = image.getImageData();
+	return data.palette.getRGB(data.getPixel(x, y));
+}
+
+/* custom */
+static final RGB RED = new RGB(0xFF, 0, 0), WHITE = new RGB(0xFF, 0xFF, 0xFF);
+Display display;
+DisplayList list;
+Image image;
+}
@@ -15,15 +15,19 @@
 package org.eclipse.swt.tests.junit;
 
 import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.function.Consumer;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.FontMetrics;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
@@ -304,6 +308,26 @@ public void test_drawLineIIII() {
 	gc.drawLine(0,0,0,20);
 }
 
+@Test
+public void test_drawLines$I() {
+	try {
+		gc.drawLines(null);
+		fail("No exception thrown for null segment array");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null segment array", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+	gc.drawLines(new int[0]);
+	gc.drawLines(new int[] {0, 0, 10});
+
+	int[] segments = {10, 10, 50, 10,  10, 20, 10, 60,  30, 30, 70, 30,  80, 40, 80, 90};
+	gc.drawLines(segments);
+	assertSameAsSeparateCalls(other -> {
+		for (int i = 0; i < segments.length; i += 4) {
+			other.drawLine(segments[i], segments[i + 1], segments[i + 2], segments[i + 3]);
+		}
+	});
+}
+
 @Test
 public void test_drawOvalIIII() {
 	gc.drawOval(10, 0, 20, 30);
@@ -314,6 +338,26 @@ public void test_drawPointII() {
 	gc.drawPoint(10, 10);
 }
 
+@Test
+public void test_drawPoints$I() {
+	try {
+		gc.drawPoints(null);
+		fail("No exception thrown for null point array");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null point array", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+	gc.drawPoints(new int[] {5});
+
+	/* Points drawn twice must not cancel out */
+	int[] points = {10, 10,  20, 15,  20, 15,  199, 199,  0, 0};
+	gc.drawPoints(points);
+	assertSameAsSeparateCalls(other -> {
+		for (int i = 0; i < points.length; i += 2) {
+			other.drawPoint(points[i], points[i + 1]);
+		}
+	});
+}
+
 @Test
 public void test_drawPolygon$I() {
 	gc.drawPolygon(new int[] {0,0, 5,10, 0,20});
@@ -441,6 +485,28 @@ public void test_fillRectangleLorg_eclipse_swt_graphics_Rectangle() {
 	gc.fillRectangle(0, 0, 0, 0);
 }
 
+@Test
+public void test_fillRectangles$I() {
+	try {
+		gc.fillRectangles(null);
+		fail("No exception thrown for null rectangle array");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null rectangle array", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+	gc.fillRectangles(new int[] {0, 0, 10});
+
+	/* Overlapping rectangles must not cancel out, and negative sizes are normalized */
+	int[] rects = {10, 10, 50, 40,  30, 20, 50, 40,  150, 150, -20, -30,  0, 0, 0, 0};
+	gc.setBackground(display.getSystemColor(SWT.COLOR_BLUE));
+	gc.fillRectangles(rects);
+	assertSameAsSeparateCalls(other -> {
+		other.setBackground(display.getSystemColor(SWT.COLOR_BLUE));
+		for (int i = 0; i < rects.length; i += 4) {
+			other.fillRectangle(rects[i], rects[i + 1], rects[i + 2], rects[i + 3]);
+		}
+	});
+}
+
 @Test
 public void test_fillRoundRectangleIIIIII() {
 	gc.fillRoundRectangle(10, 0, 20, 30, 3, 3);
@@ -640,6 +706,33 @@ public void test_textExtentLjava_lang_StringI() {
 	assertTrue(pt.y > 0);
 }
 
+@Test
+public void test_textExtentLjava_lang_StringI_fontChange() {
+	Font font = gc.getFont();
+	FontData data = font.getFontData()[0];
+	Font bigFont = new Font(display, data.getName(), data.getHeight() * 3, data.getStyle());
+	try {
+		Point small = gc.textExtent("Extent", 0);
+		gc.setFont(bigFont);
+		Point big = gc.textExtent("Extent", 0);
+		assertTrue(big.x > small.x);
+		assertTrue(big.y > small.y);
+
+		/* Modifying a returned extent does not change the next one */
+		big.x = 0;
+		assertEquals(gc.textExtent(new String("Extent"), 0), gc.textExtent("Extent", 0));
+		assertTrue(gc.textExtent("Extent", 0).x > small.x);
+		assertEquals(gc.stringExtent("W").x, gc.getCharWidth('W'));
+
+		gc.setFont(font);
+		assertEquals(small, gc.textExtent("Extent", 0));
+		assertEquals(small, gc.textExtent("Extent", SWT.DRAW_TRANSPARENT));
+	} finally {
+		gc.setFont(null);
+		bigFont.dispose();
+	}
+}
+
 @Test
 public void test_toString() {
 	String s = gc.toString();
@@ -675,4 +768,29 @@ RGB getRealRGB(Color color) {
 	pixel = imageData.getPixel(0, 0);
 	return palette.getRGB(pixel);
 }
+
+/**
+ * Asserts that the image drawn by the test looks the same as an image
+ * drawn by the given drawer, which makes one call per primitive.
+ */
+void assertSameAsSeparateCalls(Consumer<GC> drawer) {
+	Image other = new Image(display, 200, 200);
+	GC otherGC = new GC(other);
+	try {
+		drawer.accept(otherGC);
+		gc.dispose();
+		otherGC.dispose();
+		ImageData expected = other.getImageData(), actual = image.getImageData();
+		int[] expectedPixels = new int[expected.width], actualPixels = new int[actual.width];
+		for (int y = 0; y < expected.height; y++) {
+			expected.getPixels(0, y, expected.width, expectedPixels, 0);
+			actual.getPixels(0, y, actual.width, actualPixels, 0);
+			assertArrayEquals("row " + y, expectedPixels, actualPixels);
+		}
+	} finally {
+		if (!otherGC.isDisposed()) otherGC.dispose();
+		other.dispose();
+		gc = new GC(image);
+	}
+}
 }
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+
+import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageCache;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.graphics.ImageCache
+ *
+ * @see org.eclipse.swt.graphics.ImageCache
+ */
+public class Test_org_eclipse_swt_graphics_ImageCache {
+
+@Before
+public void setUp() {
+	display = Display.getDefault();
+	cache = ImageCache.getCache(display);
+	cache.clear();
+}
+
+@After
+public void tearDown() {
+	cache.setMaximumSize(ImageCache.DEFAULT_MAXIMUM_SIZE);
+	cache.clear();
+}
+
+@Test
+public void test_getCacheLorg_eclipse_swt_graphics_Device() {
+	assertSame(cache, ImageCache.getCache(display));
+}
+
+@Test
+public void test_getLjava_lang_String() {
+	try {
+		cache.get((String)null);
+		fail("No exception thrown for null file name");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null file name", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+
+	String filename = new File(getURL("collapseall.png").getFile().replaceAll("%20", " ")).getPath();
+	int hits = cache.getHitCount(), misses = cache.getMissCount();
+	Image image = cache.get(filename);
+	assertSame(image, cache.get(filename));
+	assertEquals(hits + 1, cache.getHitCount());
+	assertEquals(misses + 1, cache.getMissCount());
+	assertTrue(cache.getSize() > 0);
+	cache.release(image);
+	cache.release(image);
+	assertFalse(image.isDisposed());
+
+	try {
+		cache.release(image);
+		fail("No exception thrown for releasing an image too many times");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for releasing an image too many times", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+	Image other = new Image(display, filename);
+	try {
+		cache.release(other);
+		fail("No exception thrown for releasing an image that is not cached");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for releasing an image that is not cached", SWT.ERROR_INVALID_ARGUMENT, e);
+	} finally {
+		other.dispose();
+	}
+}
+
+@Test
+public void test_getLjava_net_URL() throws IOException {
+	URL url = getURL("collapseall.png");
+	Image image = cache.get(url);
+	assertSame(image, cache.get(url));
+	cache.release(image);
+	cache.release(image);
+
+	File file = File.createTempFile("swt", ".png");
+	file.delete();
+	try {
+		cache.get(file.toURI().toURL());
+		fail("No exception thrown for missing URL");
+	} catch (SWTException e) {
+		assertSWTProblem("Incorrect exception thrown for missing URL", SWT.ERROR_IO, e);
+	}
+}
+
+@Test
+public void test_getLorg_eclipse_swt_graphics_ImageDataProvider() {
+	ImageDataProvider provider = zoom -> new ImageData(8, 8, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	ImageDataProvider otherProvider = zoom -> new ImageData(8, 8, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	Image image = cache.get(provider);
+	Image other = cache.get(otherProvider);
+	assertSame(image, cache.get(provider));
+	assertNotSame(image, other);
+	assertTrue(cache.getSize() >= 2 * 8 * 8 * 4);
+	cache.release(image);
+	cache.release(image);
+	cache.release(other);
+}
+
+@Test
+public void test_setMaximumSizeJ() {
+	try {
+		cache.setMaximumSize(-1);
+		fail("No exception thrown for negative maximum size");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for negative maximum size", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+
+	ImageDataProvider first = zoom -> new ImageData(16, 16, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	ImageDataProvider second = zoom -> new ImageData(16, 16, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	Image firstImage = cache.get(first);
+	Image secondImage = cache.get(second);
+	int evictions = cache.getEvictionCount();
+
+	/* Images in use are never evicted */
+	cache.setMaximumSize(0);
+	assertFalse(firstImage.isDisposed());
+	assertFalse(secondImage.isDisposed());
+
+	/* Unused images are evicted in least recently used order */
+	cache.setMaximumSize(cache.getSize());
+	cache.release(secondImage);
+	cache.release(firstImage);
+	cache.setMaximumSize(cache.getSize() - 1);
+	assertTrue(firstImage.isDisposed());
+	assertFalse(secondImage.isDisposed());
+	assertEquals(evictions + 1, cache.getEvictionCount());
+
+	/* Evicted images are loaded again */
+	int misses = cache.getMissCount();
+	Image image = cache.get(first);
+	assertNotSame(firstImage, image);
+	assertEquals(misses + 1, cache.getMissCount());
+	cache.release(image);
+}
+
+URL getURL(String fileName) {
+	URL url = getClass().getClassLoader().getResource(fileName);
+	if (url == null) {
+		fail("URL == null for file " + fileName);
+	}
+	return url;
+}
+
+/* custom */
+Display display;
+ImageCache cache;
+}
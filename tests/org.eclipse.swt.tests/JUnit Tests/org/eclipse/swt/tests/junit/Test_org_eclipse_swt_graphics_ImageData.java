@@ -779,6 +779,75 @@ public void test_scaledToII() {
 	assertArrayEquals(":d:", expectedPixelData, scaledPixelData);
 }
 
+@Test
+public void test_scaledToIII() {
+	try {
+		imageData.scaledTo(10, 10, 7);
+		fail("No exception thrown for invalid filter");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for invalid filter", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+
+	/* A uniform image stays uniform and keeps its format */
+	ImageData uniform = new ImageData(7, 5, 32, new PaletteData(0xFF00, 0xFF0000, 0xFF000000));
+	for (int y = 0; y < uniform.height; y++) {
+		for (int x = 0; x < uniform.width; x++) {
+			uniform.setPixel(x, y, 0x12345600);
+		}
+	}
+	for (int filter : new int[] {SWT.DEFAULT, SWT.LOW, SWT.HIGH}) {
+		for (int size : new int[] {3, 22}) {
+			ImageData scaled = uniform.scaledTo(size, size + 1, filter);
+			assertEquals(":a:", size, scaled.width);
+			assertEquals(":b:", size + 1, scaled.height);
+			assertEquals(":c:", 32, scaled.depth);
+			assertNull(":d:", scaled.alphaData);
+			for (int y = 0; y < scaled.height; y++) {
+				for (int x = 0; x < scaled.width; x++) {
+					assertEquals(":e:", 0x12345600, scaled.getPixel(x, y));
+				}
+			}
+		}
+	}
+
+	/* Bilinear interpolation between a black and a white column */
+	ImageData columns = new ImageData(2, 1, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	columns.setPixel(1, 0, 0xFFFFFF);
+	ImageData scaled = columns.scaledTo(4, 1, SWT.LOW);
+	int[] reds = new int[4];
+	for (int x = 0; x < 4; x++) {
+		reds[x] = scaled.palette.getRGB(scaled.getPixel(x, 0)).red;
+	}
+	assertArrayEquals(":f:", new int[] {0, 64, 191, 255}, reds);
+	ImageData flipped = columns.scaledTo(-4, 1, SWT.LOW);
+	for (int x = 0; x < 4; x++) {
+		assertEquals(":g:", reds[3 - x], flipped.palette.getRGB(flipped.getPixel(x, 0)).red);
+	}
+
+	/* The transparent pixel of palette images becomes alpha data, the Lanczos filter would ring at the edge */
+	ImageData indexed = new ImageData(4, 4, 8, new PaletteData(new RGB(255, 0, 0), new RGB(0, 0, 255)));
+	indexed.transparentPixel = 1;
+	for (int y = 0; y < 4; y++) {
+		indexed.setPixel(2, y, 1);
+		indexed.setPixel(3, y, 1);
+	}
+	scaled = indexed.scaledTo(8, 8, SWT.LOW);
+	assertEquals(":h:", 24, scaled.depth);
+	assertEquals(":i:", -1, scaled.transparentPixel);
+	assertNotNull(":j:", scaled.alphaData);
+	assertEquals(":k:", 255, scaled.getAlpha(0, 0));
+	assertEquals(":l:", 0, scaled.getAlpha(7, 7));
+	assertEquals(":m:", new RGB(255, 0, 0), scaled.palette.getRGB(scaled.getPixel(0, 0)));
+
+	/* The weights of every pixel sum to one, so a uniform image stays uniform when enlarged */
+	for (int size = 8; size < 40; size += 3) {
+		ImageData enlarged = uniform.scaledTo(size, size, SWT.HIGH);
+		for (int x = 0; x < size; x++) {
+			assertEquals(":n:", 0x12345600, enlarged.getPixel(x, size / 2));
+		}
+	}
+}
+
 @Test
 public void test_setAlphaIII() {
 	int value;
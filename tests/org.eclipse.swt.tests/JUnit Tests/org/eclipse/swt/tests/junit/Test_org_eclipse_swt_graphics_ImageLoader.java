@@ -15,18 +15,33 @@
 package org.eclipse.swt.tests.junit;
 
 
+import static org.eclipse.swt.tests.junit.SwtTestUtil.assertSWTProblem;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.graphics.ImageLoaderEvent;
 import org.eclipse.swt.graphics.ImageLoaderListener;
+import org.eclipse.swt.graphics.LoadOptions;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
 import org.junit.Test;
 
 /**
@@ -63,7 +78,7 @@ public void test_addImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderList
 	assertTrue(":c:", loaderListenerCalled);
 
 	loaderListenerCalled = false;
-	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.bmp")) {
 		loader.load(stream);
 	} catch (IOException e) {}
 	assertFalse(":d:", loaderListenerCalled);
@@ -76,6 +91,70 @@ public void test_addImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderList
 	assertFalse(":f:", loader.hasListeners());
 }
 
+@Test
+public void test_loadFramesLjava_io_InputStream() {
+	ImageLoader loader = new ImageLoader();
+	try {
+		loader.loadFrames(null);
+		fail("No exception thrown for loadFrames inputStream == null");
+	} catch (IllegalArgumentException e) {
+	}
+
+	/* An animated GIF is read one frame at a time */
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, 255 - i, i / 2);
+	}
+	ImageData[] frames = new ImageData[3];
+	for (int i = 0; i < frames.length; i++) {
+		frames[i] = new ImageData(40, 30, 8, new PaletteData(rgbs));
+		for (int y = 0; y < 30; y++) {
+			for (int x = 0; x < 40; x++) {
+				frames[i].setPixel(x, y, (x * 7 + y * 3 + i * 50) % 256);
+			}
+		}
+		frames[i].delayTime = 10 * (i + 1);
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = frames;
+	saver.logicalScreenWidth = 40;
+	saver.logicalScreenHeight = 30;
+	saver.repeatCount = 0;
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	saver.save(out, SWT.IMAGE_GIF);
+	byte[] file = out.toByteArray();
+
+	ImageData[] loaded = loader.load(new ByteArrayInputStream(file));
+	Iterator<ImageData> iterator = loader.loadFrames(new ByteArrayInputStream(file));
+	assertEquals(40, loader.logicalScreenWidth);
+	assertEquals(30, loader.logicalScreenHeight);
+	for (int i = 0; i < frames.length; i++) {
+		assertTrue(iterator.hasNext());
+		ImageData frame = iterator.next();
+		assertEquals(loaded[i].delayTime, frame.delayTime);
+		assertArrayEquals(loaded[i].data, frame.data);
+		assertArrayEquals(frames[i].data, frame.data);
+	}
+	assertFalse(iterator.hasNext());
+	assertEquals(0, loader.repeatCount);
+	try {
+		iterator.next();
+		fail("No exception thrown for next() after the last frame");
+	} catch (NoSuchElementException e) {
+	}
+
+	/* Other formats are read at once */
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+		iterator = loader.loadFrames(stream);
+	} catch (IOException e) {
+		fail("Unable to load target.png: " + e);
+		return;
+	}
+	assertTrue(iterator.hasNext());
+	iterator.next();
+	assertFalse(iterator.hasNext());
+}
+
 @Test
 public void test_loadLjava_io_InputStream() {
 		ImageLoader loader = new ImageLoader();
@@ -102,6 +181,217 @@ public void test_loadLjava_io_InputStream() {
 		}
 }
 
+@Test
+public void test_loadLjava_io_InputStream_pngRows() {
+	ImageLoader loader = new ImageLoader();
+	List<ImageLoaderEvent> events = new ArrayList<>();
+	loader.addImageLoaderListener(events::add);
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+		loader.load(stream);
+	} catch (IOException e) {
+		fail("Unable to load target.png: " + e);
+	}
+	assertTrue(events.size() > 1);
+	/* Each event holds the rows decoded since the previous one */
+	ImageData loaded = loader.data[0];
+	byte[] data = new byte[loaded.data.length];
+	int row = 0;
+	for (int i = 0; i < events.size(); i++) {
+		ImageLoaderEvent event = events.get(i);
+		assertEquals(i, event.incrementCount);
+		assertEquals(i == events.size() - 1, event.endOfImage);
+		ImageData rows = event.imageData;
+		assertEquals(loaded.width, rows.width);
+		assertEquals(row, rows.y);
+		System.arraycopy(rows.data, 0, data, row * loaded.bytesPerLine, rows.height * loaded.bytesPerLine);
+		row += rows.height;
+	}
+	assertEquals(loaded.height, row);
+	assertArrayEquals(loaded.data, data);
+}
+
+@Test
+public void test_loadLjava_io_InputStreamLorg_eclipse_swt_graphics_LoadOptions() {
+	ImageLoader loader = new ImageLoader();
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+		loader.load(stream, null);
+		fail("No exception thrown for load options == null");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for load options == null", SWT.ERROR_NULL_ARGUMENT, e);
+	} catch (IOException e) {
+		fail("Unable to load target.png: " + e);
+	}
+	try (InputStream stream = SwtTestUtil.class.getResourceAsStream("target.png")) {
+		loader.load(stream, new LoadOptions(0, null));
+		fail("No exception thrown for load subsampling == 0");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for load subsampling == 0", SWT.ERROR_INVALID_ARGUMENT, e);
+	} catch (IOException e) {
+		fail("Unable to load target.png: " + e);
+	}
+	for (String format : SwtTestUtil.imageFormats) {
+		String fileName = SwtTestUtil.imageFilenames[0] + "." + format;
+		try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileName)) {
+			loader.load(stream, new LoadOptions(1, new Rectangle(3000, 3000, 4, 4)));
+			fail("No exception thrown for load region outside of " + fileName);
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown for load region outside of " + fileName, SWT.ERROR_INVALID_ARGUMENT, e);
+		} catch (IOException e) {
+			fail("Unable to load " + fileName + ": " + e);
+		}
+	}
+
+	for (String format : SwtTestUtil.imageFormats) {
+		String fileName = SwtTestUtil.imageFilenames[0] + "." + format;
+		ImageData full;
+		try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileName)) {
+			full = loader.load(stream)[0];
+		} catch (IOException e) {
+			fail("Unable to load " + fileName + ": " + e);
+			return;
+		}
+		ImageData reduced;
+		try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileName)) {
+			reduced = loader.load(stream, new LoadOptions(2, null))[0];
+		} catch (IOException e) {
+			fail("Unable to load " + fileName + ": " + e);
+			return;
+		}
+		assertEquals(fileName, (full.width + 1) / 2, reduced.width);
+		assertEquals(fileName, (full.height + 1) / 2, reduced.height);
+		assertEquals(fileName, full.depth, reduced.depth);
+
+		Rectangle region = new Rectangle(full.width / 4, full.height / 4, full.width / 2, full.height / 2);
+		ImageData part;
+		try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileName)) {
+			part = loader.load(stream, new LoadOptions(1, region))[0];
+		} catch (IOException e) {
+			fail("Unable to load " + fileName + ": " + e);
+			return;
+		}
+		assertEquals(fileName, region.width, part.width);
+		assertEquals(fileName, region.height, part.height);
+		for (int y = 0; y < part.height; y++) {
+			for (int x = 0; x < part.width; x++) {
+				assertEquals(fileName, full.getPixel(region.x + x, region.y + y), part.getPixel(x, y));
+			}
+		}
+	}
+}
+
+@Test
+public void test_loadLjava_io_InputStreamLorg_eclipse_swt_graphics_LoadOptions_animation() {
+	/* The region of an animation is in the coordinates of the logical screen */
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, 255 - i, i / 2);
+	}
+	Rectangle[] bounds = {new Rectangle(0, 0, 40, 30), new Rectangle(20, 10, 10, 10), new Rectangle(0, 0, 5, 5)};
+	ImageData[] frames = new ImageData[bounds.length];
+	for (int i = 0; i < frames.length; i++) {
+		frames[i] = new ImageData(bounds[i].width, bounds[i].height, 8, new PaletteData(rgbs));
+		for (int y = 0; y < bounds[i].height; y++) {
+			for (int x = 0; x < bounds[i].width; x++) {
+				frames[i].setPixel(x, y, (x * 7 + y * 3 + i * 50) % 256);
+			}
+		}
+		frames[i].x = bounds[i].x;
+		frames[i].y = bounds[i].y;
+		frames[i].delayTime = 10 * (i + 1);
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = frames;
+	saver.logicalScreenWidth = 40;
+	saver.logicalScreenHeight = 30;
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	saver.save(out, SWT.IMAGE_GIF);
+	byte[] file = out.toByteArray();
+
+	ImageLoader loader = new ImageLoader();
+	Rectangle region = new Rectangle(15, 8, 40, 7);
+	ImageData[] loaded = loader.load(new ByteArrayInputStream(file), new LoadOptions(1, region));
+	assertEquals(25, loader.logicalScreenWidth);
+	assertEquals(7, loader.logicalScreenHeight);
+	/* The last frame does not intersect the region, its delay goes to the previous frame */
+	assertEquals(2, loaded.length);
+	assertEquals(new Rectangle(0, 0, 25, 7), new Rectangle(loaded[0].x, loaded[0].y, loaded[0].width, loaded[0].height));
+	assertEquals(new Rectangle(5, 2, 10, 5), new Rectangle(loaded[1].x, loaded[1].y, loaded[1].width, loaded[1].height));
+	assertEquals(10, loaded[0].delayTime);
+	assertEquals(20 + 30, loaded[1].delayTime);
+	for (int i = 0; i < loaded.length; i++) {
+		for (int y = 0; y < loaded[i].height; y++) {
+			for (int x = 0; x < loaded[i].width; x++) {
+				int screenX = region.x + loaded[i].x + x, screenY = region.y + loaded[i].y + y;
+				assertEquals(frames[i].getPixel(screenX - bounds[i].x, screenY - bounds[i].y), loaded[i].getPixel(x, y));
+			}
+		}
+	}
+
+	/* Subsampled frames keep the pixels on the grid of the region */
+	loaded = loader.load(new ByteArrayInputStream(file), new LoadOptions(2, new Rectangle(15, 9, 40, 7)));
+	assertEquals(13, loader.logicalScreenWidth);
+	assertEquals(4, loader.logicalScreenHeight);
+	assertEquals(2, loaded.length);
+	assertEquals(new Rectangle(3, 1, 5, 3), new Rectangle(loaded[1].x, loaded[1].y, loaded[1].width, loaded[1].height));
+	assertEquals(frames[1].getPixel(1, 1), loaded[1].getPixel(0, 0));
+	assertEquals(frames[0].getPixel(15, 9), loaded[0].getPixel(0, 0));
+
+	try {
+		loader.load(new ByteArrayInputStream(file), new LoadOptions(1, new Rectangle(40, 0, 10, 10)));
+		fail("No exception thrown for load region outside of the logical screen");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for load region outside of the logical screen", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+}
+
+@Test
+public void test_loadPagesLjava_lang_String() throws IOException {
+	ImageLoader loader = new ImageLoader();
+	try {
+		loader.loadPages(null);
+		fail("No exception thrown for loadPages filename == null");
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+		loader.loadPages(new File("doesnotexist.tif").getAbsolutePath());
+		fail("No exception thrown for loadPages of a missing file");
+	} catch (SWTException e) {
+		assertEquals(SWT.ERROR_IO, e.code);
+	}
+
+	/* TIFF pages are decoded from the mapped file */
+	File file = File.createTempFile("swt", ".tif");
+	try {
+		ImageData image = new ImageData(10, 7, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF), 1, new byte[10 * 7 * 3]);
+		for (int y = 0; y < 7; y++) {
+			for (int x = 0; x < 10; x++) {
+				image.setPixel(x, y, x * 0x190000 + y * 0x2400 + 0x40);
+			}
+		}
+		ImageLoader saver = new ImageLoader();
+		saver.data = new ImageData[] {image};
+		saver.save(file.getPath(), SWT.IMAGE_TIFF);
+		ImageData[] loaded = loader.load(file.getPath());
+		List<ImageData> pages = loader.loadPages(file.getPath());
+		assertEquals(loaded.length, pages.size());
+		for (int i = 0; i < pages.size(); i++) {
+			ImageData page = pages.get(i);
+			assertEquals(loaded[i].width, page.width);
+			assertEquals(loaded[i].height, page.height);
+			assertEquals(loaded[i].depth, page.depth);
+			assertArrayEquals(loaded[i].data, page.data);
+		}
+	} finally {
+		file.delete();
+	}
+
+	/* Other formats are loaded at once */
+	String filename = new File(SwtTestUtil.class.getResource("target.png").getFile().replaceAll("%20", " ")).getPath();
+	List<ImageData> pages = loader.loadPages(filename);
+	assertEquals(1, pages.size());
+	assertArrayEquals(loader.load(filename)[0].data, pages.get(0).data);
+}
+
 @Test
 public void test_loadLjava_lang_String() {
 	ImageLoader loader = new ImageLoader();
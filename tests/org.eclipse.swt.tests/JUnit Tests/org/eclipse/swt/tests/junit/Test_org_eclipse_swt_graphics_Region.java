@@ -14,12 +14,19 @@
  *******************************************************************************/
 package org.eclipse.swt.tests.junit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.graphics.Region;
+import org.eclipse.swt.internal.DPIUtil;
 import org.eclipse.swt.widgets.Display;
 import org.junit.Before;
 import org.junit.Test;
@@ -939,6 +946,66 @@ public void test_add_intArray() {
 	reg6.dispose();
 }
 
+@Test
+public void test_add$I_matchesFillPolygon() {
+	assumeTrue("Polygon regions cover the pixels filled without antialiasing on GTK", SwtTestUtil.isGTK);
+	assumeTrue("The test compares pixels at 100% zoom", DPIUtil.getDeviceZoom() == 100);
+	/*
+	* No pixel center lies on an edge of these polygons, where rasterizers
+	* may break ties differently.
+	*/
+	int[][] polygons = {
+		{10,10, 90,21, 60,80, 15,50},
+		{50,5, 77,91, 6,37, 94,37, 23,91},
+		{5,60, 95,63, 5,63},
+		{10,10, 40,10, 40,30, 70,30, 70,60, 10,60},
+	};
+	for (int[] polygon : polygons) {
+		Region region = new Region(display);
+		Image image = new Image(display, 100, 100);
+		try {
+			region.add(polygon);
+			GC gc = new GC(image);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_BLACK));
+			gc.fillRectangle(0, 0, 100, 100);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+			gc.setAntialias(SWT.OFF);
+			gc.setFillRule(SWT.FILL_EVEN_ODD);
+			gc.fillPolygon(polygon);
+			gc.dispose();
+			ImageData data = image.getImageData();
+			for (int y = 0; y < 100; y++) {
+				for (int x = 0; x < 100; x++) {
+					boolean filled = data.palette.getRGB(data.getPixel(x, y)).red > 127;
+					assertEquals("pixel " + x + "," + y, filled, region.contains(x, y));
+				}
+			}
+		} finally {
+			image.dispose();
+			region.dispose();
+		}
+	}
+
+	/* The hole of a self-intersecting polygon is outside */
+	Region region = new Region(display);
+	region.add(polygons[1]);
+	if (region.contains(50, 50)) {
+		fail("the center of the star should be outside the region");
+	}
+	region.dispose();
+
+	/* Polygons with horizontal and vertical edges cover exactly their area */
+	region = new Region(display);
+	region.add(polygons[3]);
+	Rectangle bounds = region.getBounds();
+	boolean notch = region.contains(50, 20);
+	region.dispose();
+	assertEquals(new Rectangle(10, 10, 60, 50), bounds);
+	if (notch) {
+		fail("the notch of the polygon should be outside the region");
+	}
+}
+
 /* custom */
 	Display display;
 }
@@ -174,6 +174,85 @@ public void test_asyncExecLjava_lang_Runnable_dispose() {
 	}
 }
 
+@Test
+public void test_asyncExecLjava_lang_Runnable_multipleThreads() throws InterruptedException {
+	final Display display = new Display();
+	try {
+		final int threadCount = 4;
+		final int runnableCount = 1000;
+		final int[] lastRun = new int[threadCount];
+		final int[] ranCount = new int[1];
+		final boolean[] outOfOrder = new boolean[1];
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int thread = i;
+			lastRun[thread] = -1;
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < runnableCount; j++) {
+					final int index = j;
+					display.asyncExec(() -> {
+						// runnables posted by the same thread must run in order
+						if (lastRun[thread] != index - 1) outOfOrder[0] = true;
+						lastRun[thread] = index;
+						ranCount[0]++;
+					});
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) thread.join();
+		while (ranCount[0] < threadCount * runnableCount) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertFalse(outOfOrder[0]);
+		assertEquals(threadCount * runnableCount, ranCount[0]);
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_asyncExecCoalescedLjava_lang_ObjectLjava_lang_Runnable() {
+	final Display display = new Display();
+	try {
+		try {
+			display.asyncExecCoalesced(null, () -> {});
+			fail("No exception thrown for asyncExecCoalesced with null key");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown for asyncExecCoalesced with null key", SWT.ERROR_NULL_ARGUMENT, e);
+		}
+		try {
+			display.asyncExecCoalesced(this, null);
+			fail("No exception thrown for asyncExecCoalesced with null runnable");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown for asyncExecCoalesced with null runnable", SWT.ERROR_NULL_ARGUMENT, e);
+		}
+
+		final int[] ranCount = new int[1];
+		final int[] lastValue = new int[] {-1};
+		final boolean[] otherKeyRan = new boolean[1];
+		for (int i = 0; i < 100; i++) {
+			final int value = i;
+			display.asyncExecCoalesced("progress", () -> {
+				ranCount[0]++;
+				lastValue[0] = value;
+			});
+		}
+		display.asyncExecCoalesced("other", () -> otherKeyRan[0] = true);
+		while (display.readAndDispatch()) {}
+		assertEquals(1, ranCount[0]);
+		assertEquals(99, lastValue[0]);
+		assertTrue(otherKeyRan[0]);
+
+		// once run, a new runnable with the same key is queued again
+		display.asyncExecCoalesced("progress", () -> ranCount[0]++);
+		while (display.readAndDispatch()) {}
+		assertEquals(2, ranCount[0]);
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_beep() {
 	Display display = new Display();
@@ -1305,11 +1384,62 @@ public void test_setSynchronizerLorg_eclipse_swt_widgets_Synchronizer() {
 		assertTrue(mySynchronizer.invoked);
 		assertTrue(asyncExec0Ran[0]);
 		assertTrue(asyncExec1Ran[0]);
+
+		/* Coalesced runnables are queued through asyncExec too */
+		mySynchronizer.invoked = false;
+		final boolean[] coalescedRan = new boolean[] {false};
+		display.asyncExecCoalesced("key", () -> coalescedRan[0] = true);
+		assertTrue(mySynchronizer.invoked);
+		while (display.readAndDispatch()) {}
+		assertTrue(coalescedRan[0]);
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_getSynchronizer_timeBudget() {
+	final Display display = new Display();
+	try {
+		Synchronizer synchronizer = display.getSynchronizer();
+		try {
+			synchronizer.setTimeBudget(-1);
+			fail("No exception thrown for negative time budget");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown for negative time budget", SWT.ERROR_INVALID_ARGUMENT, e);
+		}
+		while (display.readAndDispatch()) {}
+
+		final int[] ranCount = new int[1];
+		for (int i = 0; i < 10; i++) {
+			display.asyncExec(() -> ranCount[0]++);
+		}
+		assertEquals(10, synchronizer.getMessageCount());
+
+		/* Without a budget, a call that runs messages runs only one */
+		synchronizer.setTimeBudget(0);
+		dispatchUntilMessageRuns(display, ranCount);
+		assertEquals(1, ranCount[0]);
+		assertEquals(9, synchronizer.getMessageCount());
+
+		/* With a budget, the same call runs all of the remaining messages */
+		synchronizer.setTimeBudget(1000);
+		assertEquals(1000, synchronizer.getTimeBudget());
+		dispatchUntilMessageRuns(display, ranCount);
+		assertEquals(10, ranCount[0]);
+		assertEquals(0, synchronizer.getMessageCount());
+		assertTrue(synchronizer.getMessageLatency() >= 0);
 	} finally {
 		display.dispose();
 	}
 }
 
+/* Operating system events are dispatched before messages, so dispatch until a message has run */
+void dispatchUntilMessageRuns(Display display, int[] ranCount) {
+	int count = ranCount[0];
+	while (ranCount[0] == count && display.readAndDispatch()) {}
+}
+
 @Test
 public void test_sleep() {
 	final Display display = new Display();
@@ -1422,6 +1552,65 @@ public void test_timerExecILjava_lang_Runnable() {
 	}
 }
 
+@Test
+public void test_timerExecILjava_lang_Runnable_order() {
+	final Display display = new Display();
+	try {
+		final java.util.List<Integer> order = new java.util.ArrayList<>();
+		int[] delays = {300, 100, 200, 100, 0, 200};
+		for (int i = 0; i < delays.length; i++) {
+			final int index = i;
+			display.timerExec(delays[i], () -> order.add(index));
+		}
+		final boolean[] done = new boolean[1];
+		display.timerExec(400, () -> done[0] = true);
+		while (!done[0]) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		if (SwtTestUtil.isGTK) {
+			// Timers with the same delay run in the order they were scheduled
+			assertEquals(java.util.Arrays.asList(4, 1, 3, 2, 5, 0), order);
+		} else {
+			assertEquals(6, order.size());
+			assertEquals(4, order.get(0).intValue());
+			assertEquals(0, order.get(5).intValue());
+		}
+	} finally {
+		display.dispose();
+	}
+}
+
+@Test
+public void test_timerExecILjava_lang_Runnable_cancel() {
+	final Display display = new Display();
+	try {
+		final int[] counts = new int[3];
+		Runnable first = () -> counts[0]++;
+		Runnable second = () -> counts[1]++;
+		Runnable third = () -> counts[2]++;
+		display.timerExec(100, first);
+		display.timerExec(100, second);
+		display.timerExec(100, third);
+		// Rescheduling replaces the earlier schedule, a negative delay cancels
+		display.timerExec(200, first);
+		display.timerExec(-1, second);
+		display.timerExec(-1, second);
+		// A timer can cancel another timer that is due at the same time
+		display.timerExec(150, () -> display.timerExec(-1, third));
+		display.timerExec(150, third);
+		final boolean[] done = new boolean[1];
+		display.timerExec(300, () -> done[0] = true);
+		while (!done[0]) {
+			if (!display.readAndDispatch()) display.sleep();
+		}
+		assertEquals(1, counts[0]);
+		assertEquals(0, counts[1]);
+		if (SwtTestUtil.isGTK) assertEquals(0, counts[2]);
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_update() {
 	Display display = new Display();
@@ -21,6 +21,9 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.BooleanSupplier;
 
 import org.eclipse.swt.SWT;
@@ -124,6 +127,87 @@ public void test_notifyListenersILorg_eclipse_swt_widgets_Event() {
 	if (gc != null) gc.dispose();
 }
 @Test
+public void test_notifyListeners_order() {
+	List<String> log = new ArrayList<>();
+	widget.addListener(SWT.Selection, e -> log.add("a"));
+	widget.addListener(SWT.DefaultSelection, e -> log.add("default"));
+	widget.addListener(SWT.Selection, e -> log.add("b"));
+	widget.notifyListeners(SWT.Selection, new Event());
+	assertEquals(Arrays.asList("a", "b"), log);
+	assertEquals(2, widget.getListeners(SWT.Selection).length);
+	assertTrue(widget.isListening(SWT.DefaultSelection));
+}
+@Test
+public void test_notifyListeners_addDuringDispatch() {
+	List<String> log = new ArrayList<>();
+	widget.addListener(SWT.Selection, e -> {
+		log.add("a");
+		if (log.size() == 1) widget.addListener(SWT.Selection, e2 -> log.add("added"));
+	});
+	widget.addListener(SWT.Selection, e -> log.add("b"));
+	widget.notifyListeners(SWT.Selection, new Event());
+	assertEquals(Arrays.asList("a", "b", "added"), log);
+	assertEquals(3, widget.getListeners(SWT.Selection).length);
+}
+@Test
+public void test_notifyListeners_removeDuringDispatch() {
+	List<String> log = new ArrayList<>();
+	Listener[] listeners = new Listener[3];
+	listeners[0] = e -> {
+		log.add("a");
+		widget.removeListener(SWT.Selection, listeners[1]);
+		widget.removeListener(SWT.Selection, listeners[0]);
+	};
+	listeners[1] = e -> log.add("b");
+	listeners[2] = e -> log.add("c");
+	for (Listener listener : listeners) widget.addListener(SWT.Selection, listener);
+	widget.notifyListeners(SWT.Selection, new Event());
+	assertEquals(Arrays.asList("a", "c"), log);
+	assertEquals(1, widget.getListeners(SWT.Selection).length);
+	log.clear();
+	widget.notifyListeners(SWT.Selection, new Event());
+	assertEquals(Arrays.asList("c"), log);
+}
+@Test
+public void test_notifyListeners_nested() {
+	List<String> log = new ArrayList<>();
+	Listener modify = e -> log.add("modify");
+	widget.addListener(SWT.Selection, e -> {
+		log.add("selection");
+		widget.notifyListeners(SWT.Modify, new Event());
+		/* Removed by the nested dispatch */
+		assertEquals(1, widget.getListeners(SWT.Modify).length);
+	});
+	widget.addListener(SWT.Modify, modify);
+	widget.addListener(SWT.Modify, e -> {
+		log.add("modify2");
+		widget.removeListener(SWT.Modify, modify);
+	});
+	widget.notifyListeners(SWT.Selection, new Event());
+	assertEquals(Arrays.asList("selection", "modify", "modify2"), log);
+	log.clear();
+	widget.notifyListeners(SWT.Modify, new Event());
+	assertEquals(Arrays.asList("modify2"), log);
+}
+@Test
+public void test_notifyListeners_typeChanged() {
+	List<String> log = new ArrayList<>();
+	widget.addListener(SWT.Modify, e -> log.add("modify1"));
+	widget.addListener(SWT.Selection, e -> {
+		log.add("selection1");
+		e.type = SWT.Modify;
+	});
+	widget.addListener(SWT.Selection, e -> log.add("selection2"));
+	widget.addListener(SWT.Modify, e -> {
+		log.add("modify2");
+		e.type = SWT.None;
+	});
+	widget.addListener(SWT.Modify, e -> log.add("modify3"));
+	/* The event goes on to the listeners of the new type that were added later */
+	widget.notifyListeners(SWT.Selection, new Event());
+	assertEquals(Arrays.asList("selection1", "modify2"), log);
+}
+@Test
 public void test_removeListenerILorg_eclipse_swt_widgets_Listener() {
 	// this method is further tested by all of the removeTypedListener tests
 	try {
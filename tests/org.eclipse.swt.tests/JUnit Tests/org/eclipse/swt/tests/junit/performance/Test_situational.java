@@ -13,21 +13,33 @@
  *******************************************************************************/
 package org.eclipse.swt.tests.junit.performance;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.tests.junit.SwtTestUtil;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.List;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.ProgressBar;
 import org.eclipse.swt.widgets.Scale;
 import org.eclipse.swt.widgets.Shell;
@@ -405,6 +417,271 @@ public void test_fastStringDrawing() {
 	disposeMeter(meter);
 }
 
+public void test_asyncExec() {
+	int maxThreads = Runtime.getRuntime().availableProcessors();
+	for (int threadCount = 1; threadCount <= maxThreads; threadCount *= 2) {
+		PerformanceMeter meter = createMeterWithoutSummary("asyncExec from " + threadCount + " threads");
+		final int runnableCount = 100000 / threadCount;
+		for (int samples = 0; samples < 10; samples++) {
+			final int[] ranCount = new int[1];
+			final Runnable runnable = () -> ranCount[0]++;
+			Thread[] threads = new Thread[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				threads[i] = new Thread(() -> {
+					for (int j = 0; j < runnableCount; j++) {
+						display.asyncExec(runnable);
+					}
+				});
+			}
+			meter.start();
+			for (Thread thread : threads) thread.start();
+			while (ranCount[0] < threadCount * runnableCount) {
+				if (!display.readAndDispatch()) display.sleep();
+			}
+			meter.stop();
+			for (Thread thread : threads) {
+				try { thread.join(); } catch (InterruptedException e) {}
+			}
+		}
+		disposeMeter(meter);
+	}
+}
+
+public void test_findWidget() {
+	/* Handles are long values on GTK and Windows only */
+	if (!isGTK && !isWindows) return;
+	for (int count = 10000; count <= 100000; count *= 10) {
+		PerformanceMeter meter = createMeterWithoutSummary("findWidget with " + count + " widgets");
+		Shell shell = new Shell(display);
+		long[] handles = new long[count];
+		try {
+			java.lang.reflect.Field field = Composite.class.getField("handle");
+			for (int i = 0; i < count; i++) {
+				handles[i] = field.getLong(new Composite(shell, SWT.NONE));
+			}
+		} catch (ReflectiveOperationException e) {
+			fail("Unable to read the widget handles: " + e);
+		}
+		int found = 0;
+		for (int samples = 0; samples < 10; samples++) {
+			meter.start();
+			/* Visit the handles in a scattered order, as the events of a real application would */
+			for (int i = 0, j = 0; i < 1000000; i++, j = (j + 7919) % count) {
+				if (display.findWidget(handles[j]) != null) found++;
+			}
+			meter.stop();
+		}
+		assertEquals(10 * 1000000, found);
+		shell.dispose();
+		disposeMeter(meter);
+	}
+}
+
+public void test_notifyListeners() {
+	int[] types = {SWT.MouseMove, SWT.MouseDown, SWT.MouseUp, SWT.KeyDown, SWT.KeyUp,
+			SWT.Paint, SWT.FocusIn, SWT.FocusOut, SWT.Resize, SWT.Modify};
+	for (int listenerCount = 1; listenerCount <= 100; listenerCount *= 10) {
+		PerformanceMeter meter = createMeterWithoutSummary("notifyListeners with " + listenerCount + " listeners");
+		Shell shell = new Shell(display);
+		final int[] notified = new int[1];
+		Listener listener = event -> notified[0]++;
+		for (int i = 0; i < listenerCount; i++) {
+			shell.addListener(types[i % types.length], listener);
+		}
+		Event event = new Event();
+		for (int samples = 0; samples < 10; samples++) {
+			meter.start();
+			for (int i = 0; i < 100000; i++) {
+				for (int type : types) {
+					shell.notifyListeners(type, event);
+				}
+			}
+			meter.stop();
+		}
+		shell.dispose();
+		disposeMeter(meter);
+	}
+}
+
+public void test_loadJPEG() {
+	String[] fileNames = {"folder.jpg", "folderOpen.jpg", "target.jpg"};
+	byte[][] files = new byte[fileNames.length][];
+	for (int i = 0; i < fileNames.length; i++) {
+		try (InputStream stream = SwtTestUtil.class.getResourceAsStream(fileNames[i])) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int count;
+			while ((count = stream.read(buffer)) != -1) out.write(buffer, 0, count);
+			files[i] = out.toByteArray();
+		} catch (IOException e) {
+			fail("Unable to read " + fileNames[i] + ": " + e);
+		}
+	}
+	PerformanceMeter meter = createMeterWithoutSummary("Load small JPEG images");
+	for (int samples = 0; samples < 10; samples++) {
+		meter.start();
+		for (int i = 0; i < 1000; i++) {
+			for (byte[] file : files) {
+				new ImageLoader().load(new ByteArrayInputStream(file));
+			}
+		}
+		meter.stop();
+	}
+	disposeMeter(meter);
+
+	/* The test images are icons, encode a photo sized image as well */
+	int width = 1600, height = 1200;
+	ImageData data = new ImageData(width, height, 24, new PaletteData(0xFF, 0xFF00, 0xFF0000));
+	int[] pixels = new int[width];
+	for (int y = 0; y < height; y++) {
+		for (int x = 0; x < width; x++) {
+			int value = (int) (128 + 100 * Math.sin(x / 37.0) * Math.cos(y / 23.0));
+			pixels[x] = value | (x * 255 / width) << 8 | (y * 255 / height) << 16;
+		}
+		data.setPixels(0, y, width, pixels, 0);
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = new ImageData[] {data};
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	saver.save(out, SWT.IMAGE_JPEG);
+	byte[] file = out.toByteArray();
+	meter = createMeterWithoutSummary("Load a " + width + "x" + height + " JPEG image");
+	for (int samples = 0; samples < 10; samples++) {
+		meter.start();
+		for (int i = 0; i < 5; i++) {
+			new ImageLoader().load(new ByteArrayInputStream(file));
+		}
+		meter.stop();
+	}
+	disposeMeter(meter);
+}
+
+public void test_loadGIF() {
+	/* An animation with many frames, as shown by progress and busy indicators */
+	int width = 400, height = 300, frames = 30;
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, 255 - i, i / 2);
+	}
+	PaletteData palette = new PaletteData(rgbs);
+	ImageData[] images = new ImageData[frames];
+	byte[] pixels = new byte[width];
+	for (int frame = 0; frame < frames; frame++) {
+		ImageData data = new ImageData(width, height, 8, palette);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				pixels[x] = (byte) (((x + frame * 3) / 4 ^ y / 4) + ((x * 31 + y * 17) % 29 == 0 ? 7 : 0));
+			}
+			data.setPixels(0, y, width, pixels, 0);
+		}
+		data.delayTime = 4;
+		images[frame] = data;
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = images;
+	saver.logicalScreenWidth = width;
+	saver.logicalScreenHeight = height;
+	saver.repeatCount = 0;
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	saver.save(out, SWT.IMAGE_GIF);
+	byte[] file = out.toByteArray();
+	PerformanceMeter meter = createMeterWithoutSummary("Load a " + frames + " frame " + width + "x" + height + " GIF animation");
+	for (int samples = 0; samples < 10; samples++) {
+		meter.start();
+		for (int i = 0; i < 5; i++) {
+			new ImageLoader().load(new ByteArrayInputStream(file));
+		}
+		meter.stop();
+	}
+	disposeMeter(meter);
+
+	meter = createMeterWithoutSummary("Load the first frame of a " + frames + " frame GIF animation");
+	for (int samples = 0; samples < 10; samples++) {
+		meter.start();
+		for (int i = 0; i < 100; i++) {
+			new ImageLoader().loadFrames(new ByteArrayInputStream(file)).next();
+		}
+		meter.stop();
+	}
+	disposeMeter(meter);
+}
+
+public void test_savePNG() {
+	/* A screenshot sized image with alpha, as saved by screenshot export */
+	int width = 3840, height = 2160;
+	ImageData data = new ImageData(width, height, 24, new PaletteData(0xFF, 0xFF00, 0xFF0000));
+	int[] pixels = new int[width];
+	byte[] alphas = new byte[width];
+	for (int y = 0; y < height; y++) {
+		for (int x = 0; x < width; x++) {
+			int value = (int) (128 + 100 * Math.sin(x / 37.0) * Math.cos(y / 23.0));
+			pixels[x] = value | (x * 255 / width) << 8 | (y * 255 / height) << 16;
+			alphas[x] = (byte) (x < width / 2 ? 255 : value);
+		}
+		data.setPixels(0, y, width, pixels, 0);
+		data.setAlphas(0, y, width, alphas, 0);
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = new ImageData[] {data};
+	PerformanceMeter meter = createMeterWithoutSummary("Save a " + width + "x" + height + " PNG image");
+	for (int samples = 0; samples < 10; samples++) {
+		meter.start();
+		saver.save(new ByteArrayOutputStream(), SWT.IMAGE_PNG);
+		meter.stop();
+	}
+	disposeMeter(meter);
+}
+
+public void test_createImageFromData() {
+	int width = 1024, height = 768;
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, (i * 3) & 0xFF, 255 - i);
+	}
+	/* depth, red, green and blue masks of the formats, no masks for the palette formats */
+	int[][] formats = {
+		{1}, {4}, {8},
+		{16, 0xF800, 0x7E0, 0x1F},
+		{24, 0xFF0000, 0xFF00, 0xFF},
+		{24, 0xFF, 0xFF00, 0xFF0000},
+		{32, 0xFF00, 0xFF0000, 0xFF000000},
+		{32, 0xFF0000, 0xFF00, 0xFF},
+	};
+	for (int[] format : formats) {
+		int depth = format[0];
+		PaletteData palette;
+		if (format.length == 1) {
+			RGB[] colors = new RGB[1 << depth];
+			System.arraycopy(rgbs, 0, colors, 0, colors.length);
+			palette = new PaletteData(colors);
+		} else {
+			palette = new PaletteData(format[1], format[2], format[3]);
+		}
+		ImageData data = new ImageData(width, height, depth, palette);
+		for (int i = 0; i < data.data.length; i++) {
+			data.data[i] = (byte) (i * 31 + (i >> 12));
+		}
+		for (boolean alpha : new boolean[] {false, true}) {
+			if (alpha) {
+				data.alphaData = new byte[width * height];
+				for (int i = 0; i < data.alphaData.length; i++) {
+					data.alphaData[i] = (byte) i;
+				}
+			}
+			String name = "Create an image from " + depth + " bit " + (format.length == 1 ? "palette" : "direct " + Integer.toHexString(format[1])) + " data" + (alpha ? " with alpha" : "");
+			PerformanceMeter meter = createMeterWithoutSummary(name);
+			for (int samples = 0; samples < 10; samples++) {
+				meter.start();
+				for (int i = 0; i < 5; i++) {
+					new Image(display, data).dispose();
+				}
+				meter.stop();
+			}
+			disposeMeter(meter);
+		}
+	}
+}
+
 public static Test suite() {
 	TestSuite suite = new TestSuite();
 	java.util.List<String> methodNames = methodNames();
@@ -422,6 +699,13 @@ public static java.util.List<String> methodNames() {
 	methodNames.add("test_stringDrawing");
 	methodNames.add("test_fastStringDrawing");
 	methodNames.add("test_layout");
+	methodNames.add("test_findWidget");
+	methodNames.add("test_asyncExec");
+	methodNames.add("test_notifyListeners");
+	methodNames.add("test_loadJPEG");
+	methodNames.add("test_loadGIF");
+	methodNames.add("test_savePNG");
+	methodNames.add("test_createImageFromData");
 	return methodNames;
 }
 @Override
@@ -433,6 +717,13 @@ protected void runTest() {
 	else if (getName().equals("test_windowDrawing")) test_windowDrawing();
 	else if (getName().equals("test_stringDrawing")) test_stringDrawing();
 	else if (getName().equals("test_fastStringDrawing")) test_fastStringDrawing();
+	else if (getName().equals("test_findWidget")) test_findWidget();
+	else if (getName().equals("test_asyncExec")) test_asyncExec();
+	else if (getName().equals("test_notifyListeners")) test_notifyListeners();
+	else if (getName().equals("test_loadJPEG")) test_loadJPEG();
+	else if (getName().equals("test_loadGIF")) test_loadGIF();
+	else if (getName().equals("test_savePNG")) test_savePNG();
+	else if (getName().equals("test_createImageFromData")) test_createImageFromData();
 }
 
 /* custom */